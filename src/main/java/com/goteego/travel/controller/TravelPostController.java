@@ -2,6 +2,7 @@ package com.goteego.travel.controller;
 
 import com.goteego.travel.domain.TravelPost;
 import com.goteego.travel.dto.TravelPostDto;
+import com.goteego.travel.service.TravelGroupCohesionService;
 import com.goteego.travel.service.TravelPostService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,7 @@ import java.util.stream.Collectors;
 public class TravelPostController {
 
     private final TravelPostService travelPostService;
+    private final TravelGroupCohesionService travelGroupCohesionService;
 
     /**
      * 여행 게시글 생성
@@ -127,6 +129,30 @@ public class TravelPostController {
         }
     }
 
+    /**
+     * 참가자 그룹 응집도 조회 (작성자 + 승인된 참가자)
+     * GET /api/travel-posts/{id}/cohesion?candidateUserId=
+     * candidateUserId를 주면 해당 대기 신청자를 추가했을 때의 변화 포함
+     */
+    @GetMapping("/{id}/cohesion")
+    public ResponseEntity<TravelPostDto.CohesionResponse> getGroupCohesion(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long candidateUserId) {
+        log.info("참가자 그룹 응집도 조회 요청: id={}, candidateUserId={}", id, candidateUserId);
+
+        try {
+            return travelGroupCohesionService.getCohesion(id, candidateUserId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("참가자 그룹 응집도 조회 실패 (잘못된 요청): id={}, error={}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("참가자 그룹 응집도 조회 실패: id={}, error={}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * 여행 게시글 수정
      * PUT /api/travel-posts/{id}
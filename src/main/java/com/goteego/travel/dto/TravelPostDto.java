@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 여행 게시글 DTO
@@ -141,4 +142,45 @@ public class TravelPostDto {
         private Long currentlyTravelingPosts; // 현재 여행 중인 게시글 수
         private Long upcomingTravelPosts; // 예정된 여행 게시글 수
     }
-} 
\ No newline at end of file
+
+    /**
+     * 참가자 그룹 응집도 응답 DTO (작성자 + 승인된 참가자, 코사인 유사도 기준)
+     * 구성원이 2명 미만이면 쌍 관련 값은 null
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CohesionResponse {
+        private Long travelPostId;
+        private Integer memberCount;
+        private Integer scoredMemberCount; // 임베딩이 있는 구성원 수
+        private List<Long> missingEmbeddingUserIds;
+        private Double meanPairwiseSimilarity;
+        private Double worstPairSimilarity;
+        private Long worstPairUserId1;
+        private Long worstPairUserId2;
+        private Double centroidSpread; // 단위 벡터와 중심 사이 평균 제곱 거리
+        private CandidateCohesionResponse candidate;
+    }
+
+    /**
+     * 대기 중인 신청자를 추가했을 때의 응집도 변화 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CandidateCohesionResponse {
+        private Long userId;
+        private Double meanSimilarityToGroup;
+        private Double minSimilarityToGroup;
+        private Double meanPairwiseSimilarity;
+        private Double meanPairwiseSimilarityDelta;
+        private Double worstPairSimilarity;
+        private Long worstPairUserId1;
+        private Long worstPairUserId2;
+        private Double centroidSpread;
+        private Double centroidSpreadDelta;
+    }
+}
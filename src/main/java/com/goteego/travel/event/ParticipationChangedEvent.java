@@ -0,0 +1,30 @@
+package com.goteego.travel.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 여행 게시글 참가자 변경 이벤트
+ * 참가 신청이 승인되어 참가자가 되었거나, 승인된 신청이 취소/삭제되어 참가자에서 빠졌을 때 발행
+ */
+@Getter
+@RequiredArgsConstructor
+public class ParticipationChangedEvent {
+
+    private final Long travelPostId;
+
+    private final Long userId;
+
+    /**
+     * true면 참가자로 추가, false면 참가자에서 제외
+     */
+    private final boolean joined;
+
+    public static ParticipationChangedEvent joined(Long travelPostId, Long userId) {
+        return new ParticipationChangedEvent(travelPostId, userId, true);
+    }
+
+    public static ParticipationChangedEvent left(Long travelPostId, Long userId) {
+        return new ParticipationChangedEvent(travelPostId, userId, false);
+    }
+}
@@ -58,6 +58,19 @@ public interface ParticipationApplicationRepository extends JpaRepository<Partic
     @Query("SELECT COUNT(pa) FROM ParticipationApplication pa WHERE pa.travelPost = :travelPost AND pa.status = 'PENDING'")
     long countPendingApplicationsByTravelPost(@Param("travelPost") TravelPost travelPost);
     
+    /**
+     * 특정 게시글의 승인된 참가자 ID 조회
+     */
+    @Query("SELECT pa.user.userId FROM ParticipationApplication pa WHERE pa.travelPost.travelPostId = :travelPostId AND pa.status = 'APPROVED'")
+    List<Long> findApprovedUserIdsByTravelPostId(@Param("travelPostId") Long travelPostId);
+
+    /**
+     * 특정 게시글에 대한 특정 사용자의 신청 상태 조회
+     */
+    @Query("SELECT pa.status FROM ParticipationApplication pa WHERE pa.travelPost.travelPostId = :travelPostId AND pa.user.userId = :userId")
+    Optional<ParticipationApplication.ParticipationStatus> findStatusByTravelPostIdAndUserId(
+            @Param("travelPostId") Long travelPostId, @Param("userId") Long userId);
+    
     /**
      * 특정 사용자의 승인된 참가 신청 조회
      */
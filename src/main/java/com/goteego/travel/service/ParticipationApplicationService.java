@@ -3,10 +3,12 @@ package com.goteego.travel.service;
 import com.goteego.travel.domain.ParticipationApplication;
 import com.goteego.travel.domain.TravelPost;
 import com.goteego.travel.dto.ParticipationApplicationDto;
+import com.goteego.travel.event.ParticipationChangedEvent;
 import com.goteego.travel.repository.ParticipationApplicationRepository;
 import com.goteego.user.domain.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class ParticipationApplicationService {
 
     private final ParticipationApplicationRepository participationApplicationRepository;
     private final TravelPostService travelPostService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 참가 신청 생성
@@ -94,6 +97,8 @@ public class ParticipationApplicationService {
 
         application.approve();
         ParticipationApplication savedApplication = participationApplicationRepository.save(application);
+        eventPublisher.publishEvent(ParticipationChangedEvent.joined(
+                savedApplication.getTravelPostId(), savedApplication.getUserId()));
         
         // TODO: 승인된 사용자를 채팅방에 초대
         // inviteUserToChatRoom(application);
@@ -257,11 +262,18 @@ public class ParticipationApplicationService {
     public void deleteApplication(Long applicationId) {
         log.info("참가 신청 삭제: applicationId={}", applicationId);
         
-        if (!participationApplicationRepository.existsById(applicationId)) {
+        Optional<ParticipationApplication> applicationOpt =
+                participationApplicationRepository.findByParticipationApplicationId(applicationId);
+        if (applicationOpt.isEmpty()) {
             throw new IllegalArgumentException("참가 신청을 찾을 수 없습니다: applicationId=" + applicationId);
         }
-        
-        participationApplicationRepository.deleteById(applicationId);
+
+        ParticipationApplication application = applicationOpt.get();
+        participationApplicationRepository.delete(application);
+        if (application.isApproved()) {
+            eventPublisher.publishEvent(ParticipationChangedEvent.left(
+                    application.getTravelPostId(), application.getUserId()));
+        }
     }
 
     /**
@@ -334,8 +346,14 @@ public class ParticipationApplicationService {
         }
 
         ParticipationApplication application = applicationOpt.get();
+        boolean wasApproved = application.isApproved();
         application.setPending(); // 대기 상태로 변경
-        return participationApplicationRepository.save(application);
+        ParticipationApplication savedApplication = participationApplicationRepository.save(application);
+        if (wasApproved) {
+            eventPublisher.publishEvent(ParticipationChangedEvent.left(
+                    savedApplication.getTravelPostId(), savedApplication.getUserId()));
+        }
+        return savedApplication;
     }
 
     /**
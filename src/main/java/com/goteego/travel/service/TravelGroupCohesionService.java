@@ -0,0 +1,244 @@
+package com.goteego.travel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.goteego.travel.domain.ParticipationApplication;
+import com.goteego.travel.domain.TravelPost;
+import com.goteego.travel.dto.TravelPostDto;
+import com.goteego.travel.event.ParticipationChangedEvent;
+import com.goteego.travel.repository.ParticipationApplicationRepository;
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.service.UserEmbeddingService;
+import com.goteego.user.similarity.GroupCohesion;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 여행 게시글 참가자 그룹 응집도 서비스
+ * 게시글별 작성자 + 승인된 참가자의 단위 임베딩 합을 캐시에 유지하고, 참가자/임베딩 변경 이벤트로 증분 갱신
+ * 대기 중인 신청자를 추가했을 때의 변화는 캐시된 합으로 계산하므로 그룹 전체를 다시 읽지 않음
+ * 사용자별로 속한 캐시 그룹을 역인덱스로 유지해 임베딩 변경은 해당 사용자의 그룹에만 반영
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TravelGroupCohesionService {
+
+    private final TravelPostService travelPostService;
+    private final ParticipationApplicationRepository participationApplicationRepository;
+    private final UserEmbeddingService userEmbeddingService;
+
+    @Value("${goteego.travel.cohesion.cache-size:10000}")
+    private long cacheSize;
+
+    private Cache<Long, Group> groups;
+
+    /**
+     * 사용자 ID → 그 사용자가 구성원인 캐시된 게시글 ID (그룹 적재/참가자 변경/캐시 제거 시 갱신)
+     */
+    private final Map<Long, Set<Long>> travelPostIdsByUserId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        groups = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                // 제거와 같은 시점에 실행되도록 removalListener 대신 evictionListener 사용
+                .evictionListener((Long travelPostId, Group group, RemovalCause cause) -> {
+                    if (travelPostId != null && group != null) {
+                        group.memberIds.forEach(memberId -> unindex(memberId, travelPostId));
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 게시글 참가자 그룹 응집도 조회 (candidateUserId가 있으면 해당 대기 신청자를 추가했을 때의 변화 포함)
+     */
+    public Optional<TravelPostDto.CohesionResponse> getCohesion(Long travelPostId, Long candidateUserId) {
+        log.info("참가자 그룹 응집도 조회: travelPostId={}, candidateUserId={}", travelPostId, candidateUserId);
+
+        Optional<TravelPost> travelPostOpt = travelPostService.getTravelPost(travelPostId);
+        if (travelPostOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        Group group = groups.get(travelPostId, id -> loadGroup(travelPostOpt.get()));
+
+        GroupCohesion.CandidateEffect effect = null;
+        if (candidateUserId != null) {
+            ParticipationApplication.ParticipationStatus status = participationApplicationRepository
+                    .findStatusByTravelPostIdAndUserId(travelPostId, candidateUserId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "참가 신청을 찾을 수 없습니다: travelPostId=" + travelPostId + ", userId=" + candidateUserId));
+            if (status != ParticipationApplication.ParticipationStatus.PENDING) {
+                throw new IllegalArgumentException("대기 중인 참가 신청자가 아닙니다: userId=" + candidateUserId);
+            }
+            float[] embedding = userEmbeddingService.getEmbeddings(List.of(candidateUserId)).get(candidateUserId);
+            if (embedding == null) {
+                throw new IllegalArgumentException("사용자 임베딩이 존재하지 않습니다: userId=" + candidateUserId);
+            }
+            effect = group.cohesion.withCandidate(candidateUserId, embedding);
+            if (effect == null) {
+                throw new IllegalArgumentException("영벡터 임베딩은 응집도를 계산할 수 없습니다: userId=" + candidateUserId);
+            }
+        }
+
+        return Optional.of(toResponse(travelPostId, group, effect));
+    }
+
+    /**
+     * 커밋된 참가자 변경을 캐시된 그룹에 반영
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParticipationChanged(ParticipationChangedEvent event) {
+        Long userId = event.getUserId();
+        float[] embedding = event.isJoined()
+                ? userEmbeddingService.getEmbeddings(List.of(userId)).get(userId)
+                : null;
+        groups.asMap().computeIfPresent(event.getTravelPostId(), (travelPostId, group) -> {
+            if (event.isJoined()) {
+                group.memberIds.add(userId);
+                index(userId, travelPostId);
+                if (embedding != null) {
+                    group.cohesion.put(userId, embedding);
+                }
+            } else {
+                group.memberIds.remove(userId);
+                unindex(userId, travelPostId);
+                group.cohesion.remove(userId);
+            }
+            return group;
+        });
+    }
+
+    /**
+     * 커밋된 임베딩 변경을 해당 사용자가 속한 캐시된 그룹에만 반영 (역인덱스 조회, 캐시 전체를 훑지 않음)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        long userId = event.getUserId();
+        Set<Long> travelPostIds = travelPostIdsByUserId.get(userId);
+        if (travelPostIds == null) {
+            return;
+        }
+        for (Long travelPostId : travelPostIds) {
+            Group group = groups.getIfPresent(travelPostId);
+            if (group == null || !group.memberIds.contains(userId)) {
+                continue;
+            }
+            if (event.isDeleted()) {
+                group.cohesion.remove(userId);
+            } else {
+                group.cohesion.put(userId, event.getEmbedding());
+            }
+        }
+    }
+
+    private Group loadGroup(TravelPost travelPost) {
+        Set<Long> memberIds = new LinkedHashSet<>();
+        if (travelPost.getUser() != null) {
+            memberIds.add(travelPost.getUser().getUserId());
+        }
+        memberIds.addAll(participationApplicationRepository.findApprovedUserIdsByTravelPostId(travelPost.getTravelPostId()));
+
+        Group group = new Group();
+        Map<Long, float[]> embeddings = userEmbeddingService.getEmbeddings(memberIds);
+        for (Long memberId : memberIds) {
+            group.memberIds.add(memberId);
+            index(memberId, travelPost.getTravelPostId());
+            float[] embedding = embeddings.get(memberId);
+            if (embedding != null) {
+                group.cohesion.put(memberId, embedding);
+            }
+        }
+        log.debug("참가자 그룹 적재: travelPostId={}, members={}, scored={}",
+                travelPost.getTravelPostId(), memberIds.size(), group.cohesion.size());
+        return group;
+    }
+
+    private void index(Long userId, Long travelPostId) {
+        travelPostIdsByUserId.compute(userId, (id, travelPostIds) -> {
+            Set<Long> result = travelPostIds != null ? travelPostIds : ConcurrentHashMap.newKeySet();
+            result.add(travelPostId);
+            return result;
+        });
+    }
+
+    private void unindex(Long userId, Long travelPostId) {
+        travelPostIdsByUserId.computeIfPresent(userId, (id, travelPostIds) -> {
+            travelPostIds.remove(travelPostId);
+            return travelPostIds.isEmpty() ? null : travelPostIds;
+        });
+    }
+
+    private TravelPostDto.CohesionResponse toResponse(Long travelPostId, Group group, GroupCohesion.CandidateEffect effect) {
+        GroupCohesion.Summary summary = effect != null ? effect.getBefore() : group.cohesion.summary();
+        List<Long> missingUserIds = group.memberIds.stream()
+                .filter(memberId -> !group.cohesion.contains(memberId))
+                .sorted()
+                .collect(Collectors.toList());
+
+        TravelPostDto.CandidateCohesionResponse candidate = null;
+        if (effect != null) {
+            GroupCohesion.Summary after = effect.getAfter();
+            candidate = TravelPostDto.CandidateCohesionResponse.builder()
+                    .userId(effect.getUserId())
+                    .meanSimilarityToGroup(valueOrNull(effect.getMeanSimilarityToGroup()))
+                    .minSimilarityToGroup(valueOrNull(effect.getMinSimilarityToGroup()))
+                    .meanPairwiseSimilarity(valueOrNull(after.getMeanPairwiseSimilarity()))
+                    .meanPairwiseSimilarityDelta(valueOrNull(after.getMeanPairwiseSimilarity() - summary.getMeanPairwiseSimilarity()))
+                    .worstPairSimilarity(valueOrNull(after.getWorstPairSimilarity()))
+                    .worstPairUserId1(worstPairUserId(after, after.getWorstPairUserId1()))
+                    .worstPairUserId2(worstPairUserId(after, after.getWorstPairUserId2()))
+                    .centroidSpread(valueOrNull(after.getCentroidSpread()))
+                    .centroidSpreadDelta(valueOrNull(after.getCentroidSpread() - summary.getCentroidSpread()))
+                    .build();
+        }
+
+        return TravelPostDto.CohesionResponse.builder()
+                .travelPostId(travelPostId)
+                .memberCount(summary.getMemberCount() + missingUserIds.size())
+                .scoredMemberCount(summary.getMemberCount())
+                .missingEmbeddingUserIds(missingUserIds)
+                .meanPairwiseSimilarity(valueOrNull(summary.getMeanPairwiseSimilarity()))
+                .worstPairSimilarity(valueOrNull(summary.getWorstPairSimilarity()))
+                .worstPairUserId1(worstPairUserId(summary, summary.getWorstPairUserId1()))
+                .worstPairUserId2(worstPairUserId(summary, summary.getWorstPairUserId2()))
+                .centroidSpread(valueOrNull(summary.getCentroidSpread()))
+                .candidate(candidate)
+                .build();
+    }
+
+    private static Long worstPairUserId(GroupCohesion.Summary summary, long userId) {
+        return Double.isNaN(summary.getWorstPairSimilarity()) ? null : userId;
+    }
+
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * 캐시된 게시글 그룹 (임베딩이 없는 구성원도 memberIds에 유지해 임베딩이 생기면 반영)
+     */
+    private static final class Group {
+
+        private final Set<Long> memberIds = ConcurrentHashMap.newKeySet();
+
+        private final GroupCohesion cohesion = new GroupCohesion(UserEmbedding.DIMENSIONS);
+    }
+}
@@ -0,0 +1,29 @@
+package com.goteego.user.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 임베딩 백그라운드 작업 실행기
+ * 인덱스 생성, 전체 재생성, 이웃 목록 계산, 투영 학습처럼 오래 걸리는 관리 작업을 크기가 정해진 풀에서 실행
+ * 스프링이 종료 시 풀을 정리하며, 재생성 작업은 체크포인트부터 이어서 실행하므로 중단되어도 됨
+ */
+@Configuration
+public class EmbeddingJobExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor embeddingJobExecutor(
+            @Value("${goteego.embedding.jobs.pool-size:2}") int poolSize,
+            @Value("${goteego.embedding.jobs.queue-capacity:8}") int queueCapacity,
+            @Value("${goteego.embedding.jobs.shutdown-await-seconds:30}") int shutdownAwaitSeconds) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("embedding-job-");
+        executor.setAwaitTerminationSeconds(shutdownAwaitSeconds);
+        return executor;
+    }
+}
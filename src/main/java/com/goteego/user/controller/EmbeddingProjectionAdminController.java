@@ -0,0 +1,79 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.service.EmbeddingProjectionTrainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 사용자 임베딩 투영 모델 API Controller (관리자용)
+ * 선호도 행렬 주성분 학습, 0/1 플래그 임베딩으로 되돌리기 및 모델 상태 조회
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-embeddings/projection")
+@RequiredArgsConstructor
+public class EmbeddingProjectionAdminController {
+
+    private final EmbeddingProjectionTrainer embeddingProjectionTrainer;
+
+    /**
+     * 투영 모델 상태 조회
+     * GET /api/admin/user-embeddings/projection
+     */
+    @GetMapping
+    public ResponseEntity<UserEmbeddingDto.ProjectionStatusResponse> getProjectionStatus() {
+        log.info("임베딩 투영 모델 상태 조회 요청");
+
+        try {
+            return ResponseEntity.ok(embeddingProjectionTrainer.getStatus());
+        } catch (Exception e) {
+            log.error("임베딩 투영 모델 상태 조회 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 투영 모델 학습 후 전체 임베딩 재생성 (dimensions가 없으면 설정값)
+     * POST /api/admin/user-embeddings/projection/train?dimensions=12
+     */
+    @PostMapping("/train")
+    public ResponseEntity<Void> train(@RequestParam(required = false) Integer dimensions) {
+        log.info("임베딩 투영 모델 학습 요청: dimensions={}", dimensions);
+
+        try {
+            if (!embeddingProjectionTrainer.startAsync(dimensions)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.accepted().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("임베딩 투영 모델 학습 실패: error={}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("임베딩 투영 모델 학습 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 투영 모델 삭제 후 0/1 플래그 임베딩으로 재생성
+     * DELETE /api/admin/user-embeddings/projection
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        log.info("임베딩 투영 모델 삭제 요청");
+
+        try {
+            if (!embeddingProjectionTrainer.resetAsync()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            log.error("임베딩 투영 모델 삭제 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.service.EmbeddingRebuildJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 사용자 임베딩 재생성 API Controller (관리자용)
+ * 전체 임베딩 재생성 작업 시작 및 진행 상태 조회
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-embeddings/rebuild")
+@RequiredArgsConstructor
+public class EmbeddingRebuildAdminController {
+
+    private final EmbeddingRebuildJob embeddingRebuildJob;
+
+    /**
+     * 재생성 작업 상태 조회
+     * GET /api/admin/user-embeddings/rebuild
+     */
+    @GetMapping
+    public ResponseEntity<UserEmbeddingDto.RebuildStatusResponse> getRebuildStatus() {
+        log.info("임베딩 재생성 작업 상태 조회 요청");
+
+        try {
+            return ResponseEntity.ok(embeddingRebuildJob.getStatus());
+        } catch (Exception e) {
+            log.error("임베딩 재생성 작업 상태 조회 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 재생성 작업 시작 (restart=true면 체크포인트를 무시하고 처음부터)
+     * POST /api/admin/user-embeddings/rebuild?restart=false
+     */
+    @PostMapping
+    public ResponseEntity<Void> startRebuild(@RequestParam(defaultValue = "false") boolean restart) {
+        log.info("임베딩 재생성 작업 시작 요청: restart={}", restart);
+
+        try {
+            if (!embeddingRebuildJob.startAsync(restart)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            log.error("임베딩 재생성 작업 시작 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.PgVectorIndexDto;
+import com.goteego.user.service.PgVectorIndexManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * pgvector 인덱스 관리 API Controller (관리자용)
+ * 사용자 임베딩 인덱스 상태/생성 진행률 조회 및 재검증
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-embeddings/indexes")
+@RequiredArgsConstructor
+public class PgVectorIndexAdminController {
+
+    private final PgVectorIndexManager pgVectorIndexManager;
+
+    /**
+     * 인덱스 상태 및 생성 진행률 조회
+     * GET /api/admin/user-embeddings/indexes
+     */
+    @GetMapping
+    public ResponseEntity<PgVectorIndexDto.StatusResponse> getIndexStatus() {
+        log.info("pgvector 인덱스 상태 조회 요청");
+
+        try {
+            return ResponseEntity.ok(pgVectorIndexManager.getStatus());
+        } catch (Exception e) {
+            log.error("pgvector 인덱스 상태 조회 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 인덱스 생성/검증 작업 시작
+     * POST /api/admin/user-embeddings/indexes/ensure
+     */
+    @PostMapping("/ensure")
+    public ResponseEntity<Void> ensureIndexes() {
+        log.info("pgvector 인덱스 생성/검증 요청");
+
+        try {
+            if (!pgVectorIndexManager.ensureIndexesAsync()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            log.error("pgvector 인덱스 생성/검증 요청 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
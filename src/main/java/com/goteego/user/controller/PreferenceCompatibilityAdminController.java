@@ -0,0 +1,59 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.service.PreferenceCompatibilityScorer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 선호도 호환성 가중치 API Controller (관리자용)
+ * 분류별 가중치와 필수 일치 분류를 재시작 없이 조회/교체
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-prefer/compatibility-weights")
+@RequiredArgsConstructor
+public class PreferenceCompatibilityAdminController {
+
+    private final PreferenceCompatibilityScorer preferenceCompatibilityScorer;
+
+    /**
+     * 현재 가중치 조회
+     * GET /api/admin/user-prefer/compatibility-weights
+     */
+    @GetMapping
+    public ResponseEntity<UserPreferDto.CompatibilityWeightsResponse> getWeights() {
+        log.info("선호도 호환성 가중치 조회 요청");
+
+        try {
+            return ResponseEntity.ok(preferenceCompatibilityScorer.getSettings());
+        } catch (Exception e) {
+            log.error("선호도 호환성 가중치 조회 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 가중치 교체 (요청에 없는 항목은 유지, 이 인스턴스에만 적용되며 재시작하면 설정값으로 돌아감)
+     * PUT /api/admin/user-prefer/compatibility-weights
+     */
+    @PutMapping
+    public ResponseEntity<UserPreferDto.CompatibilityWeightsResponse> updateWeights(
+            @RequestBody UserPreferDto.CompatibilityWeightsRequest request) {
+        log.info("선호도 호환성 가중치 교체 요청: weights={}, hardMismatch={}, penalty={}",
+                request.getWeights(), request.getHardMismatch(), request.getHardMismatchPenalty());
+
+        try {
+            return ResponseEntity.ok(preferenceCompatibilityScorer.update(request));
+        } catch (IllegalArgumentException e) {
+            log.warn("선호도 호환성 가중치 교체 실패 (잘못된 요청): error={}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("선호도 호환성 가중치 교체 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
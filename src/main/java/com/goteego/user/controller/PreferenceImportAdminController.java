@@ -0,0 +1,52 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.service.PreferenceImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * 사용자 선호도 대량 가져오기 API Controller (관리자용)
+ * 요청 본문을 스트림으로 읽어 선호도와 임베딩을 배치 단위로 함께 저장
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-prefer/import")
+@RequiredArgsConstructor
+public class PreferenceImportAdminController {
+
+    private final PreferenceImportService preferenceImportService;
+
+    /**
+     * 선호도 대량 가져오기 (본문은 NDJSON 또는 헤더가 있는 CSV, 실패한 행은 응답의 errors에 줄 번호와 함께 보고)
+     * 행에 없거나 null/빈 값인 속성은 저장된 답을 유지 (새 사용자는 null), 값이 있는 속성만 덮어씀
+     * POST /api/admin/user-prefer/import?format=ndjson
+     * 예: {"userId": 1, "isFriendly": true, "isSmoker": false}
+     *     userId,isFriendly,isSmoker
+     *     1,true,false
+     */
+    @PostMapping
+    public ResponseEntity<UserPreferDto.ImportResponse> importPreferences(
+            InputStream body,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType) {
+        log.info("선호도 대량 가져오기 요청: format={}, contentType={}", format, contentType);
+
+        try {
+            PreferenceImportService.Format resolved = PreferenceImportService.Format.resolve(format, contentType);
+            return ResponseEntity.ok(preferenceImportService.importPreferences(body, resolved));
+        } catch (IllegalArgumentException e) {
+            log.warn("선호도 대량 가져오기 요청 오류: error={}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("선호도 대량 가져오기 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
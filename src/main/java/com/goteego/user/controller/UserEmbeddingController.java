@@ -1,14 +1,27 @@
 package com.goteego.user.controller;
 
+import com.goteego.user.domain.PreferenceAttribute;
 import com.goteego.user.domain.UserEmbedding;
 import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.dto.UserNeighborDto;
 import com.goteego.user.service.UserEmbeddingService;
+import com.goteego.user.service.UserNeighborService;
+import com.goteego.user.service.UserPreferService;
+import com.goteego.user.similarity.DistanceMetric;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,6 +37,8 @@ import java.util.stream.Collectors;
 public class UserEmbeddingController {
 
     private final UserEmbeddingService userEmbeddingService;
+    private final UserNeighborService userNeighborService;
+    private final UserPreferService userPreferService;
 
     /**
      * 사용자 임베딩 생성/업데이트
@@ -37,7 +52,7 @@ public class UserEmbeddingController {
         try {
             UserEmbedding userEmbedding = UserEmbedding.builder()
                     .userId(request.getUserId())
-                    .embedding(request.getEmbedding())
+                    .userEmbedding(request.getEmbedding())
                     .build();
 
             UserEmbedding savedEmbedding = userEmbeddingService.createOrUpdateUserEmbedding(userEmbedding);
@@ -74,50 +89,193 @@ public class UserEmbeddingController {
 
     /**
      * 유사한 사용자 추천 (Cosine Distance)
-     * GET /api/user-embeddings/{userId}/similar-users?limit=10
+     * GET /api/user-embeddings/{userId}/similar-users?limit=10&engine=pgvector&recall=balanced
+     * (engine: pgvector | memory | bitmask | hnsw | neighbors | quantized, recall: low | balanced | high | exact)
      */
     @GetMapping("/{userId}/similar-users")
     public ResponseEntity<List<UserEmbeddingDto.SimilarUserResponse>> getSimilarUsers(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "10") int limit) {
-        log.info("유사한 사용자 추천 요청: userId={}, limit={}", userId, limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String recall) {
+        log.info("유사한 사용자 추천 요청: userId={}, limit={}, engine={}, recall={}", userId, limit, engine, recall);
 
         try {
-            List<UserEmbedding> similarUsers = userEmbeddingService.findSimilarUsersByCosineDistance(userId, limit);
-            List<UserEmbeddingDto.SimilarUserResponse> responses = similarUsers.stream()
-                    .map(this::convertToSimilarUserResponse)
-                    .collect(Collectors.toList());
+            List<UserEmbeddingDto.SimilarUserResponse> responses =
+                    userEmbeddingService.findSimilarUsers(userId, limit, DistanceMetric.COSINE, engine, recall);
 
             return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            log.error("유사한 사용자 추천 실패 (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("유사한 사용자 추천 실패: userId={}, error={}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 선호도 조건을 만족하는 사용자 중에서 유사한 사용자 추천
+     * GET /api/user-embeddings/{userId}/similar-users/filtered?require=isBeach&exclude=isSmoker&limit=10&method=cosine
+     * (require/exclude: 쉼표로 구분한 선호도 속성 이름, method: cosine | euclidean)
+     */
+    @GetMapping("/{userId}/similar-users/filtered")
+    public ResponseEntity<UserEmbeddingDto.FilteredSearchResponse> getSimilarUsersFiltered(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String require,
+            @RequestParam(required = false) String exclude,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "cosine") String method) {
+        log.info("조건부 유사 사용자 추천 요청: userId={}, require={}, exclude={}, limit={}, method={}",
+                userId, require, exclude, limit, method);
+
+        try {
+            return userEmbeddingService.findSimilarUsersFiltered(userId, PreferenceAttribute.parseMask(require),
+                            PreferenceAttribute.parseMask(exclude), limit, DistanceMetric.from(method))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("조건부 유사 사용자 추천 실패 (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("조건부 유사 사용자 추천 실패: userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * 유사한 사용자 추천 (Euclidean Distance)
-     * GET /api/user-embeddings/{userId}/similar-users-euclidean?limit=10
+     * GET /api/user-embeddings/{userId}/similar-users-euclidean?limit=10&engine=pgvector&recall=balanced
+     * (engine: pgvector | memory | bitmask | hnsw | neighbors | quantized, recall: low | balanced | high | exact)
      */
     @GetMapping("/{userId}/similar-users-euclidean")
     public ResponseEntity<List<UserEmbeddingDto.SimilarUserResponse>> getSimilarUsersByEuclidean(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "10") int limit) {
-        log.info("유사한 사용자 추천 요청 (Euclidean): userId={}, limit={}", userId, limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String recall) {
+        log.info("유사한 사용자 추천 요청 (Euclidean): userId={}, limit={}, engine={}, recall={}", userId, limit, engine, recall);
 
         try {
-            List<UserEmbedding> similarUsers = userEmbeddingService.findSimilarUsersByEuclideanDistance(userId, limit);
-            List<UserEmbeddingDto.SimilarUserResponse> responses = similarUsers.stream()
-                    .map(this::convertToSimilarUserResponse)
-                    .collect(Collectors.toList());
+            List<UserEmbeddingDto.SimilarUserResponse> responses =
+                    userEmbeddingService.findSimilarUsers(userId, limit, DistanceMetric.EUCLIDEAN, engine, recall);
 
             return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            log.error("유사한 사용자 추천 실패 (Euclidean) (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("유사한 사용자 추천 실패 (Euclidean): userId={}, error={}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 미리 계산한 이웃 목록 조회 (계산 시각과 경과 시간 포함)
+     * GET /api/user-embeddings/{userId}/neighbors
+     */
+    @GetMapping("/{userId}/neighbors")
+    public ResponseEntity<UserNeighborDto.NeighborListResponse> getNeighbors(@PathVariable Long userId) {
+        log.info("사용자 이웃 목록 조회 요청: userId={}", userId);
+
+        try {
+            return userNeighborService.getNeighborList(userId)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            log.error("사용자 이웃 목록 조회 실패: userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 나머지 모든 사용자와의 평균 유사도 조회
+     * GET /api/user-embeddings/{userId}/average-similarity
+     */
+    @GetMapping("/{userId}/average-similarity")
+    public ResponseEntity<UserEmbeddingDto.AverageSimilarityResponse> getAverageSimilarity(@PathVariable Long userId) {
+        log.info("평균 유사도 조회 요청: userId={}", userId);
+
+        try {
+            return userEmbeddingService.getAverageSimilarity(userId)
+                    .map(averageDistance -> ResponseEntity.ok(UserEmbeddingDto.AverageSimilarityResponse.builder()
+                            .userId(userId)
+                            .averageDistance(averageDistance)
+                            .averageSimilarity(DistanceMetric.COSINE.toSimilarity(averageDistance))
+                            .build()))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            log.error("평균 유사도 조회 실패: userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 코사인 거리가 임계값 미만인 사용자 페이지 조회
+     * GET /api/user-embeddings/{userId}/above-threshold?threshold=0.3&limit=100&cursor=...
+     * (cursor: 이전 응답의 nextCursor)
+     */
+    @GetMapping("/{userId}/above-threshold")
+    public ResponseEntity<UserEmbeddingDto.ThresholdPageResponse> getUsersAboveThreshold(
+            @PathVariable Long userId,
+            @RequestParam double threshold,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        log.info("임계값 이상 유사도 사용자 조회 요청: userId={}, threshold={}, limit={}", userId, threshold, limit);
+
+        try {
+            return userEmbeddingService.getUsersAboveSimilarityThreshold(userId, threshold, cursor, limit)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("임계값 이상 유사도 사용자 조회 실패 (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("임계값 이상 유사도 사용자 조회 실패: userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 코사인 거리가 임계값 미만인 모든 사용자를 NDJSON으로 스트리밍 (한 줄에 사용자 한 명, 거리 순)
+     * GET /api/user-embeddings/{userId}/above-threshold/stream?threshold=0.3
+     */
+    @GetMapping(value = "/{userId}/above-threshold/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsersAboveThreshold(
+            @PathVariable Long userId,
+            @RequestParam double threshold) {
+        log.info("임계값 이상 유사도 사용자 스트리밍 요청: userId={}, threshold={}", userId, threshold);
+
+        try {
+            if (!userEmbeddingService.existsByUserId(userId)) {
+                return ResponseEntity.notFound().build();
+            }
+            StreamingResponseBody body = outputStream -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                try {
+                    userEmbeddingService.streamUsersAboveSimilarityThreshold(userId, threshold, (id, distance) -> {
+                        try {
+                            writer.write("{\"userId\":" + id + ",\"distance\":" + distance
+                                    + ",\"similarity\":" + DistanceMetric.COSINE.toSimilarity(distance) + "}\n");
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    log.warn("임계값 이상 유사도 사용자 스트리밍 중단: userId={}, error={}", userId, e.getMessage());
+                    return;
+                }
+                writer.flush();
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(body);
+        } catch (Exception e) {
+            log.error("임계값 이상 유사도 사용자 스트리밍 실패: userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * 사용자 임베딩 삭제
      * DELETE /api/user-embeddings/{userId}
@@ -184,6 +342,7 @@ public class UserEmbeddingController {
     /**
      * 두 사용자 간 유사도 계산
      * GET /api/user-embeddings/similarity?userId1=1&userId2=2&method=cosine
+     * (method: cosine | euclidean | weighted, weighted는 선호도 분류별 가중치 호환성 점수)
      */
     @GetMapping("/similarity")
     public ResponseEntity<UserEmbeddingDto.SimilarityResponse> calculateSimilarity(
@@ -193,23 +352,30 @@ public class UserEmbeddingController {
         log.info("사용자 간 유사도 계산 요청: userId1={}, userId2={}, method={}", userId1, userId2, method);
 
         try {
-            double similarity;
-            if ("euclidean".equalsIgnoreCase(method)) {
-                similarity = userEmbeddingService.calculateEuclideanDistance(userId1, userId2);
-            } else {
-                similarity = userEmbeddingService.calculateCosineDistance(userId1, userId2);
+            if ("weighted".equalsIgnoreCase(method.trim())) {
+                return ResponseEntity.ok(UserEmbeddingDto.SimilarityResponse.builder()
+                        .userId1(userId1)
+                        .userId2(userId2)
+                        .method(method)
+                        .similarity(userPreferService.calculateCompatibilityScore(userId1, userId2))
+                        .build());
             }
 
+            DistanceMetric metric = DistanceMetric.from(method);
+            double distance = metric == DistanceMetric.EUCLIDEAN
+                    ? userEmbeddingService.calculateEuclideanDistance(userId1, userId2)
+                    : userEmbeddingService.calculateCosineDistance(userId1, userId2);
+
             UserEmbeddingDto.SimilarityResponse response = UserEmbeddingDto.SimilarityResponse.builder()
                     .userId1(userId1)
                     .userId2(userId2)
                     .method(method)
-                    .similarity(similarity)
+                    .similarity(Double.isNaN(distance) ? 0.0 : metric.toSimilarity(distance))
                     .build();
 
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
-            log.error("유사도 계산 실패 (사용자 없음): userId1={}, userId2={}, error={}", userId1, userId2, e.getMessage());
+            log.error("유사도 계산 실패 (잘못된 요청): userId1={}, userId2={}, error={}", userId1, userId2, e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("유사도 계산 실패: userId1={}, userId2={}, error={}", userId1, userId2, e.getMessage());
@@ -217,23 +383,38 @@ public class UserEmbeddingController {
         }
     }
 
+    /**
+     * 여러 사용자 간 유사도 행렬 계산
+     * POST /api/user-embeddings/similarity-matrix
+     * (method: cosine | euclidean, 그 외 값은 400)
+     */
+    @PostMapping("/similarity-matrix")
+    public ResponseEntity<UserEmbeddingDto.SimilarityMatrixResponse> calculateSimilarityMatrix(
+            @RequestBody UserEmbeddingDto.SimilarityMatrixRequest request) {
+        int requestedUsers = request.getUserIds() != null ? request.getUserIds().size() : 0;
+        log.info("유사도 행렬 계산 요청: users={}, method={}", requestedUsers, request.getMethod());
+
+        try {
+            UserEmbeddingDto.SimilarityMatrixResponse response = userEmbeddingService.calculateSimilarityMatrix(
+                    request.getUserIds(), DistanceMetric.from(request.getMethod()));
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("유사도 행렬 계산 실패 (잘못된 요청): users={}, error={}", requestedUsers, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("유사도 행렬 계산 실패: users={}, error={}", requestedUsers, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // DTO 변환 메서드들
     private UserEmbeddingDto.Response convertToResponse(UserEmbedding userEmbedding) {
         return UserEmbeddingDto.Response.builder()
-                .userEmbeddingId(userEmbedding.getUserEmbeddingId())
                 .userId(userEmbedding.getUserId())
-                .embedding(userEmbedding.getEmbedding())
+                .embedding(userEmbedding.getUserEmbedding())
                 .createdAt(userEmbedding.getCreatedAt())
                 .modifiedAt(userEmbedding.getModifiedAt())
                 .build();
     }
-
-    private UserEmbeddingDto.SimilarUserResponse convertToSimilarUserResponse(UserEmbedding userEmbedding) {
-        return UserEmbeddingDto.SimilarUserResponse.builder()
-                .userId(userEmbedding.getUserId())
-                .embedding(userEmbedding.getEmbedding())
-                .similarity(userEmbedding.getSimilarity()) // similarity 값 포함
-                .createdAt(userEmbedding.getCreatedAt())
-                .build();
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.goteego.user.controller;
+
+import com.goteego.user.dto.UserNeighborDto;
+import com.goteego.user.service.UserNeighborService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 사용자 이웃 목록 관리 API Controller (관리자용)
+ * 미리 계산한 상위 K명 목록의 상태 조회 및 전체 재계산
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/user-embeddings/neighbors")
+@RequiredArgsConstructor
+public class UserNeighborAdminController {
+
+    private final UserNeighborService userNeighborService;
+
+    /**
+     * 이웃 목록 상태 조회 (목록 수, 가장 오래된 계산 시각, 대기 중인 변경 수)
+     * GET /api/admin/user-embeddings/neighbors
+     */
+    @GetMapping
+    public ResponseEntity<UserNeighborDto.StatusResponse> getNeighborStatus() {
+        log.info("사용자 이웃 목록 상태 조회 요청");
+
+        try {
+            return ResponseEntity.ok(userNeighborService.getStatus());
+        } catch (Exception e) {
+            log.error("사용자 이웃 목록 상태 조회 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 전체 이웃 목록 재계산 시작
+     * POST /api/admin/user-embeddings/neighbors/rebuild
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildNeighbors() {
+        log.info("사용자 이웃 목록 재계산 요청");
+
+        try {
+            if (!userNeighborService.rebuildAsync()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            log.error("사용자 이웃 목록 재계산 요청 실패: error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
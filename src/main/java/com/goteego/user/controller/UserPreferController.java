@@ -1,8 +1,13 @@
 package com.goteego.user.controller;
 
+import com.goteego.user.domain.PreferenceAttribute;
 import com.goteego.user.domain.UserPrefer;
 import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.service.PreferenceDistributionIndex;
 import com.goteego.user.service.UserPreferService;
+import com.goteego.user.similarity.DistanceCursor;
+import com.goteego.user.similarity.MaskDistance;
+import com.goteego.user.similarity.ScoredUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,7 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +30,7 @@ import java.util.stream.Collectors;
 public class UserPreferController {
 
     private final UserPreferService userPreferService;
+    private final PreferenceDistributionIndex preferenceDistributionIndex;
 
     /**
      * 사용자 선호도 저장/수정
@@ -116,27 +124,31 @@ public class UserPreferController {
 
     /**
      * 유사한 선호도를 가진 사용자들 조회
-     * GET /api/user-prefer/similar/{userId}
+     * GET /api/user-prefer/similar/{userId}?limit=10
+     * GET /api/user-prefer/similar/{userId}?metric=jaccard&limit=10 (비트 마스크 기반: jaccard | hamming | cosine | weighted)
+     * 점수는 분류별 가중치 호환성 점수 (metric 지정 시 해당 방식의 유사도)
      */
     @GetMapping("/similar/{userId}")
-    public ResponseEntity<List<UserPreferDto.SimilarUserResponse>> getSimilarUsers(@PathVariable Long userId) {
-        log.info("유사한 선호도를 가진 사용자들 조회 요청: userId={}", userId);
+    public ResponseEntity<List<UserPreferDto.SimilarUserResponse>> getSimilarUsers(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("유사한 선호도를 가진 사용자들 조회 요청: userId={}, metric={}, limit={}", userId, metric, limit);
 
         try {
-            Optional<UserPrefer> targetUserPreferOpt = userPreferService.getUserPreferByUserId(userId);
-            if (targetUserPreferOpt.isEmpty()) {
+            if (limit < 1 || limit > UserPreferService.MAX_SIMILAR_USERS_LIMIT) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (!userPreferService.existsByUserId(userId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            UserPrefer targetUserPrefer = targetUserPreferOpt.get();
-            List<UserPrefer> similarUsers = userPreferService.getSimilarUsers(targetUserPrefer);
-
-            List<UserPreferDto.SimilarUserResponse> responses = similarUsers.stream()
-                    .limit(10) // 상위 10명만 반환
-                    .map(this::convertToSimilarUserResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
+            MaskDistance distance = userPreferService.resolveMaskDistance(metric != null ? metric : "weighted");
+            List<ScoredUser> scoredUsers = userPreferService.getSimilarUsersByMask(userId, distance, limit);
+            return ResponseEntity.ok(convertToSimilarUserResponses(scoredUsers, distance));
+        } catch (IllegalArgumentException e) {
+            log.error("유사한 선호도를 가진 사용자들 조회 실패 (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("유사한 선호도를 가진 사용자들 조회 실패: userId={}, error={}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -144,87 +156,169 @@ public class UserPreferController {
     }
 
     /**
-     * 친화적인 사용자들 조회
-     * GET /api/user-prefer/friendly
+     * 유사한 선호도를 가진 사용자들 페이지 조회 (점수 내림차순, 같은 점수는 사용자 ID 순)
+     * GET /api/user-prefer/similar/{userId}/page?metric=weighted&limit=20&cursor=...
+     * 응답의 nextCursor를 다음 요청의 cursor로 전달
      */
-    @GetMapping("/friendly")
-    public ResponseEntity<List<UserPreferDto.Response>> getFriendlyUsers() {
-        log.info("친화적인 사용자들 조회 요청");
+    @GetMapping("/similar/{userId}/page")
+    public ResponseEntity<UserPreferDto.SimilarUserPageResponse> getSimilarUsersPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String metric,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        log.info("유사한 선호도를 가진 사용자들 페이지 조회 요청: userId={}, metric={}, limit={}", userId, metric, limit);
 
         try {
-            List<UserPrefer> friendlyUsers = userPreferService.getFriendlyUsers();
-            List<UserPreferDto.Response> responses = friendlyUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
+            if (limit < 1 || limit > UserPreferService.MAX_SIMILAR_USERS_LIMIT) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (!userPreferService.existsByUserId(userId)) {
+                return ResponseEntity.notFound().build();
+            }
 
-            return ResponseEntity.ok(responses);
+            MaskDistance distance = userPreferService.resolveMaskDistance(metric != null ? metric : "weighted");
+            DistanceCursor after = cursor != null && !cursor.isEmpty() ? DistanceCursor.decode(cursor) : null;
+
+            // 다음 페이지 존재 여부를 알기 위해 한 명 더 조회
+            List<ScoredUser> rows = userPreferService.getSimilarUsersByMask(userId, distance, limit + 1, after);
+            boolean hasNext = rows.size() > limit;
+            List<ScoredUser> page = hasNext ? rows.subList(0, limit) : rows;
+
+            return ResponseEntity.ok(UserPreferDto.SimilarUserPageResponse.builder()
+                    .users(convertToSimilarUserResponses(page, distance))
+                    .hasNext(hasNext)
+                    .nextCursor(hasNext ? DistanceCursor.of(page.get(page.size() - 1)).encode() : null)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            log.error("유사한 선호도를 가진 사용자들 페이지 조회 실패 (잘못된 요청): userId={}, error={}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            log.error("친화적인 사용자들 조회 실패: error={}", e.getMessage());
+            log.error("유사한 선호도를 가진 사용자들 페이지 조회 실패: userId={}, error={}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * 리더십 있는 사용자들 조회
-     * GET /api/user-prefer/lead
+     * 상위 사용자들의 선호도만 한 번에 조회해 응답으로 변환 (점수는 거리 함수의 유사도)
      */
-    @GetMapping("/lead")
-    public ResponseEntity<List<UserPreferDto.Response>> getLeadUsers() {
-        log.info("리더십 있는 사용자들 조회 요청");
+    private List<UserPreferDto.SimilarUserResponse> convertToSimilarUserResponses(
+            List<ScoredUser> scoredUsers, MaskDistance metric) {
+        Map<Long, UserPrefer> prefersByUserId = userPreferService.getUserPrefersByUserIds(
+                        scoredUsers.stream().map(ScoredUser::getUserId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(UserPrefer::getUserId, Function.identity()));
+
+        return scoredUsers.stream()
+                .filter(scoredUser -> prefersByUserId.containsKey(scoredUser.getUserId()))
+                .map(scoredUser -> convertToSimilarUserResponse(
+                        prefersByUserId.get(scoredUser.getUserId()),
+                        metric.toSimilarity(scoredUser.getDistance())))
+                .collect(Collectors.toList());
+    }
 
-        try {
-            List<UserPrefer> leadUsers = userPreferService.getLeadUsers();
-            List<UserPreferDto.Response> responses = leadUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
+    /**
+     * 선호도 조건식을 만족하는 사용자 수/ID 조회 (AND / OR / NOT, 괄호, 23개 속성 이름)
+     * GET /api/user-prefer/audience?expression=isFriendly AND (isOutdoor OR isBeach) AND NOT isSmoker&limit=100
+     * GET /api/user-prefer/audience?expression=...&countOnly=true (수만 조회)
+     * GET /api/user-prefer/audience?expression=...&source=sql (preference_mask 컬럼 조건으로 DB에서 조회, user_prefer 전체 스캔)
+     * 응답의 nextCursor를 다음 요청의 afterUserId로 전달
+     */
+    @GetMapping("/audience")
+    public ResponseEntity<UserPreferDto.AudienceResponse> getAudience(
+            @RequestParam String expression,
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String source) {
+        log.info("선호도 조건식 대상 사용자 조회 요청: expression={}, afterUserId={}, limit={}, countOnly={}, source={}",
+                expression, afterUserId, limit, countOnly, source);
 
-            return ResponseEntity.ok(responses);
+        try {
+            return ResponseEntity.ok(userPreferService.findAudience(expression, afterUserId, limit, countOnly, source));
+        } catch (IllegalArgumentException e) {
+            log.error("선호도 조건식 대상 사용자 조회 실패 (잘못된 요청): expression={}, error={}", expression, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.error("선호도 조건식 대상 사용자 조회 실패 (인덱스 미적재): error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
-            log.error("리더십 있는 사용자들 조회 실패: error={}", e.getMessage());
+            log.error("선호도 조건식 대상 사용자 조회 실패: expression={}, error={}", expression, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * 아웃도어 활동을 좋아하는 사용자들 조회
-     * GET /api/user-prefer/outdoor
+     * 선호도 분포 조회 (속성별 사용자 수와 속성 쌍 동시 선택 수)
+     * GET /api/user-prefer/distribution
      */
-    @GetMapping("/outdoor")
-    public ResponseEntity<List<UserPreferDto.Response>> getOutdoorUsers() {
-        log.info("아웃도어 활동을 좋아하는 사용자들 조회 요청");
+    @GetMapping("/distribution")
+    public ResponseEntity<UserPreferDto.DistributionResponse> getDistribution() {
+        log.info("선호도 분포 조회 요청");
 
         try {
-            List<UserPrefer> outdoorUsers = userPreferService.getOutdoorUsers();
-            List<UserPreferDto.Response> responses = outdoorUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(preferenceDistributionIndex.getDistribution());
+        } catch (IllegalStateException e) {
+            log.error("선호도 분포 조회 실패 (집계 전): error={}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
-            log.error("아웃도어 활동을 좋아하는 사용자들 조회 실패: error={}", e.getMessage());
+            log.error("선호도 분포 조회 실패: error={}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 친화적인 사용자들 조회
+     * GET /api/user-prefer/friendly
+     * GET /api/user-prefer/friendly?limit=100&afterUserId=...&fields=isOutdoor,isCity
+     * GET /api/user-prefer/friendly?countOnly=true (수만 조회)
+     * 아래 속성별 목록 조회도 같은 파라미터를 사용 (응답의 nextCursor를 다음 요청의 afterUserId로 전달)
+     */
+    @GetMapping("/friendly")
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getFriendlyUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("친화적인 사용자들", "isFriendly", afterUserId, limit, countOnly, fields);
+    }
+
+    /**
+     * 리더십 있는 사용자들 조회
+     * GET /api/user-prefer/lead
+     */
+    @GetMapping("/lead")
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getLeadUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("리더십 있는 사용자들", "isLead", afterUserId, limit, countOnly, fields);
+    }
+
+    /**
+     * 아웃도어 활동을 좋아하는 사용자들 조회
+     * GET /api/user-prefer/outdoor
+     */
+    @GetMapping("/outdoor")
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getOutdoorUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("아웃도어 활동을 좋아하는 사용자들", "isOutdoor", afterUserId, limit, countOnly, fields);
+    }
+
     /**
      * 도시 여행을 선호하는 사용자들 조회
      * GET /api/user-prefer/city
      */
     @GetMapping("/city")
-    public ResponseEntity<List<UserPreferDto.Response>> getCityUsers() {
-        log.info("도시 여행을 선호하는 사용자들 조회 요청");
-
-        try {
-            List<UserPrefer> cityUsers = userPreferService.getCityUsers();
-            List<UserPreferDto.Response> responses = cityUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
-        } catch (Exception e) {
-            log.error("도시 여행을 선호하는 사용자들 조회 실패: error={}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getCityUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("도시 여행을 선호하는 사용자들", "isCity", afterUserId, limit, countOnly, fields);
     }
 
     /**
@@ -232,20 +326,12 @@ public class UserPreferController {
      * GET /api/user-prefer/heal
      */
     @GetMapping("/heal")
-    public ResponseEntity<List<UserPreferDto.Response>> getHealUsers() {
-        log.info("힐링 여행을 선호하는 사용자들 조회 요청");
-
-        try {
-            List<UserPrefer> healUsers = userPreferService.getHealUsers();
-            List<UserPreferDto.Response> responses = healUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
-        } catch (Exception e) {
-            log.error("힐링 여행을 선호하는 사용자들 조회 실패: error={}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getHealUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("힐링 여행을 선호하는 사용자들", "isHeal", afterUserId, limit, countOnly, fields);
     }
 
     /**
@@ -253,20 +339,12 @@ public class UserPreferController {
      * GET /api/user-prefer/alcohol-lovers
      */
     @GetMapping("/alcohol-lovers")
-    public ResponseEntity<List<UserPreferDto.Response>> getAlcoholLovers() {
-        log.info("술을 좋아하는 사용자들 조회 요청");
-
-        try {
-            List<UserPrefer> alcoholLovers = userPreferService.getAlcoholLovers();
-            List<UserPreferDto.Response> responses = alcoholLovers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
-        } catch (Exception e) {
-            log.error("술을 좋아하는 사용자들 조회 실패: error={}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getAlcoholLovers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("술을 좋아하는 사용자들", "isAlchol3", afterUserId, limit, countOnly, fields);
     }
 
     /**
@@ -274,20 +352,12 @@ public class UserPreferController {
      * GET /api/user-prefer/non-alcohol
      */
     @GetMapping("/non-alcohol")
-    public ResponseEntity<List<UserPreferDto.Response>> getNonAlcoholUsers() {
-        log.info("술을 마시지 않는 사용자들 조회 요청");
-
-        try {
-            List<UserPrefer> nonAlcoholUsers = userPreferService.getNonAlcoholUsers();
-            List<UserPreferDto.Response> responses = nonAlcoholUsers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
-        } catch (Exception e) {
-            log.error("술을 마시지 않는 사용자들 조회 실패: error={}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getNonAlcoholUsers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("술을 마시지 않는 사용자들", "isAlchol1", afterUserId, limit, countOnly, fields);
     }
 
     /**
@@ -295,39 +365,55 @@ public class UserPreferController {
      * GET /api/user-prefer/smokers
      */
     @GetMapping("/smokers")
-    public ResponseEntity<List<UserPreferDto.Response>> getSmokers() {
-        log.info("흡연자들 조회 요청");
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getSmokers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        return getUsersByExpression("흡연자들", "isSmoker", afterUserId, limit, countOnly, fields);
+    }
 
-        try {
-            List<UserPrefer> smokers = userPreferService.getSmokers();
-            List<UserPreferDto.Response> responses = smokers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
+    /**
+     * 비흡연자들 조회 (흡연 여부에 false로 답한 사용자만, 답하지 않은 사용자는 제외)
+     * GET /api/user-prefer/non-smokers
+     * 답하지 않은 사용자까지 포함하려면 GET /api/user-prefer/audience?expression=NOT isSmoker
+     */
+    @GetMapping("/non-smokers")
+    public ResponseEntity<UserPreferDto.PreferencePageResponse> getNonSmokers(
+            @RequestParam(required = false) Long afterUserId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly,
+            @RequestParam(required = false) String fields) {
+        log.info("비흡연자들 조회 요청: afterUserId={}, limit={}, countOnly={}, fields={}",
+                afterUserId, limit, countOnly, fields);
 
-            return ResponseEntity.ok(responses);
+        try {
+            return ResponseEntity.ok(userPreferService.getUsersAnswered(
+                    PreferenceAttribute.IS_SMOKER, false, afterUserId, limit, countOnly, fields));
+        } catch (IllegalArgumentException e) {
+            log.error("비흡연자들 조회 실패 (잘못된 요청): error={}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            log.error("흡연자들 조회 실패: error={}", e.getMessage());
+            log.error("비흡연자들 조회 실패: error={}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * 비흡연자들 조회
-     * GET /api/user-prefer/non-smokers
+     * 속성 조건을 만족하는 사용자를 user_id 키셋 페이지로 조회 (사용자 ID와 fields로 요청한 속성만 반환)
      */
-    @GetMapping("/non-smokers")
-    public ResponseEntity<List<UserPreferDto.Response>> getNonSmokers() {
-        log.info("비흡연자들 조회 요청");
+    private ResponseEntity<UserPreferDto.PreferencePageResponse> getUsersByExpression(
+            String description, String expression, Long afterUserId, int limit, boolean countOnly, String fields) {
+        log.info("{} 조회 요청: afterUserId={}, limit={}, countOnly={}, fields={}",
+                description, afterUserId, limit, countOnly, fields);
 
         try {
-            List<UserPrefer> nonSmokers = userPreferService.getNonSmokers();
-            List<UserPreferDto.Response> responses = nonSmokers.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(userPreferService.getUsersMatching(expression, afterUserId, limit, countOnly, fields));
+        } catch (IllegalArgumentException e) {
+            log.error("{} 조회 실패 (잘못된 요청): error={}", description, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            log.error("비흡연자들 조회 실패: error={}", e.getMessage());
+            log.error("{} 조회 실패: error={}", description, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -364,13 +450,13 @@ public class UserPreferController {
                 .build();
     }
 
-    private UserPreferDto.SimilarUserResponse convertToSimilarUserResponse(UserPrefer userPrefer) {
+    private UserPreferDto.SimilarUserResponse convertToSimilarUserResponse(UserPrefer userPrefer, double similarityScore) {
         // TODO: User 정보 조회 로직 추가 필요
         return UserPreferDto.SimilarUserResponse.builder()
                 .userId(userPrefer.getUserId())
                 .nickname("사용자" + userPrefer.getUserId()) // 임시 값
                 .profileImgUrl(null) // 임시 값
-                .similarityScore(0.0) // 임시 값
+                .similarityScore(similarityScore)
                 .preferences(convertToResponse(userPrefer))
                 .build();
     }
@@ -0,0 +1,88 @@
+package com.goteego.user.domain;
+
+import com.goteego.user.similarity.PrincipalComponents;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 선호도 임베딩 투영 모델 엔티티
+ * 선호도 마스크 행렬로 학습한 주성분을 저장해 재시작 후에도 새 사용자를 같은 좌표계로 임베딩
+ */
+@Entity
+@Table(name = "embedding_projections")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmbeddingProjection {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    // 입력 차원 (선호도 플래그 수)
+    @Column(name = "source_dimensions", nullable = false)
+    private Integer sourceDimensions;
+
+    // 투영 후 차원 (임베딩 컬럼의 남는 차원은 0)
+    @Column(name = "target_dimensions", nullable = false)
+    private Integer targetDimensions;
+
+    /**
+     * 플래그별 평균 (중심화에 사용)
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "mean", columnDefinition = "float8[]", nullable = false)
+    private double[] mean;
+
+    /**
+     * 주성분 (targetDimensions × sourceDimensions, 행 우선)
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "components", columnDefinition = "float8[]", nullable = false)
+    private double[] components;
+
+    /**
+     * 성분별 분산 (내림차순)
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "variances", columnDefinition = "float8[]", nullable = false)
+    private double[] variances;
+
+    @Column(name = "total_variance", nullable = false)
+    private Double totalVariance;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Column(name = "trained_at", nullable = false)
+    private LocalDateTime trainedAt;
+
+    public static EmbeddingProjection of(String name, PrincipalComponents model) {
+        return EmbeddingProjection.builder()
+                .name(name)
+                .sourceDimensions(model.sourceDimensions())
+                .targetDimensions(model.targetDimensions())
+                .mean(model.mean())
+                .components(model.components())
+                .variances(model.variances())
+                .totalVariance(model.totalVariance())
+                .sampleCount(model.sampleCount())
+                .trainedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public PrincipalComponents toModel() {
+        return new PrincipalComponents(sourceDimensions, targetDimensions, mean, components, variances,
+                totalVariance, sampleCount);
+    }
+}
@@ -0,0 +1,106 @@
+package com.goteego.user.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 임베딩 일괄 재생성 작업 체크포인트 엔티티
+ * 배치마다 마지막으로 처리한 사용자 ID를 같은 트랜잭션에서 기록해 중단되면 그 다음 사용자부터 재개
+ */
+@Entity
+@Table(name = "embedding_rebuild_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class EmbeddingRebuildCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+
+    // 마지막으로 처리한 사용자 ID (키셋 페이지 기준)
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RebuildStatus status;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @LastModifiedDate
+    @Column(name = "modified_at")
+    private LocalDateTime modifiedAt;
+
+    /**
+     * 재생성 작업 상태 열거형
+     */
+    public enum RebuildStatus {
+        RUNNING,    // 실행 중 (이 상태로 남아 있으면 비정상 종료된 작업)
+        COMPLETED,  // 완료
+        FAILED      // 실패
+    }
+
+    /**
+     * 처음부터 다시 시작
+     */
+    public void restart() {
+        this.lastUserId = 0L;
+        this.processedCount = 0L;
+        this.status = RebuildStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.completedAt = null;
+        this.lastError = null;
+    }
+
+    /**
+     * 마지막 체크포인트부터 재개
+     */
+    public void resume() {
+        this.status = RebuildStatus.RUNNING;
+        this.lastError = null;
+    }
+
+    /**
+     * 배치 처리 결과 기록
+     */
+    public void advance(long lastUserId, int count) {
+        this.lastUserId = lastUserId;
+        this.processedCount += count;
+    }
+
+    public void complete() {
+        this.status = RebuildStatus.COMPLETED;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        this.status = RebuildStatus.FAILED;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    public boolean isResumable() {
+        return status == RebuildStatus.RUNNING || status == RebuildStatus.FAILED;
+    }
+}
@@ -0,0 +1,91 @@
+package com.goteego.user.domain;
+
+import com.goteego.user.similarity.VectorText;
+import org.postgresql.util.ByteConverter;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * pgvector vector 타입의 JDBC 값
+ * PgVectorType.registerType으로 등록하면 서버 준비된 문장에서 바이너리 형식(int16 차원, int16 예약, float4 원소들)으로 주고받고,
+ * 그 전(prepareThreshold 미만)에는 텍스트 형식으로 주고받음
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    public static final String TYPE_NAME = "vector";
+
+    private float[] vector;
+
+    public PgVector() {
+        setType(TYPE_NAME);
+    }
+
+    public PgVector(float[] vector) {
+        this();
+        this.vector = vector;
+    }
+
+    public float[] getVector() {
+        return vector;
+    }
+
+    /**
+     * 텍스트 형식으로 전달된 값 ("[1,0,0.5,...]")
+     */
+    @Override
+    public void setValue(String value) {
+        this.vector = value != null ? VectorText.parse(value) : null;
+    }
+
+    @Override
+    public String getValue() {
+        return vector != null ? VectorText.format(vector) : null;
+    }
+
+    /**
+     * 바이너리 형식으로 전달된 값
+     */
+    @Override
+    public void setByteValue(byte[] bytes, int offset) throws SQLException {
+        int dimensions = ByteConverter.int2(bytes, offset);
+        float[] values = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            values[i] = ByteConverter.float4(bytes, offset + 4 + i * Float.BYTES);
+        }
+        this.vector = values;
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return vector != null ? 4 + vector.length * Float.BYTES : 0;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteConverter.int2(bytes, offset, vector.length);
+        ByteConverter.int2(bytes, offset + 2, 0);
+        for (int i = 0; i < vector.length; i++) {
+            ByteConverter.float4(bytes, offset + 4 + i * Float.BYTES, vector[i]);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector other && Arrays.equals(vector, other.vector);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(vector);
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        PgVector copy = (PgVector) super.clone();
+        copy.vector = vector != null ? vector.clone() : null;
+        return copy;
+    }
+}
@@ -0,0 +1,150 @@
+package com.goteego.user.domain;
+
+import com.goteego.user.similarity.VectorText;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.util.PGobject;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * pgvector vector 컬럼을 float[]로 매핑하는 Hibernate 타입
+ * 커넥션마다 한 번 PgVector를 등록하고 vector 타입 OID의 바이너리 송수신을 켜서,
+ * 서버 준비(prepare)된 문장에서는 문자열 파싱 없이 바이너리 형식으로 처리되도록 함
+ */
+public class PgVectorType implements UserType<float[]> {
+
+    /**
+     * PgVector를 등록한 물리 커넥션 (커넥션이 닫혀 수거되면 함께 제거)
+     */
+    private static final Set<PGConnection> REGISTERED_CONNECTIONS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<PGConnection, Boolean>()));
+
+    /**
+     * 커넥션에 pgvector 타입 등록 (이미 등록된 커넥션이면 무시)
+     * 드라이버는 등록된 타입이라도 OID별로 바이너리 송수신을 켜야 PGBinaryObject 경로를 사용하므로,
+     * vector 타입 OID를 조회해(드라이버가 커넥션 단위로 캐시) 송신/수신 모두 바이너리로 지정
+     */
+    public static void registerType(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        if (REGISTERED_CONNECTIONS.add(pgConnection)) {
+            try {
+                pgConnection.addDataType(PgVector.TYPE_NAME, PgVector.class);
+                BaseConnection baseConnection = connection.unwrap(BaseConnection.class);
+                int oid = baseConnection.getTypeInfo().getPGType(PgVector.TYPE_NAME);
+                if (oid == Oid.UNSPECIFIED) {
+                    throw new SQLException("pgvector 확장이 설치되어 있지 않습니다 (vector 타입 없음)");
+                }
+                QueryExecutor queryExecutor = baseConnection.getQueryExecutor();
+                queryExecutor.addBinarySendOid(oid);
+                queryExecutor.addBinaryReceiveOid(oid);
+            } catch (SQLException | RuntimeException e) {
+                REGISTERED_CONNECTIONS.remove(pgConnection);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * JDBC 조회 값을 float[]로 변환 (등록 전 커넥션에서 받은 텍스트 값도 처리)
+     */
+    public static float[] toArray(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PgVector vector) {
+            return vector.getVector();
+        }
+        if (value instanceof PGobject object) {
+            return VectorText.parse(object.getValue());
+        }
+        if (value instanceof String text) {
+            return VectorText.parse(text);
+        }
+        throw new SQLException("pgvector 값으로 변환할 수 없습니다: " + value.getClass().getName());
+    }
+
+    @Override
+    public int getSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public Class<float[]> returnedClass() {
+        return float[].class;
+    }
+
+    @Override
+    public boolean equals(float[] x, float[] y) {
+        return Arrays.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(float[] x) {
+        return Arrays.hashCode(x);
+    }
+
+    @Override
+    public float[] nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        Statement statement = rs.getStatement();
+        if (statement != null) {
+            registerType(statement.getConnection());
+        }
+        return toArray(rs.getObject(position));
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, float[] value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+            return;
+        }
+        registerType(st.getConnection());
+        st.setObject(index, new PgVector(value));
+    }
+
+    @Override
+    public float[] deepCopy(float[] value) {
+        return value != null ? value.clone() : null;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(float[] value) {
+        return deepCopy(value);
+    }
+
+    @Override
+    public float[] assemble(Serializable cached, Object owner) {
+        if (cached != null && !(cached instanceof float[])) {
+            throw new HibernateException("pgvector 캐시 값 형식이 올바르지 않습니다: " + cached.getClass().getName());
+        }
+        return deepCopy((float[]) cached);
+    }
+
+    @Override
+    public float[] replace(float[] detached, float[] managed, Object owner) {
+        return deepCopy(detached);
+    }
+}
@@ -0,0 +1,124 @@
+package com.goteego.user.domain;
+
+import java.util.function.Function;
+
+/**
+ * 사용자 선호도 속성 (UserPrefer의 23개 Boolean 플래그)
+ * bitIndex는 preference_mask 컬럼의 비트 위치이자 getPreferenceArray()의 인덱스이므로 변경하면 안 됨
+ */
+public enum PreferenceAttribute {
+
+    // 🍶 술 관련 선호도
+    IS_ALCHOL3(0, "isAlchol3", "is_alchol3", UserPrefer::getIsAlchol3),
+    IS_ALCHOL2(1, "isAlchol2", "is_alchol2", UserPrefer::getIsAlchol2),
+    IS_ALCHOL1(2, "isAlchol1", "is_alchol1", UserPrefer::getIsAlchol1),
+
+    // 🚬 흡연 여부
+    IS_SMOKER(3, "isSmoker", "is_smoker", UserPrefer::getIsSmoker),
+
+    // 🤝 성격 관련
+    IS_FRIENDLY(4, "isFriendly", "is_friendly", UserPrefer::getIsFriendly),
+    IS_QUIET(5, "isQuiet", "is_quiet", UserPrefer::getIsQuiet),
+    IS_LEAD(6, "isLead", "is_lead", UserPrefer::getIsLead),
+    IS_PARTY(7, "isParty", "is_party", UserPrefer::getIsParty),
+    IS_SEARCH(8, "isSearch", "is_search", UserPrefer::getIsSearch),
+    IS_LISTEN(9, "isListen", "is_listen", UserPrefer::getIsListen),
+
+    // 🏞 여행 활동 선호도
+    IS_SEE(10, "isSee", "is_see", UserPrefer::getIsSee),
+    IS_CAFE(11, "isCafe", "is_cafe", UserPrefer::getIsCafe),
+    IS_TASTE(12, "isTaste", "is_taste", UserPrefer::getIsTaste),
+    IS_PICTURE(13, "isPicture", "is_picture", UserPrefer::getIsPicture),
+    IS_SHOPPING(14, "isShopping", "is_shopping", UserPrefer::getIsShopping),
+    IS_OUTDOOR(15, "isOutdoor", "is_outdoor", UserPrefer::getIsOutdoor),
+
+    // 🕘 여행 스타일
+    IS_CHILL(16, "isChill", "is_chill", UserPrefer::getIsChill),
+    IS_BUSY(17, "isBusy", "is_busy", UserPrefer::getIsBusy),
+    IS_FLEX(18, "isFlex", "is_flex", UserPrefer::getIsFlex),
+
+    // 🌆 여행지 선호도
+    IS_CITY(19, "isCity", "is_city", UserPrefer::getIsCity),
+    IS_HEAL(20, "isHeal", "is_heal", UserPrefer::getIsHeal),
+    IS_BEACH(21, "isBeach", "is_beach", UserPrefer::getIsBeach),
+    IS_MOUNTAIN(22, "isMountain", "is_mountain", UserPrefer::getIsMountain);
+
+    /**
+     * 모든 속성 비트가 켜진 마스크
+     */
+    public static final int ALL_MASK = (1 << values().length) - 1;
+
+    private final int bitIndex;
+    private final String fieldName;
+    private final String columnName;
+    private final Function<UserPrefer, Boolean> getter;
+
+    PreferenceAttribute(int bitIndex, String fieldName, String columnName, Function<UserPrefer, Boolean> getter) {
+        this.bitIndex = bitIndex;
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+        this.getter = getter;
+    }
+
+    public int getBitIndex() {
+        return bitIndex;
+    }
+
+    public int getBit() {
+        return 1 << bitIndex;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public boolean isSet(int mask) {
+        return (mask & getBit()) != 0;
+    }
+
+    /**
+     * 선호도 엔티티의 Boolean 플래그들을 비트 마스크로 변환 (null은 false로 처리)
+     */
+    public static int toMask(UserPrefer userPrefer) {
+        int mask = 0;
+        for (PreferenceAttribute attribute : values()) {
+            if (Boolean.TRUE.equals(attribute.getter.apply(userPrefer))) {
+                mask |= attribute.getBit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 필드명("isSmoker"), 컬럼명("is_smoker"), 상수명("IS_SMOKER") 중 하나로 속성 조회
+     */
+    public static PreferenceAttribute from(String name) {
+        String normalized = name.trim().replace("_", "");
+        for (PreferenceAttribute attribute : values()) {
+            if (attribute.fieldName.equalsIgnoreCase(normalized)) {
+                return attribute;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 선호도 속성입니다: " + name);
+    }
+
+    /**
+     * 쉼표로 구분한 속성 이름 목록을 비트 마스크로 변환 (비어 있으면 0)
+     */
+    public static int parseMask(String names) {
+        if (names == null || names.isBlank()) {
+            return 0;
+        }
+        int mask = 0;
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                mask |= from(name).getBit();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,72 @@
+package com.goteego.user.domain;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 선호도 속성 분류 (호환성 점수의 분류별 가중치 단위)
+ * key는 설정/요청에 쓰는 이름이며 defaultWeight는 해당 분류 플래그 하나가 다를 때의 기본 벌점
+ */
+public enum PreferenceCategory {
+
+    ALCOHOL("alcohol", 3, EnumSet.of(PreferenceAttribute.IS_ALCHOL1, PreferenceAttribute.IS_ALCHOL2,
+            PreferenceAttribute.IS_ALCHOL3)),
+    SMOKING("smoking", 5, EnumSet.of(PreferenceAttribute.IS_SMOKER)),
+    PERSONALITY("personality", 1, EnumSet.of(PreferenceAttribute.IS_FRIENDLY, PreferenceAttribute.IS_QUIET,
+            PreferenceAttribute.IS_LEAD, PreferenceAttribute.IS_PARTY, PreferenceAttribute.IS_SEARCH,
+            PreferenceAttribute.IS_LISTEN)),
+    ACTIVITY("activity", 1, EnumSet.of(PreferenceAttribute.IS_SEE, PreferenceAttribute.IS_CAFE,
+            PreferenceAttribute.IS_TASTE, PreferenceAttribute.IS_PICTURE, PreferenceAttribute.IS_SHOPPING,
+            PreferenceAttribute.IS_OUTDOOR)),
+    PACE("pace", 2, EnumSet.of(PreferenceAttribute.IS_CHILL, PreferenceAttribute.IS_BUSY,
+            PreferenceAttribute.IS_FLEX)),
+    DESTINATION("destination", 1, EnumSet.of(PreferenceAttribute.IS_CITY, PreferenceAttribute.IS_HEAL,
+            PreferenceAttribute.IS_BEACH, PreferenceAttribute.IS_MOUNTAIN));
+
+    private final String key;
+    private final int defaultWeight;
+    private final Set<PreferenceAttribute> attributes;
+    private final int mask;
+
+    PreferenceCategory(String key, int defaultWeight, Set<PreferenceAttribute> attributes) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+        this.attributes = attributes;
+        int bits = 0;
+        for (PreferenceAttribute attribute : attributes) {
+            bits |= attribute.getBit();
+        }
+        this.mask = bits;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public Set<PreferenceAttribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 분류에 속한 속성 비트 마스크
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * 설정/요청 값을 변환 (대소문자 무시)
+     */
+    public static PreferenceCategory from(String key) {
+        for (PreferenceCategory category : values()) {
+            if (category.key.equalsIgnoreCase(key.trim())) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 선호도 분류입니다: " + key);
+    }
+}
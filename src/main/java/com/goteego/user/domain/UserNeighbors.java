@@ -0,0 +1,54 @@
+package com.goteego.user.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 상위 K명 이웃 목록 엔티티
+ * 미리 계산한 이웃 ID와 거리를 가까운 순으로 배열에 저장해 기본 키 조회 한 번으로 유사 사용자를 반환
+ */
+@Entity
+@Table(name = "user_neighbors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserNeighbors {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 이웃 사용자 ID (가까운 순)
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "neighbor_ids", columnDefinition = "bigint[]", nullable = false)
+    private long[] neighborIds;
+
+    /**
+     * neighborIds와 같은 순서의 거리
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "distances", columnDefinition = "float8[]", nullable = false)
+    private double[] distances;
+
+    /**
+     * 목록에 들어오기 위한 최대 거리 (K명을 다 채우지 못했으면 무한대)
+     * 임베딩이 바뀐 사용자가 (거리, 사용자 ID) 순으로 K번째 이웃보다 앞서면 이 목록을 다시 계산
+     */
+    @Column(name = "kth_distance", nullable = false)
+    private Double kthDistance;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -106,6 +106,10 @@ public class UserPrefer {
     @Column(name = "is_mountain")
     private Boolean isMountain; // 산/등산
 
+    // 🔢 선호도 비트 마스크 (23개 플래그를 PreferenceAttribute 순서로 압축, 저장 시 자동 갱신)
+    @Column(name = "preference_mask")
+    private Integer preferenceMask;
+
     // 📅 생성/수정 시간
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -138,6 +142,22 @@ public class UserPrefer {
         };
     }
 
+    /**
+     * 현재 플래그 값으로 계산한 선호도 비트 마스크
+     */
+    public int computePreferenceMask() {
+        return PreferenceAttribute.toMask(this);
+    }
+
+    /**
+     * 저장/수정 시 preference_mask 컬럼을 플래그 값과 동기화
+     */
+    @PrePersist
+    @PreUpdate
+    public void syncPreferenceMask() {
+        this.preferenceMask = computePreferenceMask();
+    }
+
     private int booleanToInt(Boolean value) {
         return value != null && value ? 1 : 0;
     }
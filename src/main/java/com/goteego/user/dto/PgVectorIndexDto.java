@@ -0,0 +1,67 @@
+package com.goteego.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * pgvector 인덱스 관리 관련 DTO
+ */
+public class PgVectorIndexDto {
+
+    /**
+     * 인덱스 상태 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusResponse {
+        private String configuredMethod; // "hnsw" 또는 "ivfflat"
+        private boolean ensuring; // 인덱스 생성/검증 작업 실행 중 여부
+        private LocalDateTime lastEnsuredAt;
+        private String lastError;
+        private List<IndexStatus> indexes;
+        private List<BuildProgress> builds;
+    }
+
+    /**
+     * 인덱스별 상태 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IndexStatus {
+        private String indexName;
+        private String method;
+        private String operatorClass;
+        private boolean valid; // false면 CONCURRENTLY 생성이 실패했거나 진행 중
+        private boolean ready;
+        private long sizeBytes;
+        private long indexScans;
+        private String definition;
+    }
+
+    /**
+     * 진행 중인 인덱스 생성 작업 DTO (pg_stat_progress_create_index)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BuildProgress {
+        private int pid;
+        private String indexName;
+        private String command;
+        private String phase;
+        private long blocksDone;
+        private long blocksTotal;
+        private long tuplesDone;
+        private long tuplesTotal;
+    }
+}
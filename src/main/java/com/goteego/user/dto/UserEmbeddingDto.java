@@ -22,7 +22,7 @@ public class UserEmbeddingDto {
     @AllArgsConstructor
     public static class CreateRequest {
         private Long userId;
-        private List<Float> embedding;
+        private float[] embedding;
     }
 
     /**
@@ -33,9 +33,8 @@ public class UserEmbeddingDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Response {
-        private Long userEmbeddingId;
         private Long userId;
-        private List<Float> embedding;
+        private float[] embedding;
         private LocalDateTime createdAt;
         private LocalDateTime modifiedAt;
     }
@@ -49,11 +48,26 @@ public class UserEmbeddingDto {
     @AllArgsConstructor
     public static class SimilarUserResponse {
         private Long userId;
-        private List<Float> embedding;
+        private float[] embedding;
         private Double similarity; // 유사도 값 (0.0 ~ 1.0, 클수록 유사)
         private LocalDateTime createdAt;
     }
 
+    /**
+     * 선호도 조건부 유사 사용자 검색 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FilteredSearchResponse {
+        private Long userId;
+        private Integer requiredMask; // 모두 켜져 있어야 하는 선호도 플래그
+        private Integer excludedMask; // 모두 꺼져 있어야 하는 선호도 플래그
+        private Integer matchedCount; // 조건을 만족하는 사용자 수 (마스크 인덱스 미적재 시 null)
+        private List<SimilarUserResponse> users;
+    }
+
     /**
      * 유사도 계산 응답 DTO
      */
@@ -64,7 +78,110 @@ public class UserEmbeddingDto {
     public static class SimilarityResponse {
         private Long userId1;
         private Long userId2;
-        private String method; // "cosine" 또는 "euclidean"
+        private String method; // "cosine", "euclidean" 또는 "weighted"
         private Double similarity; // 유사도 값
     }
+
+    /**
+     * 유사도 행렬 요청 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarityMatrixRequest {
+        private List<Long> userIds;
+        private String method; // "cosine" 또는 "euclidean" (기본값 cosine, 그 외 값은 400)
+    }
+
+    /**
+     * 유사도 행렬 응답 DTO
+     * similarities[i][j]는 userIds[i]와 userIds[j]의 유사도
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarityMatrixResponse {
+        private List<Long> userIds;
+        private String method;
+        private double[][] similarities;
+        private List<Long> missingUserIds; // 임베딩이 없어 행렬에서 제외된 사용자
+    }
+
+    /**
+     * 평균 유사도 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AverageSimilarityResponse {
+        private Long userId;
+        private Double averageDistance; // 나머지 모든 사용자와의 평균 코사인 거리
+        private Double averageSimilarity; // 평균 유사도 (0.0 ~ 1.0, 클수록 유사)
+    }
+
+    /**
+     * 임계값 조회 결과 사용자 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ThresholdUserResponse {
+        private Long userId;
+        private Double distance; // 코사인 거리
+        private Double similarity; // 유사도 값 (0.0 ~ 1.0, 클수록 유사)
+    }
+
+    /**
+     * 임계값 조회 페이지 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ThresholdPageResponse {
+        private List<ThresholdUserResponse> users;
+        private boolean hasNext;
+        private String nextCursor; // 다음 페이지 요청 시 cursor로 전달 (마지막 페이지면 null)
+    }
+
+    /**
+     * 임베딩 재생성 작업 상태 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RebuildStatusResponse {
+        private String jobName;
+        private boolean running; // 현재 이 인스턴스에서 실행 중 여부
+        private String status; // RUNNING, COMPLETED, FAILED (실행 이력이 없으면 null)
+        private Long lastUserId; // 마지막으로 처리한 사용자 ID
+        private Long processedCount;
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+        private LocalDateTime modifiedAt;
+        private String lastError;
+    }
+
+    /**
+     * 임베딩 투영 모델 상태 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProjectionStatusResponse {
+        private boolean running; // 학습 또는 되돌리기 작업 실행 여부
+        private boolean projected; // 임베딩이 주성분 좌표인지 여부 (false면 0/1 플래그 배열)
+        private Integer sourceDimensions;
+        private Integer targetDimensions;
+        private Long sampleCount; // 학습에 사용한 사용자 수
+        private Double explainedVarianceRatio; // 보관한 성분이 설명하는 분산 비율
+        private double[] componentVariances;
+        private String lastError;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.goteego.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 사용자 이웃 목록 관련 DTO
+ */
+public class UserNeighborDto {
+
+    /**
+     * 이웃 목록 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NeighborListResponse {
+        private Long userId;
+        private String metric; // "cosine" 또는 "euclidean"
+        private LocalDateTime computedAt;
+        private long ageSeconds; // 계산 후 경과 시간
+        private boolean pendingRefresh; // 이 사용자의 임베딩 변경이 아직 반영되지 않았는지 여부
+        private List<Neighbor> neighbors;
+    }
+
+    /**
+     * 이웃 한 명 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Neighbor {
+        private Long userId;
+        private Double distance;
+        private Double similarity; // 유사도 값 (0.0 ~ 1.0, 클수록 유사)
+    }
+
+    /**
+     * 이웃 목록 상태 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusResponse {
+        private boolean enabled;
+        private int k;
+        private String metric;
+        private long lists; // 저장된 목록 수
+        private LocalDateTime oldestComputedAt;
+        private LocalDateTime newestComputedAt;
+        private int pendingUsers; // 반영 대기 중인 임베딩 변경 사용자 수
+        private boolean rebuilding;
+        private LocalDateTime lastRebuiltAt;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 사용자 선호도 DTO
@@ -122,4 +124,132 @@ public class UserPreferDto {
         private Double similarityScore;
         private Response preferences;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 유사 사용자 페이지 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarUserPageResponse {
+        private List<SimilarUserResponse> users;
+        private boolean hasNext;
+        private String nextCursor; // 다음 페이지 요청 시 cursor로 전달 (마지막 페이지면 null)
+    }
+
+    /**
+     * 선호도 조건식 대상 사용자 응답 DTO (countOnly 요청이면 userIds 없이 matchedCount만)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AudienceResponse {
+        private String expression; // 해석된 조건식
+        private String source; // memory | sql
+        private Long matchedCount;
+        private List<Long> userIds;
+        private Boolean hasNext;
+        private Long nextCursor; // 다음 페이지 요청 시 afterUserId로 전달 (마지막 페이지면 null)
+    }
+
+    /**
+     * 속성별 사용자 목록 페이지 응답 DTO (countOnly 요청이면 users 없이 matchedCount만)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PreferencePageResponse {
+        private String expression; // 적용된 조건식
+        private String source; // memory | sql
+        private Long matchedCount;
+        private List<PreferenceFlagsResponse> users;
+        private Boolean hasNext;
+        private Long nextCursor; // 다음 페이지 요청 시 afterUserId로 전달 (마지막 페이지면 null)
+    }
+
+    /**
+     * 사용자 ID와 요청한 속성 값만 담은 응답 DTO (fields를 지정하지 않으면 preferences는 null)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PreferenceFlagsResponse {
+        private Long userId;
+        private Map<String, Boolean> preferences;
+    }
+
+    /**
+     * 선호도 분포 응답 DTO (counts[i] = attributes[i]를 선택한 사용자 수, cooccurrence[i][j] = 둘 다 선택한 사용자 수)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DistributionResponse {
+        private Long totalUsers;
+        private List<String> attributes;
+        private long[] counts;
+        private long[][] cooccurrence;
+        private LocalDateTime reconciledAt; // 마지막으로 DB 기준 재집계한 시간
+    }
+
+    /**
+     * 호환성 가중치 교체 요청 DTO (없는 항목은 현재 값 유지)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompatibilityWeightsRequest {
+        private Map<String, Integer> weights; // 분류(alcohol, smoking, personality, activity, pace, destination)별 0~255
+        private List<String> hardMismatch; // 하나라도 다르면 벌점을 주는 분류
+        private Integer hardMismatchPenalty;
+    }
+
+    /**
+     * 호환성 가중치 응답 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompatibilityWeightsResponse {
+        private Map<String, Integer> weights;
+        private List<String> hardMismatch;
+        private Integer hardMismatchPenalty;
+    }
+
+    /**
+     * 선호도 대량 가져오기 결과 DTO
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportResponse {
+        private String format; // ndjson 또는 csv
+        private long totalRows; // 빈 줄과 CSV 헤더를 제외한 행 수
+        private long importedRows;
+        private long failedRows;
+        private List<ImportError> errors; // 실패한 행 (최대 보고 개수까지)
+        private boolean errorsTruncated; // 실패한 행이 더 있어 일부만 보고했는지
+        private long elapsedMs;
+    }
+
+    /**
+     * 가져오기에 실패한 행
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportError {
+        private long line; // 입력의 줄 번호 (1부터)
+        private Long userId; // 해석하지 못한 경우 null
+        private String message;
+    }
+}
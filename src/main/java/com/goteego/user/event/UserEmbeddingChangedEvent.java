@@ -0,0 +1,32 @@
+package com.goteego.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 사용자 임베딩 변경 이벤트
+ * 임베딩이 저장/수정되거나 삭제되었을 때 발행되어 메모리 인덱스 등이 갱신되도록 함
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserEmbeddingChangedEvent {
+
+    private final Long userId;
+
+    /**
+     * 변경된 임베딩 벡터, 삭제된 경우 null
+     */
+    private final float[] embedding;
+
+    public static UserEmbeddingChangedEvent saved(Long userId, float[] embedding) {
+        return new UserEmbeddingChangedEvent(userId, embedding);
+    }
+
+    public static UserEmbeddingChangedEvent deleted(Long userId) {
+        return new UserEmbeddingChangedEvent(userId, null);
+    }
+
+    public boolean isDeleted() {
+        return embedding == null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.goteego.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 사용자 선호도 변경 이벤트
+ * 선호도가 저장/수정되거나 삭제되었을 때 발행
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserPreferChangedEvent {
+
+    private final Long userId;
+
+    /**
+     * 변경 전 선호도 비트 마스크 (새로 저장된 경우 null)
+     */
+    private final Integer previousMask;
+
+    /**
+     * 변경된 선호도 비트 마스크 (PreferenceAttribute 순서)
+     */
+    private final int preferenceMask;
+
+    private final boolean deleted;
+
+    /**
+     * 같은 트랜잭션에서 임베딩도 함께 저장했는지 (true면 임베딩 증분 갱신 대상에서 제외)
+     */
+    private final boolean embeddingCurrent;
+
+    public static UserPreferChangedEvent saved(Long userId, Integer previousMask, int preferenceMask) {
+        return new UserPreferChangedEvent(userId, previousMask, preferenceMask, false, false);
+    }
+
+    /**
+     * 선호도와 임베딩을 함께 저장한 경우 (대량 가져오기)
+     */
+    public static UserPreferChangedEvent importedWithEmbedding(Long userId, Integer previousMask, int preferenceMask) {
+        return new UserPreferChangedEvent(userId, previousMask, preferenceMask, false, true);
+    }
+
+    public static UserPreferChangedEvent deleted(Long userId, Integer previousMask) {
+        return new UserPreferChangedEvent(userId, previousMask, 0, true, false);
+    }
+}
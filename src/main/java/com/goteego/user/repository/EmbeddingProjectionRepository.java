@@ -0,0 +1,12 @@
+package com.goteego.user.repository;
+
+import com.goteego.user.domain.EmbeddingProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 선호도 임베딩 투영 모델 Repository
+ */
+@Repository
+public interface EmbeddingProjectionRepository extends JpaRepository<EmbeddingProjection, String> {
+}
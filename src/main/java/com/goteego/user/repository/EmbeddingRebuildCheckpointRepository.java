@@ -0,0 +1,12 @@
+package com.goteego.user.repository;
+
+import com.goteego.user.domain.EmbeddingRebuildCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 임베딩 재생성 작업 체크포인트 Repository
+ */
+@Repository
+public interface EmbeddingRebuildCheckpointRepository extends JpaRepository<EmbeddingRebuildCheckpoint, String> {
+}
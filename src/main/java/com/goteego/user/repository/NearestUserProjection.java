@@ -0,0 +1,14 @@
+package com.goteego.user.repository;
+
+/**
+ * 가장 가까운 사용자 조회 결과 Projection
+ */
+public interface NearestUserProjection {
+
+    Long getUserId();
+
+    /**
+     * 대상 임베딩과의 코사인 거리
+     */
+    Double getDistance();
+}
@@ -0,0 +1,95 @@
+package com.goteego.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * pgvector 인덱스 JDBC Repository
+ * 인덱스 생성/삭제, 상태/생성 진행률 조회, 트랜잭션 단위 검색 설정 제공
+ * CREATE/DROP INDEX CONCURRENTLY는 트랜잭션 안에서 실행할 수 없으므로 트랜잭션 없이 호출해야 함
+ */
+@Repository
+@RequiredArgsConstructor
+public class PgVectorIndexRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 테이블의 pgvector 인덱스(hnsw, ivfflat) 상태 조회
+     */
+    public List<Map<String, Object>> findVectorIndexes(String tableName) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname AS index_name,
+                       am.amname AS method,
+                       pg_get_indexdef(i.indexrelid) AS definition,
+                       i.indisvalid AS valid,
+                       i.indisready AS ready,
+                       pg_relation_size(i.indexrelid) AS size_bytes,
+                       COALESCE(s.idx_scan, 0) AS index_scans
+                FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                JOIN pg_class t ON t.oid = i.indrelid
+                JOIN pg_am am ON am.oid = c.relam
+                LEFT JOIN pg_stat_user_indexes s ON s.indexrelid = i.indexrelid
+                WHERE t.relname = ? AND am.amname IN ('hnsw', 'ivfflat')
+                ORDER BY c.relname
+                """, tableName);
+    }
+
+    /**
+     * 테이블에 대해 진행 중인 인덱스 생성 작업 조회
+     */
+    public List<Map<String, Object>> findBuildProgress(String tableName) {
+        return jdbcTemplate.queryForList("""
+                SELECT p.pid,
+                       ic.relname AS index_name,
+                       p.command,
+                       p.phase,
+                       p.blocks_done,
+                       p.blocks_total,
+                       p.tuples_done,
+                       p.tuples_total
+                FROM pg_stat_progress_create_index p
+                JOIN pg_class t ON t.oid = p.relid
+                LEFT JOIN pg_class ic ON ic.oid = p.index_relid
+                WHERE t.relname = ?
+                """, tableName);
+    }
+
+    public long countRows(String tableName) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 쓰기를 막지 않고 인덱스 생성
+     */
+    public void createIndexConcurrently(String indexName, String tableName, String method,
+                                        String columnName, String operatorClass, String withOptions) {
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName
+                + " ON " + tableName + " USING " + method + " (" + columnName + " " + operatorClass + ")"
+                + " WITH (" + withOptions + ")");
+    }
+
+    /**
+     * 쓰기를 막지 않고 인덱스 삭제
+     */
+    public void dropIndexConcurrently(String indexName) {
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+    }
+
+    /**
+     * 현재 트랜잭션에만 적용되는 pgvector 검색 설정 (트랜잭션이 끝나면 원래 값으로 돌아감)
+     */
+    public void applyLocalSearchSettings(int efSearch, int probes, boolean indexScan) {
+        jdbcTemplate.queryForList("""
+                SELECT set_config('hnsw.ef_search', ?, true),
+                       set_config('ivfflat.probes', ?, true),
+                       set_config('enable_indexscan', ?, true)
+                """, String.valueOf(efSearch), String.valueOf(probes), indexScan ? "on" : "off");
+    }
+}
@@ -0,0 +1,24 @@
+package com.goteego.user.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 유사도 검색 결과 Projection
+ * pgvector 검색 한 번으로 사용자 ID, 임베딩, 거리 값을 함께 조회
+ */
+public interface SimilarUserProjection {
+
+    Long getUserId();
+
+    /**
+     * pgvector 텍스트 형식의 임베딩 ("[1,0,1,...]")
+     */
+    String getEmbedding();
+
+    /**
+     * 대상 임베딩과의 거리 (코사인 거리 또는 유클리드 거리)
+     */
+    Double getDistance();
+
+    LocalDateTime getCreatedAt();
+}
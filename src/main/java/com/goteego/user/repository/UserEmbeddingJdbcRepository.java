@@ -0,0 +1,378 @@
+package com.goteego.user.repository;
+
+import com.goteego.user.domain.PgVector;
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.similarity.DistanceCursor;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.ScoredUser;
+import com.goteego.user.domain.PgVectorType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 사용자 임베딩 JDBC Repository
+ * 엔티티를 거치지 않는 대량 조회/쓰기 작업 제공
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEmbeddingJdbcRepository {
+
+    /**
+     * 서버 측 커서로 한 번에 가져올 행 수
+     */
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    /**
+     * user_id 충돌 시 기존 행을 갱신하는 단일 문장 upsert (생성 시각은 유지)
+     */
+    private static final String UPSERT_SQL = """
+        INSERT INTO user_embeddings (user_id, user_embedding, created_at, modified_at)
+        VALUES (?, ?, now(), now())
+        ON CONFLICT (user_id) DO UPDATE
+        SET user_embedding = EXCLUDED.user_embedding,
+            modified_at = EXCLUDED.modified_at
+        """;
+
+    /**
+     * 임계값 조회 스트리밍 시 한 번에 가져올 행 수
+     */
+    private static final int THRESHOLD_FETCH_SIZE = 1_000;
+
+    /**
+     * 대상 벡터와의 코사인 거리가 임계값 미만인 사용자 (ORDER BY/키셋 조건은 호출부에서 추가)
+     */
+    private static final String WITHIN_COSINE_DISTANCE_SQL = """
+        SELECT d.user_id, d.distance
+        FROM (SELECT ue.user_id, ue.user_embedding <=> ? AS distance
+              FROM user_embeddings ue
+              WHERE ue.user_id <> ?
+                AND ue.user_embedding IS NOT NULL) d
+        WHERE d.distance < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 모든 사용자 임베딩을 커서로 순회
+     * 전체 결과를 메모리에 올리지 않도록 트랜잭션 안에서 fetch size를 지정해 조회
+     * 커넥션에 pgvector 타입을 등록해 문자열 파싱 없이 float[]로 전달
+     */
+    @Transactional(readOnly = true)
+    public void streamAllEmbeddings(EmbeddingRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement("""
+                SELECT ue.user_id, ue.user_embedding
+                FROM user_embeddings ue
+                WHERE ue.user_embedding IS NOT NULL
+                """);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), PgVectorType.toArray(rs.getObject(2)));
+        });
+    }
+
+    /**
+     * 지정한 사용자들의 임베딩 조회 (임베딩이 없는 사용자는 결과에 없음)
+     */
+    @Transactional(readOnly = true)
+    public void findEmbeddings(long[] userIds, int count, EmbeddingRowHandler handler) {
+        if (count == 0) {
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement("""
+                SELECT ue.user_id, ue.user_embedding
+                FROM user_embeddings ue
+                WHERE ue.user_id = ANY(?) AND ue.user_embedding IS NOT NULL
+                """);
+            Long[] ids = new Long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = userIds[i];
+            }
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), PgVectorType.toArray(rs.getObject(2)));
+        });
+    }
+
+    /**
+     * 임베딩이 있는 행 수와 벡터 합 (pgvector sum 집계)
+     * 메모리 집계값이 테이블과 어긋났는지 확인하는 데 사용
+     */
+    @Transactional(readOnly = true)
+    public EmbeddingSummary summarizeEmbeddings() {
+        return jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            return connection.prepareStatement(
+                    "SELECT count(*), sum(ue.user_embedding) FROM user_embeddings ue WHERE ue.user_embedding IS NOT NULL");
+        }, rs -> {
+            rs.next();
+            Object sum = rs.getObject(2);
+            return new EmbeddingSummary(rs.getLong(1), sum != null ? PgVectorType.toArray(sum) : new float[0]);
+        });
+    }
+
+    /**
+     * 대상 벡터와의 코사인 거리가 threshold 미만인 사용자를 (거리, 사용자 ID) 순으로 최대 limit명 조회
+     * after가 있으면 그 행 다음부터 조회하는 키셋 페이지
+     */
+    @Transactional(readOnly = true)
+    public List<ScoredUser> findUsersWithinCosineDistance(float[] target, long excludeUserId, double threshold,
+                                                          DistanceCursor after, int limit) {
+        String sql = WITHIN_COSINE_DISTANCE_SQL
+                + (after != null ? " AND (d.distance, d.user_id) > (?, ?)" : "")
+                + " ORDER BY d.distance, d.user_id LIMIT ?";
+        return jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = bindWithinCosineDistance(ps, target, excludeUserId, threshold);
+            if (after != null) {
+                ps.setDouble(index++, after.getDistance());
+                ps.setLong(index++, after.getUserId());
+            }
+            ps.setInt(index, limit);
+            return ps;
+        }, (rs, rowNum) -> new ScoredUser(rs.getLong(1), rs.getDouble(2)));
+    }
+
+    /**
+     * 대상 벡터와의 코사인 거리가 threshold 미만인 모든 사용자를 (거리, 사용자 ID) 순으로 커서 순회
+     * 결과 전체를 메모리에 올리지 않도록 fetch size를 지정해 조회
+     */
+    @Transactional(readOnly = true)
+    public void streamUsersWithinCosineDistance(float[] target, long excludeUserId, double threshold,
+                                                ScoredRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement(
+                    WITHIN_COSINE_DISTANCE_SQL + " ORDER BY d.distance, d.user_id");
+            bindWithinCosineDistance(ps, target, excludeUserId, threshold);
+            ps.setFetchSize(THRESHOLD_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getDouble(2));
+        });
+    }
+
+    /**
+     * 지정한 사용자들 중 대상 벡터와 가장 가까운 limit명을 거리 순으로 조회 (사전 필터 결과 순위화)
+     */
+    @Transactional(readOnly = true)
+    public void findNearestAmong(float[] target, DistanceMetric metric, long[] candidateIds, int count,
+                                 long excludeUserId, int limit, ScoredEmbeddingRowHandler handler) {
+        if (count == 0) {
+            return;
+        }
+        String sql = "SELECT ue.user_id, ue.user_embedding " + operator(metric) + " ? AS distance, ue.user_embedding"
+                + " FROM user_embeddings ue"
+                + " WHERE ue.user_id = ANY(?) AND ue.user_id <> ? AND ue.user_embedding IS NOT NULL"
+                + " ORDER BY distance, ue.user_id LIMIT ?";
+        jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement(sql);
+            Long[] ids = new Long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = candidateIds[i];
+            }
+            ps.setObject(1, new PgVector(target));
+            ps.setArray(2, connection.createArrayOf("bigint", ids));
+            ps.setLong(3, excludeUserId);
+            ps.setInt(4, limit);
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getDouble(2), PgVectorType.toArray(rs.getObject(3)));
+        });
+    }
+
+    /**
+     * 선호도 마스크 조건(requiredMask 플래그 모두 켜짐, excludedMask 플래그 모두 꺼짐)을 만족하는 사용자 중
+     * 대상 벡터와 가장 가까운 limit명을 거리 순으로 조회
+     * 조건을 만족하는 사용자가 많을 때 사용하며, 거리 정렬은 pgvector 인덱스를 사용할 수 있도록 연산식 그대로 지정
+     * 인덱스를 타면 조건은 ef_search개 후보에만 적용되므로 호출 측에서 같은 트랜잭션에 검색 설정을 적용해야 함
+     */
+    @Transactional(readOnly = true)
+    public void findNearestMatchingMask(float[] target, DistanceMetric metric, int requiredMask, int excludedMask,
+                                        long excludeUserId, int limit, ScoredEmbeddingRowHandler handler) {
+        String distance = "ue.user_embedding " + operator(metric) + " ?";
+        String mask = "COALESCE(up.preference_mask, " + UserPreferJdbcRepository.PREFERENCE_MASK_EXPRESSION + ")";
+        String sql = "SELECT ue.user_id, " + distance + " AS distance, ue.user_embedding"
+                + " FROM user_embeddings ue JOIN user_prefer up ON up.user_id = ue.user_id"
+                + " WHERE (" + mask + " & ?) = ? AND (" + mask + " & ?) = 0"
+                + " AND ue.user_id <> ? AND ue.user_embedding IS NOT NULL"
+                + " ORDER BY " + distance + " LIMIT ?";
+        jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement(sql);
+            PgVector vector = new PgVector(target);
+            ps.setObject(1, vector);
+            ps.setInt(2, requiredMask);
+            ps.setInt(3, requiredMask);
+            ps.setInt(4, excludedMask);
+            ps.setLong(5, excludeUserId);
+            ps.setObject(6, vector);
+            ps.setInt(7, limit);
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getDouble(2), PgVectorType.toArray(rs.getObject(3)));
+        });
+    }
+
+    private static String operator(DistanceMetric metric) {
+        return metric == DistanceMetric.EUCLIDEAN ? "<->" : "<=>";
+    }
+
+    private static int bindWithinCosineDistance(PreparedStatement ps, float[] target, long excludeUserId,
+                                                double threshold) throws SQLException {
+        ps.setObject(1, new PgVector(target));
+        ps.setLong(2, excludeUserId);
+        ps.setDouble(3, threshold);
+        return 4;
+    }
+
+    /**
+     * 사용자 임베딩 저장 (user_id 충돌 시 벡터와 수정 시각만 갱신하는 단일 문장)
+     * 저장된 행의 생성/수정 시각을 담아 반환
+     */
+    @Transactional
+    public UserEmbedding upsertEmbedding(long userId, float[] embedding) {
+        List<UserEmbedding> saved = jdbcTemplate.query(connection -> {
+            PgVectorType.registerType(connection);
+            PreparedStatement ps = connection.prepareStatement(UPSERT_SQL + " RETURNING created_at, modified_at");
+            bindUpsert(ps, userId, embedding);
+            return ps;
+        }, (rs, rowNum) -> UserEmbedding.builder()
+                .userId(userId)
+                .userEmbedding(embedding)
+                .createdAt(rs.getObject(1, LocalDateTime.class))
+                .modifiedAt(rs.getObject(2, LocalDateTime.class))
+                .build());
+        return saved.get(0);
+    }
+
+    /**
+     * 여러 사용자의 임베딩을 JDBC 배치로 저장 (user_id 충돌 시 갱신)
+     * 호출한 트랜잭션 안에서 실행되며 벡터는 pgvector 바이너리 형식으로 전송
+     */
+    @Transactional
+    public void batchUpsertEmbeddings(long[] userIds, float[][] embeddings, int count) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PgVectorType.registerType(ps.getConnection());
+                bindUpsert(ps, userIds[i], embeddings[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * 여러 사용자의 임베딩을 한 문장으로 삭제
+     */
+    @Transactional
+    public int deleteEmbeddings(long[] userIds, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM user_embeddings WHERE user_id = ANY(?)");
+            Long[] ids = new Long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = userIds[i];
+            }
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+
+    /**
+     * user_embedding_id 대리 키를 쓰던 기존 테이블을 user_id 기본 키로 전환
+     * 사용자별로 마지막에 저장된 행만 남기고 중복 행을 지운 뒤 대리 키 컬럼을 삭제 (이미 전환된 경우 -1 반환)
+     */
+    @Transactional
+    public int migrateToUserIdPrimaryKey() {
+        Boolean legacy = jdbcTemplate.queryForObject("""
+            SELECT EXISTS (
+                SELECT 1 FROM information_schema.columns
+                WHERE table_schema = current_schema()
+                  AND table_name = 'user_embeddings'
+                  AND column_name = 'user_embedding_id')
+            """, Boolean.class);
+        if (!Boolean.TRUE.equals(legacy)) {
+            return -1;
+        }
+
+        int removed = jdbcTemplate.update("""
+            DELETE FROM user_embeddings
+            WHERE user_id IS NULL
+               OR user_embedding_id IN (
+                   SELECT ranked.user_embedding_id
+                   FROM (SELECT ue.user_embedding_id,
+                                ROW_NUMBER() OVER (PARTITION BY ue.user_id ORDER BY ue.user_embedding_id DESC) AS rn
+                         FROM user_embeddings ue) ranked
+                   WHERE ranked.rn > 1)
+            """);
+        jdbcTemplate.execute("ALTER TABLE user_embeddings DROP COLUMN user_embedding_id");
+        jdbcTemplate.execute("ALTER TABLE user_embeddings ADD PRIMARY KEY (user_id)");
+        return removed;
+    }
+
+    private static void bindUpsert(PreparedStatement ps, long userId, float[] embedding) throws SQLException {
+        ps.setLong(1, userId);
+        if (embedding != null) {
+            ps.setObject(2, new PgVector(embedding));
+        } else {
+            ps.setNull(2, Types.OTHER);
+        }
+    }
+
+    /**
+     * 임베딩 테이블 집계 결과
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class EmbeddingSummary {
+        private final long count;
+        private final float[] sum;
+    }
+
+    /**
+     * 거리 조회 결과 행 처리 콜백
+     */
+    @FunctionalInterface
+    public interface ScoredRowHandler {
+        void handle(long userId, double distance);
+    }
+
+    /**
+     * 거리와 임베딩을 함께 조회한 결과 행 처리 콜백
+     */
+    @FunctionalInterface
+    public interface ScoredEmbeddingRowHandler {
+        void handle(long userId, double distance, float[] embedding);
+    }
+
+    /**
+     * 임베딩 행 처리 콜백
+     */
+    @FunctionalInterface
+    public interface EmbeddingRowHandler {
+        void handle(long userId, float[] embedding);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,19 +22,29 @@ public interface UserEmbeddingRepository extends JpaRepository<UserEmbedding, Lo
      */
     Optional<UserEmbedding> findByUserId(Long userId);
 
+    /**
+     * 여러 사용자의 임베딩을 한 번의 IN 쿼리로 조회
+     */
+    List<UserEmbedding> findByUserIdIn(Collection<Long> userIds);
+
     /**
      * pgvector를 사용한 코사인 유사도 검색
      * 가장 유사한 사용자들을 반환 (상위 N개)
+     * 임베딩과 거리를 한 번의 쿼리로 함께 반환하므로 결과 행마다 재조회할 필요가 없음
+     * 임베딩이 없는 행은 거리가 없으므로 제외
      */
     @Query(value = """
-        SELECT ue.user_id, ue.user_embedding, 
-               (ue.user_embedding <=> :targetEmbedding) as similarity
+        SELECT ue.user_id AS "userId",
+               CAST(ue.user_embedding AS text) AS "embedding",
+               (ue.user_embedding <=> CAST(:targetEmbedding AS vector)) AS "distance",
+               ue.created_at AS "createdAt"
         FROM user_embeddings ue
         WHERE ue.user_id != :excludeUserId
-        ORDER BY ue.user_embedding <=> :targetEmbedding
+          AND ue.user_embedding IS NOT NULL
+        ORDER BY ue.user_embedding <=> CAST(:targetEmbedding AS vector)
         LIMIT :limit
         """, nativeQuery = true)
-    List<Object[]> findSimilarUsersByCosineDistance(
+    List<SimilarUserProjection> findSimilarUsersByCosineDistance(
         @Param("targetEmbedding") String targetEmbedding,
         @Param("excludeUserId") Long excludeUserId,
         @Param("limit") int limit
@@ -43,48 +54,35 @@ public interface UserEmbeddingRepository extends JpaRepository<UserEmbedding, Lo
      * pgvector를 사용한 유클리드 거리 검색
      */
     @Query(value = """
-        SELECT ue.user_id, ue.user_embedding, 
-               (ue.user_embedding <-> :targetEmbedding) as distance
+        SELECT ue.user_id AS "userId",
+               CAST(ue.user_embedding AS text) AS "embedding",
+               (ue.user_embedding <-> CAST(:targetEmbedding AS vector)) AS "distance",
+               ue.created_at AS "createdAt"
         FROM user_embeddings ue
         WHERE ue.user_id != :excludeUserId
-        ORDER BY ue.user_embedding <-> :targetEmbedding
+          AND ue.user_embedding IS NOT NULL
+        ORDER BY ue.user_embedding <-> CAST(:targetEmbedding AS vector)
         LIMIT :limit
         """, nativeQuery = true)
-    List<Object[]> findSimilarUsersByEuclideanDistance(
+    List<SimilarUserProjection> findSimilarUsersByEuclideanDistance(
         @Param("targetEmbedding") String targetEmbedding,
         @Param("excludeUserId") Long excludeUserId,
         @Param("limit") int limit
     );
 
     /**
-     * 특정 임베딩과 유사도가 임계값 이상인 사용자들 조회
-     */
-    @Query(value = """
-        SELECT ue.user_id, ue.user_embedding, 
-               (ue.user_embedding <=> :targetEmbedding) as similarity
-        FROM user_embeddings ue
-        WHERE ue.user_id != :excludeUserId
-        AND (ue.user_embedding <=> :targetEmbedding) < :threshold
-        ORDER BY ue.user_embedding <=> :targetEmbedding
-        """, nativeQuery = true)
-    List<Object[]> findUsersAboveSimilarityThreshold(
-        @Param("targetEmbedding") String targetEmbedding,
-        @Param("excludeUserId") Long excludeUserId,
-        @Param("threshold") double threshold
-    );
-
-    /**
-     * 특정 사용자와 가장 유사한 사용자 1명 조회
+     * 특정 사용자와 가장 유사한 사용자 1명 조회 (코사인 거리, 임베딩이 없는 행 제외)
      */
     @Query(value = """
-        SELECT ue.user_id, ue.user_embedding, 
-               (ue.user_embedding <=> :targetEmbedding) as similarity
+        SELECT ue.user_id AS "userId",
+               (ue.user_embedding <=> CAST(:targetEmbedding AS vector)) AS "distance"
         FROM user_embeddings ue
         WHERE ue.user_id != :excludeUserId
-        ORDER BY ue.user_embedding <=> :targetEmbedding
+          AND ue.user_embedding IS NOT NULL
+        ORDER BY ue.user_embedding <=> CAST(:targetEmbedding AS vector)
         LIMIT 1
         """, nativeQuery = true)
-    Optional<Object[]> findMostSimilarUser(
+    Optional<NearestUserProjection> findMostSimilarUser(
         @Param("targetEmbedding") String targetEmbedding,
         @Param("excludeUserId") Long excludeUserId
     );
@@ -96,12 +94,13 @@ public interface UserEmbeddingRepository extends JpaRepository<UserEmbedding, Lo
     long countUsersWithEmbeddings();
 
     /**
-     * 특정 사용자와 유사한 사용자들의 평균 유사도 계산
+     * 특정 사용자와 나머지 사용자들 사이의 평균 코사인 거리 계산 (영벡터 제외)
      */
     @Query(value = """
-        SELECT AVG(ue.user_embedding <=> :targetEmbedding) as avg_similarity
+        SELECT AVG(ue.user_embedding <=> CAST(:targetEmbedding AS vector)) as avg_similarity
         FROM user_embeddings ue
         WHERE ue.user_id != :excludeUserId
+          AND vector_norm(ue.user_embedding) > 0
         """, nativeQuery = true)
     Double getAverageSimilarity(
         @Param("targetEmbedding") String targetEmbedding,
@@ -0,0 +1,158 @@
+package com.goteego.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자 이웃 목록 JDBC Repository
+ * 이웃 목록 일괄 저장과 증분 갱신 대상 조회 제공
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserNeighborsJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 특정 사용자를 이웃으로 가진 목록을 찾기 위한 GIN 인덱스 생성
+     */
+    public void ensureNeighborIdsIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_neighbors_neighbor_ids"
+                + " ON user_neighbors USING gin (neighbor_ids)");
+    }
+
+    /**
+     * 여러 사용자의 이웃 목록을 JDBC 배치로 저장 (user_id 충돌 시 갱신)
+     */
+    @Transactional
+    public void batchUpsert(long[] userIds, long[][] neighborIds, double[][] distances, double[] kthDistances,
+                            int count) {
+        Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO user_neighbors (user_id, neighbor_ids, distances, kth_distance, computed_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET neighbor_ids = EXCLUDED.neighbor_ids,
+                distances = EXCLUDED.distances,
+                kth_distance = EXCLUDED.kth_distance,
+                computed_at = EXCLUDED.computed_at
+            """, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Connection connection = ps.getConnection();
+                ps.setLong(1, userIds[i]);
+                ps.setArray(2, connection.createArrayOf("bigint", boxed(neighborIds[i])));
+                ps.setArray(3, connection.createArrayOf("float8", boxed(distances[i])));
+                ps.setDouble(4, kthDistances[i]);
+                ps.setTimestamp(5, computedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * 여러 사용자의 이웃 목록 삭제
+     */
+    @Transactional
+    public int deleteByUserIds(long[] userIds, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM user_neighbors WHERE user_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", boxed(userIds, count)));
+            return ps;
+        });
+    }
+
+    /**
+     * 임베딩이 없어진 사용자의 이웃 목록 삭제
+     */
+    @Transactional
+    public int deleteOrphans() {
+        return jdbcTemplate.update("DELETE FROM user_neighbors un WHERE NOT EXISTS"
+                + " (SELECT 1 FROM user_embeddings ue WHERE ue.user_id = un.user_id AND ue.user_embedding IS NOT NULL)");
+    }
+
+    /**
+     * 주어진 사용자 중 하나라도 이웃으로 가진 목록의 사용자 ID
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findUsersListingAny(long[] neighborIds, int count) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT un.user_id FROM user_neighbors un WHERE un.neighbor_ids && ?");
+            ps.setArray(1, connection.createArrayOf("bigint", boxed(neighborIds, count)));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * 모든 목록의 K번째 이웃(거리, 사용자 ID)을 커서로 순회 (목록이 비어 있으면 이웃 ID는 null)
+     */
+    @Transactional(readOnly = true)
+    public void streamKthNeighbors(KthNeighborRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                SELECT un.user_id, un.kth_distance, un.neighbor_ids[cardinality(un.neighbor_ids)]
+                FROM user_neighbors un
+                """);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            long kthNeighborId = rs.getLong(3);
+            handler.handle(rs.getLong(1), rs.getDouble(2), rs.wasNull() ? Long.MAX_VALUE : kthNeighborId);
+        });
+    }
+
+    /**
+     * 목록 수와 가장 오래된/최근 계산 시각
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> summarize() {
+        return jdbcTemplate.queryForMap("SELECT count(*) AS rows, min(computed_at) AS oldest, max(computed_at) AS newest"
+                + " FROM user_neighbors");
+    }
+
+    private static Long[] boxed(long[] values) {
+        return boxed(values, values.length);
+    }
+
+    private static Long[] boxed(long[] values, int count) {
+        Long[] result = new Long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    private static Double[] boxed(double[] values) {
+        Double[] result = new Double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface KthNeighborRowHandler {
+        void handle(long userId, double kthDistance, long kthNeighborId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.goteego.user.repository;
+
+import com.goteego.user.domain.UserNeighbors;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 사용자 이웃 목록 Repository
+ */
+@Repository
+public interface UserNeighborsRepository extends JpaRepository<UserNeighbors, Long> {
+}
@@ -0,0 +1,282 @@
+package com.goteego.user.repository;
+
+import com.goteego.user.domain.PreferenceAttribute;
+import com.goteego.user.similarity.PreferenceMaskPredicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자 선호도 JDBC Repository
+ * preference_mask 컬럼 기반의 대량 조회/갱신 작업과 비트 마스크 조건 조회 제공
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserPreferJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    /**
+     * Boolean 컬럼들로 preference_mask 값을 계산하는 SQL 식
+     */
+    public static final String PREFERENCE_MASK_EXPRESSION = Arrays.stream(PreferenceAttribute.values())
+            .map(attribute -> "(CAST(COALESCE(" + attribute.getColumnName() + ", false) AS integer) << "
+                    + attribute.getBitIndex() + ")")
+            .collect(Collectors.joining(" | "));
+
+    /**
+     * 선호도 upsert SQL (Boolean 컬럼들, preference_mask, user_id 순으로 바인딩)
+     * 기존 행을 갱신할 때 null로 전달된 속성은 저장된 값을 유지하고, preference_mask는 합친 값으로 다시 계산
+     */
+    private static final String UPSERT_SQL = "INSERT INTO user_prefer ("
+            + Arrays.stream(PreferenceAttribute.values())
+                    .map(PreferenceAttribute::getColumnName)
+                    .collect(Collectors.joining(", "))
+            + ", preference_mask, user_id, created_at, modified_at) VALUES ("
+            + "?, ".repeat(PreferenceAttribute.values().length)
+            + "?, ?, now(), now()) ON CONFLICT (user_id) DO UPDATE SET "
+            + Arrays.stream(PreferenceAttribute.values())
+                    .map(attribute -> attribute.getColumnName() + " = " + mergedColumn(attribute))
+                    .collect(Collectors.joining(", "))
+            + ", preference_mask = " + Arrays.stream(PreferenceAttribute.values())
+                    .map(attribute -> "(CAST(COALESCE(" + mergedColumn(attribute) + ", false) AS integer) << "
+                            + attribute.getBitIndex() + ")")
+                    .collect(Collectors.joining(" | "))
+            + ", modified_at = EXCLUDED.modified_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * preference_mask가 비어 있는 기존 행을 Boolean 컬럼 값으로 채움
+     */
+    @Transactional
+    public int backfillPreferenceMasks() {
+        return jdbcTemplate.update("UPDATE user_prefer SET preference_mask = " + PREFERENCE_MASK_EXPRESSION
+                + " WHERE preference_mask IS NULL");
+    }
+
+    /**
+     * 마스크 조건 조회용 (user_id, preference_mask) 커버링 인덱스 생성
+     * 비트 연산 조건은 인덱스로 거를 수 없지만, 좁은 인덱스만 user_id 순으로 훑고 테이블 행은 읽지 않음 (index-only scan)
+     */
+    public void ensurePreferenceMaskIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_prefer_user_id_mask"
+                + " ON user_prefer (user_id) INCLUDE (preference_mask)");
+    }
+
+    /**
+     * 마스크 조건을 만족하는 사용자 수 (비트 연산 조건은 인덱스로 거를 수 없으므로 커버링 인덱스 전체를 훑음)
+     */
+    @Transactional(readOnly = true)
+    public long countByPreferenceMask(PreferenceMaskPredicate predicate) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_prefer up WHERE "
+                + predicate.toSql("up.preference_mask"), Long.class, predicate.parameters().toArray());
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 마스크 조건을 만족하는 사용자 ID를 afterUserId 다음부터 user_id 순으로 최대 limit명
+     * 커버링 인덱스를 user_id 순으로 훑다가 limit명을 채우면 멈추므로, 만족하는 사용자가 드문 조건일수록 많이 읽음
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findUserIdsByPreferenceMask(PreferenceMaskPredicate predicate, long afterUserId, int limit) {
+        List<Object> parameters = new ArrayList<>(predicate.parameters());
+        parameters.add(afterUserId);
+        parameters.add(limit);
+        return jdbcTemplate.queryForList("SELECT up.user_id FROM user_prefer up WHERE "
+                        + predicate.toSql("up.preference_mask") + " AND up.user_id > ? ORDER BY up.user_id LIMIT ?",
+                Long.class, parameters.toArray());
+    }
+
+    /**
+     * 마스크 조건을 만족하는 사용자의 ID와 마스크를 afterUserId 다음부터 user_id 순으로 최대 limit명
+     */
+    @Transactional(readOnly = true)
+    public void findPreferenceMasksByPredicate(PreferenceMaskPredicate predicate, long afterUserId, int limit,
+                                               MaskRowHandler handler) {
+        List<Object> parameters = new ArrayList<>(predicate.parameters());
+        parameters.add(afterUserId);
+        parameters.add(limit);
+        jdbcTemplate.query("SELECT up.user_id, up.preference_mask FROM user_prefer up WHERE "
+                        + predicate.toSql("up.preference_mask") + " AND up.user_id > ? ORDER BY up.user_id LIMIT ?",
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getInt(2));
+                }, parameters.toArray());
+    }
+
+    /**
+     * 속성에 지정한 값으로 답한 사용자 수 (답하지 않은 null은 제외)
+     */
+    @Transactional(readOnly = true)
+    public long countByAnswer(PreferenceAttribute attribute, boolean answer) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_prefer up WHERE up."
+                + attribute.getColumnName() + " = ?", Long.class, answer);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 속성에 지정한 값으로 답한 사용자의 ID와 마스크를 afterUserId 다음부터 user_id 순으로 최대 limit명
+     */
+    @Transactional(readOnly = true)
+    public void findPreferenceMasksByAnswer(PreferenceAttribute attribute, boolean answer, long afterUserId, int limit,
+                                            MaskRowHandler handler) {
+        jdbcTemplate.query("SELECT up.user_id, COALESCE(up.preference_mask, " + PREFERENCE_MASK_EXPRESSION + ")"
+                        + " FROM user_prefer up WHERE up." + attribute.getColumnName() + " = ?"
+                        + " AND up.user_id > ? ORDER BY up.user_id LIMIT ?",
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getInt(2));
+                }, answer, afterUserId, limit);
+    }
+
+    /**
+     * 모든 사용자의 선호도 마스크를 커서로 순회
+     */
+    @Transactional(readOnly = true)
+    public void streamPreferenceMasks(MaskRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT up.user_id, up.preference_mask FROM user_prefer up WHERE up.preference_mask IS NOT NULL");
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getInt(2));
+        });
+    }
+
+    /**
+     * user_id 기준 키셋 페이지 조회 (afterUserId보다 큰 사용자를 user_id 순으로 최대 limit명)
+     * 마스크가 아직 채워지지 않은 행은 Boolean 컬럼으로 계산
+     */
+    @Transactional(readOnly = true)
+    public void findPreferenceMasksAfter(long afterUserId, int limit, MaskRowHandler handler) {
+        jdbcTemplate.query("SELECT up.user_id, COALESCE(up.preference_mask, " + PREFERENCE_MASK_EXPRESSION + ")"
+                        + " FROM user_prefer up WHERE up.user_id > ? ORDER BY up.user_id LIMIT ?",
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getInt(2));
+                }, afterUserId, limit);
+    }
+
+    /**
+     * 지정한 사용자들의 현재 선호도 마스크 조회 (선호도가 없는 사용자는 결과에 없음)
+     */
+    @Transactional(readOnly = true)
+    public void findPreferenceMasksByUserIds(long[] userIds, int count, MaskRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT up.user_id, COALESCE(up.preference_mask, "
+                    + PREFERENCE_MASK_EXPRESSION + ") FROM user_prefer up WHERE up.user_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", boxed(userIds, count)));
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getInt(2));
+        });
+    }
+
+    /**
+     * 지정한 사용자들의 현재 선호도 마스크를 행 잠금과 함께 조회 (upsert 전 병합 기준값이 트랜잭션 끝까지 바뀌지 않도록)
+     */
+    @Transactional
+    public void lockPreferenceMasksByUserIds(long[] userIds, int count, MaskRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT up.user_id, COALESCE(up.preference_mask, "
+                    + PREFERENCE_MASK_EXPRESSION + ") FROM user_prefer up WHERE up.user_id = ANY(?) FOR UPDATE");
+            ps.setArray(1, connection.createArrayOf("bigint", boxed(userIds, count)));
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getInt(2));
+        });
+    }
+
+    /**
+     * 선호도 마스크별 사용자 수 (같은 마스크를 한 행으로 묶어 분포 집계에 사용)
+     */
+    @Transactional(readOnly = true)
+    public void aggregatePreferenceMasks(MaskCountHandler handler) {
+        jdbcTemplate.query("SELECT COALESCE(up.preference_mask, " + PREFERENCE_MASK_EXPRESSION + ") AS mask, COUNT(*)"
+                        + " FROM user_prefer up GROUP BY mask",
+                rs -> {
+                    handler.handle(rs.getInt(1), rs.getLong(2));
+                });
+    }
+
+    /**
+     * 여러 사용자의 선호도를 JDBC 배치로 upsert (values[i]는 PreferenceAttribute 순서의 플래그)
+     * null인 플래그는 새 행이면 null로 저장하고 기존 행이면 저장된 값을 유지 (masks[i]는 새 행일 때의 마스크)
+     */
+    @Transactional
+    public void batchUpsertPreferences(long[] userIds, Boolean[][] values, int[] masks, int count) {
+        PreferenceAttribute[] attributes = PreferenceAttribute.values();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                for (int a = 0; a < attributes.length; a++) {
+                    Boolean value = values[i][attributes[a].getBitIndex()];
+                    if (value == null) {
+                        ps.setNull(a + 1, Types.BOOLEAN);
+                    } else {
+                        ps.setBoolean(a + 1, value);
+                    }
+                }
+                ps.setInt(attributes.length + 1, masks[i]);
+                ps.setLong(attributes.length + 2, userIds[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * 지정한 ID 중 users 테이블에 존재하는 사용자 ID
+     */
+    @Transactional(readOnly = true)
+    public void findRegisteredUserIds(long[] userIds, int count, LongConsumer handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT u.user_id FROM users u WHERE u.user_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", boxed(userIds, count)));
+            return ps;
+        }, rs -> {
+            handler.accept(rs.getLong(1));
+        });
+    }
+
+    private static String mergedColumn(PreferenceAttribute attribute) {
+        return "COALESCE(EXCLUDED." + attribute.getColumnName() + ", user_prefer." + attribute.getColumnName() + ")";
+    }
+
+    private static Long[] boxed(long[] values, int count) {
+        Long[] result = new Long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    /**
+     * 마스크별 사용자 수 처리 콜백
+     */
+    @FunctionalInterface
+    public interface MaskCountHandler {
+        void handle(int preferenceMask, long users);
+    }
+
+    /**
+     * 선호도 마스크 행 처리 콜백
+     */
+    @FunctionalInterface
+    public interface MaskRowHandler {
+        void handle(long userId, int preferenceMask);
+    }
+}
@@ -20,27 +20,6 @@ public interface UserPreferRepository extends JpaRepository<UserPrefer, Long> {
      */
     Optional<UserPrefer> findByUserId(Long userId);
 
-    /**
-     * 특정 선호도를 가진 사용자들 조회
-     */
-    List<UserPrefer> findByIsFriendlyTrue();
-    List<UserPrefer> findByIsLeadTrue();
-    List<UserPrefer> findByIsOutdoorTrue();
-    List<UserPrefer> findByIsCityTrue();
-    List<UserPrefer> findByIsHealTrue();
-
-    /**
-     * 술 관련 선호도로 사용자 조회
-     */
-    List<UserPrefer> findByIsAlchol3True(); // 술 좋아하는 사람
-    List<UserPrefer> findByIsAlchol1True(); // 술 안 마시는 사람
-
-    /**
-     * 흡연 여부로 사용자 조회
-     */
-    List<UserPrefer> findByIsSmokerTrue();  // 흡연자
-    List<UserPrefer> findByIsSmokerFalse(); // 비흡연자
-
     /**
      * 복합 조건으로 사용자 조회
      */
@@ -0,0 +1,147 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import com.goteego.user.similarity.PreferenceBits;
+import com.goteego.user.similarity.PrincipalComponents;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 선호도 임베딩 투영 모델 학습 작업 (관리자용 오프라인 작업)
+ * user_prefer 전체 마스크로 주성분을 계산해 저장한 뒤, 전체 임베딩을 새 좌표계로 재생성
+ * 투영 차원 이후의 임베딩 컬럼 차원은 0으로 채우므로 거리는 투영 차원만으로 계산한 값과 같음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmbeddingProjectionTrainer {
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final PreferenceEmbeddingEncoder preferenceEmbeddingEncoder;
+    private final EmbeddingRebuildJob embeddingRebuildJob;
+    private final ThreadPoolTaskExecutor embeddingJobExecutor;
+
+    /**
+     * 기본 투영 차원 (1 이상 선호도 플래그 수 이하)
+     */
+    @Value("${goteego.embedding.projection.target-dimensions:12}")
+    private int defaultTargetDimensions;
+
+    @Value("${goteego.embedding.memory.initial-capacity:100000}")
+    private int initialCapacity;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile String lastError;
+
+    /**
+     * 백그라운드에서 학습 후 임베딩 재생성 시작 (학습 또는 재생성이 실행 중이면 false)
+     * targetDimensions가 없으면 설정값 사용
+     */
+    public boolean startAsync(Integer targetDimensions) {
+        int dimensions = targetDimensions != null ? targetDimensions : defaultTargetDimensions;
+        validateDimensions(dimensions);
+        return launch(() -> train(dimensions));
+    }
+
+    /**
+     * 투영 모델을 삭제하고 0/1 플래그 배열로 임베딩 재생성 시작 (실행 중이면 false)
+     */
+    public boolean resetAsync() {
+        return launch(() -> {
+            preferenceEmbeddingEncoder.deactivate();
+            log.info("임베딩 투영 모델 삭제, 0/1 플래그 임베딩으로 재생성");
+            embeddingRebuildJob.run(true);
+        });
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 현재 투영 모델과 작업 상태 조회
+     */
+    public UserEmbeddingDto.ProjectionStatusResponse getStatus() {
+        UserEmbeddingDto.ProjectionStatusResponse.ProjectionStatusResponseBuilder builder =
+                UserEmbeddingDto.ProjectionStatusResponse.builder()
+                        .running(running.get())
+                        .projected(preferenceEmbeddingEncoder.isProjected())
+                        .lastError(lastError);
+        preferenceEmbeddingEncoder.getModel().ifPresent(model -> builder
+                .sourceDimensions(model.sourceDimensions())
+                .targetDimensions(model.targetDimensions())
+                .sampleCount(model.sampleCount())
+                .explainedVarianceRatio(model.explainedVarianceRatio())
+                .componentVariances(model.variances()));
+        return builder.build();
+    }
+
+    /**
+     * 백그라운드 작업 풀에서 실행 (재생성 작업이나 다른 투영 작업이 실행 중이거나 풀이 가득 찼으면 false)
+     */
+    private boolean launch(Runnable task) {
+        if (embeddingRebuildJob.isRunning() || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            embeddingJobExecutor.execute(() -> {
+                try {
+                    task.run();
+                    lastError = null;
+                } catch (RuntimeException e) {
+                    lastError = e.getMessage();
+                    log.error("임베딩 투영 작업 실패: error={}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            log.warn("임베딩 투영 작업을 시작하지 못했습니다: error={}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 전체 마스크를 읽어 주성분을 계산하고, 모델 저장 후 임베딩 재생성
+     * 재생성이 끝날 때까지는 이전 좌표계 벡터가 섞여 있으므로 한가한 시간에 실행
+     */
+    private void train(int targetDimensions) {
+        long startedAt = System.currentTimeMillis();
+        int[][] buffer = {new int[initialCapacity]};
+        int[] count = new int[1];
+        userPreferJdbcRepository.streamPreferenceMasks((userId, preferenceMask) -> {
+            if (count[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], buffer[0].length + (buffer[0].length >> 1) + 1);
+            }
+            buffer[0][count[0]++] = preferenceMask;
+        });
+
+        PrincipalComponents model = PrincipalComponents.fit(buffer[0], count[0], PreferenceBits.FLAG_COUNT,
+                targetDimensions);
+        preferenceEmbeddingEncoder.activate(model);
+        log.info("임베딩 투영 모델 학습 완료: {}명, {}차원 → {}차원, 설명 분산={}, {}ms", count[0],
+                PreferenceBits.FLAG_COUNT, targetDimensions, model.explainedVarianceRatio(),
+                System.currentTimeMillis() - startedAt);
+
+        embeddingRebuildJob.run(true);
+    }
+
+    private static void validateDimensions(int dimensions) {
+        int max = Math.min(PreferenceBits.FLAG_COUNT, UserEmbedding.DIMENSIONS);
+        if (dimensions < 1 || dimensions > max) {
+            throw new IllegalArgumentException("투영 차원은 1 이상 " + max + " 이하여야 합니다: " + dimensions);
+        }
+    }
+}
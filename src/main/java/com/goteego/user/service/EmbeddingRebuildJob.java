@@ -0,0 +1,207 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.EmbeddingRebuildCheckpoint;
+import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.EmbeddingRebuildCheckpointRepository;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자 임베딩 일괄 재생성 작업 (관리자 백필용, 평소 변경은 EmbeddingRefreshQueue가 반영)
+ * user_prefer를 user_id 키셋 페이지로 읽어 배치 단위로 벡터를 계산하고 JDBC 배치로 저장
+ * 배치마다 체크포인트를 같은 트랜잭션에 기록하므로 중단되어도 마지막 배치 이후부터 재개하며, 메모리 사용량은 배치 크기로 고정
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmbeddingRebuildJob {
+
+    public static final String JOB_NAME = "user-embeddings-rebuild";
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+    private final EmbeddingRebuildCheckpointRepository checkpointRepository;
+    private final PreferenceEmbeddingEncoder preferenceEmbeddingEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolTaskExecutor embeddingJobExecutor;
+
+    @Value("${goteego.embedding.rebuild.batch-size:2000}")
+    private int batchSize;
+
+    /**
+     * 시작 시 비정상 종료된(RUNNING 상태로 남은) 작업을 이어서 실행할지 여부
+     */
+    @Value("${goteego.embedding.rebuild.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 애플리케이션 시작 시 중단된 재생성 작업 재개
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> checkpoint.getStatus() == EmbeddingRebuildCheckpoint.RebuildStatus.RUNNING)
+                .ifPresent(checkpoint -> {
+                    log.info("중단된 임베딩 재생성 작업 재개: lastUserId={}, processed={}",
+                            checkpoint.getLastUserId(), checkpoint.getProcessedCount());
+                    startAsync(false);
+                });
+    }
+
+    /**
+     * 백그라운드 작업 풀에서 재생성 작업 시작 (이미 실행 중이거나 풀이 가득 찼으면 false)
+     * restart가 false면 완료되지 않은 이전 작업을 체크포인트부터 이어서 실행
+     */
+    public boolean startAsync(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            embeddingJobExecutor.execute(() -> {
+                try {
+                    execute(restart);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            log.warn("임베딩 재생성 작업을 시작하지 못했습니다: error={}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 호출한 스레드에서 재생성 작업을 끝까지 실행
+     */
+    public void run(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("임베딩 재생성 작업이 이미 실행 중입니다");
+        }
+        try {
+            execute(restart);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 작업 상태 조회
+     */
+    public UserEmbeddingDto.RebuildStatusResponse getStatus() {
+        UserEmbeddingDto.RebuildStatusResponse.RebuildStatusResponseBuilder builder =
+                UserEmbeddingDto.RebuildStatusResponse.builder()
+                        .jobName(JOB_NAME)
+                        .running(running.get());
+        checkpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> builder
+                .status(checkpoint.getStatus().name())
+                .lastUserId(checkpoint.getLastUserId())
+                .processedCount(checkpoint.getProcessedCount())
+                .startedAt(checkpoint.getStartedAt())
+                .completedAt(checkpoint.getCompletedAt())
+                .modifiedAt(checkpoint.getModifiedAt())
+                .lastError(checkpoint.getLastError()));
+        return builder.build();
+    }
+
+    private void execute(boolean restart) {
+        EmbeddingRebuildCheckpoint checkpoint = prepareCheckpoint(restart);
+        long startedAt = System.currentTimeMillis();
+        log.info("임베딩 재생성 작업 시작: lastUserId={}, batchSize={}", checkpoint.getLastUserId(), batchSize);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long[] userIds = new long[batchSize];
+        int[] masks = new int[batchSize];
+        int[] count = new int[1];
+        try {
+            do {
+                count[0] = 0;
+                userPreferJdbcRepository.findPreferenceMasksAfter(checkpoint.getLastUserId(), batchSize,
+                        (userId, preferenceMask) -> {
+                            userIds[count[0]] = userId;
+                            masks[count[0]] = preferenceMask;
+                            count[0]++;
+                        });
+                if (count[0] == 0) {
+                    break;
+                }
+                float[][] embeddings = encode(masks, count[0]);
+                EmbeddingRebuildCheckpoint current = checkpoint;
+                checkpoint = transactionTemplate.execute(status -> writeBatch(current, userIds, embeddings, count[0]));
+            } while (count[0] == batchSize);
+
+            checkpoint.complete();
+            checkpointRepository.save(checkpoint);
+            log.info("임베딩 재생성 작업 완료: 총 {}명, {}ms", checkpoint.getProcessedCount(),
+                    System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            log.error("임베딩 재생성 작업 실패: lastUserId={}, error={}", checkpoint.getLastUserId(), e.getMessage());
+            checkpoint.fail(e.getMessage());
+            checkpointRepository.save(checkpoint);
+            throw e;
+        }
+    }
+
+    private EmbeddingRebuildCheckpoint prepareCheckpoint(boolean restart) {
+        EmbeddingRebuildCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> EmbeddingRebuildCheckpoint.builder().jobName(JOB_NAME).build());
+        if (restart || !checkpoint.isResumable()) {
+            checkpoint.restart();
+        } else {
+            checkpoint.resume();
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * 배치의 선호도 마스크를 임베딩 벡터로 병렬 변환
+     */
+    private float[][] encode(int[] masks, int count) {
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> preferenceEmbeddingEncoder.encode(masks[i]))
+                .toArray(float[][]::new);
+    }
+
+    /**
+     * 배치 저장과 체크포인트 갱신을 한 트랜잭션으로 처리 (변경 이벤트는 커밋 후 전달)
+     */
+    private EmbeddingRebuildCheckpoint writeBatch(EmbeddingRebuildCheckpoint checkpoint, long[] userIds,
+                                                  float[][] embeddings, int count) {
+        userEmbeddingJdbcRepository.batchUpsertEmbeddings(userIds, embeddings, count);
+        checkpoint.advance(userIds[count - 1], count);
+        EmbeddingRebuildCheckpoint saved = checkpointRepository.save(checkpoint);
+        for (int i = 0; i < count; i++) {
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.saved(userIds[i], embeddings[i]));
+        }
+        log.debug("임베딩 재생성 배치 저장: {}명, lastUserId={}", count, saved.getLastUserId());
+        return saved;
+    }
+}
@@ -0,0 +1,154 @@
+package com.goteego.user.service;
+
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import com.goteego.user.similarity.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 선호도 변경에 따른 임베딩 증분 갱신 큐
+ * 커밋된 선호도 변경의 사용자 ID만 모아 두고(같은 사용자의 연속 변경은 하나로 합쳐짐)
+ * 주기적으로 작은 배치 단위로 현재 선호도를 다시 읽어 임베딩을 upsert/삭제
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmbeddingRefreshQueue {
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+    private final PreferenceEmbeddingEncoder preferenceEmbeddingEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${goteego.embedding.refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${goteego.embedding.refresh.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 임베딩 갱신을 기다리는 사용자 ID
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Object drainLock = new Object();
+
+    /**
+     * 커밋된 선호도 변경을 큐에 추가 (임베딩까지 함께 저장된 변경은 제외)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferChanged(UserPreferChangedEvent event) {
+        if (enabled && event.getUserId() != null && !event.isEmbeddingCurrent()) {
+            pending.add(event.getUserId());
+        }
+    }
+
+    /**
+     * 쌓인 변경을 배치 단위로 반영
+     */
+    @Scheduled(fixedDelayString = "${goteego.embedding.refresh.interval-ms:1000}")
+    public void drainPeriodically() {
+        if (!pending.isEmpty()) {
+            drain();
+        }
+    }
+
+    /**
+     * 종료 전에 남은 변경 반영
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        drain();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 큐가 빌 때까지 배치 단위로 임베딩 갱신 (배치가 실패하면 해당 사용자들을 다시 큐에 넣고 중단)
+     */
+    public void drain() {
+        synchronized (drainLock) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            long[] userIds = new long[batchSize];
+            while (true) {
+                int count = takeBatch(userIds);
+                if (count == 0) {
+                    return;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> refresh(userIds, count));
+                } catch (RuntimeException e) {
+                    for (int i = 0; i < count; i++) {
+                        pending.add(userIds[i]);
+                    }
+                    log.error("임베딩 증분 갱신 실패: {}명, error={}", count, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private int takeBatch(long[] userIds) {
+        int count = 0;
+        Iterator<Long> iterator = pending.iterator();
+        while (count < userIds.length && iterator.hasNext()) {
+            userIds[count++] = iterator.next();
+            iterator.remove();
+        }
+        return count;
+    }
+
+    /**
+     * 현재 선호도로 임베딩을 다시 계산해 저장하고, 선호도가 삭제된 사용자는 임베딩도 삭제
+     */
+    private void refresh(long[] userIds, int count) {
+        LongIntHashMap masks = new LongIntHashMap(count);
+        userPreferJdbcRepository.findPreferenceMasksByUserIds(userIds, count, masks::put);
+
+        long[] savedIds = new long[count];
+        float[][] embeddings = new float[count][];
+        long[] deletedIds = new long[count];
+        int saved = 0;
+        int deleted = 0;
+        for (int i = 0; i < count; i++) {
+            int mask = masks.get(userIds[i]);
+            if (mask == LongIntHashMap.MISSING) {
+                deletedIds[deleted++] = userIds[i];
+            } else {
+                savedIds[saved] = userIds[i];
+                embeddings[saved++] = preferenceEmbeddingEncoder.encode(mask);
+            }
+        }
+
+        if (saved > 0) {
+            userEmbeddingJdbcRepository.batchUpsertEmbeddings(savedIds, embeddings, saved);
+        }
+        userEmbeddingJdbcRepository.deleteEmbeddings(deletedIds, deleted);
+
+        for (int i = 0; i < saved; i++) {
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.saved(savedIds[i], embeddings[i]));
+        }
+        for (int i = 0; i < deleted; i++) {
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.deleted(deletedIds[i]));
+        }
+        log.debug("임베딩 증분 갱신: 저장 {}명, 삭제 {}명", saved, deleted);
+    }
+}
@@ -0,0 +1,286 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.HnswIndex;
+import com.goteego.user.similarity.LongIntHashMap;
+import com.goteego.user.similarity.ScoredUser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * HNSW 임베딩 인덱스
+ * 시작 시 저장된 인덱스 파일을 읽고 user_embeddings와 차이만 반영하므로 재시작해도 그래프를 다시 만들지 않음
+ * 임베딩 변경 이벤트로 노드를 추가/삭제하고, 변경이 있으면 주기적으로 파일에 저장
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HnswEmbeddingIndex {
+
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+
+    @Value("${goteego.embedding.hnsw.enabled:false}")
+    private boolean enabled;
+
+    @Value("${goteego.embedding.hnsw.m:16}")
+    private int m;
+
+    @Value("${goteego.embedding.hnsw.ef-construction:200}")
+    private int efConstruction;
+
+    @Value("${goteego.embedding.hnsw.ef-search:64}")
+    private int efSearch;
+
+    /**
+     * 그래프 구성에 사용할 거리 (cosine | euclidean)
+     */
+    @Value("${goteego.embedding.hnsw.metric:cosine}")
+    private String metric;
+
+    private DistanceMetric distanceMetric;
+
+    @Value("${goteego.embedding.hnsw.file:data/hnsw/user-embeddings.hnsw}")
+    private String file;
+
+    /**
+     * 삭제 표시 노드 비율이 이 값을 넘으면 저장 전에 인덱스를 다시 구성
+     */
+    @Value("${goteego.embedding.hnsw.compact-deleted-ratio:0.2}")
+    private double compactDeletedRatio;
+
+    @Value("${goteego.embedding.memory.initial-capacity:100000}")
+    private int initialCapacity;
+
+    private final Object persistLock = new Object();
+
+    private volatile HnswIndex index;
+
+    /**
+     * 마지막 파일 저장 이후 변경이 있었는지 여부
+     */
+    private volatile boolean dirty;
+
+    /**
+     * 인덱스 교체 중에 들어온 변경 이벤트 (교체 직전에 새 인덱스에 다시 반영)
+     */
+    private List<UserEmbeddingChangedEvent> pendingDuringLoad;
+
+    /**
+     * 거리 설정 확인 (알 수 없는 값이면 시작 실패)
+     */
+    @PostConstruct
+    public void initialize() {
+        distanceMetric = DistanceMetric.from(metric);
+    }
+
+    /**
+     * 애플리케이션 시작 시 인덱스 파일 복원 후 DB와 동기화 (파일이 없거나 설정이 바뀌었으면 새로 구성)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("HNSW 임베딩 인덱스 비활성화");
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        boolean loaded = swapIn(() -> {
+            HnswIndex fresh = readIndexFile().orElseGet(this::newIndex);
+            synchronizeWithDatabase(fresh);
+            return fresh;
+        });
+        if (loaded) {
+            dirty = true;
+            persist();
+            log.info("HNSW 임베딩 인덱스 준비 완료: {}명, {}ms", index.size(), System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    /**
+     * 커밋된 임베딩 변경 사항 반영 (결과 캐시 무효화보다 먼저 실행)
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        HnswIndex current;
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+            current = index;
+        }
+        if (current != null) {
+            apply(current, event);
+            dirty = true;
+        }
+    }
+
+    /**
+     * 변경된 인덱스를 주기적으로 파일에 저장 (삭제 표시가 많으면 먼저 다시 구성)
+     */
+    @Scheduled(fixedDelayString = "${goteego.embedding.hnsw.persist-interval-ms:300000}")
+    public void persistPeriodically() {
+        HnswIndex current = index;
+        if (current == null || !dirty) {
+            return;
+        }
+        if (current.deletedRatio() > compactDeletedRatio) {
+            log.info("HNSW 임베딩 인덱스 재구성: 삭제 비율={}", current.deletedRatio());
+            swapIn(current::compactedCopy);
+        }
+        persist();
+    }
+
+    /**
+     * 종료 시 마지막 변경 사항 저장
+     */
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public int size() {
+        HnswIndex current = index;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * 사용자 임베딩 조회
+     */
+    public Optional<float[]> getEmbedding(Long userId) {
+        HnswIndex current = index;
+        return current != null ? Optional.ofNullable(current.get(userId)) : Optional.empty();
+    }
+
+    /**
+     * 질의 벡터와 가까운 사용자 K명 근사 검색
+     */
+    public List<ScoredUser> findNearest(float[] query, DistanceMetric queryMetric, int limit, Long excludeUserId) {
+        HnswIndex current = index;
+        if (current == null) {
+            throw new IllegalStateException("HNSW 임베딩 인덱스가 아직 준비되지 않았습니다");
+        }
+        return current.search(query, queryMetric, limit, efSearch,
+                excludeUserId != null ? excludeUserId : Long.MIN_VALUE);
+    }
+
+    /**
+     * 새 인덱스를 만들어 교체하고, 만드는 동안 들어온 이벤트를 교체 전에 반영
+     */
+    private boolean swapIn(Supplier<HnswIndex> builder) {
+        synchronized (this) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        HnswIndex fresh;
+        try {
+            fresh = builder.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringLoad = null;
+            }
+            log.error("HNSW 임베딩 인덱스 구성 실패: error={}", e.getMessage());
+            return false;
+        }
+
+        synchronized (this) {
+            pendingDuringLoad.forEach(event -> apply(fresh, event));
+            pendingDuringLoad = null;
+            index = fresh;
+        }
+        return true;
+    }
+
+    /**
+     * user_embeddings를 순회하며 바뀐 벡터만 그래프에 반영하고, DB에 없는 사용자는 삭제
+     */
+    private void synchronizeWithDatabase(HnswIndex target) {
+        LongIntHashMap seen = new LongIntHashMap(Math.max(initialCapacity, target.size()));
+        userEmbeddingJdbcRepository.streamAllEmbeddings((userId, embedding) -> {
+            target.upsert(userId, embedding);
+            seen.put(userId, 1);
+        });
+        for (long userId : target.userIds()) {
+            if (!seen.containsKey(userId)) {
+                target.remove(userId);
+            }
+        }
+    }
+
+    private Optional<HnswIndex> readIndexFile() {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            HnswIndex restored = HnswIndex.readFrom(path);
+            if (restored.dimensions() != UserEmbedding.DIMENSIONS || restored.m() != m
+                    || restored.metric() != distanceMetric) {
+                log.info("HNSW 인덱스 설정이 변경되어 새로 구성합니다: file={}", path);
+                return Optional.empty();
+            }
+            log.info("HNSW 인덱스 파일 복원: {}명, file={}", restored.size(), path);
+            return Optional.of(restored);
+        } catch (IOException | RuntimeException e) {
+            log.warn("HNSW 인덱스 파일을 읽지 못해 새로 구성합니다: file={}, error={}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void persist() {
+        synchronized (persistLock) {
+            HnswIndex current = index;
+            if (current == null || !dirty) {
+                return;
+            }
+            dirty = false;
+            try {
+                current.writeTo(Paths.get(file));
+                log.debug("HNSW 인덱스 파일 저장: {}명, file={}", current.size(), file);
+            } catch (IOException e) {
+                dirty = true;
+                log.error("HNSW 인덱스 파일 저장 실패: file={}, error={}", file, e.getMessage());
+            }
+        }
+    }
+
+    private HnswIndex newIndex() {
+        return new HnswIndex(UserEmbedding.DIMENSIONS, m, efConstruction, distanceMetric, initialCapacity);
+    }
+
+    private void apply(HnswIndex target, UserEmbeddingChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getUserId());
+        } else {
+            target.upsert(event.getUserId(), event.getEmbedding());
+        }
+    }
+}
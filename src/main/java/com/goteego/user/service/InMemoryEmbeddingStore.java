@@ -0,0 +1,246 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.EmbeddingMatrix;
+import com.goteego.user.similarity.NeighborRadii;
+import com.goteego.user.similarity.ScoredUser;
+import com.goteego.user.similarity.VectorKernels;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * 메모리 임베딩 저장소
+ * user_embeddings 전체를 EmbeddingMatrix로 적재해 pgvector 대신 JVM 안에서 정확한 전수 검색을 수행
+ * 임베딩 변경 이벤트로 커밋된 변경 사항을 반영
+ * 행렬이 유지하는 벡터 합계로 평균 유사도를 계산하고, 주기적으로 테이블과 대조해 어긋나면 다시 적재
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InMemoryEmbeddingStore {
+
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+    private final SimilarityResultCache similarityResultCache;
+
+    @Value("${goteego.embedding.memory.enabled:true}")
+    private boolean enabled;
+
+    @Value("${goteego.embedding.memory.initial-capacity:100000}")
+    private int initialCapacity;
+
+    /**
+     * 테이블 벡터 합과 메모리 벡터 합의 허용 오차 (차원별, 행 수에 비례)
+     */
+    @Value("${goteego.embedding.memory.reconcile-tolerance:0.0001}")
+    private double reconcileTolerance;
+
+    private volatile EmbeddingMatrix matrix;
+
+    /**
+     * 적재 중에 들어온 변경 이벤트 (적재가 끝나면 새 행렬에 다시 반영)
+     */
+    private List<UserEmbeddingChangedEvent> pendingDuringLoad;
+
+    /**
+     * 애플리케이션 시작 시 임베딩 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("메모리 임베딩 저장소 비활성화");
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * user_embeddings 전체를 새 행렬로 다시 적재 (캐시된 유사도 결과는 모두 무효화)
+     */
+    public void reload() {
+        long startedAt = System.currentTimeMillis();
+        EmbeddingMatrix fresh = new EmbeddingMatrix(UserEmbedding.DIMENSIONS, initialCapacity);
+        synchronized (this) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        try {
+            userEmbeddingJdbcRepository.streamAllEmbeddings(fresh::upsert);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringLoad = null;
+            }
+            log.error("메모리 임베딩 적재 실패: error={}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            pendingDuringLoad.forEach(event -> apply(fresh, event));
+            pendingDuringLoad = null;
+            matrix = fresh;
+        }
+        // 이전 행렬에서 계산한 결과는 테이블과 달랐을 수 있으므로 모두 버림
+        similarityResultCache.invalidateAll();
+        log.info("메모리 임베딩 적재 완료: {}명, {}ms, simd={}",
+                fresh.size(), System.currentTimeMillis() - startedAt, VectorKernels.isSimdEnabled());
+    }
+
+    /**
+     * 커밋된 임베딩 변경 사항 반영 (결과 캐시 무효화보다 먼저 실행)
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        EmbeddingMatrix current;
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+            current = matrix;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    /**
+     * 집계값의 누적 오차를 정리하고 테이블과 대조 (행 수나 벡터 합이 다르면 전체 다시 적재)
+     */
+    @Scheduled(fixedDelayString = "${goteego.embedding.memory.reconcile-interval-ms:600000}",
+            initialDelayString = "${goteego.embedding.memory.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        EmbeddingMatrix current = matrix;
+        if (current == null) {
+            return;
+        }
+        double drift = current.recomputeAggregates();
+        log.debug("메모리 임베딩 집계 재계산: drift={}", drift);
+
+        UserEmbeddingJdbcRepository.EmbeddingSummary summary;
+        try {
+            summary = userEmbeddingJdbcRepository.summarizeEmbeddings();
+        } catch (RuntimeException e) {
+            log.warn("메모리 임베딩 대조 실패: error={}", e.getMessage());
+            return;
+        }
+        double[] memorySum = current.sum();
+        double tolerance = reconcileTolerance * Math.max(1, summary.getCount());
+        boolean mismatched = summary.getCount() != current.size();
+        for (int i = 0; i < memorySum.length && !mismatched; i++) {
+            double tableValue = i < summary.getSum().length ? summary.getSum()[i] : 0;
+            mismatched = Math.abs(tableValue - memorySum[i]) > tolerance;
+        }
+        if (mismatched) {
+            log.warn("메모리 임베딩이 테이블과 달라 다시 적재합니다: table={}명, memory={}명",
+                    summary.getCount(), current.size());
+            reload();
+        }
+    }
+
+    /**
+     * 검색에 사용할 수 있는 상태인지 확인
+     */
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    public int size() {
+        EmbeddingMatrix current = matrix;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * 적재된 모든 사용자 ID
+     */
+    public long[] userIds() {
+        EmbeddingMatrix current = matrix;
+        return current != null ? current.userIds() : new long[0];
+    }
+
+    /**
+     * 사용자 임베딩 조회
+     */
+    public Optional<float[]> getEmbedding(Long userId) {
+        EmbeddingMatrix current = matrix;
+        return current != null ? Optional.ofNullable(current.get(userId)) : Optional.empty();
+    }
+
+    /**
+     * 질의 벡터와 가장 가까운 사용자 K명 검색
+     */
+    public List<ScoredUser> findNearest(float[] query, DistanceMetric metric, int limit, Long excludeUserId) {
+        EmbeddingMatrix current = matrix;
+        if (current == null) {
+            throw new IllegalStateException("메모리 임베딩 저장소가 아직 적재되지 않았습니다");
+        }
+        return current.topK(query, metric, limit, excludeUserId != null ? excludeUserId : Long.MIN_VALUE);
+    }
+
+    /**
+     * 지정한 사용자들 중에서만 질의 벡터와 가장 가까운 사용자 K명 검색
+     */
+    public List<ScoredUser> findNearestAmong(float[] query, DistanceMetric metric, int limit,
+                                             long[] candidateIds, Long excludeUserId) {
+        EmbeddingMatrix current = matrix;
+        if (current == null) {
+            throw new IllegalStateException("메모리 임베딩 저장소가 아직 적재되지 않았습니다");
+        }
+        return current.topKAmong(query, metric, limit, candidateIds, candidateIds.length,
+                excludeUserId != null ? excludeUserId : Long.MIN_VALUE);
+    }
+
+    /**
+     * 바뀐 벡터 중 하나라도 K번째 이웃보다 앞서는 이웃 목록의 사용자 ID (행렬 한 번 순회로 모든 벡터 검사)
+     */
+    public long[] findUsersAdmittingAny(float[][] vectors, long[] userIds, DistanceMetric metric,
+                                        NeighborRadii radii) {
+        EmbeddingMatrix current = matrix;
+        if (current == null) {
+            throw new IllegalStateException("메모리 임베딩 저장소가 아직 적재되지 않았습니다");
+        }
+        return current.rowsAdmittingAny(vectors, userIds, metric, radii);
+    }
+
+    /**
+     * 대상 사용자와 나머지 모든 사용자 사이의 평균 코사인 거리 (영벡터 제외)
+     * 대상 임베딩이 없거나 비교할 사용자가 없으면 빈 값
+     */
+    public OptionalDouble getAverageCosineDistance(Long userId) {
+        EmbeddingMatrix current = matrix;
+        if (current == null) {
+            throw new IllegalStateException("메모리 임베딩 저장소가 아직 적재되지 않았습니다");
+        }
+        float[] target = current.get(userId);
+        if (target == null) {
+            return OptionalDouble.empty();
+        }
+        double average = current.averageCosineDistance(target, userId);
+        return Double.isNaN(average) ? OptionalDouble.empty() : OptionalDouble.of(average);
+    }
+
+    private void apply(EmbeddingMatrix target, UserEmbeddingChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getUserId());
+        } else {
+            target.upsert(event.getUserId(), event.getEmbedding());
+        }
+    }
+}
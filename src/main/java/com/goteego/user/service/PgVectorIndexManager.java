@@ -0,0 +1,264 @@
+package com.goteego.user.service;
+
+import com.goteego.user.dto.PgVectorIndexDto;
+import com.goteego.user.repository.PgVectorIndexRepository;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.SearchRecall;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * pgvector 근사 인덱스 관리
+ * ddl-auto는 벡터 인덱스를 만들지 않으므로 거리 연산자(<=>, <->)별 HNSW/IVFFlat 인덱스를 직접 생성/검증하고,
+ * 요청한 재현율 수준에 맞게 트랜잭션 단위 검색 설정을 적용
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PgVectorIndexManager {
+
+    private static final String TABLE_NAME = "user_embeddings";
+    private static final String COLUMN_NAME = "user_embedding";
+    private static final List<String> INDEX_METHODS = List.of("hnsw", "ivfflat");
+
+    private final PgVectorIndexRepository pgVectorIndexRepository;
+    private final ThreadPoolTaskExecutor embeddingJobExecutor;
+
+    @Value("${goteego.embedding.pgvector.index.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 인덱스 방식 (hnsw | ivfflat)
+     */
+    @Value("${goteego.embedding.pgvector.index.method:hnsw}")
+    private String method;
+
+    @Value("${goteego.embedding.pgvector.index.hnsw-m:16}")
+    private int hnswM;
+
+    @Value("${goteego.embedding.pgvector.index.hnsw-ef-construction:64}")
+    private int hnswEfConstruction;
+
+    @Value("${goteego.embedding.pgvector.index.ivfflat-lists:100}")
+    private int ivfflatLists;
+
+    /**
+     * 요청에 재현율이 없을 때 사용할 수준 (low | balanced | high | exact)
+     */
+    @Value("${goteego.embedding.pgvector.default-recall:balanced}")
+    private String defaultRecall;
+
+    private final AtomicBoolean ensuring = new AtomicBoolean();
+    private volatile LocalDateTime lastEnsuredAt;
+    private volatile String lastError;
+
+    /**
+     * 애플리케이션 시작 시 백그라운드에서 인덱스 생성/검증
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureOnStartup() {
+        if (!enabled) {
+            log.info("pgvector 인덱스 관리 비활성화");
+            return;
+        }
+        ensureIndexesAsync();
+    }
+
+    /**
+     * 인덱스 생성/검증 작업을 백그라운드 작업 풀에서 시작 (이미 실행 중이거나 풀이 가득 찼으면 false)
+     */
+    public boolean ensureIndexesAsync() {
+        if (!ensuring.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            embeddingJobExecutor.execute(() -> {
+                try {
+                    ensureIndexes();
+                } finally {
+                    ensuring.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            ensuring.set(false);
+            log.warn("pgvector 인덱스 검증 작업을 시작하지 못했습니다: error={}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 거리 연산자별 인덱스 생성/검증
+     * 유효하지 않은 인덱스(CONCURRENTLY 생성 실패)는 삭제 후 다시 만들고, 설정과 다른 방식의 관리 인덱스는 삭제
+     */
+    private void ensureIndexes() {
+        try {
+            String configuredMethod = configuredMethod();
+            log.info("pgvector 인덱스 검증 시작: method={}", configuredMethod);
+            Map<String, Map<String, Object>> existing = pgVectorIndexRepository.findVectorIndexes(TABLE_NAME).stream()
+                    .collect(Collectors.toMap(row -> (String) row.get("index_name"), Function.identity()));
+
+            for (DistanceMetric metric : DistanceMetric.values()) {
+                for (String indexMethod : INDEX_METHODS) {
+                    String indexName = indexName(metric, indexMethod);
+                    Map<String, Object> status = existing.get(indexName);
+
+                    if (!indexMethod.equals(configuredMethod)) {
+                        if (status != null) {
+                            log.info("설정과 다른 방식의 pgvector 인덱스 삭제: index={}", indexName);
+                            pgVectorIndexRepository.dropIndexConcurrently(indexName);
+                        }
+                        continue;
+                    }
+                    if (status != null && Boolean.TRUE.equals(status.get("valid"))) {
+                        continue;
+                    }
+                    if (status != null) {
+                        log.warn("유효하지 않은 pgvector 인덱스 재생성: index={}", indexName);
+                        pgVectorIndexRepository.dropIndexConcurrently(indexName);
+                    }
+                    createIndex(indexName, indexMethod, metric);
+                }
+            }
+            lastError = null;
+            log.info("pgvector 인덱스 검증 완료: method={}", configuredMethod);
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("pgvector 인덱스 검증 실패: error={}", e.getMessage());
+        } finally {
+            lastEnsuredAt = LocalDateTime.now();
+        }
+    }
+
+    private void createIndex(String indexName, String indexMethod, DistanceMetric metric) {
+        String withOptions;
+        if ("ivfflat".equals(indexMethod)) {
+            // IVFFlat은 생성 시점의 데이터로 리스트를 학습하므로 데이터가 충분할 때만 생성
+            long rows = pgVectorIndexRepository.countRows(TABLE_NAME);
+            if (rows < ivfflatLists) {
+                log.info("데이터가 부족해 IVFFlat 인덱스 생성을 미룹니다: index={}, rows={}, lists={}",
+                        indexName, rows, ivfflatLists);
+                return;
+            }
+            withOptions = "lists = " + ivfflatLists;
+        } else {
+            withOptions = "m = " + hnswM + ", ef_construction = " + hnswEfConstruction;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        log.info("pgvector 인덱스 생성 시작: index={}", indexName);
+        pgVectorIndexRepository.createIndexConcurrently(indexName, TABLE_NAME, indexMethod, COLUMN_NAME,
+                operatorClass(metric), withOptions);
+        log.info("pgvector 인덱스 생성 완료: index={}, {}ms", indexName, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 현재 트랜잭션의 검색 설정 적용 (트랜잭션 안에서 호출해야 함)
+     */
+    public void applySearchTuning(SearchRecall recall, int limit) {
+        pgVectorIndexRepository.applyLocalSearchSettings(
+                recall.efSearch(limit), recall.probes(ivfflatLists), !recall.isExact());
+    }
+
+    /**
+     * 근사 검색 결과를 조건으로 다시 거르는 쿼리의 검색 설정 (트랜잭션 안에서 호출해야 함)
+     * HNSW는 ef_search개 후보 안에서만 조건을 거르므로 후보 수를 최대로, IVFFlat은 HIGH 수준으로 탐색
+     */
+    public void applyFilteredSearchTuning() {
+        pgVectorIndexRepository.applyLocalSearchSettings(
+                SearchRecall.MAX_EF_SEARCH, SearchRecall.HIGH.probes(ivfflatLists), true);
+    }
+
+    /**
+     * 요청 재현율 수준 결정 (없으면 설정값)
+     */
+    public SearchRecall resolveRecall(String recall) {
+        return SearchRecall.from(recall, SearchRecall.from(defaultRecall, SearchRecall.BALANCED));
+    }
+
+    /**
+     * 인덱스 상태와 생성 진행률 조회
+     */
+    public PgVectorIndexDto.StatusResponse getStatus() {
+        List<PgVectorIndexDto.IndexStatus> indexes = pgVectorIndexRepository.findVectorIndexes(TABLE_NAME).stream()
+                .map(row -> PgVectorIndexDto.IndexStatus.builder()
+                        .indexName((String) row.get("index_name"))
+                        .method((String) row.get("method"))
+                        .operatorClass(operatorClassOf((String) row.get("definition")))
+                        .valid(Boolean.TRUE.equals(row.get("valid")))
+                        .ready(Boolean.TRUE.equals(row.get("ready")))
+                        .sizeBytes(((Number) row.get("size_bytes")).longValue())
+                        .indexScans(((Number) row.get("index_scans")).longValue())
+                        .definition((String) row.get("definition"))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<PgVectorIndexDto.BuildProgress> builds = pgVectorIndexRepository.findBuildProgress(TABLE_NAME).stream()
+                .map(row -> PgVectorIndexDto.BuildProgress.builder()
+                        .pid(((Number) row.get("pid")).intValue())
+                        .indexName((String) row.get("index_name"))
+                        .command((String) row.get("command"))
+                        .phase((String) row.get("phase"))
+                        .blocksDone(toLong(row.get("blocks_done")))
+                        .blocksTotal(toLong(row.get("blocks_total")))
+                        .tuplesDone(toLong(row.get("tuples_done")))
+                        .tuplesTotal(toLong(row.get("tuples_total")))
+                        .build())
+                .collect(Collectors.toList());
+
+        return PgVectorIndexDto.StatusResponse.builder()
+                .configuredMethod(configuredMethod())
+                .ensuring(ensuring.get())
+                .lastEnsuredAt(lastEnsuredAt)
+                .lastError(lastError)
+                .indexes(indexes)
+                .builds(builds)
+                .build();
+    }
+
+    private String configuredMethod() {
+        String value = method.trim().toLowerCase();
+        if (!INDEX_METHODS.contains(value)) {
+            throw new IllegalStateException("지원하지 않는 pgvector 인덱스 방식입니다: " + method);
+        }
+        return value;
+    }
+
+    private static String indexName(DistanceMetric metric, String indexMethod) {
+        return "idx_" + TABLE_NAME + "_" + metric.name().toLowerCase() + "_" + indexMethod;
+    }
+
+    private static String operatorClass(DistanceMetric metric) {
+        return metric == DistanceMetric.EUCLIDEAN ? "vector_l2_ops" : "vector_cosine_ops";
+    }
+
+    private static String operatorClassOf(String definition) {
+        if (definition == null) {
+            return null;
+        }
+        if (definition.contains("vector_cosine_ops")) {
+            return "vector_cosine_ops";
+        }
+        if (definition.contains("vector_l2_ops")) {
+            return "vector_l2_ops";
+        }
+        return definition.contains("vector_ip_ops") ? "vector_ip_ops" : null;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -0,0 +1,152 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.PreferenceAttribute;
+import com.goteego.user.domain.PreferenceCategory;
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.similarity.CompatibilityWeights;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 분류별 가중치 기반 선호도 호환성 점수
+ * 시작 시 goteego.preference.compatibility.* 설정으로 가중치를 만들고, 관리자 API로 재시작 없이 교체
+ * 교체는 미리 계산한 가중치 묶음을 원자적으로 바꾸므로 진행 중인 검색은 이전 가중치로 끝까지 계산됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreferenceCompatibilityScorer {
+
+    private static final String WEIGHT_PROPERTY_PREFIX = "goteego.preference.compatibility.weight.";
+
+    private final Environment environment;
+
+    /**
+     * 하나라도 다르면 벌점을 주는 분류 (쉼표 구분)
+     */
+    @Value("${goteego.preference.compatibility.hard-mismatch:smoking}")
+    private String hardMismatch;
+
+    @Value("${goteego.preference.compatibility.hard-mismatch-penalty:10}")
+    private int hardMismatchPenalty;
+
+    private final AtomicReference<Settings> settings = new AtomicReference<>();
+
+    /**
+     * 설정값으로 초기 가중치 구성
+     */
+    @PostConstruct
+    public void initialize() {
+        Map<PreferenceCategory, Integer> weights = new EnumMap<>(PreferenceCategory.class);
+        for (PreferenceCategory category : PreferenceCategory.values()) {
+            weights.put(category, environment.getProperty(WEIGHT_PROPERTY_PREFIX + category.getKey(),
+                    Integer.class, category.getDefaultWeight()));
+        }
+        Set<PreferenceCategory> hard = parseCategories(hardMismatch);
+        settings.set(new Settings(weights, hard, hardMismatchPenalty));
+        log.info("선호도 호환성 가중치 적용: weights={}, hardMismatch={}, penalty={}", weights, hard, hardMismatchPenalty);
+    }
+
+    /**
+     * 현재 가중치 (마스크 인덱스 검색과 점수 계산에 사용)
+     */
+    public CompatibilityWeights current() {
+        return settings.get().compiled;
+    }
+
+    /**
+     * 두 선호도 마스크의 호환성 점수 (0~1, 클수록 잘 맞음)
+     */
+    public double score(int mask1, int mask2) {
+        CompatibilityWeights weights = current();
+        return weights.toSimilarity(weights.distance(mask1, mask2));
+    }
+
+    /**
+     * 현재 가중치 설정 조회
+     */
+    public UserPreferDto.CompatibilityWeightsResponse getSettings() {
+        Settings current = settings.get();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        current.weights.forEach((category, weight) -> weights.put(category.getKey(), weight));
+        return UserPreferDto.CompatibilityWeightsResponse.builder()
+                .weights(weights)
+                .hardMismatch(current.hard.stream().map(PreferenceCategory::getKey).collect(Collectors.toList()))
+                .hardMismatchPenalty(current.penalty)
+                .build();
+    }
+
+    /**
+     * 가중치 교체 (요청에 없는 항목은 현재 값 유지)
+     */
+    public UserPreferDto.CompatibilityWeightsResponse update(UserPreferDto.CompatibilityWeightsRequest request) {
+        Settings current = settings.get();
+        Map<PreferenceCategory, Integer> weights = new EnumMap<>(current.weights);
+        if (request.getWeights() != null) {
+            request.getWeights().forEach((key, weight) -> {
+                if (weight == null) {
+                    throw new IllegalArgumentException("가중치 값이 없습니다: " + key);
+                }
+                weights.put(PreferenceCategory.from(key), weight);
+            });
+        }
+        Set<PreferenceCategory> hard = request.getHardMismatch() != null
+                ? parseCategories(String.join(",", request.getHardMismatch()))
+                : current.hard;
+        int penalty = request.getHardMismatchPenalty() != null ? request.getHardMismatchPenalty() : current.penalty;
+
+        settings.set(new Settings(weights, hard, penalty));
+        log.info("선호도 호환성 가중치 교체: weights={}, hardMismatch={}, penalty={}", weights, hard, penalty);
+        return getSettings();
+    }
+
+    private static Set<PreferenceCategory> parseCategories(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<PreferenceCategory> categories = EnumSet.noneOf(PreferenceCategory.class);
+        Arrays.stream(value.split(","))
+                .filter(key -> !key.isBlank())
+                .map(PreferenceCategory::from)
+                .forEach(categories::add);
+        return categories;
+    }
+
+    /**
+     * 분류별 가중치 설정과 미리 계산한 플래그 가중치 묶음
+     */
+    private static final class Settings {
+        private final Map<PreferenceCategory, Integer> weights;
+        private final Set<PreferenceCategory> hard;
+        private final int penalty;
+        private final CompatibilityWeights compiled;
+
+        private Settings(Map<PreferenceCategory, Integer> weights, Set<PreferenceCategory> hard, int penalty) {
+            int[] flagWeights = new int[PreferenceAttribute.values().length];
+            weights.forEach((category, weight) -> category.getAttributes()
+                    .forEach(attribute -> flagWeights[attribute.getBitIndex()] = weight));
+            List<Integer> hardMasks = hard.stream().map(PreferenceCategory::getMask).collect(Collectors.toList());
+
+            this.compiled = new CompatibilityWeights(flagWeights,
+                    hardMasks.stream().mapToInt(Integer::intValue).toArray(), penalty);
+            this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+            this.hard = hard.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(hard));
+            this.penalty = penalty;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.PreferenceAttribute;
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import com.goteego.user.similarity.LongIntHashMap;
+import com.goteego.user.similarity.PreferenceCooccurrence;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 선호도 분포 집계 (속성별 사용자 수와 속성 쌍 동시 선택 수)
+ * 시작 시 마스크별 사용자 수로 집계하고, 선호도 변경 이벤트의 이전/새 마스크 차이로 증분 갱신
+ * 동시 수정 등으로 어긋날 수 있으므로 매일 DB 기준으로 다시 집계해 교체
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreferenceDistributionIndex {
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${goteego.preference.distribution.enabled:true}")
+    private boolean enabled;
+
+    private volatile PreferenceCooccurrence cooccurrence;
+
+    private volatile LocalDateTime reconciledAt;
+
+    /**
+     * 재집계 중에 들어온 변경 이벤트 (재집계가 끝나면 새 집계에 다시 반영)
+     */
+    private List<UserPreferChangedEvent> pendingDuringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("선호도 분포 집계 비활성화");
+            return;
+        }
+        reconcile();
+    }
+
+    /**
+     * 매일 DB 기준으로 다시 집계해 증분 갱신 오차를 바로잡음
+     */
+    @Scheduled(cron = "${goteego.preference.distribution.reconcile-cron:0 30 4 * * *}")
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * user_prefer의 마스크별 사용자 수로 새로 집계해 교체 (기존 집계와 달라진 칸 수를 기록)
+     * 집계와 재집계 중 변경된 사용자의 마스크 조회를 같은 REPEATABLE READ 스냅샷에서 읽어 중간 변경이 두 번 반영되지 않도록 함
+     */
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        PreferenceCooccurrence fresh = new PreferenceCooccurrence();
+        synchronized (this) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        PreferenceCooccurrence previous;
+        try {
+            previous = transactionTemplate.execute(status -> {
+                userPreferJdbcRepository.aggregatePreferenceMasks(fresh::add);
+                synchronized (this) {
+                    replayPending(fresh);
+                    pendingDuringLoad = null;
+                    PreferenceCooccurrence replaced = cooccurrence;
+                    cooccurrence = fresh;
+                    reconciledAt = LocalDateTime.now();
+                    return replaced;
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringLoad = null;
+            }
+            log.error("선호도 분포 집계 실패: error={}", e.getMessage());
+            return;
+        }
+
+        if (previous != null) {
+            int differences = previous.differences(fresh);
+            if (differences > 0) {
+                log.warn("선호도 분포 재집계로 보정: 달라진 칸 {}개", differences);
+            }
+        }
+        log.info("선호도 분포 집계 완료: {}명, {}ms", fresh.getTotal(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 재집계 중에 들어온 변경을 사용자별 마지막 상태로 합쳐 반영 (집계 트랜잭션 안에서 호출)
+     * 이벤트가 집계 스냅샷에 이미 포함되었는지는 알 수 없으므로, 같은 스냅샷에서 읽은 사용자 마스크를 이전 값으로 삼아
+     * 스냅샷 상태에서 마지막 이벤트 상태로의 차이만 적용 (이미 포함된 변경이면 차이가 없음)
+     */
+    private void replayPending(PreferenceCooccurrence fresh) {
+        Map<Long, UserPreferChangedEvent> latest = new LinkedHashMap<>();
+        for (UserPreferChangedEvent event : pendingDuringLoad) {
+            latest.put(event.getUserId(), event);
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        long[] userIds = latest.keySet().stream().mapToLong(Long::longValue).toArray();
+        LongIntHashMap snapshotMasks = new LongIntHashMap(userIds.length);
+        userPreferJdbcRepository.findPreferenceMasksByUserIds(userIds, userIds.length, snapshotMasks::put);
+        latest.forEach((userId, event) -> {
+            int snapshotMask = snapshotMasks.get(userId);
+            fresh.update(snapshotMask == LongIntHashMap.MISSING ? null : snapshotMask,
+                    event.isDeleted() ? null : event.getPreferenceMask());
+        });
+    }
+
+    /**
+     * 커밋된 선호도 변경 사항 반영
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferChanged(UserPreferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        PreferenceCooccurrence current;
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+            current = cooccurrence;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    public boolean isReady() {
+        return cooccurrence != null;
+    }
+
+    /**
+     * 속성별 사용자 수와 속성 쌍 동시 선택 수 (행/열 순서는 attributes와 같음)
+     */
+    public UserPreferDto.DistributionResponse getDistribution() {
+        PreferenceCooccurrence current = cooccurrence;
+        if (current == null) {
+            throw new IllegalStateException("선호도 분포가 아직 집계되지 않았습니다");
+        }
+        long[][] matrix;
+        long total;
+        synchronized (current) {
+            total = current.getTotal();
+            matrix = current.matrix();
+        }
+        long[] counts = new long[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            counts[i] = matrix[i][i];
+        }
+        return UserPreferDto.DistributionResponse.builder()
+                .totalUsers(total)
+                .attributes(Arrays.stream(PreferenceAttribute.values())
+                        .map(PreferenceAttribute::getFieldName)
+                        .collect(Collectors.toList()))
+                .counts(counts)
+                .cooccurrence(matrix)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    private void apply(PreferenceCooccurrence target, UserPreferChangedEvent event) {
+        target.update(event.getPreviousMask(), event.isDeleted() ? null : event.getPreferenceMask());
+    }
+}
@@ -0,0 +1,95 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.EmbeddingProjection;
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.repository.EmbeddingProjectionRepository;
+import com.goteego.user.similarity.PreferenceBits;
+import com.goteego.user.similarity.PrincipalComponents;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 선호도 마스크 → 임베딩 벡터 변환
+ * 학습된 투영 모델이 있으면 주성분 좌표(밀집 벡터)로, 없으면 0/1 플래그 배열로 변환
+ * 일괄 재생성, 증분 갱신, 단건 생성이 모두 이 변환을 사용하므로 같은 좌표계가 유지됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreferenceEmbeddingEncoder {
+
+    public static final String MODEL_NAME = "preference-pca";
+
+    private final EmbeddingProjectionRepository embeddingProjectionRepository;
+    private final SimilarityResultCache similarityResultCache;
+
+    /**
+     * 저장된 투영 모델 사용 여부 (false면 항상 0/1 플래그 배열)
+     */
+    @Value("${goteego.embedding.projection.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicReference<PrincipalComponents> model = new AtomicReference<>();
+
+    /**
+     * 저장된 투영 모델 적재
+     */
+    @PostConstruct
+    public void loadModel() {
+        if (!enabled) {
+            return;
+        }
+        embeddingProjectionRepository.findById(MODEL_NAME).ifPresent(projection -> {
+            model.set(projection.toModel());
+            log.info("임베딩 투영 모델 적재: {}차원 → {}차원, 설명 분산={}", projection.getSourceDimensions(),
+                    projection.getTargetDimensions(), model.get().explainedVarianceRatio());
+        });
+    }
+
+    /**
+     * 선호도 마스크를 임베딩 벡터로 변환
+     */
+    public float[] encode(int preferenceMask) {
+        PrincipalComponents current = model.get();
+        return current != null
+                ? current.project(preferenceMask, UserEmbedding.DIMENSIONS)
+                : PreferenceBits.toVector(preferenceMask, UserEmbedding.DIMENSIONS);
+    }
+
+    /**
+     * 임베딩이 투영된 밀집 벡터인지 여부 (false면 0/1 플래그 배열)
+     */
+    public boolean isProjected() {
+        return model.get() != null;
+    }
+
+    public Optional<PrincipalComponents> getModel() {
+        return Optional.ofNullable(model.get());
+    }
+
+    /**
+     * 새 모델 저장 후 사용 (좌표계가 바뀌므로 캐시된 유사도 결과는 모두 무효화)
+     */
+    public void activate(PrincipalComponents trained) {
+        embeddingProjectionRepository.save(EmbeddingProjection.of(MODEL_NAME, trained));
+        if (enabled) {
+            model.set(trained);
+            similarityResultCache.invalidateAll();
+        }
+    }
+
+    /**
+     * 저장된 모델을 삭제하고 0/1 플래그 배열로 되돌림
+     */
+    public void deactivate() {
+        embeddingProjectionRepository.deleteById(MODEL_NAME);
+        model.set(null);
+        similarityResultCache.invalidateAll();
+    }
+}
@@ -0,0 +1,485 @@
+package com.goteego.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goteego.user.domain.PreferenceAttribute;
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import com.goteego.user.similarity.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 선호도 대량 가져오기 서비스
+ * NDJSON(한 줄에 JSON 객체 하나) 또는 CSV(첫 줄이 헤더) 입력을 한 줄씩 읽어, 배치마다 user_prefer와 user_embeddings를 함께 upsert
+ * 배치는 각각 별도 트랜잭션으로 커밋하고, 잘못된 행은 건너뛰고 줄 번호와 사유를 결과에 담음
+ * 행에 없거나 비어 있는(null) 속성은 저장된 답을 그대로 두고 입력된 속성만 덮어씀 (새 사용자는 null, 가져오기로 답을 지울 수는 없음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PreferenceImportService {
+
+    private static final int FLAGS = PreferenceAttribute.values().length;
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+    private final PreferenceEmbeddingEncoder preferenceEmbeddingEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${goteego.preference.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${goteego.preference.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * 가져오기 입력 형식
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * format 파라미터(ndjson, jsonl, csv)를 우선하고, 없으면 Content-Type으로 판단
+         */
+        public static Format resolve(String format, String contentType) {
+            if (format != null && !format.isBlank()) {
+                switch (format.trim().toLowerCase()) {
+                    case "ndjson":
+                    case "jsonl":
+                        return NDJSON;
+                    case "csv":
+                        return CSV;
+                    default:
+                        throw new IllegalArgumentException("지원하지 않는 가져오기 형식입니다: " + format);
+                }
+            }
+            String type = contentType != null ? contentType.toLowerCase() : "";
+            if (type.contains("csv")) {
+                return CSV;
+            }
+            if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("가져오기 형식을 알 수 없습니다 (format=ndjson|csv 또는 Content-Type 지정)");
+        }
+    }
+
+    /**
+     * 입력을 끝까지 읽어 가져오기 (CSV 헤더가 잘못되면 IllegalArgumentException, 그 밖의 행 오류는 결과에 보고)
+     */
+    public UserPreferDto.ImportResponse importPreferences(InputStream input, Format format) throws IOException {
+        log.info("선호도 대량 가져오기 시작: format={}", format);
+        long startedAt = System.currentTimeMillis();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Batch batch = new Batch(Math.max(1, batchSize));
+        Result result = new Result(maxReportedErrors);
+        ParsedRow row = new ParsedRow();
+        CsvHeader header = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (line == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvHeader.parse(text);
+                continue;
+            }
+
+            result.totalRows++;
+            row.clear();
+            try {
+                if (format == Format.CSV) {
+                    parseCsv(text, header, row);
+                } else {
+                    parseJson(text, row);
+                }
+            } catch (IllegalArgumentException e) {
+                result.fail(line, row.userId, e.getMessage());
+                continue;
+            }
+
+            batch.add(line, row);
+            if (batch.count == batch.lines.length) {
+                flush(batch, transactionTemplate, result);
+            }
+        }
+        flush(batch, transactionTemplate, result);
+
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        log.info("선호도 대량 가져오기 완료: 전체 {}행, 성공 {}행, 실패 {}행, {}ms",
+                result.totalRows, result.importedRows, result.failedRows, elapsedMs);
+        return UserPreferDto.ImportResponse.builder()
+                .format(format.name().toLowerCase())
+                .totalRows(result.totalRows)
+                .importedRows(result.importedRows)
+                .failedRows(result.failedRows)
+                .errors(result.errors)
+                .errorsTruncated(result.failedRows > result.errors.size())
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    /**
+     * 모인 행을 한 트랜잭션으로 저장하고, 배치가 실패하면 원인 행을 가려내도록 행 단위로 다시 저장
+     */
+    private void flush(Batch batch, TransactionTemplate transactionTemplate, Result result) {
+        if (batch.count == 0) {
+            return;
+        }
+        try {
+            List<UserPreferDto.ImportError> rejected = transactionTemplate.execute(status -> write(batch, 0, batch.count));
+            result.imported(batch.count, rejected);
+        } catch (RuntimeException e) {
+            log.warn("선호도 가져오기 배치 저장 실패, 행 단위로 재시도: {}행, error={}", batch.count, e.getMessage());
+            for (int i = 0; i < batch.count; i++) {
+                int index = i;
+                try {
+                    List<UserPreferDto.ImportError> rejected = transactionTemplate.execute(status -> write(batch, index, 1));
+                    result.imported(1, rejected);
+                } catch (RuntimeException rowError) {
+                    result.fail(batch.lines[i], batch.userIds[i], "저장 실패: " + rowError.getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * 배치의 [from, from + count) 행을 저장 (가입하지 않은 사용자의 행은 제외하고 반환)
+     * 저장된 마스크에 행이 답한 비트만 덮어써 병합한 마스크로 임베딩을 만들고 이벤트를 발행 (SQL의 COALESCE 병합과 같은 결과)
+     * 선호도와 임베딩을 함께 저장하므로 선호도 변경 이벤트는 임베딩 증분 갱신 대상에서 제외되도록 발행
+     */
+    private List<UserPreferDto.ImportError> write(Batch batch, int from, int count) {
+        long[] userIds = Arrays.copyOfRange(batch.userIds, from, from + count);
+        LongIntHashMap registered = new LongIntHashMap(count);
+        userPreferJdbcRepository.findRegisteredUserIds(userIds, count, userId -> registered.put(userId, 0));
+        LongIntHashMap currentMasks = new LongIntHashMap(count);
+        userPreferJdbcRepository.lockPreferenceMasksByUserIds(userIds, count, currentMasks::put);
+
+        List<UserPreferDto.ImportError> rejected = new ArrayList<>();
+        long[] savedIds = new long[count];
+        Boolean[][] values = new Boolean[count][];
+        int[] masks = new int[count];
+        int[] previousMasks = new int[count];
+        float[][] embeddings = new float[count][];
+        int saved = 0;
+        for (int i = from; i < from + count; i++) {
+            if (!registered.containsKey(batch.userIds[i])) {
+                rejected.add(error(batch.lines[i], batch.userIds[i], "존재하지 않는 사용자입니다"));
+                continue;
+            }
+            // 같은 배치에 같은 사용자가 여러 번 나오면 앞 행까지 병합한 마스크가 다음 행의 이전 값
+            int previous = currentMasks.get(batch.userIds[i]);
+            int merged = previous == LongIntHashMap.MISSING
+                    ? batch.masks[i]
+                    : (batch.masks[i] & batch.answeredMasks[i]) | (previous & ~batch.answeredMasks[i]);
+            currentMasks.put(batch.userIds[i], merged);
+
+            savedIds[saved] = batch.userIds[i];
+            values[saved] = batch.values[i];
+            masks[saved] = merged;
+            previousMasks[saved] = previous;
+            embeddings[saved] = preferenceEmbeddingEncoder.encode(merged);
+            saved++;
+        }
+        if (saved == 0) {
+            return rejected;
+        }
+
+        userPreferJdbcRepository.batchUpsertPreferences(savedIds, values, masks, saved);
+        userEmbeddingJdbcRepository.batchUpsertEmbeddings(savedIds, embeddings, saved);
+
+        for (int i = 0; i < saved; i++) {
+            Integer previous = previousMasks[i] == LongIntHashMap.MISSING ? null : previousMasks[i];
+            eventPublisher.publishEvent(UserPreferChangedEvent.importedWithEmbedding(savedIds[i], previous, masks[i]));
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.saved(savedIds[i], embeddings[i]));
+        }
+        return rejected;
+    }
+
+    private void parseJson(String text, ParsedRow row) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON 형식이 아닙니다: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("JSON 객체가 아닙니다");
+        }
+
+        JsonNode userIdNode = node.has("userId") ? node.get("userId") : node.get("user_id");
+        if (userIdNode == null || userIdNode.isNull()) {
+            throw new IllegalArgumentException("userId가 없습니다");
+        }
+        if (!userIdNode.isValueNode()) {
+            throw new IllegalArgumentException("userId는 숫자여야 합니다");
+        }
+        row.userId = parseUserId(userIdNode.asText());
+
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (isUserIdColumn(field.getKey())) {
+                continue;
+            }
+            PreferenceAttribute attribute = PreferenceAttribute.from(field.getKey());
+            JsonNode value = field.getValue();
+            if (value.isContainerNode()) {
+                throw new IllegalArgumentException(field.getKey() + " 값은 true/false여야 합니다");
+            }
+            row.set(attribute, parseFlag(value.isNull() ? null : value.asText(), field.getKey()));
+        }
+    }
+
+    private void parseCsv(String text, CsvHeader header, ParsedRow row) {
+        String[] cells = splitCsv(text);
+        if (cells.length != header.attributes.length) {
+            throw new IllegalArgumentException("열 개수가 헤더와 다릅니다: 기대 " + header.attributes.length + "개, 실제 " + cells.length + "개");
+        }
+        row.userId = parseUserId(cells[header.userIdColumn]);
+        for (int i = 0; i < cells.length; i++) {
+            if (header.attributes[i] != null) {
+                row.set(header.attributes[i], parseFlag(cells[i], header.attributes[i].getFieldName()));
+            }
+        }
+    }
+
+    private static Long parseUserId(String raw) {
+        long userId;
+        try {
+            userId = Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("userId는 숫자여야 합니다: " + raw);
+        }
+        if (userId <= 0) {
+            throw new IllegalArgumentException("userId는 양수여야 합니다: " + userId);
+        }
+        return userId;
+    }
+
+    /**
+     * true/false, 1/0, y/n, yes/no (대소문자 무시), 비어 있으면 null
+     */
+    private static Boolean parseFlag(String raw, String name) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        switch (raw.trim().toLowerCase()) {
+            case "true":
+            case "1":
+            case "y":
+            case "yes":
+                return Boolean.TRUE;
+            case "false":
+            case "0":
+            case "n":
+            case "no":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException(name + " 값은 true/false여야 합니다: " + raw);
+        }
+    }
+
+    private static boolean isUserIdColumn(String name) {
+        return name.trim().replace("_", "").equalsIgnoreCase("userId");
+    }
+
+    /**
+     * 쉼표로 나누고 양쪽 공백과 감싼 큰따옴표 제거 (값이 ID와 플래그뿐이라 따옴표 안의 쉼표는 고려하지 않음)
+     */
+    private static String[] splitCsv(String text) {
+        String[] cells = text.split(",", -1);
+        for (int i = 0; i < cells.length; i++) {
+            String cell = cells[i].trim();
+            if (cell.length() >= 2 && cell.startsWith("\"") && cell.endsWith("\"")) {
+                cell = cell.substring(1, cell.length() - 1).trim();
+            }
+            cells[i] = cell;
+        }
+        return cells;
+    }
+
+    private static UserPreferDto.ImportError error(long line, Long userId, String message) {
+        return UserPreferDto.ImportError.builder()
+                .line(line)
+                .userId(userId)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * CSV 헤더 (열마다 선호도 속성, userId 열은 null)
+     */
+    private static final class CsvHeader {
+
+        private final PreferenceAttribute[] attributes;
+        private final int userIdColumn;
+
+        private CsvHeader(PreferenceAttribute[] attributes, int userIdColumn) {
+            this.attributes = attributes;
+            this.userIdColumn = userIdColumn;
+        }
+
+        private static CsvHeader parse(String text) {
+            String[] names = splitCsv(text);
+            PreferenceAttribute[] attributes = new PreferenceAttribute[names.length];
+            int userIdColumn = -1;
+            int seen = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (isUserIdColumn(names[i])) {
+                    if (userIdColumn >= 0) {
+                        throw new IllegalArgumentException("CSV 헤더에 userId 열이 중복되었습니다");
+                    }
+                    userIdColumn = i;
+                    continue;
+                }
+                PreferenceAttribute attribute;
+                try {
+                    attribute = PreferenceAttribute.from(names[i]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("CSV 헤더: " + e.getMessage());
+                }
+                if ((seen & attribute.getBit()) != 0) {
+                    throw new IllegalArgumentException("CSV 헤더에 선호도 속성이 중복되었습니다: " + names[i]);
+                }
+                seen |= attribute.getBit();
+                attributes[i] = attribute;
+            }
+            if (userIdColumn < 0) {
+                throw new IllegalArgumentException("CSV 헤더에 userId 열이 없습니다");
+            }
+            return new CsvHeader(attributes, userIdColumn);
+        }
+    }
+
+    /**
+     * 해석 중인 행 (입력에 없는 속성은 null, answeredMask는 값이 있는 속성의 비트)
+     */
+    private static final class ParsedRow {
+
+        private Long userId;
+        private final Boolean[] values = new Boolean[FLAGS];
+        private int mask;
+        private int answeredMask;
+
+        private void set(PreferenceAttribute attribute, Boolean value) {
+            values[attribute.getBitIndex()] = value;
+            if (Boolean.TRUE.equals(value)) {
+                mask |= attribute.getBit();
+            } else {
+                mask &= ~attribute.getBit();
+            }
+            if (value != null) {
+                answeredMask |= attribute.getBit();
+            } else {
+                answeredMask &= ~attribute.getBit();
+            }
+        }
+
+        private void clear() {
+            userId = null;
+            Arrays.fill(values, null);
+            mask = 0;
+            answeredMask = 0;
+        }
+    }
+
+    /**
+     * 저장을 기다리는 행들
+     */
+    private static final class Batch {
+
+        private final long[] lines;
+        private final long[] userIds;
+        private final Boolean[][] values;
+        private final int[] masks;
+        private final int[] answeredMasks;
+        private int count;
+
+        private Batch(int capacity) {
+            lines = new long[capacity];
+            userIds = new long[capacity];
+            values = new Boolean[capacity][];
+            masks = new int[capacity];
+            answeredMasks = new int[capacity];
+        }
+
+        private void add(long line, ParsedRow row) {
+            lines[count] = line;
+            userIds[count] = row.userId;
+            values[count] = row.values.clone();
+            masks[count] = row.mask;
+            answeredMasks[count] = row.answeredMask;
+            count++;
+        }
+
+        private void clear() {
+            Arrays.fill(values, 0, count, null);
+            count = 0;
+        }
+    }
+
+    /**
+     * 가져오기 집계 (실패한 행은 maxReportedErrors개까지만 보관)
+     */
+    private static final class Result {
+
+        private final int maxReportedErrors;
+        private final List<UserPreferDto.ImportError> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+
+        private Result(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void imported(int rows, List<UserPreferDto.ImportError> rejected) {
+            importedRows += rows - rejected.size();
+            rejected.forEach(this::fail);
+        }
+
+        private void fail(long line, Long userId, String message) {
+            fail(error(line, userId, message));
+        }
+
+        private void fail(UserPreferDto.ImportError error) {
+            failedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+    }
+}
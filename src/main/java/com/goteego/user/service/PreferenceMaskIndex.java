@@ -0,0 +1,193 @@
+package com.goteego.user.service;
+
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import com.goteego.user.similarity.DistanceCursor;
+import com.goteego.user.similarity.LongIntHashMap;
+import com.goteego.user.similarity.MaskDistance;
+import com.goteego.user.similarity.PreferenceExpression;
+import com.goteego.user.similarity.PreferenceMaskStore;
+import com.goteego.user.similarity.ScoredUser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * 선호도 비트 마스크 메모리 인덱스
+ * user_prefer.preference_mask를 PreferenceMaskStore로 적재하고 선호도 변경 이벤트로 갱신
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreferenceMaskIndex {
+
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+
+    @Value("${goteego.preference.mask-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${goteego.preference.mask-index.initial-capacity:100000}")
+    private int initialCapacity;
+
+    private volatile PreferenceMaskStore store;
+
+    /**
+     * 적재 중에 들어온 변경 이벤트 (적재가 끝나면 새 저장소에 다시 반영)
+     */
+    private List<UserPreferChangedEvent> pendingDuringLoad;
+
+    /**
+     * 애플리케이션 시작 시 비어 있는 마스크를 채우고 마스크 조회 인덱스를 만든 뒤 전체 마스크 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        // 메모리 인덱스를 쓰지 않아도 SQL 조건식 조회는 채워진 마스크 컬럼에 의존
+        int backfilled = userPreferJdbcRepository.backfillPreferenceMasks();
+        if (backfilled > 0) {
+            log.info("선호도 마스크 컬럼 채움: {}건", backfilled);
+        }
+        // 채운 뒤에 만들어야 backfill 갱신이 인덱스를 건드리지 않음
+        userPreferJdbcRepository.ensurePreferenceMaskIndex();
+        if (!enabled) {
+            log.info("선호도 마스크 인덱스 비활성화");
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * user_prefer 전체 마스크를 새 저장소로 다시 적재
+     */
+    public void reload() {
+        long startedAt = System.currentTimeMillis();
+        PreferenceMaskStore fresh = new PreferenceMaskStore(initialCapacity);
+        synchronized (this) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        try {
+            userPreferJdbcRepository.streamPreferenceMasks(fresh::upsert);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringLoad = null;
+            }
+            log.error("선호도 마스크 적재 실패: error={}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            pendingDuringLoad.forEach(event -> apply(fresh, event));
+            pendingDuringLoad = null;
+            store = fresh;
+        }
+        log.info("선호도 마스크 적재 완료: {}명, {}ms", fresh.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 커밋된 선호도 변경 사항 반영
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferChanged(UserPreferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        PreferenceMaskStore current;
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+            current = store;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    public boolean isReady() {
+        return store != null;
+    }
+
+    /**
+     * 사용자 선호도 마스크 조회
+     */
+    public OptionalInt getMask(Long userId) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            return OptionalInt.empty();
+        }
+        int mask = current.get(userId);
+        return mask == LongIntHashMap.MISSING ? OptionalInt.empty() : OptionalInt.of(mask);
+    }
+
+    /**
+     * 대상 마스크와 가장 가까운 사용자 K명 검색
+     */
+    public List<ScoredUser> findNearest(int targetMask, MaskDistance metric, int limit, Long excludeUserId) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+        }
+        return current.topK(targetMask, metric, limit, excludeUserId != null ? excludeUserId : Long.MIN_VALUE);
+    }
+
+    /**
+     * 커서 뒤에서 (거리, 사용자 ID) 순으로 가까운 사용자 K명 검색
+     */
+    public List<ScoredUser> findNearest(int targetMask, MaskDistance metric, int limit, Long excludeUserId,
+                                        DistanceCursor after) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+        }
+        return current.topK(targetMask, metric, limit, excludeUserId != null ? excludeUserId : Long.MIN_VALUE, after);
+    }
+
+    /**
+     * 필수 플래그가 모두 켜져 있고 제외 플래그가 모두 꺼진 사용자 ID (플래그별 비트셋 AND)
+     */
+    public long[] findMatching(int requiredMask, int excludedMask) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+        }
+        return current.matching(requiredMask, excludedMask);
+    }
+
+    /**
+     * 불리언 조건식을 만족하는 사용자 수
+     */
+    public int countMatching(PreferenceExpression expression) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+        }
+        return current.count(expression);
+    }
+
+    /**
+     * 불리언 조건식을 만족하는 사용자 ID를 afterUserId 다음부터 오름차순으로 최대 limit명
+     */
+    public long[] findMatching(PreferenceExpression expression, long afterUserId, int limit) {
+        PreferenceMaskStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+        }
+        return current.matching(expression, afterUserId, limit);
+    }
+
+    private void apply(PreferenceMaskStore target, UserPreferChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getUserId());
+        } else {
+            target.upsert(event.getUserId(), event.getPreferenceMask());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.UserEmbedding;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.Quantization;
+import com.goteego.user.similarity.QuantizedMatrix;
+import com.goteego.user.similarity.ScoredUser;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 양자화 임베딩 인덱스
+ * user_embeddings를 int8 또는 1비트 코드로 메모리에 적재해 후보를 고르고, 상위 후보만 원본 벡터로 다시 정렬
+ * 원본 벡터는 후보 ID로 DB에서 한 번에 조회하므로 JVM에는 양자화 코드만 남음 (메모리 저장소는 끄고 사용)
+ * rerank-from-memory를 켜면 적재된 메모리 저장소에서 읽지만, 그 경우 원본 벡터도 메모리에 있으므로 메모리 절감은 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuantizedEmbeddingIndex {
+
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+    private final InMemoryEmbeddingStore inMemoryEmbeddingStore;
+
+    @Value("${goteego.embedding.quantized.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 양자화 방식 (int8 | binary)
+     */
+    @Value("${goteego.embedding.quantized.mode:int8}")
+    private String mode;
+
+    /**
+     * 원본 벡터로 다시 정렬할 후보 수 (요청 limit보다 작으면 limit 사용)
+     */
+    @Value("${goteego.embedding.quantized.rerank-candidates:200}")
+    private int rerankCandidates;
+
+    /**
+     * 원본 벡터를 메모리 저장소에서 읽을지 여부 (false면 항상 DB에서 후보만 조회)
+     */
+    @Value("${goteego.embedding.quantized.rerank-from-memory:false}")
+    private boolean rerankFromMemory;
+
+    @Value("${goteego.embedding.memory.initial-capacity:100000}")
+    private int initialCapacity;
+
+    private volatile QuantizedMatrix matrix;
+
+    /**
+     * 적재 중에 들어온 변경 이벤트 (적재가 끝나면 새 행렬에 다시 반영)
+     */
+    private List<UserEmbeddingChangedEvent> pendingDuringLoad;
+
+    /**
+     * 애플리케이션 시작 시 전체 임베딩을 양자화해 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("양자화 임베딩 인덱스 비활성화");
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * user_embeddings 전체를 새 행렬로 다시 적재
+     */
+    public void reload() {
+        long startedAt = System.currentTimeMillis();
+        QuantizedMatrix fresh = new QuantizedMatrix(Quantization.from(mode), UserEmbedding.DIMENSIONS, initialCapacity);
+        synchronized (this) {
+            pendingDuringLoad = new ArrayList<>();
+        }
+
+        try {
+            userEmbeddingJdbcRepository.streamAllEmbeddings(fresh::upsert);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringLoad = null;
+            }
+            log.error("양자화 임베딩 적재 실패: error={}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            pendingDuringLoad.forEach(event -> apply(fresh, event));
+            pendingDuringLoad = null;
+            matrix = fresh;
+        }
+        log.info("양자화 임베딩 적재 완료: {}명, mode={}, {}바이트/명, {}ms", fresh.size(), fresh.quantization(),
+                fresh.bytesPerRow(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 커밋된 임베딩 변경 사항 반영 (결과 캐시 무효화보다 먼저 실행)
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        QuantizedMatrix current;
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+            current = matrix;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    public int size() {
+        QuantizedMatrix current = matrix;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * 사용자 원본 임베딩 조회
+     */
+    public Optional<float[]> getEmbedding(Long userId) {
+        return loadEmbeddings(new long[]{userId}, 1).values().stream().findFirst();
+    }
+
+    /**
+     * 질의 벡터와 가까운 사용자 K명 검색
+     * 양자화 코드로 후보를 고른 뒤 원본 벡터로 정확한 거리를 계산해 다시 정렬
+     */
+    public RerankedResult findNearest(float[] query, DistanceMetric metric, int limit, Long excludeUserId) {
+        QuantizedMatrix current = matrix;
+        if (current == null) {
+            throw new IllegalStateException("양자화 임베딩 인덱스가 아직 적재되지 않았습니다");
+        }
+        List<ScoredUser> candidates = current.candidates(query, metric, Math.max(limit, rerankCandidates),
+                excludeUserId != null ? excludeUserId : Long.MIN_VALUE);
+
+        long[] candidateIds = candidates.stream().mapToLong(ScoredUser::getUserId).toArray();
+        Map<Long, float[]> embeddings = loadEmbeddings(candidateIds, candidateIds.length);
+        List<ScoredUser> reranked = new ArrayList<>(embeddings.size());
+        embeddings.forEach((userId, embedding) -> {
+            if (embedding.length == query.length) {
+                reranked.add(new ScoredUser(userId, metric.distance(query, embedding)));
+            }
+        });
+        reranked.sort(Comparator.comparingDouble(ScoredUser::getDistance).thenComparingLong(ScoredUser::getUserId));
+        return new RerankedResult(reranked.subList(0, Math.min(limit, reranked.size())), embeddings);
+    }
+
+    private Map<Long, float[]> loadEmbeddings(long[] userIds, int count) {
+        Map<Long, float[]> embeddings = new HashMap<>(count * 2);
+        if (rerankFromMemory && inMemoryEmbeddingStore.isReady()) {
+            for (int i = 0; i < count; i++) {
+                long userId = userIds[i];
+                inMemoryEmbeddingStore.getEmbedding(userId).ifPresent(embedding -> embeddings.put(userId, embedding));
+            }
+        } else {
+            userEmbeddingJdbcRepository.findEmbeddings(userIds, count, embeddings::put);
+        }
+        return embeddings;
+    }
+
+    private void apply(QuantizedMatrix target, UserEmbeddingChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getUserId());
+        } else {
+            target.upsert(event.getUserId(), event.getEmbedding());
+        }
+    }
+
+    /**
+     * 다시 정렬한 검색 결과와 정렬에 사용한 원본 벡터
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class RerankedResult {
+        private final List<ScoredUser> users;
+        private final Map<Long, float[]> embeddings;
+    }
+}
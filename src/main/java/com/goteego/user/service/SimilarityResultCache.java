@@ -0,0 +1,319 @@
+package com.goteego.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.similarity.DistanceMetric;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 유사도 조회 결과 캐시
+ * 크기와 TTL로 제한하며, 같은 키의 동시 조회는 한 번의 계산으로 합침
+ * 임베딩이 바뀌면 그 사용자가 기준이거나 결과에 들어 있거나 새 벡터가 결과 반경 안에 들어오는 항목만 무효화
+ * 변경은 최근 변경 기록에 쌓기만 하고, 항목을 읽을 때 그 항목이 마지막으로 확인된 뒤의 변경만 검사
+ * (커밋 후 처리에서 캐시 전체를 훑지 않으며, 계산 중에 들어온 변경도 그 결과에 영향을 줄 때만 결과를 버림)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SimilarityResultCache {
+
+    public static final String CACHE_NAME = "user-similarity";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${goteego.embedding.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${goteego.embedding.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${goteego.embedding.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    /**
+     * 보관할 최근 변경 수 (항목이 마지막으로 확인된 뒤 이보다 많이 바뀌었으면 그 항목은 버림)
+     */
+    @Value("${goteego.embedding.cache.change-log-size:4096}")
+    private int changeLogSize;
+
+    /**
+     * TTL 계산에 쓰는 시계 (테스트에서 교체)
+     */
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<Key, Entry> cache;
+    private Counter invalidations;
+    private RecentChanges changes;
+
+    @PostConstruct
+    public void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", CACHE_NAME)
+                .description("임베딩 변경으로 무효화된 유사도 결과 수")
+                .register(meterRegistry);
+        changes = new RecentChanges(changeLogSize);
+    }
+
+    /**
+     * 캐시된 결과 반환, 없으면 loader로 계산해 저장 (같은 키의 동시 요청은 한 번만 계산)
+     * 캐시된 항목이 마지막 확인 이후의 변경에 영향받았으면 버리고 다시 계산
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<Entry> loader) {
+        if (!enabled) {
+            return (T) loader.get().getValue();
+        }
+        boolean[] loaded = new boolean[1];
+        Entry entry = cache.get(key, k -> load(loader, loaded));
+        if (!loaded[0] && !changes.validate(key, entry)) {
+            if (cache.asMap().remove(key, entry)) {
+                invalidations.increment();
+            }
+            entry = cache.get(key, k -> load(loader, loaded));
+        }
+        if (loaded[0] && !changes.validate(key, entry)) {
+            // 계산 중에 들어온 변경이 이 결과에 영향을 주면 저장하지 않음
+            cache.asMap().remove(key, entry);
+        }
+        return (T) entry.getValue();
+    }
+
+    /**
+     * 커밋된 임베딩 변경 기록 (영향받는 항목은 다음에 읽을 때 무효화)
+     * 메모리 인덱스가 먼저 변경을 반영한 뒤 기록되도록 가장 낮은 우선순위로 처리
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        if (!enabled || event.getUserId() == null) {
+            return;
+        }
+        changes.append(event.getUserId(), event.getEmbedding());
+    }
+
+    /**
+     * 전체 무효화 (계산 중인 결과도 저장하지 않음)
+     */
+    public void invalidateAll() {
+        changes.clear();
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Entry load(Supplier<Entry> loader, boolean[] loaded) {
+        loaded[0] = true;
+        // 계산을 시작하기 전에 기록된 변경은 결과에 이미 반영됨
+        long checkedThrough = changes.latest();
+        Entry entry = loader.get();
+        entry.checkedThrough = checkedThrough;
+        return entry;
+    }
+
+    /**
+     * 최근 임베딩 변경 기록 (변경 번호 순의 고리 버퍼)
+     */
+    private static final class RecentChanges {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final long[] userIds;
+        private final float[][] vectors;
+
+        /**
+         * 마지막 변경 번호
+         */
+        private long latest;
+
+        /**
+         * 마지막 전체 무효화 시점의 변경 번호 (이전에 확인된 항목은 모두 버림)
+         */
+        private long clearedAt;
+
+        RecentChanges(int capacity) {
+            int size = Math.max(1, capacity);
+            this.userIds = new long[size];
+            this.vectors = new float[size][];
+        }
+
+        long latest() {
+            lock.readLock().lock();
+            try {
+                return latest;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void append(long userId, float[] vector) {
+            lock.writeLock().lock();
+            try {
+                int slot = (int) (++latest % userIds.length);
+                userIds[slot] = userId;
+                vectors[slot] = vector;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                // 빈 변경 하나를 기록해 이전에 시작한 계산과 구분
+                int slot = (int) (++latest % userIds.length);
+                userIds[slot] = Long.MIN_VALUE;
+                vectors[slot] = null;
+                clearedAt = latest;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 항목이 마지막으로 확인된 뒤의 변경 중 영향을 주는 것이 없으면 true (확인 시점을 앞으로 옮김)
+         * 그 사이 변경이 기록에서 밀려났거나 전체 무효화가 있었으면 false
+         */
+        boolean validate(Key key, Entry entry) {
+            lock.readLock().lock();
+            try {
+                long from = entry.checkedThrough;
+                if (from < clearedAt || latest - from > userIds.length) {
+                    return false;
+                }
+                for (long seq = from + 1; seq <= latest; seq++) {
+                    int slot = (int) (seq % userIds.length);
+                    if (userIds[slot] == key.userId || entry.isAffectedBy(userIds[slot], vectors[slot])) {
+                        return false;
+                    }
+                }
+                if (entry.checkedThrough < latest) {
+                    entry.checkedThrough = latest;
+                }
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 캐시 키 (조회 종류, 기준 사용자와 조회 조건)
+     */
+    public static final class Key {
+
+        private final String kind;
+        private final long userId;
+        private final Object[] parameters;
+
+        private Key(String kind, long userId, Object... parameters) {
+            this.kind = kind;
+            this.userId = userId;
+            this.parameters = parameters;
+        }
+
+        public static Key similarUsers(long userId, DistanceMetric metric, int limit, Object engine, Object recall) {
+            return new Key("similar", userId, metric, limit, engine, recall);
+        }
+
+        public static Key mostSimilarUser(long userId, Object engine) {
+            return new Key("most-similar", userId, engine);
+        }
+
+        public static Key aboveThreshold(long userId, double threshold, String cursor, int limit) {
+            return new Key("threshold", userId, threshold, cursor, limit);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return userId == other.userId && kind.equals(other.kind) && Arrays.equals(parameters, other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, userId, Arrays.hashCode(parameters));
+        }
+    }
+
+    /**
+     * 캐시 항목 (결과와 무효화 판단에 필요한 기준 벡터, 결과 사용자, 결과 반경)
+     */
+    public static final class Entry {
+
+        private final Object value;
+        private final float[] target;
+        private final DistanceMetric metric;
+        private final long[] memberIds;
+        private final double radius;
+
+        /**
+         * 이 변경 번호까지는 결과에 영향이 없음을 확인함
+         */
+        private volatile long checkedThrough;
+
+        /**
+         * @param target    기준 사용자 벡터 (없으면 null, 기준 사용자 변경 시에만 무효화)
+         * @param memberIds 결과에 포함된 사용자 ID
+         * @param radius    이 거리 안에 들어오는 사용자가 생기면 결과가 바뀔 수 있는 거리 (결과가 다 차지 않았으면 무한대)
+         */
+        public Entry(Object value, float[] target, DistanceMetric metric, long[] memberIds, double radius) {
+            this.value = value;
+            this.target = target;
+            this.metric = metric;
+            this.memberIds = memberIds;
+            this.radius = radius;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        boolean isAffectedBy(long userId, float[] vector) {
+            for (long memberId : memberIds) {
+                if (memberId == userId) {
+                    return true;
+                }
+            }
+            if (target == null || vector == null) {
+                return false;
+            }
+            if (target.length != vector.length) {
+                return true;
+            }
+            double distance = metric.distance(target, vector);
+            return Double.isNaN(distance) || distance <= radius;
+        }
+    }
+}
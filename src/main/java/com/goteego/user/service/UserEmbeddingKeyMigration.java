@@ -0,0 +1,29 @@
+package com.goteego.user.service;
+
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * user_embeddings 기본 키 전환 (일회성)
+ * 스키마 갱신이 끝난 뒤, 임베딩 저장소들이 적재되기 전에 중복 행을 정리하고 user_id를 기본 키로 설정
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UserEmbeddingKeyMigration {
+
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
+
+    @PostConstruct
+    public void migrate() {
+        int removed = userEmbeddingJdbcRepository.migrateToUserIdPrimaryKey();
+        if (removed >= 0) {
+            log.info("user_embeddings 기본 키를 user_id로 전환: 중복 행 {}건 삭제", removed);
+        }
+    }
+}
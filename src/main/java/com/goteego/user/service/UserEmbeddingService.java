@@ -2,16 +2,45 @@ package com.goteego.user.service;
 
 import com.goteego.user.domain.UserEmbedding;
 import com.goteego.user.domain.UserPrefer;
+import com.goteego.user.dto.UserEmbeddingDto;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.NearestUserProjection;
+import com.goteego.user.repository.SimilarUserProjection;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
 import com.goteego.user.repository.UserEmbeddingRepository;
 import com.goteego.user.repository.UserPreferRepository;
+import com.goteego.user.similarity.DistanceCursor;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.EmbeddingSearchEngine;
+import com.goteego.user.similarity.PairwiseSimilarity;
+import com.goteego.user.similarity.PreferenceBits;
+import com.goteego.user.similarity.PreferenceMetric;
+import com.goteego.user.similarity.ScoredUser;
+import com.goteego.user.similarity.SearchRecall;
+import com.goteego.user.similarity.VectorText;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 사용자 임베딩 서비스
@@ -23,8 +52,45 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserEmbeddingService {
 
+    /**
+     * 유사 사용자 추천 최대 결과 수 (검색 엔진이 limit 크기의 힙을 미리 할당하므로 상한을 둠)
+     */
+    public static final int MAX_SIMILAR_USERS_LIMIT = 1000;
+
+    /**
+     * 유사도 행렬 한 번에 계산할 수 있는 최대 사용자 수
+     */
+    private static final int MAX_SIMILARITY_MATRIX_USERS = 1000;
+
+    /**
+     * 임계값 조회 한 페이지의 최대 사용자 수
+     */
+    private static final int MAX_THRESHOLD_PAGE_SIZE = 1000;
+
+    /**
+     * 조건부 검색에서 후보 ID 목록을 그대로 SQL에 넘길 최대 후보 수 (넘으면 마스크 조건 SQL 사용)
+     */
+    private static final int MAX_FILTER_CANDIDATE_IDS = 10_000;
+
     private final UserEmbeddingRepository userEmbeddingRepository;
+    private final UserEmbeddingJdbcRepository userEmbeddingJdbcRepository;
     private final UserPreferRepository userPreferRepository;
+    private final InMemoryEmbeddingStore inMemoryEmbeddingStore;
+    private final HnswEmbeddingIndex hnswEmbeddingIndex;
+    private final QuantizedEmbeddingIndex quantizedEmbeddingIndex;
+    private final PreferenceEmbeddingEncoder preferenceEmbeddingEncoder;
+    private final PgVectorIndexManager pgVectorIndexManager;
+    private final PlatformTransactionManager transactionManager;
+    private final PreferenceMaskIndex preferenceMaskIndex;
+    private final UserNeighborService userNeighborService;
+    private final SimilarityResultCache similarityResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 유사 사용자 검색 엔진 (pgvector | memory | bitmask | hnsw | neighbors | quantized)
+     */
+    @Value("${goteego.embedding.search.engine:pgvector}")
+    private String searchEngine;
 
     /**
      * 사용자 임베딩 저장/수정
@@ -32,7 +98,8 @@ public class UserEmbeddingService {
     @Transactional
     public UserEmbedding saveUserEmbedding(UserEmbedding userEmbedding) {
         log.info("사용자 임베딩 저장/수정: userId={}", userEmbedding.getUserId());
-        return userEmbeddingRepository.save(userEmbedding);
+        UserEmbedding savedEmbedding = upsert(userEmbedding);
+        return savedEmbedding;
     }
 
     /**
@@ -48,14 +115,11 @@ public class UserEmbeddingService {
         }
 
         UserPrefer userPrefer = userPreferOpt.get();
-        int[] preferenceArray = userPrefer.getPreferenceArray();
-        
         UserEmbedding userEmbedding = UserEmbedding.builder()
                 .userId(userId)
+                .userEmbedding(preferenceEmbeddingEncoder.encode(userPrefer.computePreferenceMask()))
                 .build();
-        
-        userEmbedding.setEmbeddingFromArray(preferenceArray);
-        return userEmbeddingRepository.save(userEmbedding);
+        return upsert(userEmbedding);
     }
 
     /**
@@ -68,36 +132,162 @@ public class UserEmbeddingService {
 
     /**
      * pgvector를 사용한 유사한 사용자 추천 (코사인 유사도) - similarity 포함
+     * 설정된 검색 엔진 사용
      */
-    public List<UserEmbedding> findSimilarUsersByCosineDistance(Long userId, int limit) {
-        log.info("코사인 유사도 기반 유사 사용자 추천: userId={}, limit={}", userId, limit);
-        
-        Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId);
-        if (userEmbeddingOpt.isEmpty()) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByCosineDistance(Long userId, int limit) {
+        return findSimilarUsers(userId, limit, DistanceMetric.COSINE, null);
+    }
+
+    /**
+     * 유사한 사용자 추천 - 요청한 검색 엔진 사용 (없으면 설정값)
+     * memory/bitmask/hnsw 엔진은 DB 커넥션 없이 메모리에서 검색하며, 적재 전에는 pgvector 사용
+     * quantized 엔진은 메모리의 양자화 코드로 후보를 고른 뒤 원본 벡터로 다시 정렬
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsers(
+            Long userId, int limit, DistanceMetric metric, String engine) {
+        return findSimilarUsers(userId, limit, metric, engine, null);
+    }
+
+    /**
+     * 유사한 사용자 추천 - 요청한 검색 엔진과 재현율 수준 사용
+     * 재현율 수준은 pgvector 엔진에서 hnsw.ef_search/ivfflat.probes로 적용 (exact는 인덱스 없이 전수 검색)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsers(
+            Long userId, int limit, DistanceMetric metric, String engine, String recall) {
+        EmbeddingSearchEngine resolvedEngine = resolveSearchEngine(engine, limit, metric);
+        SearchRecall resolvedRecall = pgVectorIndexManager.resolveRecall(recall);
+        log.info("유사 사용자 추천: userId={}, limit={}, metric={}, engine={}, recall={}",
+                userId, limit, metric, resolvedEngine, resolvedRecall);
+        validateLimit(limit);
+
+        if (resolvedEngine == EmbeddingSearchEngine.NEIGHBORS) {
+            // 이웃 목록은 주기적 갱신 전까지 임베딩 변경보다 늦으므로 캐시하지 않음 (행 하나를 읽는 조회라 캐시 이득도 없음)
+            return searchSimilarUsers(userId, limit, metric, resolvedEngine, resolvedRecall);
+        }
+        return similarityResultCache.get(
+                SimilarityResultCache.Key.similarUsers(userId, metric, limit, resolvedEngine, resolvedRecall),
+                () -> toCacheEntry(userId, limit, metric,
+                        searchSimilarUsers(userId, limit, metric, resolvedEngine, resolvedRecall)));
+    }
+
+    /**
+     * 결정된 검색 엔진으로 유사한 사용자 검색 (캐시 미스 시 실행)
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> searchSimilarUsers(
+            Long userId, int limit, DistanceMetric metric, EmbeddingSearchEngine resolvedEngine, SearchRecall resolvedRecall) {
+        switch (resolvedEngine) {
+            case MEMORY:
+                return findSimilarUsersInMemory(userId, limit, metric);
+            case BITMASK:
+                return findSimilarUsersByPreferenceMask(userId, limit, metric);
+            case HNSW:
+                return findSimilarUsersByHnsw(userId, limit, metric);
+            case QUANTIZED:
+                return findSimilarUsersByQuantized(userId, limit, metric);
+            case NEIGHBORS:
+                Optional<List<UserEmbeddingDto.SimilarUserResponse>> precomputed =
+                        findSimilarUsersByNeighborList(userId, limit, metric);
+                if (precomputed.isPresent()) {
+                    return precomputed.get();
+                }
+                return inMemoryEmbeddingStore.isReady()
+                        ? findSimilarUsersInMemory(userId, limit, metric)
+                        : findSimilarUsersByPgvector(userId, limit, metric, resolvedRecall);
+            default:
+                return findSimilarUsersByPgvector(userId, limit, metric, resolvedRecall);
+        }
+    }
+
+    /**
+     * 선호도 조건(필수/제외 플래그)을 만족하는 사용자 중에서만 유사한 사용자 검색
+     * 마스크 인덱스가 적재되어 있으면 플래그 비트셋으로 후보를 먼저 고르고 후보만 거리를 계산하므로
+     * 조건이 까다로울수록 빨라지며, 메모리 저장소가 없으면 후보 ID 목록 또는 마스크 조건 SQL로 pgvector 검색
+     * 대상 사용자 임베딩이 없으면 빈 값
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<UserEmbeddingDto.FilteredSearchResponse> findSimilarUsersFiltered(
+            Long userId, int requiredMask, int excludedMask, int limit, DistanceMetric metric) {
+        log.info("조건부 유사 사용자 검색: userId={}, required={}, excluded={}, limit={}, metric={}",
+                userId, requiredMask, excludedMask, limit, metric);
+        validateLimit(limit);
+
+        float[] target = loadEmbeddings(List.of(userId)).get(userId);
+        if (target == null) {
             log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
-            return List.of();
+            return Optional.empty();
         }
 
-        String targetEmbedding = userEmbeddingOpt.get().getUserEmbedding();
-        List<Object[]> results = userEmbeddingRepository.findSimilarUsersByCosineDistance(
-                targetEmbedding, userId, limit
-        );
+        Integer matchedCount = null;
+        List<UserEmbeddingDto.SimilarUserResponse> users;
+        if (preferenceMaskIndex.isReady()) {
+            long[] candidateIds = preferenceMaskIndex.findMatching(requiredMask, excludedMask);
+            matchedCount = candidateIds.length;
+            if (inMemoryEmbeddingStore.isReady()) {
+                List<ScoredUser> results = inMemoryEmbeddingStore.findNearestAmong(
+                        target, metric, limit, candidateIds, userId);
+                users = toSimilarUserResponses(results, metric, inMemoryEmbeddingStore::getEmbedding);
+            } else if (candidateIds.length <= MAX_FILTER_CANDIDATE_IDS) {
+                users = new ArrayList<>();
+                userEmbeddingJdbcRepository.findNearestAmong(target, metric, candidateIds, candidateIds.length,
+                        userId, limit, collectSimilarUsers(users, metric));
+            } else {
+                users = findNearestMatchingMask(target, metric, requiredMask, excludedMask, userId, limit);
+            }
+        } else {
+            users = findNearestMatchingMask(target, metric, requiredMask, excludedMask, userId, limit);
+        }
 
-        return results.stream()
-                .map(result -> {
-                    Long resultUserId = (Long) result[0];
-                    Double distance = (Double) result[1];
-                    
-                    UserEmbedding userEmbedding = userEmbeddingRepository.findByUserId(resultUserId).orElse(null);
-                    if (userEmbedding != null) {
-                        // distance를 similarity로 변환 (1 - distance)
-                        double similarity = 1.0 - distance;
-                        userEmbedding.setSimilarity(similarity);
-                    }
-                    return userEmbedding;
-                })
-                .filter(userEmbedding -> userEmbedding != null)
-                .collect(Collectors.toList());
+        return Optional.of(UserEmbeddingDto.FilteredSearchResponse.builder()
+                .userId(userId)
+                .requiredMask(requiredMask)
+                .excludedMask(excludedMask)
+                .matchedCount(matchedCount)
+                .users(users)
+                .build());
+    }
+
+    /**
+     * 마스크 조건 SQL로 pgvector 검색
+     * HNSW 인덱스는 ef_search개 후보를 고른 뒤 조건으로 거르므로 조건이 까다로우면 limit보다 적게(또는 하나도) 반환될 수 있어,
+     * 후보 수를 최대로 올려 검색하고 그래도 limit명이 안 되면 인덱스 없이 정확한 전수 검색으로 다시 조회
+     * 검색 설정은 트랜잭션 범위로 적용되므로 조회마다 같은 트랜잭션에서 실행
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> findNearestMatchingMask(
+            float[] target, DistanceMetric metric, int requiredMask, int excludedMask, Long userId, int limit) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        List<UserEmbeddingDto.SimilarUserResponse> users = transactionTemplate.execute(status -> {
+            List<UserEmbeddingDto.SimilarUserResponse> found = new ArrayList<>();
+            pgVectorIndexManager.applyFilteredSearchTuning();
+            userEmbeddingJdbcRepository.findNearestMatchingMask(target, metric, requiredMask, excludedMask,
+                    userId, limit, collectSimilarUsers(found, metric));
+            return found;
+        });
+        if (users.size() >= limit) {
+            return users;
+        }
+
+        log.debug("조건부 근사 검색 결과 부족, 전수 검색으로 재조회: found={}, limit={}", users.size(), limit);
+        return transactionTemplate.execute(status -> {
+            List<UserEmbeddingDto.SimilarUserResponse> found = new ArrayList<>();
+            pgVectorIndexManager.applySearchTuning(SearchRecall.EXACT, limit);
+            userEmbeddingJdbcRepository.findNearestMatchingMask(target, metric, requiredMask, excludedMask,
+                    userId, limit, collectSimilarUsers(found, metric));
+            return found;
+        });
+    }
+
+    private static UserEmbeddingJdbcRepository.ScoredEmbeddingRowHandler collectSimilarUsers(
+            List<UserEmbeddingDto.SimilarUserResponse> users, DistanceMetric metric) {
+        return (id, distance, embedding) -> users.add(UserEmbeddingDto.SimilarUserResponse.builder()
+                .userId(id)
+                .embedding(embedding)
+                .similarity(metric.toSimilarity(distance))
+                .build());
     }
 
     /**
@@ -105,93 +295,375 @@ public class UserEmbeddingService {
      */
     public List<Long> getSimilarUsersByCosineDistance(Long userId, int limit) {
         return findSimilarUsersByCosineDistance(userId, limit).stream()
-                .map(UserEmbedding::getUserId)
+                .map(UserEmbeddingDto.SimilarUserResponse::getUserId)
                 .collect(Collectors.toList());
     }
 
     /**
      * pgvector를 사용한 유사한 사용자 추천 (유클리드 거리) - similarity 포함
+     * 설정된 검색 엔진 사용
      */
-    public List<UserEmbedding> findSimilarUsersByEuclideanDistance(Long userId, int limit) {
-        log.info("유클리드 거리 기반 유사 사용자 추천: userId={}, limit={}", userId, limit);
-        
-        Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId);
-        if (userEmbeddingOpt.isEmpty()) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByEuclideanDistance(Long userId, int limit) {
+        return findSimilarUsers(userId, limit, DistanceMetric.EUCLIDEAN, null);
+    }
+
+    /**
+     * pgvector를 사용한 유사한 사용자 추천 (유클리드 거리) - 기존 메서드 (호환성)
+     */
+    public List<Long> getSimilarUsersByEuclideanDistance(Long userId, int limit) {
+        return findSimilarUsersByEuclideanDistance(userId, limit).stream()
+                .map(UserEmbeddingDto.SimilarUserResponse::getUserId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * pgvector 쿼리로 유사한 사용자 검색
+     * 검색 설정은 트랜잭션 범위(set_config local)로 적용되므로 조회와 같은 트랜잭션에서 실행
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByPgvector(
+            Long userId, int limit, DistanceMetric metric, SearchRecall recall) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(status -> {
+            Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId)
+                    .filter(userEmbedding -> userEmbedding.getUserEmbedding() != null);
+            if (userEmbeddingOpt.isEmpty()) {
+                log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
+                return List.of();
+            }
+
+            pgVectorIndexManager.applySearchTuning(recall, limit);
+            String targetEmbedding = VectorText.format(userEmbeddingOpt.get().getUserEmbedding());
+            List<SimilarUserProjection> results = metric == DistanceMetric.COSINE
+                    ? userEmbeddingRepository.findSimilarUsersByCosineDistance(targetEmbedding, userId, limit)
+                    : userEmbeddingRepository.findSimilarUsersByEuclideanDistance(targetEmbedding, userId, limit);
+
+            return toSimilarUserResponses(results, metric);
+        });
+    }
+
+    /**
+     * 유사도 검색 Projection 결과를 응답 DTO로 변환
+     * 검색 쿼리가 임베딩과 거리를 함께 반환하므로 추가 조회 없이 변환
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> toSimilarUserResponses(
+            List<SimilarUserProjection> results, DistanceMetric metric) {
+        return results.stream()
+                .map(result -> UserEmbeddingDto.SimilarUserResponse.builder()
+                        .userId(result.getUserId())
+                        .embedding(VectorText.parse(result.getEmbedding()))
+                        .similarity(metric.toSimilarity(result.getDistance()))
+                        .createdAt(result.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_SIMILAR_USERS_LIMIT) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_SIMILAR_USERS_LIMIT + " 이하여야 합니다: " + limit);
+        }
+    }
+
+    /**
+     * 메모리 임베딩 행렬에서 유사한 사용자 검색
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersInMemory(
+            Long userId, int limit, DistanceMetric metric) {
+        Optional<float[]> targetEmbedding = inMemoryEmbeddingStore.getEmbedding(userId);
+        if (targetEmbedding.isEmpty()) {
             log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
             return List.of();
         }
 
-        String targetEmbedding = userEmbeddingOpt.get().getUserEmbedding();
-        List<Object[]> results = userEmbeddingRepository.findSimilarUsersByEuclideanDistance(
-                targetEmbedding, userId, limit
-        );
+        List<ScoredUser> results = inMemoryEmbeddingStore.findNearest(targetEmbedding.get(), metric, limit, userId);
+        return toSimilarUserResponses(results, metric, inMemoryEmbeddingStore::getEmbedding);
+    }
 
-        return results.stream()
-                .map(result -> {
-                    Long resultUserId = (Long) result[0];
-                    Double distance = (Double) result[1];
-                    
-                    UserEmbedding userEmbedding = userEmbeddingRepository.findByUserId(resultUserId).orElse(null);
-                    if (userEmbedding != null) {
-                        // distance를 similarity로 변환 (1 / (1 + distance))
-                        double similarity = 1.0 / (1.0 + distance);
-                        userEmbedding.setSimilarity(similarity);
-                    }
-                    return userEmbedding;
-                })
-                .filter(userEmbedding -> userEmbedding != null)
-                .collect(Collectors.toList());
+    /**
+     * HNSW 그래프 인덱스에서 유사한 사용자 근사 검색
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByHnsw(
+            Long userId, int limit, DistanceMetric metric) {
+        Optional<float[]> targetEmbedding = hnswEmbeddingIndex.getEmbedding(userId);
+        if (targetEmbedding.isEmpty()) {
+            log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
+            return List.of();
+        }
+
+        List<ScoredUser> results = hnswEmbeddingIndex.findNearest(targetEmbedding.get(), metric, limit, userId);
+        return toSimilarUserResponses(results, metric, hnswEmbeddingIndex::getEmbedding);
     }
 
     /**
-     * pgvector를 사용한 유사한 사용자 추천 (유클리드 거리) - 기존 메서드 (호환성)
+     * 양자화 인덱스로 후보를 고르고 원본 벡터로 다시 정렬해 유사한 사용자 검색
      */
-    public List<Long> getSimilarUsersByEuclideanDistance(Long userId, int limit) {
-        return findSimilarUsersByEuclideanDistance(userId, limit).stream()
-                .map(UserEmbedding::getUserId)
+    private List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByQuantized(
+            Long userId, int limit, DistanceMetric metric) {
+        Optional<float[]> targetEmbedding = quantizedEmbeddingIndex.getEmbedding(userId);
+        if (targetEmbedding.isEmpty()) {
+            log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
+            return List.of();
+        }
+
+        QuantizedEmbeddingIndex.RerankedResult result =
+                quantizedEmbeddingIndex.findNearest(targetEmbedding.get(), metric, limit, userId);
+        return toSimilarUserResponses(result.getUsers(), metric,
+                candidateId -> Optional.ofNullable(result.getEmbeddings().get(candidateId)));
+    }
+
+    /**
+     * 미리 계산한 이웃 목록에서 유사한 사용자 조회 (목록이 아직 없으면 빈 값)
+     */
+    private Optional<List<UserEmbeddingDto.SimilarUserResponse>> findSimilarUsersByNeighborList(
+            Long userId, int limit, DistanceMetric metric) {
+        return userNeighborService.getNeighbors(userId).map(neighbors -> {
+            int count = Math.min(limit, neighbors.getNeighborIds().length);
+            List<ScoredUser> results = IntStream.range(0, count)
+                    .mapToObj(i -> new ScoredUser(neighbors.getNeighborIds()[i], neighbors.getDistances()[i]))
+                    .collect(Collectors.toList());
+            if (inMemoryEmbeddingStore.isReady()) {
+                return toSimilarUserResponses(results, metric, inMemoryEmbeddingStore::getEmbedding);
+            }
+            Map<Long, float[]> embeddings = loadEmbeddings(
+                    results.stream().map(ScoredUser::getUserId).collect(Collectors.toList()));
+            return toSimilarUserResponses(results, metric, id -> Optional.ofNullable(embeddings.get(id)));
+        });
+    }
+
+    /**
+     * 유사 사용자 결과의 캐시 항목 생성
+     * 결과가 limit만큼 차 있으면 가장 먼 결과까지의 거리를 반경으로 두어, 그보다 먼 사용자의 변경에는 무효화되지 않도록 함
+     */
+    private SimilarityResultCache.Entry toCacheEntry(Long userId, int limit, DistanceMetric metric,
+                                                     List<UserEmbeddingDto.SimilarUserResponse> results) {
+        float[] target = loadEmbeddings(List.of(userId)).get(userId);
+        double radius = Double.POSITIVE_INFINITY;
+        if (target != null && results.size() >= limit) {
+            radius = 0;
+            for (UserEmbeddingDto.SimilarUserResponse result : results) {
+                float[] embedding = result.getEmbedding();
+                if (embedding == null || embedding.length != target.length) {
+                    radius = Double.POSITIVE_INFINITY;
+                    break;
+                }
+                radius = Math.max(radius, metric.distance(target, embedding));
+            }
+        }
+        long[] memberIds = results.stream().mapToLong(UserEmbeddingDto.SimilarUserResponse::getUserId).toArray();
+        return new SimilarityResultCache.Entry(Collections.unmodifiableList(results), target, metric, memberIds, radius);
+    }
+
+    /**
+     * 메모리 검색 결과를 응답 DTO로 변환
+     */
+    private List<UserEmbeddingDto.SimilarUserResponse> toSimilarUserResponses(
+            List<ScoredUser> results, DistanceMetric metric, Function<Long, Optional<float[]>> embeddingLookup) {
+        return results.stream()
+                .map(result -> UserEmbeddingDto.SimilarUserResponse.builder()
+                        .userId(result.getUserId())
+                        .embedding(embeddingLookup.apply(result.getUserId()).orElse(new float[0]))
+                        .similarity(metric.toSimilarity(result.getDistance()))
+                        .build())
                 .collect(Collectors.toList());
     }
 
     /**
-     * 특정 임계값 이상의 유사도를 가진 사용자들 조회
+     * 선호도 비트 마스크 인덱스에서 유사한 사용자 검색
+     * 임베딩이 0/1 선호도 배열이므로 코사인 거리는 마스크의 코사인 거리와 같고,
+     * 유클리드 거리는 해밍 거리의 제곱근과 같아 해밍 거리로 순위를 매김
      */
-    public List<Long> getUsersAboveSimilarityThreshold(Long userId, double threshold) {
-        log.info("임계값 이상 유사도 사용자 조회: userId={}, threshold={}", userId, threshold);
-        
-        Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId);
-        if (userEmbeddingOpt.isEmpty()) {
-            log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
+    private List<UserEmbeddingDto.SimilarUserResponse> findSimilarUsersByPreferenceMask(
+            Long userId, int limit, DistanceMetric metric) {
+        OptionalInt targetMask = preferenceMaskIndex.getMask(userId);
+        if (targetMask.isEmpty()) {
+            log.warn("사용자 선호도가 존재하지 않습니다: userId={}", userId);
             return List.of();
         }
 
-        String targetEmbedding = userEmbeddingOpt.get().getUserEmbedding();
-        List<Object[]> results = userEmbeddingRepository.findUsersAboveSimilarityThreshold(
-                targetEmbedding, userId, threshold
-        );
+        PreferenceMetric preferenceMetric = metric == DistanceMetric.COSINE
+                ? PreferenceMetric.COSINE
+                : PreferenceMetric.HAMMING;
+        List<ScoredUser> results = preferenceMaskIndex.findNearest(
+                targetMask.getAsInt(), preferenceMetric, limit, userId);
 
         return results.stream()
-                .map(result -> (Long) result[0])
+                .map(result -> {
+                    double distance = metric == DistanceMetric.COSINE
+                            ? result.getDistance()
+                            : Math.sqrt(result.getDistance());
+                    int mask = preferenceMaskIndex.getMask(result.getUserId()).orElse(0);
+                    return UserEmbeddingDto.SimilarUserResponse.builder()
+                            .userId(result.getUserId())
+                            .embedding(PreferenceBits.toVector(mask, UserEmbedding.DIMENSIONS))
+                            .similarity(metric.toSimilarity(distance))
+                            .build();
+                })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 요청/설정된 검색 엔진 결정 (메모리 인덱스가 적재되기 전이면 pgvector 사용)
+     * 이웃 목록은 K 이하 요청과 설정된 거리에만 사용하고, 그 외에는 메모리 또는 pgvector 사용
+     */
+    private EmbeddingSearchEngine resolveSearchEngine(String requestedEngine, int limit, DistanceMetric metric) {
+        EmbeddingSearchEngine engine = resolveSearchEngine(requestedEngine);
+        if (engine == EmbeddingSearchEngine.NEIGHBORS && !userNeighborService.canServe(limit, metric)) {
+            return inMemoryEmbeddingStore.isReady() ? EmbeddingSearchEngine.MEMORY : EmbeddingSearchEngine.PGVECTOR;
+        }
+        return engine;
+    }
+
+    /**
+     * 요청/설정된 검색 엔진 결정 (메모리 인덱스가 적재되기 전이면 pgvector 사용)
+     * 비트 마스크 엔진은 임베딩이 0/1 플래그 배열일 때만 사용
+     */
+    private EmbeddingSearchEngine resolveSearchEngine(String requestedEngine) {
+        EmbeddingSearchEngine engine = EmbeddingSearchEngine.from(requestedEngine,
+                EmbeddingSearchEngine.from(searchEngine, EmbeddingSearchEngine.PGVECTOR));
+        if (engine == EmbeddingSearchEngine.MEMORY && !inMemoryEmbeddingStore.isReady()) {
+            return EmbeddingSearchEngine.PGVECTOR;
+        }
+        if (engine == EmbeddingSearchEngine.BITMASK && !preferenceMaskIndex.isReady()) {
+            return EmbeddingSearchEngine.PGVECTOR;
+        }
+        if (engine == EmbeddingSearchEngine.BITMASK && preferenceEmbeddingEncoder.isProjected()) {
+            // 임베딩이 주성분 좌표이면 마스크 거리와 순위가 달라지므로 임베딩 기반 검색 사용
+            return inMemoryEmbeddingStore.isReady() ? EmbeddingSearchEngine.MEMORY : EmbeddingSearchEngine.PGVECTOR;
+        }
+        if (engine == EmbeddingSearchEngine.HNSW && !hnswEmbeddingIndex.isReady()) {
+            return EmbeddingSearchEngine.PGVECTOR;
+        }
+        if (engine == EmbeddingSearchEngine.QUANTIZED && !quantizedEmbeddingIndex.isReady()) {
+            return EmbeddingSearchEngine.PGVECTOR;
+        }
+        return engine;
+    }
+
+    /**
+     * user_id 기준 단일 문장 upsert 후 변경 이벤트 발행 (커밋 후 메모리 인덱스에 반영)
+     * 벡터 없이 저장되면 검색 대상에서 빠지도록 삭제 이벤트 발행
+     */
+    private UserEmbedding upsert(UserEmbedding userEmbedding) {
+        Long userId = userEmbedding.getUserId();
+        if (userId == null) {
+            throw new IllegalArgumentException("사용자 ID가 필요합니다");
+        }
+        UserEmbedding savedEmbedding = userEmbeddingJdbcRepository.upsertEmbedding(userId, userEmbedding.getUserEmbedding());
+        if (savedEmbedding.getUserEmbedding() == null) {
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.deleted(userId));
+        } else {
+            eventPublisher.publishEvent(UserEmbeddingChangedEvent.saved(userId, savedEmbedding.getUserEmbedding().clone()));
+        }
+        return savedEmbedding;
+    }
+
+    /**
+     * 코사인 거리가 임계값 미만인 사용자들을 (거리, 사용자 ID) 순 키셋 페이지로 조회
+     * cursor는 이전 페이지의 nextCursor (첫 페이지는 null), 대상 사용자의 임베딩이 없으면 빈 값
+     */
+    public Optional<UserEmbeddingDto.ThresholdPageResponse> getUsersAboveSimilarityThreshold(
+            Long userId, double threshold, String cursor, int limit) {
+        log.info("임계값 이상 유사도 사용자 조회: userId={}, threshold={}, limit={}", userId, threshold, limit);
+        if (limit < 1 || limit > MAX_THRESHOLD_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_THRESHOLD_PAGE_SIZE + " 이하여야 합니다: " + limit);
+        }
+        DistanceCursor after = cursor != null && !cursor.isEmpty() ? DistanceCursor.decode(cursor) : null;
+
+        return similarityResultCache.get(SimilarityResultCache.Key.aboveThreshold(userId, threshold, cursor, limit), () -> {
+            float[] target = loadEmbeddings(List.of(userId)).get(userId);
+            if (target == null) {
+                log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
+                return new SimilarityResultCache.Entry(Optional.empty(), null, DistanceMetric.COSINE,
+                        new long[0], Double.POSITIVE_INFINITY);
+            }
+
+            // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+            List<ScoredUser> rows = userEmbeddingJdbcRepository.findUsersWithinCosineDistance(
+                    target, userId, threshold, after, limit + 1);
+            boolean hasNext = rows.size() > limit;
+            List<ScoredUser> page = hasNext ? rows.subList(0, limit) : rows;
+
+            UserEmbeddingDto.ThresholdPageResponse response = UserEmbeddingDto.ThresholdPageResponse.builder()
+                    .users(page.stream().map(this::toThresholdUserResponse).collect(Collectors.toList()))
+                    .hasNext(hasNext)
+                    .nextCursor(hasNext ? DistanceCursor.of(page.get(page.size() - 1)).encode() : null)
+                    .build();
+            // 다음 페이지가 있으면 페이지의 마지막 거리보다 먼 변경은 이 페이지에 영향을 주지 않음
+            double radius = hasNext ? page.get(page.size() - 1).getDistance() : threshold;
+            return new SimilarityResultCache.Entry(Optional.of(response), target, DistanceMetric.COSINE,
+                    page.stream().mapToLong(ScoredUser::getUserId).toArray(), radius);
+        });
+    }
+
+    /**
+     * 코사인 거리가 임계값 미만인 모든 사용자를 (거리, 사용자 ID) 순으로 서버 측 커서로 순회
+     * 결과 수와 관계없이 fetch size만큼만 메모리에 올림 (대상 사용자의 임베딩이 없으면 false)
+     */
+    public boolean streamUsersAboveSimilarityThreshold(Long userId, double threshold,
+                                                       UserEmbeddingJdbcRepository.ScoredRowHandler handler) {
+        log.info("임계값 이상 유사도 사용자 스트리밍: userId={}, threshold={}", userId, threshold);
+        float[] target = loadEmbeddings(List.of(userId)).get(userId);
+        if (target == null) {
+            return false;
+        }
+        userEmbeddingJdbcRepository.streamUsersWithinCosineDistance(target, userId, threshold, handler);
+        return true;
+    }
+
+    private UserEmbeddingDto.ThresholdUserResponse toThresholdUserResponse(ScoredUser scoredUser) {
+        return UserEmbeddingDto.ThresholdUserResponse.builder()
+                .userId(scoredUser.getUserId())
+                .distance(scoredUser.getDistance())
+                .similarity(DistanceMetric.COSINE.toSimilarity(scoredUser.getDistance()))
+                .build();
+    }
+
     /**
      * 가장 유사한 사용자 1명 조회
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<Long> getMostSimilarUser(Long userId) {
         log.info("가장 유사한 사용자 조회: userId={}", userId);
+        EmbeddingSearchEngine engine = resolveSearchEngine(null);
+
+        return similarityResultCache.get(SimilarityResultCache.Key.mostSimilarUser(userId, engine), () -> {
+            Optional<Long> result = searchMostSimilarUser(userId, engine);
+            Map<Long, float[]> embeddings = loadEmbeddings(
+                    result.map(mostSimilar -> List.of(userId, mostSimilar)).orElse(List.of(userId)));
+            float[] target = embeddings.get(userId);
+            float[] nearest = result.map(embeddings::get).orElse(null);
+            double radius = target != null && nearest != null && target.length == nearest.length
+                    ? DistanceMetric.COSINE.distance(target, nearest)
+                    : Double.POSITIVE_INFINITY;
+            return new SimilarityResultCache.Entry(result, target, DistanceMetric.COSINE,
+                    result.stream().mapToLong(Long::longValue).toArray(), radius);
+        });
+    }
+
+    /**
+     * 가장 유사한 사용자 1명 검색 (캐시 미스 시 실행)
+     */
+    private Optional<Long> searchMostSimilarUser(Long userId, EmbeddingSearchEngine engine) {
+        if (engine == EmbeddingSearchEngine.MEMORY) {
+            return inMemoryEmbeddingStore.getEmbedding(userId)
+                    .flatMap(target -> inMemoryEmbeddingStore.findNearest(target, DistanceMetric.COSINE, 1, userId)
+                            .stream()
+                            .findFirst())
+                    .map(ScoredUser::getUserId);
+        }
         
-        Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId);
+        Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId)
+                .filter(userEmbedding -> userEmbedding.getUserEmbedding() != null);
         if (userEmbeddingOpt.isEmpty()) {
             log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
             return Optional.empty();
         }
 
-        String targetEmbedding = userEmbeddingOpt.get().getUserEmbedding();
-        Optional<Object[]> result = userEmbeddingRepository.findMostSimilarUser(
-                targetEmbedding, userId
-        );
-
-        return result.map(obj -> (Long) obj[0]);
+        String targetEmbedding = VectorText.format(userEmbeddingOpt.get().getUserEmbedding());
+        return userEmbeddingRepository.findMostSimilarUser(targetEmbedding, userId)
+                .map(NearestUserProjection::getUserId);
     }
 
     /**
@@ -201,6 +673,7 @@ public class UserEmbeddingService {
     public void deleteUserEmbedding(Long userId) {
         log.info("사용자 임베딩 삭제: userId={}", userId);
         userEmbeddingRepository.deleteById(userId);
+        eventPublisher.publishEvent(UserEmbeddingChangedEvent.deleted(userId));
     }
 
     /**
@@ -211,18 +684,25 @@ public class UserEmbeddingService {
     }
 
     /**
-     * 특정 사용자와의 평균 유사도 계산
+     * 특정 사용자와 나머지 모든 사용자 사이의 평균 코사인 거리 계산
+     * 메모리 저장소가 적재되어 있으면 유지 중인 벡터 합계로 즉시 계산하고, 아니면 테이블 전체를 집계
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<Double> getAverageSimilarity(Long userId) {
         log.info("평균 유사도 계산: userId={}", userId);
-        
+
+        if (inMemoryEmbeddingStore.isReady()) {
+            OptionalDouble average = inMemoryEmbeddingStore.getAverageCosineDistance(userId);
+            return average.isPresent() ? Optional.of(average.getAsDouble()) : Optional.empty();
+        }
+
         Optional<UserEmbedding> userEmbeddingOpt = getUserEmbeddingByUserId(userId);
         if (userEmbeddingOpt.isEmpty()) {
             log.warn("사용자 임베딩이 존재하지 않습니다: userId={}", userId);
             return Optional.empty();
         }
 
-        String targetEmbedding = userEmbeddingOpt.get().getUserEmbedding();
+        String targetEmbedding = VectorText.format(userEmbeddingOpt.get().getUserEmbedding());
         Double avgSimilarity = userEmbeddingRepository.getAverageSimilarity(
                 targetEmbedding, userId
         );
@@ -230,27 +710,6 @@ public class UserEmbeddingService {
         return Optional.ofNullable(avgSimilarity);
     }
 
-    /**
-     * 모든 사용자의 임베딩을 일괄 업데이트
-     */
-    @Transactional
-    public void updateAllEmbeddings() {
-        log.info("모든 사용자 임베딩 일괄 업데이트 시작");
-        
-        List<UserPrefer> allUserPrefers = userPreferRepository.findAll();
-        
-        for (UserPrefer userPrefer : allUserPrefers) {
-            try {
-                createEmbeddingFromPreference(userPrefer.getUserId());
-                log.debug("임베딩 업데이트 완료: userId={}", userPrefer.getUserId());
-            } catch (Exception e) {
-                log.error("임베딩 업데이트 실패: userId={}, error={}", userPrefer.getUserId(), e.getMessage());
-            }
-        }
-        
-        log.info("모든 사용자 임베딩 일괄 업데이트 완료: 총 {}명", allUserPrefers.size());
-    }
-
     /**
      * 사용자 임베딩 존재 여부 확인
      */
@@ -265,7 +724,7 @@ public class UserEmbeddingService {
     @Transactional
     public UserEmbedding createOrUpdateUserEmbedding(UserEmbedding userEmbedding) {
         log.info("사용자 임베딩 생성/업데이트: userId={}", userEmbedding.getUserId());
-        return userEmbeddingRepository.save(userEmbedding);
+        return upsert(userEmbedding);
     }
 
     /**
@@ -293,32 +752,95 @@ public class UserEmbeddingService {
 
 
     /**
-     * 코사인 거리 계산
+     * 코사인 거리 계산 (pgvector <=>와 같은 값, 영벡터가 있으면 NaN)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public double calculateCosineDistance(Long userId1, Long userId2) {
-        Optional<UserEmbedding> embedding1 = getUserEmbeddingByUserId(userId1);
-        Optional<UserEmbedding> embedding2 = getUserEmbeddingByUserId(userId2);
-        
-        if (embedding1.isEmpty() || embedding2.isEmpty()) {
-            throw new IllegalArgumentException("사용자 임베딩이 존재하지 않습니다");
-        }
-        
-        // TODO: 실제 코사인 거리 계산 로직 구현
-        return 0.0;
+        return calculateDistance(userId1, userId2, DistanceMetric.COSINE);
     }
 
     /**
-     * 유클리드 거리 계산
+     * 유클리드 거리 계산 (pgvector <->와 같은 값)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public double calculateEuclideanDistance(Long userId1, Long userId2) {
-        Optional<UserEmbedding> embedding1 = getUserEmbeddingByUserId(userId1);
-        Optional<UserEmbedding> embedding2 = getUserEmbeddingByUserId(userId2);
-        
-        if (embedding1.isEmpty() || embedding2.isEmpty()) {
+        return calculateDistance(userId1, userId2, DistanceMetric.EUCLIDEAN);
+    }
+
+    /**
+     * 여러 사용자 간 N×N 유사도 행렬 계산
+     * 임베딩을 한 번에 조회한 뒤 JVM에서 병렬로 계산 (요청 순서 유지, 중복 ID 제거)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserEmbeddingDto.SimilarityMatrixResponse calculateSimilarityMatrix(List<Long> userIds, DistanceMetric metric) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("사용자 ID 목록이 비어 있습니다");
+        }
+        List<Long> distinctUserIds = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctUserIds.size() > MAX_SIMILARITY_MATRIX_USERS) {
+            throw new IllegalArgumentException("유사도 행렬은 최대 " + MAX_SIMILARITY_MATRIX_USERS + "명까지 계산할 수 있습니다");
+        }
+        log.info("유사도 행렬 계산: users={}, metric={}", distinctUserIds.size(), metric);
+
+        Map<Long, float[]> embeddings = loadEmbeddings(distinctUserIds);
+        List<Long> foundUserIds = distinctUserIds.stream()
+                .filter(embeddings::containsKey)
+                .collect(Collectors.toList());
+        List<Long> missingUserIds = distinctUserIds.stream()
+                .filter(userId -> !embeddings.containsKey(userId))
+                .collect(Collectors.toList());
+
+        float[][] vectors = foundUserIds.stream()
+                .map(embeddings::get)
+                .toArray(float[][]::new);
+
+        return UserEmbeddingDto.SimilarityMatrixResponse.builder()
+                .userIds(foundUserIds)
+                .method(metric.name().toLowerCase())
+                .similarities(PairwiseSimilarity.matrix(vectors, metric))
+                .missingUserIds(missingUserIds)
+                .build();
+    }
+
+    private double calculateDistance(Long userId1, Long userId2, DistanceMetric metric) {
+        Map<Long, float[]> embeddings = loadEmbeddings(List.of(userId1, userId2));
+        float[] embedding1 = embeddings.get(userId1);
+        float[] embedding2 = embeddings.get(userId2);
+
+        if (embedding1 == null || embedding2 == null) {
             throw new IllegalArgumentException("사용자 임베딩이 존재하지 않습니다");
         }
-        
-        // TODO: 실제 유클리드 거리 계산 로직 구현
-        return 0.0;
+
+        return metric.distance(embedding1, embedding2);
+    }
+
+    /**
+     * 여러 사용자의 임베딩 조회 (임베딩이 없는 사용자는 결과에 없음)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<Long, float[]> getEmbeddings(Collection<Long> userIds) {
+        return loadEmbeddings(userIds);
+    }
+
+    /**
+     * 여러 사용자의 임베딩 조회
+     * 메모리 저장소가 적재되어 있으면 DB를 거치지 않고, 아니면 한 번의 IN 쿼리로 조회
+     */
+    private Map<Long, float[]> loadEmbeddings(Collection<Long> userIds) {
+        Map<Long, float[]> embeddings = new HashMap<>();
+        if (inMemoryEmbeddingStore.isReady()) {
+            for (Long userId : userIds) {
+                inMemoryEmbeddingStore.getEmbedding(userId).ifPresent(embedding -> embeddings.put(userId, embedding));
+            }
+            return embeddings;
+        }
+
+        userEmbeddingRepository.findByUserIdIn(userIds).stream()
+                .filter(userEmbedding -> userEmbedding.getUserEmbedding() != null)
+                .forEach(userEmbedding -> embeddings.put(userEmbedding.getUserId(), userEmbedding.getUserEmbedding()));
+        return embeddings;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,402 @@
+package com.goteego.user.service;
+
+import com.goteego.user.domain.UserNeighbors;
+import com.goteego.user.dto.UserNeighborDto;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.repository.UserNeighborsJdbcRepository;
+import com.goteego.user.repository.UserNeighborsRepository;
+import com.goteego.user.similarity.DistanceMetric;
+import com.goteego.user.similarity.NeighborRadii;
+import com.goteego.user.similarity.ScoredUser;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자별 상위 K명 이웃 목록 관리 서비스
+ * 메모리 임베딩 저장소로 전체 목록을 병렬로 미리 계산해 user_neighbors에 저장하고,
+ * 임베딩이 바뀌면 그 사용자의 목록과 그 사용자가 새로 들어가거나 빠질 수 있는 목록만 다시 계산
+ * 새로 들어갈 목록은 목록별 K번째 이웃을 메모리에 캐시해 두고 메모리 행렬 한 번 순회로 판정
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserNeighborService {
+
+    private final InMemoryEmbeddingStore inMemoryEmbeddingStore;
+    private final UserNeighborsRepository userNeighborsRepository;
+    private final UserNeighborsJdbcRepository userNeighborsJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolTaskExecutor embeddingJobExecutor;
+
+    @Value("${goteego.embedding.neighbors.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 사용자마다 저장할 이웃 수
+     */
+    @Value("${goteego.embedding.neighbors.k:20}")
+    private int k;
+
+    /**
+     * 이웃 거리 (cosine | euclidean)
+     */
+    @Value("${goteego.embedding.neighbors.metric:cosine}")
+    private String metric;
+
+    private DistanceMetric distanceMetric;
+
+    /**
+     * 한 트랜잭션에서 다시 계산해 저장할 목록 수
+     */
+    @Value("${goteego.embedding.neighbors.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 이웃 목록을 다시 계산해야 하는 임베딩 변경 사용자 ID
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 목록 저장과 K번째 이웃 캐시 갱신/조회를 직렬화하는 잠금
+     */
+    private final Object refreshLock = new Object();
+
+    /**
+     * 저장된 목록별 K번째 이웃 (refreshLock 안에서만 접근, 처음 증분 갱신할 때 user_neighbors에서 적재)
+     */
+    private final NeighborRadii radii = new NeighborRadii(0);
+    private boolean radiiLoaded;
+
+    /**
+     * 저장된 목록이 없으면 메모리 저장소 적재 후 전체 목록 계산
+     */
+    private volatile boolean initialBuildRequired;
+
+    private volatile LocalDateTime lastRebuiltAt;
+
+    /**
+     * 거리 설정 확인 (알 수 없는 값이면 시작 실패)
+     */
+    @PostConstruct
+    public void validateMetric() {
+        distanceMetric = DistanceMetric.from(metric);
+    }
+
+    /**
+     * 애플리케이션 시작 시 인덱스를 확인하고, 저장된 목록이 없으면 전체 계산 예약
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        if (!enabled) {
+            log.info("사용자 이웃 목록 비활성화");
+            return;
+        }
+        userNeighborsJdbcRepository.ensureNeighborIdsIndex();
+        initialBuildRequired = userNeighborsRepository.count() == 0;
+    }
+
+    /**
+     * 커밋된 임베딩 변경을 증분 갱신 대기열에 추가 (같은 사용자의 연속 변경은 하나로 합쳐짐)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingChanged(UserEmbeddingChangedEvent event) {
+        if (enabled) {
+            pending.add(event.getUserId());
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 반영 (메모리 저장소가 이미 반영한 뒤에 계산되도록 이벤트와 분리해 주기적으로 실행)
+     */
+    @Scheduled(fixedDelayString = "${goteego.embedding.neighbors.refresh-interval-ms:1000}")
+    public void refreshPeriodically() {
+        if (!enabled || !inMemoryEmbeddingStore.isReady()) {
+            return;
+        }
+        if (initialBuildRequired) {
+            // 작업 풀이 가득 차 시작하지 못했으면 다음 주기에 다시 시도
+            initialBuildRequired = !rebuildAsync() && !rebuilding.get();
+            return;
+        }
+        if (!pending.isEmpty() && !rebuilding.get()) {
+            refreshPending();
+        }
+    }
+
+    /**
+     * 백그라운드 작업 풀에서 전체 목록 재계산 시작 (이미 실행 중이거나 메모리 저장소가 준비되지 않았거나 풀이 가득 찼으면 false)
+     */
+    public boolean rebuildAsync() {
+        if (!enabled || !inMemoryEmbeddingStore.isReady() || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            embeddingJobExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("사용자 이웃 목록 전체 계산 실패: error={}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rebuilding.set(false);
+            log.warn("사용자 이웃 목록 전체 계산을 시작하지 못했습니다: error={}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 목록으로 응답할 수 있는 요청인지 확인
+     */
+    public boolean canServe(int limit, DistanceMetric requestedMetric) {
+        return enabled && limit <= k && requestedMetric == configuredMetric();
+    }
+
+    /**
+     * 사용자 이웃 목록 조회 (기본 키 조회 한 번)
+     */
+    public Optional<UserNeighbors> getNeighbors(Long userId) {
+        return userNeighborsRepository.findById(userId);
+    }
+
+    /**
+     * 사용자 이웃 목록 응답 (계산 시각과 경과 시간 포함)
+     */
+    public Optional<UserNeighborDto.NeighborListResponse> getNeighborList(Long userId) {
+        DistanceMetric distanceMetric = configuredMetric();
+        LocalDateTime now = LocalDateTime.now();
+        return getNeighbors(userId).map(neighbors -> UserNeighborDto.NeighborListResponse.builder()
+                .userId(userId)
+                .metric(distanceMetric.name().toLowerCase())
+                .computedAt(neighbors.getComputedAt())
+                .ageSeconds(Duration.between(neighbors.getComputedAt(), now).getSeconds())
+                .pendingRefresh(pending.contains(userId))
+                .neighbors(IntStream.range(0, neighbors.getNeighborIds().length)
+                        .mapToObj(i -> UserNeighborDto.Neighbor.builder()
+                                .userId(neighbors.getNeighborIds()[i])
+                                .distance(neighbors.getDistances()[i])
+                                .similarity(distanceMetric.toSimilarity(neighbors.getDistances()[i]))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    /**
+     * 목록 상태 조회
+     */
+    public UserNeighborDto.StatusResponse getStatus() {
+        Map<String, Object> summary = userNeighborsJdbcRepository.summarize();
+        return UserNeighborDto.StatusResponse.builder()
+                .enabled(enabled)
+                .k(k)
+                .metric(configuredMetric().name().toLowerCase())
+                .lists(((Number) summary.get("rows")).longValue())
+                .oldestComputedAt(toLocalDateTime(summary.get("oldest")))
+                .newestComputedAt(toLocalDateTime(summary.get("newest")))
+                .pendingUsers(pending.size())
+                .rebuilding(rebuilding.get())
+                .lastRebuiltAt(lastRebuiltAt)
+                .build();
+    }
+
+    /**
+     * 메모리 저장소의 모든 사용자 목록을 배치 단위로 병렬 계산해 저장하고, 임베딩이 없어진 사용자의 목록 삭제
+     */
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        long[] userIds = inMemoryEmbeddingStore.userIds();
+        log.info("사용자 이웃 목록 전체 계산 시작: {}명, k={}", userIds.length, k);
+
+        synchronized (refreshLock) {
+            // 전체 계산이 모든 목록을 다시 채우므로 저장된 값을 읽지 않음 (삭제될 목록도 캐시에서 빠짐)
+            radii.clear();
+            radiiLoaded = true;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            for (int from = 0; from < userIds.length; from += batchSize) {
+                long[] batch = Arrays.copyOfRange(userIds, from, Math.min(userIds.length, from + batchSize));
+                synchronized (refreshLock) {
+                    transactionTemplate.execute(status -> recompute(batch)).run();
+                }
+            }
+        } catch (RuntimeException e) {
+            // 계산하지 못한 목록이 캐시에서 빠졌으므로 다음 증분 갱신 때 저장된 값으로 다시 적재
+            synchronized (refreshLock) {
+                radiiLoaded = false;
+            }
+            throw e;
+        }
+        int orphans = userNeighborsJdbcRepository.deleteOrphans();
+        lastRebuiltAt = LocalDateTime.now();
+        log.info("사용자 이웃 목록 전체 계산 완료: {}명, 삭제 {}건, {}ms",
+                userIds.length, orphans, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 변경된 사용자와, 그 사용자를 목록에 가지고 있거나 새 벡터가 K번째 이웃보다 앞서는 사용자들의 목록만 다시 계산
+     * K번째와 거리가 같아도 사용자 ID 순으로 밀리면 목록이 바뀌지 않으므로 대상에서 제외
+     * 실패하면 변경 사용자를 다시 대기열에 넣음
+     */
+    private void refreshPending() {
+        synchronized (refreshLock) {
+            long[] changed = new long[batchSize];
+            int count = 0;
+            Iterator<Long> iterator = pending.iterator();
+            while (count < changed.length && iterator.hasNext()) {
+                changed[count++] = iterator.next();
+                iterator.remove();
+            }
+            if (count == 0) {
+                return;
+            }
+
+            long[] changedIds = Arrays.copyOf(changed, count);
+            try {
+                ensureRadiiLoaded();
+                float[][] vectors = new float[count][];
+                long[] vectorIds = new long[count];
+                int vectorCount = 0;
+                Set<Long> affected = new HashSet<>();
+                for (long userId : changedIds) {
+                    affected.add(userId);
+                    Optional<float[]> vector = inMemoryEmbeddingStore.getEmbedding(userId);
+                    if (vector.isPresent()) {
+                        vectors[vectorCount] = vector.get();
+                        vectorIds[vectorCount++] = userId;
+                    }
+                }
+                if (vectorCount > 0) {
+                    for (long userId : inMemoryEmbeddingStore.findUsersAdmittingAny(Arrays.copyOf(vectors, vectorCount),
+                            Arrays.copyOf(vectorIds, vectorCount), configuredMetric(), radii)) {
+                        affected.add(userId);
+                    }
+                }
+                affected.addAll(userNeighborsJdbcRepository.findUsersListingAny(changedIds, count));
+
+                long[] affectedIds = affected.stream().mapToLong(Long::longValue).toArray();
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                for (int from = 0; from < affectedIds.length; from += batchSize) {
+                    long[] batch = Arrays.copyOfRange(affectedIds, from, Math.min(affectedIds.length, from + batchSize));
+                    transactionTemplate.execute(status -> recompute(batch)).run();
+                }
+                log.debug("사용자 이웃 목록 증분 갱신: 변경 {}명, 재계산 {}명", count, affectedIds.length);
+            } catch (RuntimeException e) {
+                for (long userId : changedIds) {
+                    pending.add(userId);
+                }
+                log.error("사용자 이웃 목록 증분 갱신 실패: {}명, error={}", count, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 저장된 목록의 K번째 이웃을 캐시에 적재 (refreshLock 안에서 호출)
+     */
+    private void ensureRadiiLoaded() {
+        if (radiiLoaded) {
+            return;
+        }
+        radii.clear();
+        userNeighborsJdbcRepository.streamKthNeighbors(radii::put);
+        radiiLoaded = true;
+        log.info("사용자 이웃 목록 K번째 이웃 적재: {}건", radii.size());
+    }
+
+    /**
+     * 사용자들의 목록을 병렬로 계산해 저장 (메모리 저장소에 임베딩이 없는 사용자는 목록 삭제)
+     * K번째 이웃 캐시는 커밋된 뒤에만 바뀌도록 캐시 갱신 작업을 반환 (refreshLock 안에서 호출)
+     */
+    private Runnable recompute(long[] userIds) {
+        DistanceMetric distanceMetric = configuredMetric();
+        List<ScoredUser>[] results = computeInParallel(userIds, distanceMetric);
+
+        int count = userIds.length;
+        long[] savedIds = new long[count];
+        long[][] neighborIds = new long[count][];
+        double[][] distances = new double[count][];
+        double[] kthDistances = new double[count];
+        long[] removedIds = new long[count];
+        int saved = 0;
+        int removed = 0;
+        for (int i = 0; i < count; i++) {
+            List<ScoredUser> result = results[i];
+            if (result == null) {
+                removedIds[removed++] = userIds[i];
+                continue;
+            }
+            savedIds[saved] = userIds[i];
+            neighborIds[saved] = result.stream().mapToLong(ScoredUser::getUserId).toArray();
+            distances[saved] = result.stream().mapToDouble(ScoredUser::getDistance).toArray();
+            kthDistances[saved] = result.size() < k
+                    ? Double.POSITIVE_INFINITY
+                    : result.get(result.size() - 1).getDistance();
+            saved++;
+        }
+        userNeighborsJdbcRepository.batchUpsert(savedIds, neighborIds, distances, kthDistances, saved);
+        userNeighborsJdbcRepository.deleteByUserIds(removedIds, removed);
+
+        int savedCount = saved;
+        int removedCount = removed;
+        return () -> {
+            for (int i = 0; i < savedCount; i++) {
+                long[] ids = neighborIds[i];
+                radii.put(savedIds[i], kthDistances[i], ids.length > 0 ? ids[ids.length - 1] : Long.MAX_VALUE);
+            }
+            for (int i = 0; i < removedCount; i++) {
+                radii.remove(removedIds[i]);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ScoredUser>[] computeInParallel(long[] userIds, DistanceMetric distanceMetric) {
+        List<ScoredUser>[] results = new List[userIds.length];
+        IntStream.range(0, userIds.length).parallel().forEach(i -> results[i] = inMemoryEmbeddingStore
+                .getEmbedding(userIds[i])
+                .map(vector -> inMemoryEmbeddingStore.findNearest(vector, distanceMetric, k, userIds[i]))
+                .orElse(null));
+        return results;
+    }
+
+    private DistanceMetric configuredMetric() {
+        return distanceMetric;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : null;
+    }
+}
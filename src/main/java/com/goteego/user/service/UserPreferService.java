@@ -1,14 +1,33 @@
 package com.goteego.user.service;
 
+import com.goteego.user.domain.PreferenceAttribute;
 import com.goteego.user.domain.UserPrefer;
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserPreferJdbcRepository;
 import com.goteego.user.repository.UserPreferRepository;
+import com.goteego.user.similarity.DistanceCursor;
+import com.goteego.user.similarity.MaskDistance;
+import com.goteego.user.similarity.PreferenceExpression;
+import com.goteego.user.similarity.PreferenceMaskPredicate;
+import com.goteego.user.similarity.PreferenceMetric;
+import com.goteego.user.similarity.ScoredUser;
+import com.goteego.user.similarity.TopKHeap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
 
 /**
  * 사용자 선호도 서비스
@@ -20,7 +39,21 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class UserPreferService {
 
+    /**
+     * 유사 사용자 조회 한 번에 반환할 수 있는 최대 인원
+     */
+    public static final int MAX_SIMILAR_USERS_LIMIT = 1000;
+
+    /**
+     * 조건식 대상 사용자 조회 한 페이지의 최대 인원
+     */
+    public static final int MAX_AUDIENCE_PAGE_SIZE = 10_000;
+
     private final UserPreferRepository userPreferRepository;
+    private final UserPreferJdbcRepository userPreferJdbcRepository;
+    private final PreferenceMaskIndex preferenceMaskIndex;
+    private final PreferenceCompatibilityScorer preferenceCompatibilityScorer;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 사용자 선호도 저장/수정
@@ -28,7 +61,11 @@ public class UserPreferService {
     @Transactional
     public UserPrefer saveUserPrefer(UserPrefer userPrefer) {
         log.info("사용자 선호도 저장/수정: userId={}", userPrefer.getUserId());
-        return userPreferRepository.save(userPrefer);
+        Integer previousMask = findStoredPreferenceMask(userPrefer.getUserId());
+        UserPrefer savedPrefer = userPreferRepository.save(userPrefer);
+        eventPublisher.publishEvent(UserPreferChangedEvent.saved(
+                savedPrefer.getUserId(), previousMask, savedPrefer.computePreferenceMask()));
+        return savedPrefer;
     }
 
     /**
@@ -45,160 +82,317 @@ public class UserPreferService {
     @Transactional
     public void deleteUserPrefer(Long userId) {
         log.info("사용자 선호도 삭제: userId={}", userId);
+        Integer previousMask = findStoredPreferenceMask(userId);
         userPreferRepository.deleteById(userId);
+        eventPublisher.publishEvent(UserPreferChangedEvent.deleted(userId, previousMask));
     }
 
     /**
-     * 친화적인 사용자들 조회
+     * 변경 전 저장되어 있던 선호도 마스크 (없으면 null)
+     * 같은 엔티티를 수정해 저장하는 경우에도 이전 값을 얻도록 플래그가 아닌 마지막으로 저장된 preference_mask 값을 사용
      */
-    public List<UserPrefer> getFriendlyUsers() {
-        log.info("친화적인 사용자들 조회");
-        return userPreferRepository.findByIsFriendlyTrue();
+    private Integer findStoredPreferenceMask(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return userPreferRepository.findById(userId)
+                .map(stored -> stored.getPreferenceMask() != null
+                        ? stored.getPreferenceMask()
+                        : stored.computePreferenceMask())
+                .orElse(null);
     }
 
     /**
-     * 리더십 있는 사용자들 조회
+     * 여러 사용자의 선호도를 한 번에 조회
      */
-    public List<UserPrefer> getLeadUsers() {
-        log.info("리더십 있는 사용자들 조회");
-        return userPreferRepository.findByIsLeadTrue();
+    public List<UserPrefer> getUserPrefersByUserIds(Collection<Long> userIds) {
+        return userPreferRepository.findAllById(userIds);
     }
 
     /**
-     * 아웃도어 활동을 좋아하는 사용자들 조회
+     * 친화적이고 아웃도어 활동을 좋아하는 사용자들 조회
      */
-    public List<UserPrefer> getOutdoorUsers() {
-        log.info("아웃도어 활동을 좋아하는 사용자들 조회");
-        return userPreferRepository.findByIsOutdoorTrue();
+    public List<UserPrefer> getFriendlyAndOutdoorUsers() {
+        log.info("친화적이고 아웃도어 활동을 좋아하는 사용자들 조회");
+        return userPreferRepository.findFriendlyAndOutdoorUsers();
     }
 
     /**
-     * 도시 여행을 선호하는 사용자들 조회
+     * 리더십 있고 도시 여행을 선호하는 사용자들 조회
      */
-    public List<UserPrefer> getCityUsers() {
-        log.info("도시 여행을 선호하는 사용자들 조회");
-        return userPreferRepository.findByIsCityTrue();
+    public List<UserPrefer> getLeadAndCityUsers() {
+        log.info("리더십 있고 도시 여행을 선호하는 사용자들 조회");
+        return userPreferRepository.findLeadAndCityUsers();
     }
 
     /**
-     * 힐링 여행을 선호하는 사용자들 조회
+     * 여유롭고 힐링 여행을 선호하는 사용자들 조회
      */
-    public List<UserPrefer> getHealUsers() {
-        log.info("힐링 여행을 선호하는 사용자들 조회");
-        return userPreferRepository.findByIsHealTrue();
+    public List<UserPrefer> getChillAndHealUsers() {
+        log.info("여유롭고 힐링 여행을 선호하는 사용자들 조회");
+        return userPreferRepository.findChillAndHealUsers();
     }
 
     /**
-     * 술을 좋아하는 사용자들 조회
+     * 활발한 여행 스타일을 가진 사용자들 조회
      */
-    public List<UserPrefer> getAlcoholLovers() {
-        log.info("술을 좋아하는 사용자들 조회");
-        return userPreferRepository.findByIsAlchol3True();
+    public List<UserPrefer> getActiveTravelStyleUsers() {
+        log.info("활발한 여행 스타일을 가진 사용자들 조회");
+        return userPreferRepository.findActiveTravelStyleUsers();
     }
 
     /**
-     * 술을 마시지 않는 사용자들 조회
+     * 문화 활동을 선호하는 사용자들 조회
      */
-    public List<UserPrefer> getNonAlcoholUsers() {
-        log.info("술을 마시지 않는 사용자들 조회");
-        return userPreferRepository.findByIsAlchol1True();
+    public List<UserPrefer> getCulturalActivityUsers() {
+        log.info("문화 활동을 선호하는 사용자들 조회");
+        return userPreferRepository.findCulturalActivityUsers();
     }
 
     /**
-     * 흡연자들 조회
+     * 두 사용자의 분류별 가중치 호환성 점수 (0~1, 클수록 잘 맞음)
      */
-    public List<UserPrefer> getSmokers() {
-        log.info("흡연자들 조회");
-        return userPreferRepository.findByIsSmokerTrue();
+    public double calculateCompatibilityScore(UserPrefer user1, UserPrefer user2) {
+        return preferenceCompatibilityScorer.score(user1.computePreferenceMask(), user2.computePreferenceMask());
     }
 
     /**
-     * 비흡연자들 조회
+     * 두 사용자 ID의 분류별 가중치 호환성 점수
+     * 마스크 인덱스가 적재되어 있으면 엔티티를 로딩하지 않음
      */
-    public List<UserPrefer> getNonSmokers() {
-        log.info("비흡연자들 조회");
-        return userPreferRepository.findByIsSmokerFalse();
+    public double calculateCompatibilityScore(Long userId1, Long userId2) {
+        OptionalInt mask1 = getPreferenceMask(userId1);
+        OptionalInt mask2 = getPreferenceMask(userId2);
+        if (mask1.isEmpty() || mask2.isEmpty()) {
+            throw new IllegalArgumentException("사용자 선호도가 존재하지 않습니다");
+        }
+        return preferenceCompatibilityScorer.score(mask1.getAsInt(), mask2.getAsInt());
     }
 
     /**
-     * 친화적이고 아웃도어 활동을 좋아하는 사용자들 조회
+     * 요청 파라미터로 마스크 거리 함수 결정 (weighted는 현재 호환성 가중치, 그 외는 PreferenceMetric)
      */
-    public List<UserPrefer> getFriendlyAndOutdoorUsers() {
-        log.info("친화적이고 아웃도어 활동을 좋아하는 사용자들 조회");
-        return userPreferRepository.findFriendlyAndOutdoorUsers();
+    public MaskDistance resolveMaskDistance(String metric) {
+        if (metric != null && "weighted".equalsIgnoreCase(metric.trim())) {
+            return preferenceCompatibilityScorer.current();
+        }
+        return PreferenceMetric.from(metric);
     }
 
     /**
-     * 리더십 있고 도시 여행을 선호하는 사용자들 조회
+     * 선호도 비트 마스크로 유사한 사용자 상위 limit명 조회
      */
-    public List<UserPrefer> getLeadAndCityUsers() {
-        log.info("리더십 있고 도시 여행을 선호하는 사용자들 조회");
-        return userPreferRepository.findLeadAndCityUsers();
+    public List<ScoredUser> getSimilarUsersByMask(Long userId, MaskDistance metric, int limit) {
+        return getSimilarUsersByMask(userId, metric, limit, null);
     }
 
     /**
-     * 여유롭고 힐링 여행을 선호하는 사용자들 조회
+     * 커서 뒤에서 (거리, 사용자 ID) 순으로 유사한 사용자 limit명 조회
+     * 후보마다 마스크로 점수를 한 번만 계산하고 limit 크기 힙으로 상위만 고르므로 엔티티를 로딩하거나 전체를 정렬하지 않음
+     * 메모리 마스크 인덱스가 아직 적재되지 않았으면 user_prefer의 마스크 컬럼만 커서로 훑음
      */
-    public List<UserPrefer> getChillAndHealUsers() {
-        log.info("여유롭고 힐링 여행을 선호하는 사용자들 조회");
-        return userPreferRepository.findChillAndHealUsers();
+    public List<ScoredUser> getSimilarUsersByMask(Long userId, MaskDistance metric, int limit, DistanceCursor after) {
+        log.info("선호도 마스크 기반 유사 사용자 조회: userId={}, metric={}, limit={}, after={}", userId, metric, limit, after);
+        if (limit < 1 || limit > MAX_SIMILAR_USERS_LIMIT) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_SIMILAR_USERS_LIMIT + " 이하여야 합니다: " + limit);
+        }
+
+        OptionalInt targetMask = getPreferenceMask(userId);
+        if (targetMask.isEmpty()) {
+            log.warn("사용자 선호도가 존재하지 않습니다: userId={}", userId);
+            return List.of();
+        }
+
+        if (preferenceMaskIndex.isReady()) {
+            return preferenceMaskIndex.findNearest(targetMask.getAsInt(), metric, limit, userId, after);
+        }
+
+        TopKHeap heap = new TopKHeap(limit);
+        userPreferJdbcRepository.streamPreferenceMasks((candidateUserId, candidateMask) -> {
+            if (candidateUserId == userId) {
+                return;
+            }
+            double distance = metric.distance(targetMask.getAsInt(), candidateMask);
+            if (after == null || after.precedes(distance, candidateUserId)) {
+                heap.offer(candidateUserId, distance);
+            }
+        });
+        return heap.drainAscending();
     }
 
     /**
-     * 활발한 여행 스타일을 가진 사용자들 조회
+     * 선호도 속성 이름으로 된 불리언 조건식 해석 (예: "isFriendly AND (isOutdoor OR isBeach) AND NOT isSmoker")
      */
-    public List<UserPrefer> getActiveTravelStyleUsers() {
-        log.info("활발한 여행 스타일을 가진 사용자들 조회");
-        return userPreferRepository.findActiveTravelStyleUsers();
+    public PreferenceExpression parsePreferenceExpression(String expression) {
+        return PreferenceExpression.parse(expression, name -> PreferenceAttribute.from(name).getBitIndex());
     }
 
     /**
-     * 문화 활동을 선호하는 사용자들 조회
+     * 불리언 조건식을 만족하는 사용자 수와 사용자 ID 페이지 (ID 오름차순, countOnly면 ID 없이 수만)
+     * source가 memory면 메모리 마스크 인덱스의 플래그별 비트셋 연산, sql이면 preference_mask 컬럼 조건으로 조회
+     * sql은 비트 연산 조건이라 인덱스를 쓰지 못하고 user_prefer를 훑으므로, 지정하지 않으면 메모리 인덱스가 적재되어 있을 때만 memory
      */
-    public List<UserPrefer> getCulturalActivityUsers() {
-        log.info("문화 활동을 선호하는 사용자들 조회");
-        return userPreferRepository.findCulturalActivityUsers();
+    public UserPreferDto.AudienceResponse findAudience(String expression, Long afterUserId, int limit,
+                                                       boolean countOnly, String source) {
+        log.info("선호도 조건식 대상 사용자 조회: expression={}, afterUserId={}, limit={}, countOnly={}, source={}",
+                expression, afterUserId, limit, countOnly, source);
+        if (!countOnly && (limit < 1 || limit > MAX_AUDIENCE_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_AUDIENCE_PAGE_SIZE + " 이하여야 합니다: " + limit);
+        }
+        boolean useMemory = resolveAudienceSource(source);
+        PreferenceExpression parsed = parsePreferenceExpression(expression);
+        PreferenceMaskPredicate predicate = useMemory ? null : PreferenceMaskPredicate.compile(parsed);
+
+        UserPreferDto.AudienceResponse.AudienceResponseBuilder response = UserPreferDto.AudienceResponse.builder()
+                .expression(parsed.toString())
+                .source(useMemory ? "memory" : "sql")
+                .matchedCount(useMemory
+                        ? preferenceMaskIndex.countMatching(parsed)
+                        : userPreferJdbcRepository.countByPreferenceMask(predicate));
+        if (countOnly) {
+            return response.build();
+        }
+
+        // 다음 페이지 존재 여부를 알기 위해 한 명 더 조회
+        long after = afterUserId != null ? afterUserId : Long.MIN_VALUE;
+        List<Long> userIds = useMemory
+                ? Arrays.stream(preferenceMaskIndex.findMatching(parsed, after, limit + 1)).boxed().collect(Collectors.toList())
+                : userPreferJdbcRepository.findUserIdsByPreferenceMask(predicate, after, limit + 1);
+        boolean hasNext = userIds.size() > limit;
+        List<Long> page = hasNext ? userIds.subList(0, limit) : userIds;
+        return response
+                .userIds(page)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? page.get(page.size() - 1) : null)
+                .build();
     }
 
     /**
-     * 특정 사용자와 유사한 선호도를 가진 사용자들 조회
+     * 조건식을 만족하는 사용자를 user_id 키셋 페이지로 조회 (countOnly면 수만)
+     * 엔티티 대신 사용자 ID와 마스크만 읽어 fields로 요청한 속성만 응답에 담음
      */
-    public List<UserPrefer> getSimilarUsers(UserPrefer targetUserPrefer) {
-        log.info("유사한 선호도를 가진 사용자들 조회: userId={}", targetUserPrefer.getUserId());
-        
-        // 기본적인 유사성 기준으로 필터링
-        List<UserPrefer> similarUsers = userPreferRepository.findAll();
-        
-        // 자기 자신 제외
-        similarUsers.removeIf(userPrefer -> userPrefer.getUserId().equals(targetUserPrefer.getUserId()));
-        
-        // 선호도 유사도 점수 계산 및 정렬
-        similarUsers.sort((u1, u2) -> {
-            double score1 = calculateSimilarityScore(targetUserPrefer, u1);
-            double score2 = calculateSimilarityScore(targetUserPrefer, u2);
-            return Double.compare(score2, score1); // 내림차순 정렬
-        });
-        
-        return similarUsers;
+    public UserPreferDto.PreferencePageResponse getUsersMatching(String expression, Long afterUserId, int limit,
+                                                                 boolean countOnly, String fields) {
+        if (!countOnly && (limit < 1 || limit > MAX_AUDIENCE_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_AUDIENCE_PAGE_SIZE + " 이하여야 합니다: " + limit);
+        }
+        int fieldsMask = PreferenceAttribute.parseMask(fields);
+        boolean useMemory = resolveAudienceSource(null);
+        PreferenceExpression parsed = parsePreferenceExpression(expression);
+        PreferenceMaskPredicate predicate = PreferenceMaskPredicate.compile(parsed);
+
+        UserPreferDto.PreferencePageResponse.PreferencePageResponseBuilder response =
+                UserPreferDto.PreferencePageResponse.builder()
+                        .expression(parsed.toString())
+                        .source(useMemory ? "memory" : "sql");
+        if (countOnly) {
+            return response
+                    .matchedCount(useMemory
+                            ? preferenceMaskIndex.countMatching(parsed)
+                            : userPreferJdbcRepository.countByPreferenceMask(predicate))
+                    .build();
+        }
+
+        // 다음 페이지 존재 여부를 알기 위해 한 명 더 조회
+        long after = afterUserId != null ? afterUserId : Long.MIN_VALUE;
+        List<UserPreferDto.PreferenceFlagsResponse> users = new ArrayList<>(limit + 1);
+        UserPreferJdbcRepository.MaskRowHandler collector =
+                (userId, mask) -> users.add(toPreferenceFlagsResponse(userId, mask, fieldsMask));
+        if (useMemory) {
+            for (long userId : preferenceMaskIndex.findMatching(parsed, after, limit + 1)) {
+                // 조회 사이에 삭제된 사용자는 건너뜀
+                preferenceMaskIndex.getMask(userId).ifPresent(mask -> collector.handle(userId, mask));
+            }
+        } else {
+            userPreferJdbcRepository.findPreferenceMasksByPredicate(predicate, after, limit + 1, collector);
+        }
+
+        boolean hasNext = users.size() > limit;
+        List<UserPreferDto.PreferenceFlagsResponse> page = hasNext ? users.subList(0, limit) : users;
+        return response
+                .users(page)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? page.get(page.size() - 1).getUserId() : null)
+                .build();
     }
 
     /**
-     * 두 사용자의 선호도 유사도 점수 계산
+     * 속성에 지정한 값으로 답한 사용자를 user_id 키셋 페이지로 조회 (countOnly면 수만)
+     * 답하지 않은(null) 사용자는 제외해야 하므로, null과 false를 구분하지 못하는 마스크 대신 속성 컬럼 조건으로 DB에서 조회
      */
-    private double calculateSimilarityScore(UserPrefer user1, UserPrefer user2) {
-        int[] preferences1 = user1.getPreferenceArray();
-        int[] preferences2 = user2.getPreferenceArray();
-        
-        int matchCount = 0;
-        int totalCount = preferences1.length;
-        
-        for (int i = 0; i < totalCount; i++) {
-            if (preferences1[i] == preferences2[i]) {
-                matchCount++;
+    public UserPreferDto.PreferencePageResponse getUsersAnswered(PreferenceAttribute attribute, boolean answer,
+                                                                 Long afterUserId, int limit, boolean countOnly,
+                                                                 String fields) {
+        if (!countOnly && (limit < 1 || limit > MAX_AUDIENCE_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_AUDIENCE_PAGE_SIZE + " 이하여야 합니다: " + limit);
+        }
+        int fieldsMask = PreferenceAttribute.parseMask(fields);
+
+        UserPreferDto.PreferencePageResponse.PreferencePageResponseBuilder response =
+                UserPreferDto.PreferencePageResponse.builder()
+                        .expression(attribute.getFieldName() + " = " + answer)
+                        .source("sql");
+        if (countOnly) {
+            return response
+                    .matchedCount(userPreferJdbcRepository.countByAnswer(attribute, answer))
+                    .build();
+        }
+
+        // 다음 페이지 존재 여부를 알기 위해 한 명 더 조회
+        long after = afterUserId != null ? afterUserId : Long.MIN_VALUE;
+        List<UserPreferDto.PreferenceFlagsResponse> users = new ArrayList<>(limit + 1);
+        userPreferJdbcRepository.findPreferenceMasksByAnswer(attribute, answer, after, limit + 1,
+                (userId, mask) -> users.add(toPreferenceFlagsResponse(userId, mask, fieldsMask)));
+
+        boolean hasNext = users.size() > limit;
+        List<UserPreferDto.PreferenceFlagsResponse> page = hasNext ? users.subList(0, limit) : users;
+        return response
+                .users(page)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? page.get(page.size() - 1).getUserId() : null)
+                .build();
+    }
+
+    private static UserPreferDto.PreferenceFlagsResponse toPreferenceFlagsResponse(long userId, int mask, int fieldsMask) {
+        Map<String, Boolean> preferences = null;
+        if (fieldsMask != 0) {
+            preferences = new LinkedHashMap<>();
+            for (PreferenceAttribute attribute : PreferenceAttribute.values()) {
+                if (attribute.isSet(fieldsMask)) {
+                    preferences.put(attribute.getFieldName(), attribute.isSet(mask));
+                }
             }
         }
-        
-        return (double) matchCount / totalCount;
+        return UserPreferDto.PreferenceFlagsResponse.builder()
+                .userId(userId)
+                .preferences(preferences)
+                .build();
+    }
+
+    private boolean resolveAudienceSource(String source) {
+        if (source == null || source.isBlank()) {
+            return preferenceMaskIndex.isReady();
+        }
+        switch (source.trim().toLowerCase()) {
+            case "memory":
+                if (!preferenceMaskIndex.isReady()) {
+                    throw new IllegalStateException("선호도 마스크 인덱스가 아직 적재되지 않았습니다");
+                }
+                return true;
+            case "sql":
+                return false;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 조회 방식입니다: " + source);
+        }
+    }
+
+    private OptionalInt getPreferenceMask(Long userId) {
+        if (preferenceMaskIndex.isReady()) {
+            return preferenceMaskIndex.getMask(userId);
+        }
+        return userPreferRepository.findByUserId(userId)
+                .map(userPrefer -> OptionalInt.of(userPrefer.computePreferenceMask()))
+                .orElse(OptionalInt.empty());
     }
 
     /**
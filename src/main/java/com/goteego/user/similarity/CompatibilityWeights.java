@@ -0,0 +1,90 @@
+package com.goteego.user.similarity;
+
+/**
+ * 플래그별 가중치와 필수 일치 그룹을 적용한 선호도 호환성 거리
+ * 가중치를 비트 평면(planes[k] = 가중치의 k번째 비트가 켜진 플래그)으로 미리 분해해 두므로
+ * 가중 불일치 합은 Σ popcount((a ^ b) & planes[k]) << k 로 평면 수만큼의 popcount로 계산
+ * 필수 일치 그룹에서 하나라도 다르면 그룹마다 고정 벌점을 더하고, 전체를 최대 거리로 나눠 0~1로 정규화
+ */
+public final class CompatibilityWeights implements MaskDistance {
+
+    /**
+     * 플래그 가중치 최댓값 (8개 비트 평면)
+     */
+    public static final int MAX_WEIGHT = 255;
+
+    private final int[] planes;
+    private final int[] hardMasks;
+    private final int hardPenalty;
+    private final double maxDistance;
+
+    /**
+     * @param flagWeights 플래그(비트 위치)별 가중치 0~255
+     * @param hardMasks   하나라도 다르면 벌점을 주는 플래그 그룹 마스크
+     * @param hardPenalty 필수 일치 그룹 하나당 벌점 (최대 거리가 int 범위를 넘지 않아야 함)
+     */
+    public CompatibilityWeights(int[] flagWeights, int[] hardMasks, int hardPenalty) {
+        if (flagWeights.length > Integer.SIZE) {
+            throw new IllegalArgumentException("플래그 수가 너무 많습니다: " + flagWeights.length);
+        }
+        if (hardPenalty < 0) {
+            throw new IllegalArgumentException("필수 일치 벌점은 0 이상이어야 합니다: " + hardPenalty);
+        }
+        int highestBit = 0;
+        long totalWeight = 0;
+        for (int weight : flagWeights) {
+            if (weight < 0 || weight > MAX_WEIGHT) {
+                throw new IllegalArgumentException("가중치는 0 이상 " + MAX_WEIGHT + " 이하여야 합니다: " + weight);
+            }
+            highestBit = Math.max(highestBit, Integer.SIZE - Integer.numberOfLeadingZeros(weight));
+            totalWeight += weight;
+        }
+        // 모든 가중 플래그와 필수 그룹이 다를 때의 합이 int 범위를 넘으면 거리가 음수로 넘쳐 가장 먼 사용자가 맨 앞에 옴
+        long maxPenalty = hardMasks.length == 0 ? Integer.MAX_VALUE : (Integer.MAX_VALUE - totalWeight) / hardMasks.length;
+        if (hardPenalty > maxPenalty) {
+            throw new IllegalArgumentException("필수 일치 벌점은 " + maxPenalty + " 이하여야 합니다: " + hardPenalty);
+        }
+
+        this.planes = new int[highestBit];
+        for (int flag = 0; flag < flagWeights.length; flag++) {
+            for (int k = 0; k < highestBit; k++) {
+                if ((flagWeights[flag] & (1 << k)) != 0) {
+                    planes[k] |= 1 << flag;
+                }
+            }
+        }
+        this.hardMasks = hardMasks.clone();
+        this.hardPenalty = hardPenalty;
+        this.maxDistance = totalWeight + (double) hardPenalty * hardMasks.length;
+    }
+
+    /**
+     * 정규화한 가중 불일치 거리 (0 = 완전히 같음, 1 = 모든 가중 플래그와 필수 그룹이 다름)
+     */
+    @Override
+    public double distance(int a, int b) {
+        return maxDistance == 0 ? 0.0 : rawDistance(a, b) / maxDistance;
+    }
+
+    @Override
+    public double toSimilarity(double distance) {
+        return 1.0 - distance;
+    }
+
+    /**
+     * 정규화 전 가중 불일치 합 + 필수 일치 벌점
+     */
+    public int rawDistance(int a, int b) {
+        int diff = a ^ b;
+        int distance = 0;
+        for (int k = 0; k < planes.length; k++) {
+            distance += Integer.bitCount(diff & planes[k]) << k;
+        }
+        for (int hardMask : hardMasks) {
+            if ((diff & hardMask) != 0) {
+                distance += hardPenalty;
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,78 @@
+package com.goteego.user.similarity;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 거리 순 키셋 페이지의 커서 (마지막으로 반환한 행의 거리와 사용자 ID)
+ * 다음 페이지는 (distance, userId)가 이 값보다 큰 행부터 시작
+ * 거리 값은 비트 그대로 인코딩해 같은 거리의 행이 누락/중복되지 않도록 함
+ */
+public final class DistanceCursor {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 2;
+
+    private final double distance;
+    private final long userId;
+
+    public DistanceCursor(double distance, long userId) {
+        this.distance = distance;
+        this.userId = userId;
+    }
+
+    public static DistanceCursor of(ScoredUser last) {
+        return new DistanceCursor(last.getDistance(), last.getUserId());
+    }
+
+    /**
+     * (distance, userId)가 커서 뒤에 오는 행인지 (다음 페이지에 포함될 행인지)
+     */
+    public boolean precedes(double otherDistance, long otherUserId) {
+        int compared = Double.compare(otherDistance, distance);
+        return compared > 0 || (compared == 0 && otherUserId > userId);
+    }
+
+    /**
+     * URL에 그대로 넣을 수 있는 문자열로 인코딩
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(Double.doubleToLongBits(distance))
+                .putLong(userId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * encode()로 만든 문자열을 복원 (형식이 맞지 않으면 IllegalArgumentException)
+     */
+    public static DistanceCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        double distance = Double.longBitsToDouble(buffer.getLong());
+        if (Double.isNaN(distance)) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+        return new DistanceCursor(distance, buffer.getLong());
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "DistanceCursor{distance=" + distance + ", userId=" + userId + "}";
+    }
+}
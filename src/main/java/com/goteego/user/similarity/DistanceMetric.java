@@ -0,0 +1,73 @@
+package com.goteego.user.similarity;
+
+/**
+ * 임베딩 거리 측정 방식
+ * pgvector 연산자와 같은 의미의 거리를 사용하고, API 응답용 유사도 변환 규칙을 함께 정의
+ */
+public enum DistanceMetric {
+
+    /**
+     * 코사인 거리 (pgvector <=>), 유사도 = 1 - distance
+     */
+    COSINE {
+        @Override
+        public double distance(float[] a, int aOffset, float aNorm,
+                               float[] b, int bOffset, float bNorm, int length) {
+            return VectorKernels.cosineDistance(a, aOffset, aNorm, b, bOffset, bNorm, length);
+        }
+
+        @Override
+        public double toSimilarity(double distance) {
+            return 1.0 - distance;
+        }
+    },
+
+    /**
+     * 유클리드 거리 (pgvector <->), 유사도 = 1 / (1 + distance)
+     */
+    EUCLIDEAN {
+        @Override
+        public double distance(float[] a, int aOffset, float aNorm,
+                               float[] b, int bOffset, float bNorm, int length) {
+            return Math.sqrt(VectorKernels.squaredEuclidean(a, aOffset, b, bOffset, length));
+        }
+
+        @Override
+        public double toSimilarity(double distance) {
+            return 1.0 / (1.0 + distance);
+        }
+    };
+
+    /**
+     * 두 벡터 사이 거리 (노름은 미리 계산해 전달, 새 배열을 할당하지 않음)
+     */
+    public abstract double distance(float[] a, int aOffset, float aNorm,
+                                    float[] b, int bOffset, float bNorm, int length);
+
+    public abstract double toSimilarity(double distance);
+
+    /**
+     * 두 벡터 사이 거리
+     */
+    public double distance(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("임베딩 차원이 일치하지 않습니다: " + a.length + ", " + b.length);
+        }
+        return distance(a, 0, VectorKernels.norm(a, 0, a.length), b, 0, VectorKernels.norm(b, 0, b.length), a.length);
+    }
+
+    /**
+     * 요청 파라미터나 설정 값("cosine", "euclidean")을 변환 (대소문자 무시, 값이 없으면 코사인)
+     * 오타나 다른 방식("weighted" 등)을 코사인으로 바꿔 잘못된 결과를 내지 않도록 알 수 없는 값은 거부
+     */
+    public static DistanceMetric from(String value) {
+        if (value == null || value.isBlank()) {
+            return COSINE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 거리 측정 방식입니다: " + value);
+        }
+    }
+}
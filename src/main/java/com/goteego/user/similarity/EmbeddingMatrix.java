@@ -0,0 +1,405 @@
+package com.goteego.user.similarity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자 임베딩을 평탄화된 float[]에 보관하는 메모리 행렬
+ * 행 i의 벡터는 vectors[i * dimensions, (i + 1) * dimensions) 구간에 위치하고,
+ * 코사인 거리 계산을 위해 행별 노름을 함께 유지
+ * 삭제 시 마지막 행을 빈자리로 옮겨 행렬을 항상 빈틈없이 유지
+ * 추가/교체/삭제 시 벡터 합과 단위 벡터 합을 함께 갱신해 전체 평균 코사인 거리를 O(차원)으로 계산
+ */
+public class EmbeddingMatrix {
+
+    /**
+     * 이 행 수 이상이면 행렬을 나누어 병렬로 검색
+     */
+    private static final int PARALLEL_SCAN_THRESHOLD = 65_536;
+    private static final int PARALLEL_CHUNK_ROWS = 16_384;
+
+    private final int dimensions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap rowByUserId;
+
+    private float[] vectors;
+    private float[] norms;
+    private long[] userIds;
+    private int size;
+
+    /**
+     * 전체 행 벡터의 합
+     */
+    private final double[] sum;
+
+    /**
+     * 영벡터가 아닌 행들의 단위 벡터(v / |v|) 합과 그 행 수
+     */
+    private final double[] unitSum;
+    private int nonZeroRows;
+
+    public EmbeddingMatrix(int dimensions, int initialCapacity) {
+        this.dimensions = dimensions;
+        int capacity = Math.max(16, initialCapacity);
+        this.vectors = new float[capacity * dimensions];
+        this.norms = new float[capacity];
+        this.userIds = new long[capacity];
+        this.rowByUserId = new LongIntHashMap(capacity);
+        this.sum = new double[dimensions];
+        this.unitSum = new double[dimensions];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return rowByUserId.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 행렬에 있는 모든 사용자 ID (복사본)
+     */
+    public long[] userIds() {
+        lock.readLock().lock();
+        try {
+            return Arrays.copyOf(userIds, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 조회 (복사본), 없으면 null
+     */
+    public float[] get(long userId) {
+        lock.readLock().lock();
+        try {
+            int row = rowByUserId.get(userId);
+            if (row == LongIntHashMap.MISSING) {
+                return null;
+            }
+            int offset = row * dimensions;
+            return Arrays.copyOfRange(vectors, offset, offset + dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 추가/교체 (차원이 다르면 0으로 패딩하거나 잘라냄)
+     */
+    public void upsert(long userId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.get(userId);
+            if (row == LongIntHashMap.MISSING) {
+                ensureCapacity(size + 1);
+                row = size++;
+                userIds[row] = userId;
+                rowByUserId.put(userId, row);
+            } else {
+                accumulate(row, -1);
+            }
+            int offset = row * dimensions;
+            int length = Math.min(vector.length, dimensions);
+            System.arraycopy(vector, 0, vectors, offset, length);
+            Arrays.fill(vectors, offset + length, offset + dimensions, 0f);
+            norms[row] = VectorKernels.norm(vectors, offset, dimensions);
+            accumulate(row, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 삭제
+     */
+    public boolean remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.remove(userId);
+            if (row == LongIntHashMap.MISSING) {
+                return false;
+            }
+            accumulate(row, -1);
+            int last = --size;
+            if (row != last) {
+                System.arraycopy(vectors, last * dimensions, vectors, row * dimensions, dimensions);
+                norms[row] = norms[last];
+                userIds[row] = userIds[last];
+                rowByUserId.put(userIds[row], row);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 질의 벡터와 가장 가까운 K명을 정확히 검색 (거리 오름차순)
+     * excludeUserId에 해당하는 사용자는 결과에서 제외
+     */
+    public List<ScoredUser> topK(float[] query, DistanceMetric metric, int k, long excludeUserId) {
+        float[] target = query.length == dimensions ? query : Arrays.copyOf(query, dimensions);
+        float targetNorm = VectorKernels.norm(target, 0, dimensions);
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            // 결과는 행 수를 넘을 수 없으므로 청크마다 할당하는 힙도 행 수까지만
+            int capacity = Math.min(k, rows);
+            if (rows < PARALLEL_SCAN_THRESHOLD) {
+                TopKHeap heap = new TopKHeap(capacity);
+                scan(target, targetNorm, metric, excludeUserId, 0, rows, heap);
+                return finish(heap, metric);
+            }
+            int chunks = (rows + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+            TopKHeap merged = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        TopKHeap heap = new TopKHeap(capacity);
+                        int from = chunk * PARALLEL_CHUNK_ROWS;
+                        scan(target, targetNorm, metric, excludeUserId,
+                                from, Math.min(rows, from + PARALLEL_CHUNK_ROWS), heap);
+                        return heap;
+                    })
+                    .reduce((left, right) -> {
+                        left.merge(right);
+                        return left;
+                    })
+                    .orElseGet(() -> new TopKHeap(capacity));
+            return finish(merged, metric);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 지정한 사용자들 중에서만 질의 벡터와 가장 가까운 K명 검색 (사전 필터 결과 순위화용)
+     * 후보 수에 비례하는 비용만 들며, 임베딩이 없는 후보는 건너뜀
+     */
+    public List<ScoredUser> topKAmong(float[] query, DistanceMetric metric, int k, long[] candidateIds,
+                                      int count, long excludeUserId) {
+        float[] target = query.length == dimensions ? query : Arrays.copyOf(query, dimensions);
+        float targetNorm = VectorKernels.norm(target, 0, dimensions);
+
+        lock.readLock().lock();
+        try {
+            // 결과는 후보 수와 행 수를 넘을 수 없으므로 힙도 그만큼만 할당
+            TopKHeap heap = new TopKHeap(Math.min(k, Math.min(count, size)));
+            for (int i = 0; i < count; i++) {
+                long userId = candidateIds[i];
+                int row = rowByUserId.get(userId);
+                if (row == LongIntHashMap.MISSING || userId == excludeUserId) {
+                    continue;
+                }
+                heap.offer(userId, rowDistance(target, targetNorm, metric, row));
+            }
+            return finish(heap, metric);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 여러 질의 벡터를 행렬 한 번 순회로 검사해, 질의 중 하나라도 행 사용자의 K번째 이웃보다 앞서는 행의 사용자 ID 반환
+     * (이웃 목록 증분 갱신에서 바뀐 벡터가 새로 들어갈 목록 찾기용, 행 사용자 자신인 질의는 비교하지 않음)
+     * 거리는 topK 결과와 같은 방식으로 계산하므로 저장된 K번째 거리와 그대로 비교 가능
+     */
+    public long[] rowsAdmittingAny(float[][] queries, long[] queryIds, DistanceMetric metric, NeighborRadii radii) {
+        int count = queries.length;
+        float[][] targets = new float[count][];
+        float[] targetNorms = new float[count];
+        for (int q = 0; q < count; q++) {
+            targets[q] = queries[q].length == dimensions ? queries[q] : Arrays.copyOf(queries[q], dimensions);
+            targetNorms[q] = VectorKernels.norm(targets[q], 0, dimensions);
+        }
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            int chunks = (rows + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+            IntStream chunkStream = IntStream.range(0, chunks);
+            if (rows >= PARALLEL_SCAN_THRESHOLD) {
+                chunkStream = chunkStream.parallel();
+            }
+            return chunkStream
+                    .flatMap(chunk -> {
+                        int from = chunk * PARALLEL_CHUNK_ROWS;
+                        return IntStream.range(from, Math.min(rows, from + PARALLEL_CHUNK_ROWS))
+                                .filter(row -> admitsAny(targets, targetNorms, queryIds, metric, radii, row));
+                    })
+                    .mapToLong(row -> userIds[row])
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean admitsAny(float[][] targets, float[] targetNorms, long[] queryIds, DistanceMetric metric,
+                              NeighborRadii radii, int row) {
+        long owner = userIds[row];
+        if (!radii.contains(owner)) {
+            return false;
+        }
+        for (int q = 0; q < targets.length; q++) {
+            if (queryIds[q] == owner) {
+                continue;
+            }
+            double distance = rowDistance(targets[q], targetNorms[q], metric, row);
+            if (metric == DistanceMetric.EUCLIDEAN) {
+                distance = Math.sqrt(distance);
+            }
+            if (radii.admits(owner, distance, queryIds[q])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scan(float[] target, float targetNorm, DistanceMetric metric, long excludeUserId,
+                      int fromRow, int toRow, TopKHeap heap) {
+        for (int row = fromRow; row < toRow; row++) {
+            if (userIds[row] == excludeUserId) {
+                continue;
+            }
+            heap.offer(userIds[row], rowDistance(target, targetNorm, metric, row));
+        }
+    }
+
+    private double rowDistance(float[] target, float targetNorm, DistanceMetric metric, int row) {
+        int offset = row * dimensions;
+        if (metric == DistanceMetric.COSINE) {
+            return VectorKernels.cosineDistance(target, 0, targetNorm, vectors, offset, norms[row], dimensions);
+        }
+        // 제곱 거리로 순위를 매기고 결과를 꺼낼 때만 제곱근 계산
+        return VectorKernels.squaredEuclidean(target, 0, vectors, offset, dimensions);
+    }
+
+    private List<ScoredUser> finish(TopKHeap heap, DistanceMetric metric) {
+        List<ScoredUser> results = heap.drainAscending();
+        if (metric == DistanceMetric.EUCLIDEAN) {
+            results.replaceAll(result -> new ScoredUser(result.getUserId(), Math.sqrt(result.getDistance())));
+        }
+        return results;
+    }
+
+    /**
+     * 대상 벡터와 나머지 모든 행 사이의 평균 코사인 거리 (excludeUserId 행과 영벡터 행은 제외)
+     * 평균 코사인 유사도 = (q / |q|) · Σ(v / |v|) / n 이므로 행 수와 무관하게 O(차원)
+     * 대상이 영벡터이거나 비교할 행이 없으면 NaN
+     */
+    public double averageCosineDistance(float[] query, long excludeUserId) {
+        float[] target = query.length == dimensions ? query : Arrays.copyOf(query, dimensions);
+        double targetNorm = VectorKernels.norm(target, 0, dimensions);
+        if (targetNorm == 0) {
+            return Double.NaN;
+        }
+
+        lock.readLock().lock();
+        try {
+            int rows = nonZeroRows;
+            int excludedRow = rowByUserId.get(excludeUserId);
+            int excludedOffset = -1;
+            if (excludedRow != LongIntHashMap.MISSING && norms[excludedRow] > 0) {
+                rows--;
+                excludedOffset = excludedRow * dimensions;
+            }
+            if (rows <= 0) {
+                return Double.NaN;
+            }
+            double dot = 0;
+            for (int i = 0; i < dimensions; i++) {
+                double component = unitSum[i];
+                if (excludedOffset >= 0) {
+                    component -= vectors[excludedOffset + i] / (double) norms[excludedRow];
+                }
+                dot += target[i] * component;
+            }
+            return 1.0 - dot / targetNorm / rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 전체 행 벡터 합 (복사본)
+     */
+    public double[] sum() {
+        lock.readLock().lock();
+        try {
+            return sum.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 누적 갱신으로 생긴 부동소수점 오차를 없애기 위해 합계를 행 데이터로 다시 계산
+     * 다시 계산한 값과 기존 값의 최대 차이를 반환
+     */
+    public double recomputeAggregates() {
+        lock.writeLock().lock();
+        try {
+            double[] previousSum = sum.clone();
+            double[] previousUnitSum = unitSum.clone();
+            Arrays.fill(sum, 0);
+            Arrays.fill(unitSum, 0);
+            nonZeroRows = 0;
+            for (int row = 0; row < size; row++) {
+                accumulate(row, 1);
+            }
+            double drift = 0;
+            for (int i = 0; i < dimensions; i++) {
+                drift = Math.max(drift, Math.abs(previousSum[i] - sum[i]));
+                drift = Math.max(drift, Math.abs(previousUnitSum[i] - unitSum[i]));
+            }
+            return drift;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 행의 기여분을 합계에 더하거나(sign = 1) 뺌(sign = -1)
+     */
+    private void accumulate(int row, int sign) {
+        int offset = row * dimensions;
+        float norm = norms[row];
+        for (int i = 0; i < dimensions; i++) {
+            sum[i] += sign * vectors[offset + i];
+        }
+        if (norm > 0) {
+            for (int i = 0; i < dimensions; i++) {
+                unitSum[i] += sign * vectors[offset + i] / (double) norm;
+            }
+            nonZeroRows += sign;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= userIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, userIds.length + (userIds.length >> 1));
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        norms = Arrays.copyOf(norms, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+    }
+}
@@ -0,0 +1,52 @@
+package com.goteego.user.similarity;
+
+/**
+ * 유사 사용자 검색 엔진
+ */
+public enum EmbeddingSearchEngine {
+
+    /**
+     * PostgreSQL pgvector 쿼리
+     */
+    PGVECTOR,
+
+    /**
+     * JVM 메모리의 임베딩 행렬에 대한 정확한 전수 검색
+     */
+    MEMORY,
+
+    /**
+     * 선호도 비트 마스크에 대한 popcount 기반 전수 검색 (임베딩이 0/1 선호도 배열일 때 pgvector와 같은 순위)
+     * 투영 모델로 임베딩을 밀집 벡터로 바꾼 뒤에는 memory 또는 pgvector로 대체
+     */
+    BITMASK,
+
+    /**
+     * HNSW 그래프 인덱스에 대한 근사 검색 (전수 검색 없이 상위 K명 탐색)
+     */
+    HNSW,
+
+    /**
+     * 미리 계산한 사용자별 상위 K명 목록 (기본 키 조회 한 번, K 이하 요청과 설정된 거리에만 사용)
+     */
+    NEIGHBORS,
+
+    /**
+     * int8/1비트 양자화 코드로 후보를 고른 뒤 원본 벡터로 다시 정렬 (메모리 사용량을 줄인 전수 검색)
+     */
+    QUANTIZED;
+
+    /**
+     * 설정/요청 값을 변환 (대소문자, '-' 구분자 허용), 값이 없으면 기본값 반환
+     */
+    public static EmbeddingSearchEngine from(String value, EmbeddingSearchEngine defaultEngine) {
+        if (value == null || value.isBlank()) {
+            return defaultEngine;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 검색 엔진입니다: " + value);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.goteego.user.similarity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 그룹 구성원 임베딩의 응집도 (코사인 유사도 기준)
+ * 단위 벡터 합 S를 유지하므로 평균 쌍별 유사도 (|S|² - n) / (n(n-1))와 중심 분산 1 - |S/n|²는 O(d),
+ * 후보 한 명을 추가했을 때의 평균 유사도와 중심 분산 변화도 u·S 한 번으로 O(d)에 계산
+ * 최저 유사도 쌍은 합으로 구할 수 없어 추가 시 O(n·d)로 갱신하고, 해당 쌍의 구성원이 빠질 때만 다시 계산
+ * 따라서 후보 평가(withCandidate)도 후보-구성원 최저 유사도를 구하느라 구성원을 한 번 훑으므로 O(n·d)
+ * 영벡터는 방향이 없으므로 구성원으로 받지 않음
+ */
+public final class GroupCohesion {
+
+    private final int dimensions;
+
+    private final Map<Long, float[]> members = new LinkedHashMap<>();
+
+    private final double[] unitSum;
+
+    private double worstSimilarity = Double.NaN;
+    private long worstUserId1;
+    private long worstUserId2;
+    private boolean worstStale;
+
+    public GroupCohesion(int dimensions) {
+        this.dimensions = dimensions;
+        this.unitSum = new double[dimensions];
+    }
+
+    /**
+     * 구성원 추가 또는 임베딩 교체 (영벡터면 기존 구성원도 제외하고 false 반환)
+     */
+    public synchronized boolean put(long userId, float[] embedding) {
+        if (embedding.length != dimensions) {
+            throw new IllegalArgumentException("임베딩 차원이 일치하지 않습니다: " + embedding.length);
+        }
+        remove(userId);
+        float[] unit = normalize(embedding);
+        if (unit == null) {
+            return false;
+        }
+
+        if (!worstStale) {
+            for (Map.Entry<Long, float[]> member : members.entrySet()) {
+                double similarity = VectorKernels.dot(unit, 0, member.getValue(), 0, dimensions);
+                if (Double.isNaN(worstSimilarity) || similarity < worstSimilarity) {
+                    worstSimilarity = similarity;
+                    worstUserId1 = member.getKey();
+                    worstUserId2 = userId;
+                }
+            }
+        }
+        members.put(userId, unit);
+        for (int i = 0; i < dimensions; i++) {
+            unitSum[i] += unit[i];
+        }
+        return true;
+    }
+
+    public synchronized boolean remove(long userId) {
+        float[] unit = members.remove(userId);
+        if (unit == null) {
+            return false;
+        }
+        for (int i = 0; i < dimensions; i++) {
+            unitSum[i] -= unit[i];
+        }
+        if (!Double.isNaN(worstSimilarity) && (worstUserId1 == userId || worstUserId2 == userId)) {
+            worstStale = true;
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(long userId) {
+        return members.containsKey(userId);
+    }
+
+    public synchronized int size() {
+        return members.size();
+    }
+
+    public synchronized List<Long> memberIds() {
+        return new ArrayList<>(members.keySet());
+    }
+
+    /**
+     * 현재 구성원 응집도
+     */
+    public synchronized Summary summary() {
+        refreshWorstPair();
+        return summarize(members.size(), squaredNorm(unitSum), worstSimilarity, worstUserId1, worstUserId2);
+    }
+
+    /**
+     * 후보 한 명을 추가했을 때의 응집도와 후보-구성원 유사도 (그룹은 변경하지 않음)
+     * 평균 관련 값은 O(d)이지만 최저 유사도를 위해 구성원을 모두 훑으므로 전체는 O(n·d)
+     * 후보가 이미 구성원이거나 영벡터면 null
+     */
+    public synchronized CandidateEffect withCandidate(long userId, float[] embedding) {
+        if (members.containsKey(userId)) {
+            return null;
+        }
+        float[] unit = normalize(embedding);
+        if (unit == null) {
+            return null;
+        }
+        refreshWorstPair();
+
+        int count = members.size();
+        double dotWithSum = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            dotWithSum += unit[i] * unitSum[i];
+        }
+        double sumSquaredNorm = squaredNorm(unitSum);
+
+        double minSimilarity = Double.NaN;
+        long closestOpposite = 0;
+        for (Map.Entry<Long, float[]> member : members.entrySet()) {
+            double similarity = VectorKernels.dot(unit, 0, member.getValue(), 0, dimensions);
+            if (Double.isNaN(minSimilarity) || similarity < minSimilarity) {
+                minSimilarity = similarity;
+                closestOpposite = member.getKey();
+            }
+        }
+
+        double worst = worstSimilarity;
+        long worst1 = worstUserId1;
+        long worst2 = worstUserId2;
+        if (!Double.isNaN(minSimilarity) && (Double.isNaN(worst) || minSimilarity < worst)) {
+            worst = minSimilarity;
+            worst1 = closestOpposite;
+            worst2 = userId;
+        }
+
+        Summary before = summarize(count, sumSquaredNorm, worstSimilarity, worstUserId1, worstUserId2);
+        Summary after = summarize(count + 1, sumSquaredNorm + 2.0 * dotWithSum + 1.0, worst, worst1, worst2);
+        double meanToGroup = count > 0 ? dotWithSum / count : Double.NaN;
+        return new CandidateEffect(userId, meanToGroup, minSimilarity, before, after);
+    }
+
+    /**
+     * 최저 유사도 쌍의 구성원이 빠졌으면 모든 쌍을 다시 확인 (O(n²·d))
+     */
+    private void refreshWorstPair() {
+        if (!worstStale) {
+            return;
+        }
+        worstStale = false;
+        worstSimilarity = Double.NaN;
+        List<Map.Entry<Long, float[]>> entries = new ArrayList<>(members.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            float[] a = entries.get(i).getValue();
+            for (int j = i + 1; j < entries.size(); j++) {
+                double similarity = VectorKernels.dot(a, 0, entries.get(j).getValue(), 0, dimensions);
+                if (Double.isNaN(worstSimilarity) || similarity < worstSimilarity) {
+                    worstSimilarity = similarity;
+                    worstUserId1 = entries.get(i).getKey();
+                    worstUserId2 = entries.get(j).getKey();
+                }
+            }
+        }
+    }
+
+    private static Summary summarize(int count, double sumSquaredNorm, double worst, long worst1, long worst2) {
+        double meanPairwise = count >= 2
+                ? (sumSquaredNorm - count) / ((double) count * (count - 1))
+                : Double.NaN;
+        double centroidSpread = count >= 1
+                ? Math.max(0.0, 1.0 - sumSquaredNorm / ((double) count * count))
+                : Double.NaN;
+        boolean hasPair = count >= 2 && !Double.isNaN(worst);
+        return new Summary(count, meanPairwise, centroidSpread,
+                hasPair ? worst : Double.NaN, hasPair ? worst1 : 0, hasPair ? worst2 : 0);
+    }
+
+    private float[] normalize(float[] embedding) {
+        float norm = VectorKernels.norm(embedding, 0, dimensions);
+        if (norm == 0.0f) {
+            return null;
+        }
+        float[] unit = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            unit[i] = embedding[i] / norm;
+        }
+        return unit;
+    }
+
+    private static double squaredNorm(double[] vector) {
+        double sum = 0.0;
+        for (double value : vector) {
+            sum += value * value;
+        }
+        return sum;
+    }
+
+    /**
+     * 응집도 요약 (구성원이 2명 미만이면 쌍 관련 값은 NaN)
+     * centroidSpread: 단위 벡터와 중심 사이 평균 제곱 거리 (0이면 모두 같은 방향)
+     */
+    public static final class Summary {
+
+        private final int memberCount;
+        private final double meanPairwiseSimilarity;
+        private final double centroidSpread;
+        private final double worstPairSimilarity;
+        private final long worstPairUserId1;
+        private final long worstPairUserId2;
+
+        public Summary(int memberCount, double meanPairwiseSimilarity, double centroidSpread,
+                       double worstPairSimilarity, long worstPairUserId1, long worstPairUserId2) {
+            this.memberCount = memberCount;
+            this.meanPairwiseSimilarity = meanPairwiseSimilarity;
+            this.centroidSpread = centroidSpread;
+            this.worstPairSimilarity = worstPairSimilarity;
+            this.worstPairUserId1 = worstPairUserId1;
+            this.worstPairUserId2 = worstPairUserId2;
+        }
+
+        public int getMemberCount() {
+            return memberCount;
+        }
+
+        public double getMeanPairwiseSimilarity() {
+            return meanPairwiseSimilarity;
+        }
+
+        public double getCentroidSpread() {
+            return centroidSpread;
+        }
+
+        public double getWorstPairSimilarity() {
+            return worstPairSimilarity;
+        }
+
+        public long getWorstPairUserId1() {
+            return worstPairUserId1;
+        }
+
+        public long getWorstPairUserId2() {
+            return worstPairUserId2;
+        }
+    }
+
+    /**
+     * 후보 추가 효과 (추가 전/후 요약과 후보-구성원 평균/최저 유사도)
+     */
+    public static final class CandidateEffect {
+
+        private final long userId;
+        private final double meanSimilarityToGroup;
+        private final double minSimilarityToGroup;
+        private final Summary before;
+        private final Summary after;
+
+        public CandidateEffect(long userId, double meanSimilarityToGroup, double minSimilarityToGroup,
+                               Summary before, Summary after) {
+            this.userId = userId;
+            this.meanSimilarityToGroup = meanSimilarityToGroup;
+            this.minSimilarityToGroup = minSimilarityToGroup;
+            this.before = before;
+            this.after = after;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public double getMeanSimilarityToGroup() {
+            return meanSimilarityToGroup;
+        }
+
+        public double getMinSimilarityToGroup() {
+            return minSimilarityToGroup;
+        }
+
+        public Summary getBefore() {
+            return before;
+        }
+
+        public Summary getAfter() {
+            return after;
+        }
+    }
+}
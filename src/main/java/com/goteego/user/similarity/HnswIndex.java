@@ -0,0 +1,708 @@
+package com.goteego.user.similarity;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 그래프 인덱스
+ * 계층형 근접 그래프를 따라 탐색하므로 전수 검색 없이 상위 K명을 찾음
+ * 수정/삭제는 기존 노드를 삭제 표시(tombstone)하고 새 노드를 추가하는 방식이며,
+ * 삭제 표시가 쌓이면 compactedCopy로 살아 있는 노드만 다시 구성
+ */
+public class HnswIndex {
+
+    private static final int FILE_MAGIC = 0x484E5357; // "HNSW"
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 9;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final DistanceMetric metric;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<VisitedMarks> visitedMarks = ThreadLocal.withInitial(VisitedMarks::new);
+    private final LongIntHashMap nodeByUserId;
+
+    private float[] vectors;
+    private float[] norms;
+    private long[] userIds;
+    private boolean[] deleted;
+
+    /**
+     * links[node][level] = [이웃 수, 이웃 노드...]
+     */
+    private int[][][] links;
+    private int nodeCount;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param m              상위 계층 노드당 이웃 수 (0 계층은 2M)
+     * @param efConstruction 노드 추가 시 탐색할 후보 수
+     * @param metric         그래프 구성에 사용할 거리
+     */
+    public HnswIndex(int dimensions, int m, int efConstruction, DistanceMetric metric, int initialCapacity) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW M은 2 이상이어야 합니다: " + m);
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.metric = metric;
+        this.levelMultiplier = 1.0 / Math.log(m);
+
+        int capacity = Math.max(16, initialCapacity);
+        this.vectors = new float[capacity * dimensions];
+        this.norms = new float[capacity];
+        this.userIds = new long[capacity];
+        this.deleted = new boolean[capacity];
+        this.links = new int[capacity][][];
+        this.nodeByUserId = new LongIntHashMap(capacity);
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int m() {
+        return m;
+    }
+
+    public DistanceMetric metric() {
+        return metric;
+    }
+
+    /**
+     * 살아 있는 사용자 수
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByUserId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 그래프에 남아 있는 삭제 표시 노드 비율
+     */
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return nodeCount == 0 ? 0.0 : (double) deletedCount / nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return nodeByUserId.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 복사본 조회, 없으면 null
+     */
+    public float[] get(long userId) {
+        lock.readLock().lock();
+        try {
+            int node = nodeByUserId.get(userId);
+            if (node == LongIntHashMap.MISSING) {
+                return null;
+            }
+            int offset = node * dimensions;
+            return Arrays.copyOfRange(vectors, offset, offset + dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 살아 있는 사용자 ID 목록
+     */
+    public long[] userIds() {
+        lock.readLock().lock();
+        try {
+            long[] result = new long[nodeByUserId.size()];
+            int index = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                if (!deleted[node]) {
+                    result[index++] = userIds[node];
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 추가/교체 (벡터가 같으면 그래프를 변경하지 않음)
+     */
+    public void upsert(long userId, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("임베딩 차원이 일치하지 않습니다: " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            int existing = nodeByUserId.get(userId);
+            if (existing != LongIntHashMap.MISSING) {
+                if (Arrays.equals(vectors, existing * dimensions, (existing + 1) * dimensions, vector, 0, dimensions)) {
+                    return;
+                }
+                markDeleted(existing);
+            }
+            insert(userId, vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 삭제 (노드는 탐색 경로로 남겨 두고 결과에서만 제외)
+     */
+    public boolean remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            int node = nodeByUserId.remove(userId);
+            if (node == LongIntHashMap.MISSING) {
+                return false;
+            }
+            deleted[node] = true;
+            deletedCount++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 질의 벡터와 가까운 사용자 K명 근사 검색 (거리 오름차순)
+     * 유클리드 거리는 제곱 거리로 탐색한 뒤 결과에서만 제곱근을 적용
+     *
+     * @param queryMetric 순위에 사용할 거리 (그래프 구성 거리와 같을 때 재현율이 가장 높음)
+     * @param ef          탐색할 후보 수 (클수록 재현율이 높고 느려짐)
+     */
+    public List<ScoredUser> search(float[] query, DistanceMetric queryMetric, int k, int ef, long excludeUserId) {
+        if (k <= 0) {
+            return List.of();
+        }
+        float queryNorm = VectorKernels.norm(query, 0, dimensions);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            double currentDistance = distanceToNode(query, queryNorm, current, queryMetric);
+            for (int level = maxLevel; level > 0; level--) {
+                current = greedyClosest(query, queryNorm, current, currentDistance, level, queryMetric);
+                currentDistance = distanceToNode(query, queryNorm, current, queryMetric);
+            }
+
+            NodeHeap candidates = searchLayer(query, queryNorm, current, Math.max(ef, k + 1), 0, queryMetric);
+            TopKHeap heap = new TopKHeap(k);
+            while (candidates.size() > 0) {
+                double distance = candidates.peekDistance();
+                int node = candidates.pop();
+                if (deleted[node] || userIds[node] == excludeUserId || distance == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                heap.offer(userIds[node], queryMetric == DistanceMetric.EUCLIDEAN ? Math.sqrt(distance) : distance);
+            }
+            return heap.drainAscending();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 살아 있는 노드만으로 새 인덱스 구성
+     */
+    public HnswIndex compactedCopy() {
+        long[] liveUserIds;
+        float[] liveVectors;
+        lock.readLock().lock();
+        try {
+            int live = nodeByUserId.size();
+            liveUserIds = new long[live];
+            liveVectors = new float[live * dimensions];
+            int index = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                if (!deleted[node]) {
+                    liveUserIds[index] = userIds[node];
+                    System.arraycopy(vectors, node * dimensions, liveVectors, index * dimensions, dimensions);
+                    index++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        HnswIndex copy = new HnswIndex(dimensions, m, efConstruction, metric, liveUserIds.length);
+        float[] vector = new float[dimensions];
+        for (int index = 0; index < liveUserIds.length; index++) {
+            System.arraycopy(liveVectors, index * dimensions, vector, 0, dimensions);
+            copy.upsert(liveUserIds[index], vector);
+        }
+        return copy;
+    }
+
+    /**
+     * 인덱스를 파일로 저장
+     * 메모리 맵으로 임시 파일에 기록한 뒤 원자적으로 교체하므로 저장 도중 종료되어도 이전 파일이 유지됨
+     */
+    public void writeTo(Path path) throws IOException {
+        lock.readLock().lock();
+        try {
+            long fileSize = HEADER_BYTES;
+            for (int node = 0; node < nodeCount; node++) {
+                fileSize += Long.BYTES + 1 + Integer.BYTES + (long) dimensions * Float.BYTES;
+                for (int[] levelLinks : links[node]) {
+                    fileSize += (long) (1 + levelLinks[0]) * Integer.BYTES;
+                }
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("HNSW 인덱스 파일이 너무 큽니다: " + fileSize + " bytes");
+            }
+
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                buffer.putInt(FILE_MAGIC)
+                        .putInt(FILE_VERSION)
+                        .putInt(dimensions)
+                        .putInt(m)
+                        .putInt(efConstruction)
+                        .putInt(metric.ordinal())
+                        .putInt(nodeCount)
+                        .putInt(entryPoint)
+                        .putInt(maxLevel);
+                for (int node = 0; node < nodeCount; node++) {
+                    buffer.putLong(userIds[node]);
+                    buffer.put((byte) (deleted[node] ? 1 : 0));
+                    buffer.putInt(links[node].length - 1);
+                    int offset = node * dimensions;
+                    for (int i = 0; i < dimensions; i++) {
+                        buffer.putFloat(vectors[offset + i]);
+                    }
+                    for (int[] levelLinks : links[node]) {
+                        for (int i = 0; i <= levelLinks[0]; i++) {
+                            buffer.putInt(levelLinks[i]);
+                        }
+                    }
+                }
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 저장된 인덱스 파일을 메모리 맵으로 읽어 복원
+     */
+    public static HnswIndex readFrom(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FILE_VERSION) {
+                throw new IOException("HNSW 인덱스 파일 형식이 아닙니다: " + path);
+            }
+            int dimensions = buffer.getInt();
+            int m = buffer.getInt();
+            int efConstruction = buffer.getInt();
+            DistanceMetric metric = DistanceMetric.values()[buffer.getInt()];
+            int nodeCount = buffer.getInt();
+
+            HnswIndex index = new HnswIndex(dimensions, m, efConstruction, metric, nodeCount);
+            index.entryPoint = buffer.getInt();
+            index.maxLevel = buffer.getInt();
+            for (int node = 0; node < nodeCount; node++) {
+                long userId = buffer.getLong();
+                boolean deleted = buffer.get() == 1;
+                int level = buffer.getInt();
+                int offset = node * dimensions;
+                for (int i = 0; i < dimensions; i++) {
+                    index.vectors[offset + i] = buffer.getFloat();
+                }
+                index.norms[node] = VectorKernels.norm(index.vectors, offset, dimensions);
+                index.userIds[node] = userId;
+                index.deleted[node] = deleted;
+                index.links[node] = index.newLinks(level);
+                for (int l = 0; l <= level; l++) {
+                    int[] levelLinks = index.links[node][l];
+                    levelLinks[0] = buffer.getInt();
+                    for (int i = 1; i <= levelLinks[0]; i++) {
+                        levelLinks[i] = buffer.getInt();
+                    }
+                }
+                if (deleted) {
+                    index.deletedCount++;
+                } else {
+                    index.nodeByUserId.put(userId, node);
+                }
+            }
+            index.nodeCount = nodeCount;
+            return index;
+        }
+    }
+
+    private void insert(long userId, float[] vector) {
+        int level = randomLevel();
+        int node = allocate(userId, vector, level);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        float[] queryVector = vector;
+        float queryNorm = norms[node];
+
+        int current = entryPoint;
+        double currentDistance = distanceToNode(queryVector, queryNorm, current, metric);
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(queryVector, queryNorm, current, currentDistance, l, metric);
+            currentDistance = distanceToNode(queryVector, queryNorm, current, metric);
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap candidates = searchLayer(queryVector, queryNorm, current, efConstruction, l, metric);
+            int closest = candidates.closest();
+            int[] neighbors = selectNeighbors(candidates, m);
+            int[] nodeLinks = links[node][l];
+            for (int neighbor : neighbors) {
+                nodeLinks[++nodeLinks[0]] = neighbor;
+                connect(neighbor, node, l);
+            }
+            current = closest;
+        }
+
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * neighbor의 이웃 목록에 node를 추가하고, 가득 찼으면 휴리스틱으로 다시 선택
+     */
+    private void connect(int neighbor, int node, int level) {
+        int[] neighborLinks = links[neighbor][level];
+        int maxLinks = level == 0 ? maxM0 : m;
+        if (neighborLinks[0] < maxLinks) {
+            neighborLinks[++neighborLinks[0]] = node;
+            return;
+        }
+
+        NodeHeap candidates = new NodeHeap(maxLinks + 1, true);
+        candidates.push(node, distanceBetween(neighbor, node));
+        for (int i = 1; i <= neighborLinks[0]; i++) {
+            candidates.push(neighborLinks[i], distanceBetween(neighbor, neighborLinks[i]));
+        }
+        int[] selected = selectNeighbors(candidates, maxLinks);
+        neighborLinks[0] = selected.length;
+        System.arraycopy(selected, 0, neighborLinks, 1, selected.length);
+    }
+
+    /**
+     * 이웃 선택 휴리스틱: 이미 고른 이웃보다 기준 노드에 더 가까운 후보만 선택해 여러 방향으로 연결하고,
+     * 자리가 남으면 탈락한 후보 중 가까운 순으로 채움 (같은 벡터가 많은 0/1 임베딩의 연결성 유지)
+     */
+    private int[] selectNeighbors(NodeHeap candidates, int maxCount) {
+        int count = candidates.size();
+        int[] ordered = new int[count];
+        double[] distances = new double[count];
+        for (int i = count - 1; i >= 0; i--) {
+            distances[i] = candidates.peekDistance();
+            ordered[i] = candidates.pop();
+        }
+
+        int[] selected = new int[Math.min(maxCount, count)];
+        boolean[] taken = new boolean[count];
+        int selectedCount = 0;
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (distanceBetween(ordered[i], selected[j]) < distances[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount++] = ordered[i];
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            if (!taken[i]) {
+                selected[selectedCount++] = ordered[i];
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 한 계층에서 질의와 가장 가까운 ef개 후보 탐색 (결과는 거리 기준 최대 힙)
+     */
+    private NodeHeap searchLayer(float[] query, float queryNorm, int entry, int ef, int level,
+                                 DistanceMetric queryMetric) {
+        VisitedMarks visited = visitedMarks.get();
+        visited.reset(nodeCount);
+
+        NodeHeap candidates = new NodeHeap(ef + 1, false);
+        NodeHeap results = new NodeHeap(ef + 1, true);
+        double entryDistance = distanceToNode(query, queryNorm, entry, queryMetric);
+        candidates.push(entry, entryDistance);
+        results.push(entry, entryDistance);
+        visited.mark(entry);
+
+        while (candidates.size() > 0) {
+            double candidateDistance = candidates.peekDistance();
+            if (results.size() >= ef && candidateDistance > results.peekDistance()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            int[] candidateLinks = links[candidate][level];
+            for (int i = 1; i <= candidateLinks[0]; i++) {
+                int neighbor = candidateLinks[i];
+                if (visited.isMarked(neighbor)) {
+                    continue;
+                }
+                visited.mark(neighbor);
+                double distance = distanceToNode(query, queryNorm, neighbor, queryMetric);
+                if (results.size() < ef || distance < results.peekDistance()) {
+                    candidates.push(neighbor, distance);
+                    results.push(neighbor, distance);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private int greedyClosest(float[] query, float queryNorm, int entry, double entryDistance, int level,
+                              DistanceMetric queryMetric) {
+        int current = entry;
+        double currentDistance = entryDistance;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] currentLinks = links[current][level];
+            for (int i = 1; i <= currentLinks[0]; i++) {
+                double distance = distanceToNode(query, queryNorm, currentLinks[i], queryMetric);
+                if (distance < currentDistance) {
+                    currentDistance = distance;
+                    current = currentLinks[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 탐색용 거리 (유클리드는 제곱 거리, 정의되지 않는 코사인 거리는 무한대)
+     */
+    private double distanceToNode(float[] query, float queryNorm, int node, DistanceMetric queryMetric) {
+        int offset = node * dimensions;
+        if (queryMetric == DistanceMetric.EUCLIDEAN) {
+            return VectorKernels.squaredEuclidean(query, 0, vectors, offset, dimensions);
+        }
+        double distance = VectorKernels.cosineDistance(query, 0, queryNorm, vectors, offset, norms[node], dimensions);
+        return Double.isNaN(distance) ? Double.POSITIVE_INFINITY : distance;
+    }
+
+    private double distanceBetween(int a, int b) {
+        int aOffset = a * dimensions;
+        int bOffset = b * dimensions;
+        if (metric == DistanceMetric.EUCLIDEAN) {
+            return VectorKernels.squaredEuclidean(vectors, aOffset, vectors, bOffset, dimensions);
+        }
+        double distance = VectorKernels.cosineDistance(vectors, aOffset, norms[a], vectors, bOffset, norms[b], dimensions);
+        return Double.isNaN(distance) ? Double.POSITIVE_INFINITY : distance;
+    }
+
+    private void markDeleted(int node) {
+        nodeByUserId.remove(userIds[node]);
+        deleted[node] = true;
+        deletedCount++;
+    }
+
+    private int allocate(long userId, float[] vector, int level) {
+        if (nodeCount == userIds.length) {
+            int capacity = nodeCount + (nodeCount >> 1);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            norms = Arrays.copyOf(norms, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            deleted = Arrays.copyOf(deleted, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = nodeCount++;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        norms[node] = VectorKernels.norm(vector, 0, dimensions);
+        userIds[node] = userId;
+        deleted[node] = false;
+        links[node] = newLinks(level);
+        nodeByUserId.put(userId, node);
+        return node;
+    }
+
+    private int[][] newLinks(int level) {
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[1 + (l == 0 ? maxM0 : m)];
+        }
+        return nodeLinks;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    /**
+     * (노드, 거리) 이진 힙 (최소/최대)
+     */
+    private static final class NodeHeap {
+
+        private final boolean maxHeap;
+        private int[] nodes;
+        private double[] distances;
+        private int size;
+
+        NodeHeap(int initialCapacity, boolean maxHeap) {
+            this.maxHeap = maxHeap;
+            this.nodes = new int[Math.max(4, initialCapacity)];
+            this.distances = new double[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        double peekDistance() {
+            return distances[0];
+        }
+
+        void push(int node, double distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!before(distance, distances[parent])) {
+                    break;
+                }
+                nodes[index] = nodes[parent];
+                distances[index] = distances[parent];
+                index = parent;
+            }
+            nodes[index] = node;
+            distances[index] = distance;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            double lastDistance = distances[size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(distances[child + 1], distances[child])) {
+                    child++;
+                }
+                if (!before(distances[child], lastDistance)) {
+                    break;
+                }
+                nodes[index] = nodes[child];
+                distances[index] = distances[child];
+                index = child;
+            }
+            nodes[index] = lastNode;
+            distances[index] = lastDistance;
+            return top;
+        }
+
+        /**
+         * 힙에서 거리가 가장 작은 노드
+         */
+        int closest() {
+            if (!maxHeap) {
+                return nodes[0];
+            }
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (distances[i] < distances[best]) {
+                    best = i;
+                }
+            }
+            return nodes[best];
+        }
+
+        private boolean before(double a, double b) {
+            return maxHeap ? a > b : a < b;
+        }
+    }
+
+    /**
+     * 탐색 중 방문한 노드 표시 (세대 번호로 초기화 비용 없이 재사용)
+     */
+    private static final class VisitedMarks {
+
+        private int[] marks = new int[0];
+        private int generation;
+
+        void reset(int nodeCount) {
+            if (marks.length < nodeCount) {
+                marks = new int[Math.max(nodeCount, marks.length + (marks.length >> 1))];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean isMarked(int node) {
+            return marks[node] == generation;
+        }
+
+        void mark(int node) {
+            marks[node] = generation;
+        }
+    }
+}
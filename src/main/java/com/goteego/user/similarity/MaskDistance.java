@@ -0,0 +1,12 @@
+package com.goteego.user.similarity;
+
+/**
+ * 선호도 비트 마스크 간 거리 함수
+ * distance는 작을수록 유사하며, toSimilarity로 0~1 범위 점수(클수록 유사)로 변환
+ */
+public interface MaskDistance {
+
+    double distance(int a, int b);
+
+    double toSimilarity(double distance);
+}
@@ -0,0 +1,90 @@
+package com.goteego.user.similarity;
+
+import java.util.Arrays;
+
+/**
+ * 사용자별 이웃 목록의 K번째 이웃(거리, 사용자 ID) 캐시
+ * 다른 사용자의 벡터가 바뀌었을 때 그 사용자가 목록에 새로 들어가는지를 DB 조회 없이 판정
+ * 목록 순서와 같이 거리, 사용자 ID 순으로 비교하므로 K번째와 동점인 후보는 들어가지 않음
+ * 동기화하지 않으므로 갱신과 조회는 호출하는 쪽에서 직렬화해야 함 (조회끼리는 병렬 가능)
+ */
+public class NeighborRadii {
+
+    private final LongIntHashMap slotByUserId;
+    private long[] userIds;
+    private double[] kthDistances;
+    private long[] kthNeighborIds;
+    private int size;
+
+    public NeighborRadii(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.slotByUserId = new LongIntHashMap(capacity);
+        this.userIds = new long[capacity];
+        this.kthDistances = new double[capacity];
+        this.kthNeighborIds = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long userId) {
+        return slotByUserId.containsKey(userId);
+    }
+
+    /**
+     * 사용자 목록의 K번째 이웃 저장 (K명을 다 채우지 못했으면 거리는 무한대)
+     */
+    public void put(long userId, double kthDistance, long kthNeighborId) {
+        int slot = slotByUserId.get(userId);
+        if (slot == LongIntHashMap.MISSING) {
+            ensureCapacity(size + 1);
+            slot = size++;
+            userIds[slot] = userId;
+            slotByUserId.put(userId, slot);
+        }
+        kthDistances[slot] = kthDistance;
+        kthNeighborIds[slot] = kthNeighborId;
+    }
+
+    public void remove(long userId) {
+        int slot = slotByUserId.remove(userId);
+        if (slot == LongIntHashMap.MISSING) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            userIds[slot] = userIds[last];
+            kthDistances[slot] = kthDistances[last];
+            kthNeighborIds[slot] = kthNeighborIds[last];
+            slotByUserId.put(userIds[slot], slot);
+        }
+    }
+
+    public void clear() {
+        slotByUserId.clear();
+        size = 0;
+    }
+
+    /**
+     * 후보가 사용자 목록의 K번째 이웃보다 앞서는지 확인 (캐시에 없는 사용자는 false)
+     */
+    public boolean admits(long userId, double distance, long candidateId) {
+        int slot = slotByUserId.get(userId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        double kthDistance = kthDistances[slot];
+        return distance < kthDistance || (distance == kthDistance && candidateId < kthNeighborIds[slot]);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= userIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, userIds.length + (userIds.length >> 1));
+        userIds = Arrays.copyOf(userIds, capacity);
+        kthDistances = Arrays.copyOf(kthDistances, capacity);
+        kthNeighborIds = Arrays.copyOf(kthNeighborIds, capacity);
+    }
+}
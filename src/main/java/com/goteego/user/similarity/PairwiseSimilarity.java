@@ -0,0 +1,53 @@
+package com.goteego.user.similarity;
+
+import java.util.stream.IntStream;
+
+/**
+ * 여러 사용자 임베딩 사이의 N×N 유사도 행렬 계산
+ * 벡터를 하나의 평탄한 배열로 모아 노름을 한 번만 계산하고, 행 단위로 병렬 계산
+ */
+public final class PairwiseSimilarity {
+
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private PairwiseSimilarity() {
+    }
+
+    /**
+     * 유사도 행렬 (대칭, 대각선 포함)
+     * 정의되지 않는 거리(영벡터와의 코사인 거리)는 유사도 0으로 처리
+     */
+    public static double[][] matrix(float[][] embeddings, DistanceMetric metric) {
+        int count = embeddings.length;
+        double[][] result = new double[count][count];
+        if (count == 0) {
+            return result;
+        }
+
+        int dimensions = embeddings[0].length;
+        float[] vectors = new float[count * dimensions];
+        float[] norms = new float[count];
+        for (int i = 0; i < count; i++) {
+            if (embeddings[i].length != dimensions) {
+                throw new IllegalArgumentException("임베딩 차원이 일치하지 않습니다: " + embeddings[i].length);
+            }
+            System.arraycopy(embeddings[i], 0, vectors, i * dimensions, dimensions);
+            norms[i] = VectorKernels.norm(vectors, i * dimensions, dimensions);
+        }
+
+        IntStream rows = IntStream.range(0, count);
+        if (count >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            for (int j = i; j < count; j++) {
+                double distance = metric.distance(vectors, i * dimensions, norms[i],
+                        vectors, j * dimensions, norms[j], dimensions);
+                double similarity = Double.isNaN(distance) ? 0.0 : metric.toSimilarity(distance);
+                result[i][j] = similarity;
+                result[j][i] = similarity;
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.goteego.user.similarity;
+
+/**
+ * 비트 마스크로 압축한 선호도 벡터의 유사도 계산
+ * 0/1 벡터의 내적·합집합·불일치 수를 Integer.bitCount(popcount) 한 번으로 계산
+ */
+public final class PreferenceBits {
+
+    /**
+     * 선호도 플래그 수 (PreferenceAttribute 상수 수와 동일)
+     */
+    public static final int FLAG_COUNT = 23;
+
+    private PreferenceBits() {
+    }
+
+    /**
+     * 자카드 유사도 |A ∩ B| / |A ∪ B| (둘 다 비어 있으면 1)
+     */
+    public static double jaccard(int a, int b) {
+        int union = Integer.bitCount(a | b);
+        return union == 0 ? 1.0 : (double) Integer.bitCount(a & b) / union;
+    }
+
+    /**
+     * 해밍 거리 (서로 다른 플래그 수)
+     */
+    public static int hamming(int a, int b) {
+        return Integer.bitCount(a ^ b);
+    }
+
+    /**
+     * 코사인 유사도 |A ∩ B| / sqrt(|A| * |B|) (한쪽이 비어 있으면 0)
+     */
+    public static double cosine(int a, int b) {
+        int countA = Integer.bitCount(a);
+        int countB = Integer.bitCount(b);
+        if (countA == 0 || countB == 0) {
+            return 0.0;
+        }
+        return Integer.bitCount(a & b) / Math.sqrt((double) countA * countB);
+    }
+
+    /**
+     * 마스크를 0/1 임베딩 벡터로 변환 (선호도 기반 임베딩과 같은 형식)
+     */
+    public static float[] toVector(int mask, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < Math.min(FLAG_COUNT, dimensions); i++) {
+            if ((mask & (1 << i)) != 0) {
+                vector[i] = 1f;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,107 @@
+package com.goteego.user.similarity;
+
+/**
+ * 선호도 플래그별 사용자 수와 플래그 쌍 동시 선택 수 (FLAG_COUNT × FLAG_COUNT, 대각선 = 플래그별 수)
+ * 선호도가 바뀌면 이전/새 마스크를 비교해 켜짐 여부가 달라진 쌍만 갱신
+ */
+public final class PreferenceCooccurrence {
+
+    private static final int FLAGS = PreferenceBits.FLAG_COUNT;
+
+    private long total;
+
+    /**
+     * pairs[i * FLAGS + j] = 플래그 i와 j가 모두 켜진 사용자 수 (대칭)
+     */
+    private final long[] pairs = new long[FLAGS * FLAGS];
+
+    /**
+     * 마스크 분포로부터 집계 (같은 마스크를 가진 사용자 수만큼 한 번에 더함)
+     */
+    public synchronized void add(int mask, long users) {
+        total += users;
+        for (int a = mask; a != 0; a &= a - 1) {
+            int i = Integer.numberOfTrailingZeros(a);
+            for (int b = mask; b != 0; b &= b - 1) {
+                pairs[i * FLAGS + Integer.numberOfTrailingZeros(b)] += users;
+            }
+        }
+    }
+
+    /**
+     * 사용자 한 명의 선호도 변경 반영 (previousMask가 null이면 신규, newMask가 null이면 삭제)
+     */
+    public synchronized void update(Integer previousMask, Integer newMask) {
+        if (previousMask == null && newMask == null) {
+            return;
+        }
+        if (previousMask == null || newMask == null) {
+            add(previousMask != null ? previousMask : newMask, previousMask != null ? -1 : 1);
+            return;
+        }
+        int before = previousMask;
+        int after = newMask;
+        int changed = before ^ after;
+        if (changed == 0) {
+            return;
+        }
+        // 한쪽 플래그라도 바뀐 쌍만 증감 (둘 다 그대로인 쌍은 변화 없음)
+        int touched = before | after;
+        for (int a = changed; a != 0; a &= a - 1) {
+            int i = Integer.numberOfTrailingZeros(a);
+            for (int b = touched; b != 0; b &= b - 1) {
+                int j = Integer.numberOfTrailingZeros(b);
+                long delta = bothSet(after, i, j) - bothSet(before, i, j);
+                if (delta != 0) {
+                    pairs[i * FLAGS + j] += delta;
+                    if (i != j && (changed & (1 << j)) == 0) {
+                        pairs[j * FLAGS + i] += delta;
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized long[] counts() {
+        long[] counts = new long[FLAGS];
+        for (int i = 0; i < FLAGS; i++) {
+            counts[i] = pairs[i * FLAGS + i];
+        }
+        return counts;
+    }
+
+    public synchronized long[][] matrix() {
+        long[][] matrix = new long[FLAGS][FLAGS];
+        for (int i = 0; i < FLAGS; i++) {
+            System.arraycopy(pairs, i * FLAGS, matrix[i], 0, FLAGS);
+        }
+        return matrix;
+    }
+
+    /**
+     * 다른 집계와 값이 다른 칸 수 (사용자 수 포함)
+     */
+    public synchronized int differences(PreferenceCooccurrence other) {
+        long otherTotal;
+        long[] otherPairs;
+        synchronized (other) {
+            otherTotal = other.total;
+            otherPairs = other.pairs.clone();
+        }
+        int differences = total != otherTotal ? 1 : 0;
+        for (int k = 0; k < pairs.length; k++) {
+            if (pairs[k] != otherPairs[k]) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    private static long bothSet(int mask, int i, int j) {
+        return (mask >>> i & mask >>> j & 1);
+    }
+}
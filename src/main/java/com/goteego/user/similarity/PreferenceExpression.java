@@ -0,0 +1,335 @@
+package com.goteego.user.similarity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 선호도 플래그에 대한 불리언 식 (AND / OR / NOT, 괄호)
+ * 예: "isFriendly AND (isOutdoor OR isBeach) AND NOT isSmoker", 기호 &, |, ! 도 사용 가능
+ * 우선순위는 NOT > AND > OR이며, 플래그 이름은 파싱 시 전달한 함수로 비트 위치로 변환
+ * 같은 식을 마스크 하나(matches) 또는 플래그별 행 비트셋의 64행 word 단위(evaluate)로 계산
+ */
+public abstract class PreferenceExpression {
+
+    /**
+     * 식 최대 길이 (중첩 깊이 제한 겸용)
+     */
+    public static final int MAX_LENGTH = 2000;
+
+    PreferenceExpression() {
+    }
+
+    /**
+     * 마스크 하나가 식을 만족하는지
+     */
+    public abstract boolean matches(int mask);
+
+    /**
+     * 플래그별 행 비트셋의 word번째 64행에 대한 결과 비트 (유효하지 않은 행 비트는 호출 측에서 제거)
+     */
+    public abstract long evaluate(long[][] flagBits, int word);
+
+    /**
+     * 식에 쓰인 플래그들의 마스크
+     */
+    public abstract int referencedMask();
+
+    public static PreferenceExpression parse(String text, ToIntFunction<String> flagIndex) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("선호도 조건식이 비어 있습니다");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("선호도 조건식은 " + MAX_LENGTH + "자 이하여야 합니다");
+        }
+        Parser parser = new Parser(tokenize(text), flagIndex);
+        PreferenceExpression expression = parser.parseOr();
+        if (parser.position != parser.tokens.size()) {
+            throw new IllegalArgumentException("선호도 조건식을 해석할 수 없습니다: '" + parser.tokens.get(parser.position) + "' 부근");
+        }
+        return expression;
+    }
+
+    public static PreferenceExpression flag(int bitIndex, String name) {
+        if (bitIndex < 0 || bitIndex >= PreferenceBits.FLAG_COUNT) {
+            throw new IllegalArgumentException("지원하지 않는 선호도 플래그입니다: " + name);
+        }
+        return new Flag(bitIndex, name);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')' || c == '!') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '&' || c == '|') {
+                // && 와 || 도 & 와 | 로 처리
+                int end = i + 1;
+                if (end < text.length() && text.charAt(end) == c) {
+                    end++;
+                }
+                tokens.add(String.valueOf(c));
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                    end++;
+                }
+                tokens.add(text.substring(i, end));
+                i = end;
+            } else {
+                throw new IllegalArgumentException("선호도 조건식에 사용할 수 없는 문자입니다: '" + c + "'");
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private final ToIntFunction<String> flagIndex;
+        private int position;
+
+        private Parser(List<String> tokens, ToIntFunction<String> flagIndex) {
+            this.tokens = tokens;
+            this.flagIndex = flagIndex;
+        }
+
+        private PreferenceExpression parseOr() {
+            List<PreferenceExpression> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (accept("|", "OR")) {
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands.toArray(new PreferenceExpression[0]));
+        }
+
+        private PreferenceExpression parseAnd() {
+            List<PreferenceExpression> operands = new ArrayList<>();
+            operands.add(parseNot());
+            while (accept("&", "AND")) {
+                operands.add(parseNot());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands.toArray(new PreferenceExpression[0]));
+        }
+
+        private PreferenceExpression parseNot() {
+            if (accept("!", "NOT")) {
+                return new Not(parseNot());
+            }
+            if (accept("(", "(")) {
+                PreferenceExpression inner = parseOr();
+                if (!accept(")", ")")) {
+                    throw new IllegalArgumentException("선호도 조건식의 괄호가 닫히지 않았습니다");
+                }
+                return inner;
+            }
+            if (position == tokens.size()) {
+                throw new IllegalArgumentException("선호도 조건식이 완결되지 않았습니다");
+            }
+            String token = tokens.get(position);
+            if (!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_' || isKeyword(token)) {
+                throw new IllegalArgumentException("선호도 조건식을 해석할 수 없습니다: '" + token + "' 부근");
+            }
+            position++;
+            return flag(flagIndex.applyAsInt(token), token);
+        }
+
+        private boolean accept(String symbol, String keyword) {
+            if (position < tokens.size()) {
+                String token = tokens.get(position);
+                if (token.equals(symbol) || token.equalsIgnoreCase(keyword)) {
+                    position++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isKeyword(String token) {
+            return "AND".equalsIgnoreCase(token) || "OR".equalsIgnoreCase(token) || "NOT".equalsIgnoreCase(token);
+        }
+    }
+
+    /**
+     * 플래그 하나
+     */
+    public static final class Flag extends PreferenceExpression {
+
+        private final int bitIndex;
+        private final String name;
+
+        private Flag(int bitIndex, String name) {
+            this.bitIndex = bitIndex;
+            this.name = name;
+        }
+
+        public int getBitIndex() {
+            return bitIndex;
+        }
+
+        @Override
+        public boolean matches(int mask) {
+            return (mask & (1 << bitIndex)) != 0;
+        }
+
+        @Override
+        public long evaluate(long[][] flagBits, int word) {
+            return flagBits[bitIndex][word];
+        }
+
+        @Override
+        public int referencedMask() {
+            return 1 << bitIndex;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class Not extends PreferenceExpression {
+
+        private final PreferenceExpression operand;
+
+        private Not(PreferenceExpression operand) {
+            this.operand = operand;
+        }
+
+        public PreferenceExpression getOperand() {
+            return operand;
+        }
+
+        @Override
+        public boolean matches(int mask) {
+            return !operand.matches(mask);
+        }
+
+        @Override
+        public long evaluate(long[][] flagBits, int word) {
+            return ~operand.evaluate(flagBits, word);
+        }
+
+        @Override
+        public int referencedMask() {
+            return operand.referencedMask();
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + (operand instanceof Flag || operand instanceof Not ? operand : "(" + operand + ")");
+        }
+    }
+
+    public static final class And extends PreferenceExpression {
+
+        private final PreferenceExpression[] operands;
+
+        private And(PreferenceExpression[] operands) {
+            this.operands = operands;
+        }
+
+        public List<PreferenceExpression> getOperands() {
+            return List.of(operands);
+        }
+
+        @Override
+        public boolean matches(int mask) {
+            for (PreferenceExpression operand : operands) {
+                if (!operand.matches(mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long evaluate(long[][] flagBits, int word) {
+            long result = -1L;
+            for (int i = 0; i < operands.length && result != 0; i++) {
+                result &= operands[i].evaluate(flagBits, word);
+            }
+            return result;
+        }
+
+        @Override
+        public int referencedMask() {
+            int mask = 0;
+            for (PreferenceExpression operand : operands) {
+                mask |= operand.referencedMask();
+            }
+            return mask;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (PreferenceExpression operand : operands) {
+                if (builder.length() > 0) {
+                    builder.append(" AND ");
+                }
+                builder.append(operand instanceof Or ? "(" + operand + ")" : operand.toString());
+            }
+            return builder.toString();
+        }
+    }
+
+    public static final class Or extends PreferenceExpression {
+
+        private final PreferenceExpression[] operands;
+
+        private Or(PreferenceExpression[] operands) {
+            this.operands = operands;
+        }
+
+        public List<PreferenceExpression> getOperands() {
+            return List.of(operands);
+        }
+
+        @Override
+        public boolean matches(int mask) {
+            for (PreferenceExpression operand : operands) {
+                if (operand.matches(mask)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long evaluate(long[][] flagBits, int word) {
+            long result = 0L;
+            for (int i = 0; i < operands.length && result != -1L; i++) {
+                result |= operands[i].evaluate(flagBits, word);
+            }
+            return result;
+        }
+
+        @Override
+        public int referencedMask() {
+            int mask = 0;
+            for (PreferenceExpression operand : operands) {
+                mask |= operand.referencedMask();
+            }
+            return mask;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (PreferenceExpression operand : operands) {
+                if (builder.length() > 0) {
+                    builder.append(" OR ");
+                }
+                builder.append(operand);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.goteego.user.similarity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 선호도 조건식을 preference_mask 컬럼 조건으로 변환한 결과
+ * NOT을 플래그까지 내린 뒤 OR-of-AND 형태로 펼쳐, 각 항을 (mask & must) = must AND (mask & mustNot) = 0 으로 표현
+ * 모든 값은 JDBC 파라미터로 전달하므로 조건식 종류가 달라도 SQL 모양은 항 수에만 의존
+ */
+public final class PreferenceMaskPredicate {
+
+    /**
+     * 펼친 항 수 상한 (AND 안의 OR가 많으면 항 수가 곱으로 늘어남)
+     */
+    public static final int MAX_TERMS = 64;
+
+    private final int[] mustMasks;
+    private final int[] mustNotMasks;
+
+    private PreferenceMaskPredicate(int[] mustMasks, int[] mustNotMasks) {
+        this.mustMasks = mustMasks;
+        this.mustNotMasks = mustNotMasks;
+    }
+
+    public static PreferenceMaskPredicate compile(PreferenceExpression expression) {
+        List<Long> terms = expand(expression, false);
+        int[] must = new int[terms.size()];
+        int[] mustNot = new int[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            must[i] = mustOf(terms.get(i));
+            mustNot[i] = mustNotOf(terms.get(i));
+        }
+        return new PreferenceMaskPredicate(must, mustNot);
+    }
+
+    /**
+     * 필수/제외 마스크 한 쌍으로 된 조건
+     */
+    public static PreferenceMaskPredicate of(int mustMask, int mustNotMask) {
+        if ((mustMask & mustNotMask) != 0) {
+            return new PreferenceMaskPredicate(new int[0], new int[0]);
+        }
+        return new PreferenceMaskPredicate(new int[]{mustMask}, new int[]{mustNotMask});
+    }
+
+    public int termCount() {
+        return mustMasks.length;
+    }
+
+    public int getMustMask(int term) {
+        return mustMasks[term];
+    }
+
+    public int getMustNotMask(int term) {
+        return mustNotMasks[term];
+    }
+
+    /**
+     * 마스크 하나가 조건을 만족하는지
+     */
+    public boolean matches(int mask) {
+        for (int i = 0; i < mustMasks.length; i++) {
+            if ((mask & mustMasks[i]) == mustMasks[i] && (mask & mustNotMasks[i]) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * SQL 조건식 (항마다 ? 3개: must, must, mustNot — parameters()와 같은 순서)
+     * 항이 없으면 FALSE, 조건 없는 항이 있으면 TRUE
+     */
+    public String toSql(String column) {
+        if (mustMasks.length == 0) {
+            return "FALSE";
+        }
+        StringBuilder sql = new StringBuilder("(");
+        for (int i = 0; i < mustMasks.length; i++) {
+            if (mustMasks[i] == 0 && mustNotMasks[i] == 0) {
+                return "TRUE";
+            }
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("((").append(column).append(" & ?) = ? AND (").append(column).append(" & ?) = 0)");
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * toSql()의 ? 순서에 맞춘 파라미터 값 (TRUE/FALSE로 변환된 경우 비어 있음)
+     */
+    public List<Object> parameters() {
+        List<Object> parameters = new ArrayList<>(mustMasks.length * 3);
+        for (int i = 0; i < mustMasks.length; i++) {
+            if (mustMasks[i] == 0 && mustNotMasks[i] == 0) {
+                return Collections.emptyList();
+            }
+            parameters.add(mustMasks[i]);
+            parameters.add(mustMasks[i]);
+            parameters.add(mustNotMasks[i]);
+        }
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PreferenceMaskPredicate{");
+        for (int i = 0; i < mustMasks.length; i++) {
+            if (i > 0) {
+                builder.append(" | ");
+            }
+            builder.append("must=").append(mustMasks[i]).append(",mustNot=").append(mustNotMasks[i]);
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * negated면 부정한 식을 펼침 (드모르간 법칙으로 NOT을 플래그까지 내림)
+     * 항은 상위 32비트에 must, 하위 32비트에 mustNot을 담은 long
+     */
+    private static List<Long> expand(PreferenceExpression expression, boolean negated) {
+        if (expression instanceof PreferenceExpression.Flag) {
+            int bit = 1 << ((PreferenceExpression.Flag) expression).getBitIndex();
+            return List.of(negated ? term(0, bit) : term(bit, 0));
+        }
+        if (expression instanceof PreferenceExpression.Not) {
+            return expand(((PreferenceExpression.Not) expression).getOperand(), !negated);
+        }
+
+        boolean conjunction = expression instanceof PreferenceExpression.And;
+        List<PreferenceExpression> operands = conjunction
+                ? ((PreferenceExpression.And) expression).getOperands()
+                : ((PreferenceExpression.Or) expression).getOperands();
+        // NOT (a AND b) = NOT a OR NOT b, NOT (a OR b) = NOT a AND NOT b
+        if (conjunction != negated) {
+            List<Long> product = List.of(term(0, 0));
+            for (PreferenceExpression operand : operands) {
+                product = multiply(product, expand(operand, negated));
+            }
+            return product;
+        }
+        Set<Long> union = new LinkedHashSet<>();
+        for (PreferenceExpression operand : operands) {
+            union.addAll(expand(operand, negated));
+            checkSize(union.size());
+        }
+        return new ArrayList<>(union);
+    }
+
+    private static List<Long> multiply(List<Long> left, List<Long> right) {
+        Set<Long> result = new LinkedHashSet<>();
+        for (long a : left) {
+            for (long b : right) {
+                int must = mustOf(a) | mustOf(b);
+                int mustNot = mustNotOf(a) | mustNotOf(b);
+                // 같은 플래그를 켜고 끄는 항은 만족할 수 없으므로 제외
+                if ((must & mustNot) == 0) {
+                    result.add(term(must, mustNot));
+                    checkSize(result.size());
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static void checkSize(int size) {
+        if (size > MAX_TERMS) {
+            throw new IllegalArgumentException("선호도 조건식이 너무 복잡합니다 (펼친 항이 " + MAX_TERMS + "개를 넘음)");
+        }
+    }
+
+    private static long term(int must, int mustNot) {
+        return ((long) must << 32) | (mustNot & 0xFFFFFFFFL);
+    }
+
+    private static int mustOf(long term) {
+        return (int) (term >>> 32);
+    }
+
+    private static int mustNotOf(long term) {
+        return (int) term;
+    }
+}
@@ -0,0 +1,320 @@
+package com.goteego.user.similarity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자별 선호도 비트 마스크를 원시 배열(long[] 사용자 ID, int[] 마스크)로 보관하는 메모리 저장소
+ * 후보 한 명당 popcount 몇 번으로 점수를 계산하므로 코어 하나로 초당 수백만 명을 순위화할 수 있음
+ * 플래그마다 행 단위 비트셋도 함께 유지해 필수/제외 조건이나 임의의 불리언 조건식은 64명씩 word 연산으로 걸러냄
+ */
+public class PreferenceMaskStore {
+
+    private static final int PARALLEL_SCAN_THRESHOLD = 262_144;
+    private static final int PARALLEL_CHUNK_ROWS = 65_536;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap rowByUserId;
+
+    private long[] userIds;
+    private int[] masks;
+
+    /**
+     * 플래그별 행 비트셋 (flagBits[flag]의 row번째 비트 = 해당 행 마스크의 flag 비트)
+     */
+    private long[][] flagBits;
+    private int size;
+
+    public PreferenceMaskStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.userIds = new long[capacity];
+        this.masks = new int[capacity];
+        this.flagBits = new long[PreferenceBits.FLAG_COUNT][words(capacity)];
+        this.rowByUserId = new LongIntHashMap(capacity);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 마스크 조회, 없으면 LongIntHashMap.MISSING(-1)
+     */
+    public int get(long userId) {
+        lock.readLock().lock();
+        try {
+            int row = rowByUserId.get(userId);
+            return row == LongIntHashMap.MISSING ? LongIntHashMap.MISSING : masks[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return rowByUserId.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 마스크 추가/교체
+     */
+    public void upsert(long userId, int mask) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.get(userId);
+            if (row == LongIntHashMap.MISSING) {
+                if (size == userIds.length) {
+                    int capacity = size + (size >> 1);
+                    userIds = Arrays.copyOf(userIds, capacity);
+                    masks = Arrays.copyOf(masks, capacity);
+                    for (int flag = 0; flag < flagBits.length; flag++) {
+                        flagBits[flag] = Arrays.copyOf(flagBits[flag], words(capacity));
+                    }
+                }
+                row = size++;
+                userIds[row] = userId;
+                rowByUserId.put(userId, row);
+            }
+            setMask(row, mask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 마스크 삭제 (마지막 행을 빈자리로 이동)
+     */
+    public boolean remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.remove(userId);
+            if (row == LongIntHashMap.MISSING) {
+                return false;
+            }
+            int last = --size;
+            if (row != last) {
+                userIds[row] = userIds[last];
+                setMask(row, masks[last]);
+                rowByUserId.put(userIds[row], row);
+            }
+            setMask(last, 0);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 대상 마스크와 거리가 가장 가까운 K명 (거리 오름차순)
+     */
+    public List<ScoredUser> topK(int targetMask, MaskDistance metric, int k, long excludeUserId) {
+        return topK(targetMask, metric, k, excludeUserId, null);
+    }
+
+    /**
+     * 커서 뒤에서 (거리, 사용자 ID) 순으로 가장 가까운 K명 (after가 null이면 처음부터)
+     * 페이지마다 전체를 다시 훑지만 정렬 없이 K 크기 힙만 유지
+     */
+    public List<ScoredUser> topK(int targetMask, MaskDistance metric, int k, long excludeUserId, DistanceCursor after) {
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            // 힙은 행 수보다 클 필요가 없음 (큰 k로 청크마다 큰 배열을 할당하지 않도록)
+            int capacity = Math.min(k, rows);
+            if (rows < PARALLEL_SCAN_THRESHOLD) {
+                TopKHeap heap = new TopKHeap(capacity);
+                scan(targetMask, metric, excludeUserId, after, 0, rows, heap);
+                return heap.drainAscending();
+            }
+            int chunks = (rows + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        TopKHeap heap = new TopKHeap(capacity);
+                        int from = chunk * PARALLEL_CHUNK_ROWS;
+                        scan(targetMask, metric, excludeUserId, after, from, Math.min(rows, from + PARALLEL_CHUNK_ROWS), heap);
+                        return heap;
+                    })
+                    .reduce((left, right) -> {
+                        left.merge(right);
+                        return left;
+                    })
+                    .orElseGet(() -> new TopKHeap(capacity))
+                    .drainAscending();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * requiredMask의 플래그가 모두 켜져 있고 excludedMask의 플래그가 모두 꺼진 사용자 ID
+     * 조건 플래그의 비트셋만 word 단위로 AND 하므로 마스크를 한 명씩 비교하지 않음
+     */
+    public long[] matching(int requiredMask, int excludedMask) {
+        int allFlags = (1 << PreferenceBits.FLAG_COUNT) - 1;
+        if (((requiredMask | excludedMask) & ~allFlags) != 0) {
+            throw new IllegalArgumentException("지원하지 않는 선호도 플래그가 포함되어 있습니다");
+        }
+        if ((requiredMask & excludedMask) != 0) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            long[] result = new long[16];
+            int count = 0;
+            for (int word = 0; word < words(rows); word++) {
+                long candidates = validRows(rows, word);
+                for (int bits = requiredMask; bits != 0 && candidates != 0; bits &= bits - 1) {
+                    candidates &= flagBits[Integer.numberOfTrailingZeros(bits)][word];
+                }
+                for (int bits = excludedMask; bits != 0 && candidates != 0; bits &= bits - 1) {
+                    candidates &= ~flagBits[Integer.numberOfTrailingZeros(bits)][word];
+                }
+                for (; candidates != 0; candidates &= candidates - 1) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count + (count >> 1));
+                    }
+                    result[count++] = userIds[(word << 6) + Long.numberOfTrailingZeros(candidates)];
+                }
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 조건식을 만족하는 사용자 수 (플래그별 비트셋을 word 단위로 계산해 popcount)
+     */
+    public int count(PreferenceExpression expression) {
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            int count = 0;
+            for (int word = 0; word < words(rows); word++) {
+                count += Long.bitCount(expression.evaluate(flagBits, word) & validRows(rows, word));
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 조건식을 만족하고 사용자 ID가 afterUserId보다 큰 사용자 중 ID가 작은 순으로 최대 limit명 (오름차순)
+     * 행 순서는 사용자 ID 순이 아니므로 limit 크기 최대 힙으로 가장 작은 ID만 유지
+     */
+    public long[] matching(PreferenceExpression expression, long afterUserId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit은 0 이상이어야 합니다: " + limit);
+        }
+        long[] heap = new long[limit];
+        int count = 0;
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            for (int word = 0; word < words(rows) && limit > 0; word++) {
+                for (long bits = expression.evaluate(flagBits, word) & validRows(rows, word); bits != 0; bits &= bits - 1) {
+                    long userId = userIds[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    if (userId <= afterUserId) {
+                        continue;
+                    }
+                    if (count < limit) {
+                        heap[count] = userId;
+                        siftUp(heap, count++);
+                    } else if (userId < heap[0]) {
+                        heap[0] = userId;
+                        siftDown(heap, 0, count);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] result = Arrays.copyOf(heap, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long validRows(int rows, int word) {
+        return word == words(rows) - 1 && (rows & 63) != 0 ? (1L << (rows & 63)) - 1 : -1L;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int index, int count) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < count && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            long swap = heap[largest];
+            heap[largest] = heap[index];
+            heap[index] = swap;
+            index = largest;
+        }
+    }
+
+    private void setMask(int row, int mask) {
+        masks[row] = mask;
+        int word = row >>> 6;
+        long bit = 1L << (row & 63);
+        for (int flag = 0; flag < flagBits.length; flag++) {
+            if ((mask & (1 << flag)) != 0) {
+                flagBits[flag][word] |= bit;
+            } else {
+                flagBits[flag][word] &= ~bit;
+            }
+        }
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private void scan(int targetMask, MaskDistance metric, long excludeUserId, DistanceCursor after,
+                      int fromRow, int toRow, TopKHeap heap) {
+        for (int row = fromRow; row < toRow; row++) {
+            if (userIds[row] == excludeUserId) {
+                continue;
+            }
+            double distance = metric.distance(targetMask, masks[row]);
+            if (after == null || after.precedes(distance, userIds[row])) {
+                heap.offer(userIds[row], distance);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.goteego.user.similarity;
+
+/**
+ * 선호도 비트 마스크 간 거리 측정 방식
+ * distance는 작을수록 유사하며, toSimilarity로 0~1 범위 점수(클수록 유사)로 변환
+ */
+public enum PreferenceMetric implements MaskDistance {
+
+    /**
+     * 1 - 자카드 유사도
+     */
+    JACCARD {
+        @Override
+        public double distance(int a, int b) {
+            return 1.0 - PreferenceBits.jaccard(a, b);
+        }
+
+        @Override
+        public double toSimilarity(double distance) {
+            return 1.0 - distance;
+        }
+    },
+
+    /**
+     * 해밍 거리 (유사도 = 일치하는 플래그 비율)
+     */
+    HAMMING {
+        @Override
+        public double distance(int a, int b) {
+            return PreferenceBits.hamming(a, b);
+        }
+
+        @Override
+        public double toSimilarity(double distance) {
+            return 1.0 - distance / PreferenceBits.FLAG_COUNT;
+        }
+    },
+
+    /**
+     * 1 - 코사인 유사도 (0/1 임베딩에 대한 pgvector <=> 결과와 동일)
+     */
+    COSINE {
+        @Override
+        public double distance(int a, int b) {
+            int countA = Integer.bitCount(a);
+            int countB = Integer.bitCount(b);
+            // pgvector와 같이 빈 벡터와의 코사인 거리는 정의하지 않음
+            if (countA == 0 || countB == 0) {
+                return Double.NaN;
+            }
+            return 1.0 - PreferenceBits.cosine(a, b);
+        }
+
+        @Override
+        public double toSimilarity(double distance) {
+            return 1.0 - distance;
+        }
+    };
+
+    public abstract double distance(int a, int b);
+
+    public abstract double toSimilarity(double distance);
+
+    /**
+     * 요청 파라미터 값을 변환 (대소문자 무시)
+     */
+    public static PreferenceMetric from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 선호도 유사도 방식입니다: " + value);
+        }
+    }
+}
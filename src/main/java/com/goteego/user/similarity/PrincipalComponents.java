@@ -0,0 +1,256 @@
+package com.goteego.user.similarity;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * 선호도 마스크 행렬의 주성분 (중심화한 사용자×속성 행렬의 절단 SVD와 같은 투영)
+ * 공분산 행렬을 야코비 회전으로 고유분해하고 분산이 큰 순서로 상위 성분만 보관
+ * 서로 강하게 상관된 플래그(예: 음주 3단계)는 하나의 성분으로 합쳐짐
+ */
+public final class PrincipalComponents {
+
+    private static final int PARALLEL_CHUNK_ROWS = 65_536;
+    private static final int JACOBI_MAX_SWEEPS = 100;
+    private static final double JACOBI_EPSILON = 1e-12;
+
+    private final int sourceDimensions;
+    private final int targetDimensions;
+    private final double[] mean;
+
+    /**
+     * 주성분 (targetDimensions × sourceDimensions, 행 우선)
+     */
+    private final double[] components;
+
+    /**
+     * 성분별 분산 (고윳값, 내림차순)
+     */
+    private final double[] variances;
+
+    private final double totalVariance;
+    private final long sampleCount;
+
+    public PrincipalComponents(int sourceDimensions, int targetDimensions, double[] mean, double[] components,
+                               double[] variances, double totalVariance, long sampleCount) {
+        if (mean.length != sourceDimensions || components.length != targetDimensions * sourceDimensions
+                || variances.length != targetDimensions) {
+            throw new IllegalArgumentException("주성분 모델의 차원이 맞지 않습니다");
+        }
+        this.sourceDimensions = sourceDimensions;
+        this.targetDimensions = targetDimensions;
+        this.mean = mean;
+        this.components = components;
+        this.variances = variances;
+        this.totalVariance = totalVariance;
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * 선호도 마스크들로 상위 targetDimensions개 주성분 계산 (공분산 누적은 병렬)
+     */
+    public static PrincipalComponents fit(int[] masks, int count, int flagCount, int targetDimensions) {
+        if (targetDimensions < 1 || targetDimensions > flagCount) {
+            throw new IllegalArgumentException("목표 차원은 1 이상 " + flagCount + " 이하여야 합니다: " + targetDimensions);
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("학습할 선호도 데이터가 없습니다");
+        }
+
+        int chunks = (count + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+        long[] cooccurrence = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    long[] counts = new long[flagCount * flagCount];
+                    int to = Math.min(count, (chunk + 1) * PARALLEL_CHUNK_ROWS);
+                    for (int row = chunk * PARALLEL_CHUNK_ROWS; row < to; row++) {
+                        accumulate(masks[row], flagCount, counts);
+                    }
+                    return counts;
+                })
+                .reduce((left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                })
+                .orElseThrow();
+
+        double[] mean = new double[flagCount];
+        for (int i = 0; i < flagCount; i++) {
+            mean[i] = (double) cooccurrence[i * flagCount + i] / count;
+        }
+        double[][] covariance = new double[flagCount][flagCount];
+        double totalVariance = 0;
+        for (int i = 0; i < flagCount; i++) {
+            for (int j = 0; j < flagCount; j++) {
+                covariance[i][j] = (double) cooccurrence[i * flagCount + j] / count - mean[i] * mean[j];
+            }
+            totalVariance += covariance[i][i];
+        }
+
+        double[][] eigenvectors = new double[flagCount][flagCount];
+        double[] eigenvalues = jacobi(covariance, eigenvectors);
+        Integer[] order = IntStream.range(0, flagCount).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, (a, b) -> Double.compare(eigenvalues[b], eigenvalues[a]));
+
+        double[] components = new double[targetDimensions * flagCount];
+        double[] variances = new double[targetDimensions];
+        for (int c = 0; c < targetDimensions; c++) {
+            int column = order[c];
+            variances[c] = Math.max(0, eigenvalues[column]);
+            // 부호를 고정해 같은 데이터로 다시 학습해도 같은 벡터가 나오도록 절댓값이 가장 큰 계수를 양수로 맞춤
+            int pivot = 0;
+            for (int i = 1; i < flagCount; i++) {
+                if (Math.abs(eigenvectors[i][column]) > Math.abs(eigenvectors[pivot][column])) {
+                    pivot = i;
+                }
+            }
+            double sign = eigenvectors[pivot][column] < 0 ? -1 : 1;
+            for (int i = 0; i < flagCount; i++) {
+                components[c * flagCount + i] = sign * eigenvectors[i][column];
+            }
+        }
+        return new PrincipalComponents(flagCount, targetDimensions, mean, components, variances, totalVariance, count);
+    }
+
+    /**
+     * 마스크를 주성분 좌표로 투영해 outputDimensions 길이 벡터로 반환 (남는 차원은 0)
+     */
+    public float[] project(int mask, int outputDimensions) {
+        float[] vector = new float[outputDimensions];
+        for (int c = 0; c < Math.min(targetDimensions, outputDimensions); c++) {
+            double value = 0;
+            int offset = c * sourceDimensions;
+            for (int i = 0; i < sourceDimensions; i++) {
+                double x = (mask & (1 << i)) != 0 ? 1.0 : 0.0;
+                value += components[offset + i] * (x - mean[i]);
+            }
+            vector[c] = (float) value;
+        }
+        return vector;
+    }
+
+    /**
+     * 보관한 성분이 설명하는 분산 비율 (0~1)
+     */
+    public double explainedVarianceRatio() {
+        if (totalVariance <= 0) {
+            return 1.0;
+        }
+        double explained = 0;
+        for (double variance : variances) {
+            explained += variance;
+        }
+        return Math.min(1.0, explained / totalVariance);
+    }
+
+    public int sourceDimensions() {
+        return sourceDimensions;
+    }
+
+    public int targetDimensions() {
+        return targetDimensions;
+    }
+
+    public double[] mean() {
+        return mean.clone();
+    }
+
+    public double[] components() {
+        return components.clone();
+    }
+
+    public double[] variances() {
+        return variances.clone();
+    }
+
+    public double totalVariance() {
+        return totalVariance;
+    }
+
+    public long sampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * 켜진 플래그 쌍의 동시 출현 수 누적 (대각선은 플래그별 출현 수)
+     */
+    private static void accumulate(int mask, int flagCount, long[] counts) {
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int i = Integer.numberOfTrailingZeros(bits);
+            if (i >= flagCount) {
+                break;
+            }
+            for (int others = mask; others != 0; others &= others - 1) {
+                int j = Integer.numberOfTrailingZeros(others);
+                if (j >= flagCount) {
+                    break;
+                }
+                counts[i * flagCount + j]++;
+            }
+        }
+    }
+
+    /**
+     * 대칭 행렬의 고유분해 (순환 야코비 회전), 고유벡터는 eigenvectors의 열에 기록
+     */
+    private static double[] jacobi(double[][] matrix, double[][] eigenvectors) {
+        int n = matrix.length;
+        double[][] a = new double[n][];
+        for (int i = 0; i < n; i++) {
+            a[i] = matrix[i].clone();
+            Arrays.fill(eigenvectors[i], 0);
+            eigenvectors[i][i] = 1;
+        }
+
+        for (int sweep = 0; sweep < JACOBI_MAX_SWEEPS; sweep++) {
+            double offDiagonal = 0;
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    offDiagonal += a[p][q] * a[p][q];
+                }
+            }
+            if (offDiagonal < JACOBI_EPSILON * JACOBI_EPSILON) {
+                break;
+            }
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    if (Math.abs(a[p][q]) < JACOBI_EPSILON * JACOBI_EPSILON) {
+                        continue;
+                    }
+                    double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double s = t * c;
+                    for (int k = 0; k < n; k++) {
+                        double akp = a[k][p];
+                        double akq = a[k][q];
+                        a[k][p] = c * akp - s * akq;
+                        a[k][q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = a[p][k];
+                        double aqk = a[q][k];
+                        a[p][k] = c * apk - s * aqk;
+                        a[q][k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = eigenvectors[k][p];
+                        double vkq = eigenvectors[k][q];
+                        eigenvectors[k][p] = c * vkp - s * vkq;
+                        eigenvectors[k][q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+
+        double[] eigenvalues = new double[n];
+        for (int i = 0; i < n; i++) {
+            eigenvalues[i] = a[i][i];
+        }
+        return eigenvalues;
+    }
+}
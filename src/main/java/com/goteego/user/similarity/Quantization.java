@@ -0,0 +1,31 @@
+package com.goteego.user.similarity;
+
+/**
+ * 임베딩 양자화 방식
+ */
+public enum Quantization {
+
+    /**
+     * 차원마다 부호 있는 8비트 정수 (행별 스케일, float 대비 약 1/4 크기)
+     */
+    INT8,
+
+    /**
+     * 차원마다 1비트 (값이 0보다 크면 1, float 대비 1/32 크기), 해밍 거리로 후보 선정
+     */
+    BINARY;
+
+    /**
+     * 설정 값("int8", "binary")을 변환
+     */
+    public static Quantization from(String value) {
+        if (value == null || value.isBlank()) {
+            return INT8;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 양자화 방식입니다: " + value);
+        }
+    }
+}
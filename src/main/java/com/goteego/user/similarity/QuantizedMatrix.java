@@ -0,0 +1,245 @@
+package com.goteego.user.similarity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 양자화된 임베딩 사본을 보관하는 메모리 행렬 (후보 선정 전용)
+ * INT8은 행마다 최대 절댓값으로 스케일을 정해 [-127, 127]로 저장하고, 질의는 float 그대로 곱해 근사 거리를 계산
+ * BINARY는 차원마다 1비트로 저장하고 해밍 거리로 순위를 매김
+ * 정확한 순위는 호출부에서 원본 벡터로 다시 계산해야 함
+ */
+public class QuantizedMatrix {
+
+    private static final int PARALLEL_SCAN_THRESHOLD = 131_072;
+    private static final int PARALLEL_CHUNK_ROWS = 32_768;
+    private static final float INT8_MAX = 127f;
+
+    private final Quantization quantization;
+    private final int dimensions;
+    private final int words;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap rowByUserId;
+
+    private long[] userIds;
+    private byte[] codes;
+    private float[] scales;
+    private float[] norms;
+    private long[] bits;
+    private int size;
+
+    public QuantizedMatrix(Quantization quantization, int dimensions, int initialCapacity) {
+        this.quantization = quantization;
+        this.dimensions = dimensions;
+        this.words = (dimensions + Long.SIZE - 1) / Long.SIZE;
+        int capacity = Math.max(16, initialCapacity);
+        this.userIds = new long[capacity];
+        this.rowByUserId = new LongIntHashMap(capacity);
+        if (quantization == Quantization.INT8) {
+            this.codes = new byte[capacity * dimensions];
+            this.scales = new float[capacity];
+            this.norms = new float[capacity];
+        } else {
+            this.bits = new long[capacity * words];
+        }
+    }
+
+    public Quantization quantization() {
+        return quantization;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 한 명의 코드 크기 (바이트, 사용자 ID 제외)
+     */
+    public int bytesPerRow() {
+        return quantization == Quantization.INT8 ? dimensions + 2 * Float.BYTES : words * Long.BYTES;
+    }
+
+    /**
+     * 사용자 벡터를 양자화해 추가/교체 (차원이 다르면 0으로 패딩하거나 잘라냄)
+     */
+    public void upsert(long userId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.get(userId);
+            if (row == LongIntHashMap.MISSING) {
+                ensureCapacity(size + 1);
+                row = size++;
+                userIds[row] = userId;
+                rowByUserId.put(userId, row);
+            }
+            encode(row, vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자 벡터 삭제 (마지막 행을 빈자리로 이동)
+     */
+    public boolean remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByUserId.remove(userId);
+            if (row == LongIntHashMap.MISSING) {
+                return false;
+            }
+            int last = --size;
+            if (row != last) {
+                if (quantization == Quantization.INT8) {
+                    System.arraycopy(codes, last * dimensions, codes, row * dimensions, dimensions);
+                    scales[row] = scales[last];
+                    norms[row] = norms[last];
+                } else {
+                    System.arraycopy(bits, last * words, bits, row * words, words);
+                }
+                userIds[row] = userIds[last];
+                rowByUserId.put(userIds[row], row);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 근사 거리 기준 후보 count명 (근사 거리 오름차순)
+     * excludeUserId에 해당하는 사용자는 제외
+     */
+    public List<ScoredUser> candidates(float[] query, DistanceMetric metric, int count, long excludeUserId) {
+        float[] target = query.length == dimensions ? query : Arrays.copyOf(query, dimensions);
+        float targetNorm = VectorKernels.norm(target, 0, dimensions);
+        long[] targetBits = quantization == Quantization.BINARY ? toBits(target) : null;
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            // 후보 수는 행 수를 넘을 수 없으므로 힙도 행 수까지만 할당
+            int capacity = Math.min(count, rows);
+            if (rows < PARALLEL_SCAN_THRESHOLD) {
+                TopKHeap heap = new TopKHeap(capacity);
+                scan(target, targetNorm, targetBits, metric, excludeUserId, 0, rows, heap);
+                return heap.drainAscending();
+            }
+            int chunks = (rows + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        TopKHeap heap = new TopKHeap(capacity);
+                        int from = chunk * PARALLEL_CHUNK_ROWS;
+                        scan(target, targetNorm, targetBits, metric, excludeUserId,
+                                from, Math.min(rows, from + PARALLEL_CHUNK_ROWS), heap);
+                        return heap;
+                    })
+                    .reduce((left, right) -> {
+                        left.merge(right);
+                        return left;
+                    })
+                    .orElseGet(() -> new TopKHeap(capacity))
+                    .drainAscending();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scan(float[] target, float targetNorm, long[] targetBits, DistanceMetric metric,
+                      long excludeUserId, int fromRow, int toRow, TopKHeap heap) {
+        for (int row = fromRow; row < toRow; row++) {
+            if (userIds[row] == excludeUserId) {
+                continue;
+            }
+            heap.offer(userIds[row], quantization == Quantization.INT8
+                    ? int8Distance(target, targetNorm, metric, row)
+                    : hamming(targetBits, row));
+        }
+    }
+
+    /**
+     * INT8 코드에 대한 근사 거리 (코사인 거리 또는 유클리드 거리의 제곱)
+     */
+    private double int8Distance(float[] target, float targetNorm, DistanceMetric metric, int row) {
+        int offset = row * dimensions;
+        float dot = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            dot += target[i] * codes[offset + i];
+        }
+        dot *= scales[row] / INT8_MAX;
+        float rowNorm = norms[row];
+        if (metric == DistanceMetric.COSINE) {
+            return targetNorm == 0 || rowNorm == 0 ? 2.0 : 1.0 - dot / (targetNorm * rowNorm);
+        }
+        return targetNorm * targetNorm + rowNorm * rowNorm - 2.0 * dot;
+    }
+
+    private double hamming(long[] targetBits, int row) {
+        int offset = row * words;
+        int distance = 0;
+        for (int i = 0; i < words; i++) {
+            distance += Long.bitCount(targetBits[i] ^ bits[offset + i]);
+        }
+        return distance;
+    }
+
+    private void encode(int row, float[] vector) {
+        int length = Math.min(vector.length, dimensions);
+        if (quantization == Quantization.BINARY) {
+            int offset = row * words;
+            Arrays.fill(bits, offset, offset + words, 0L);
+            for (int i = 0; i < length; i++) {
+                if (vector[i] > 0f) {
+                    bits[offset + i / Long.SIZE] |= 1L << (i % Long.SIZE);
+                }
+            }
+            return;
+        }
+
+        float scale = 0f;
+        for (int i = 0; i < length; i++) {
+            scale = Math.max(scale, Math.abs(vector[i]));
+        }
+        int offset = row * dimensions;
+        long squared = 0;
+        for (int i = 0; i < dimensions; i++) {
+            int code = i < length && scale > 0f ? Math.round(vector[i] / scale * INT8_MAX) : 0;
+            codes[offset + i] = (byte) code;
+            squared += (long) code * code;
+        }
+        scales[row] = scale;
+        norms[row] = (float) (Math.sqrt(squared) * scale / INT8_MAX);
+    }
+
+    private long[] toBits(float[] vector) {
+        long[] result = new long[words];
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] > 0f) {
+                result[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+            }
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= userIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, userIds.length + (userIds.length >> 1));
+        userIds = Arrays.copyOf(userIds, capacity);
+        if (quantization == Quantization.INT8) {
+            codes = Arrays.copyOf(codes, capacity * dimensions);
+            scales = Arrays.copyOf(scales, capacity);
+            norms = Arrays.copyOf(norms, capacity);
+        } else {
+            bits = Arrays.copyOf(bits, capacity * words);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.goteego.user.similarity;
+
+/**
+ * 유사도 검색 결과 한 건 (사용자 ID와 대상 벡터와의 거리)
+ */
+public final class ScoredUser {
+
+    private final long userId;
+    private final double distance;
+
+    public ScoredUser(long userId, double distance) {
+        this.userId = userId;
+        this.distance = distance;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoredUser{userId=" + userId + ", distance=" + distance + "}";
+    }
+}
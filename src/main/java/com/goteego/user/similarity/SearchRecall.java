@@ -0,0 +1,62 @@
+package com.goteego.user.similarity;
+
+/**
+ * pgvector 근사 인덱스 검색의 재현율 수준
+ * HNSW는 hnsw.ef_search, IVFFlat은 전체 리스트 중 탐색할 비율(ivfflat.probes)로 변환
+ */
+public enum SearchRecall {
+
+    LOW(20, 0.01),
+    BALANCED(40, 0.05),
+    HIGH(100, 0.1),
+
+    /**
+     * 인덱스를 사용하지 않는 정확한 전수 검색
+     */
+    EXACT(0, 1.0);
+
+    /**
+     * pgvector가 허용하는 hnsw.ef_search 최댓값
+     */
+    public static final int MAX_EF_SEARCH = 1000;
+
+    private final int efSearch;
+    private final double probeRatio;
+
+    SearchRecall(int efSearch, double probeRatio) {
+        this.efSearch = efSearch;
+        this.probeRatio = probeRatio;
+    }
+
+    public boolean isExact() {
+        return this == EXACT;
+    }
+
+    /**
+     * hnsw.ef_search 값 (HNSW는 ef_search보다 많은 행을 반환하지 않으므로 limit 이상으로 설정)
+     */
+    public int efSearch(int limit) {
+        return Math.min(MAX_EF_SEARCH, Math.max(efSearch, limit));
+    }
+
+    /**
+     * ivfflat.probes 값
+     */
+    public int probes(int lists) {
+        return Math.max(1, Math.min(lists, (int) Math.ceil(lists * probeRatio)));
+    }
+
+    /**
+     * 요청 파라미터 값을 변환 (대소문자 무시), 값이 없으면 기본값 반환
+     */
+    public static SearchRecall from(String value, SearchRecall defaultRecall) {
+        if (value == null || value.isBlank()) {
+            return defaultRecall;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 재현율 수준입니다: " + value);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.goteego.user.similarity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거리 기준 상위 K개만 유지하는 고정 크기 최대 힙
+ * 루트에 현재 K개 중 가장 먼 후보를 두어 더 가까운 후보가 오면 O(log K)로 교체
+ * 거리가 같으면 사용자 ID가 작은 쪽을 우선하여 결과 순서를 결정적으로 유지
+ */
+public class TopKHeap {
+
+    private final int capacity;
+    private final long[] ids;
+    private final double[] distances;
+    private int size;
+
+    public TopKHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity는 0 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.distances = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * 현재 K번째(가장 먼) 거리. 힙이 가득 차지 않았으면 무한대
+     */
+    public double worstDistance() {
+        return isFull() && capacity > 0 ? distances[0] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 후보 추가. 상위 K개에 들어가면 true
+     */
+    public boolean offer(long id, double distance) {
+        if (capacity == 0 || Double.isNaN(distance)) {
+            return false;
+        }
+        if (size < capacity) {
+            ids[size] = id;
+            distances[size] = distance;
+            siftUp(size++);
+            return true;
+        }
+        if (!isBetter(id, distance, 0)) {
+            return false;
+        }
+        ids[0] = id;
+        distances[0] = distance;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * 다른 힙의 후보를 모두 병합
+     */
+    public void merge(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.distances[i]);
+        }
+    }
+
+    /**
+     * 거리 오름차순으로 정렬된 결과를 반환하고 힙을 비움
+     */
+    public List<ScoredUser> drainAscending() {
+        ScoredUser[] result = new ScoredUser[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = new ScoredUser(ids[0], distances[0]);
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                distances[0] = distances[size];
+                siftDown(0);
+            }
+        }
+        List<ScoredUser> list = new ArrayList<>(result.length);
+        for (ScoredUser scoredUser : result) {
+            list.add(scoredUser);
+        }
+        return list;
+    }
+
+    private boolean isBetter(long id, double distance, int index) {
+        return distance < distances[index] || (distance == distances[index] && id < ids[index]);
+    }
+
+    private boolean isWorse(int a, int b) {
+        return distances[a] > distances[b] || (distances[a] == distances[b] && ids[a] > ids[b]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int worst = right < size && isWorse(right, left) ? right : left;
+            if (!isWorse(worst, index)) {
+                break;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double distance = distances[a];
+        distances[a] = distances[b];
+        distances[b] = distance;
+    }
+}
@@ -0,0 +1,82 @@
+package com.goteego.user.similarity;
+
+/**
+ * 임베딩 거리 계산 커널
+ * JDK Vector API(jdk.incubator.vector)를 사용할 수 있으면 SIMD 구현을, 아니면 스칼라 구현을 사용
+ * 모든 메서드는 오프셋 기반으로 동작하므로 평탄화된 행렬에서도 배열 복사 없이 호출 가능
+ */
+public final class VectorKernels {
+
+    private static final boolean SIMD_ENABLED = detectSimd();
+
+    private VectorKernels() {
+    }
+
+    /**
+     * SIMD 커널 사용 여부
+     * 실행 시 --add-modules jdk.incubator.vector 옵션이 있어야 활성화됨
+     */
+    public static boolean isSimdEnabled() {
+        return SIMD_ENABLED;
+    }
+
+    /**
+     * 내적
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (SIMD_ENABLED) {
+            return SimdVectorKernels.dot(a, aOffset, b, bOffset, length);
+        }
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * 유클리드 거리의 제곱
+     */
+    public static float squaredEuclidean(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (SIMD_ENABLED) {
+            return SimdVectorKernels.squaredEuclidean(a, aOffset, b, bOffset, length);
+        }
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            float diff = a[aOffset + i] - b[bOffset + i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    /**
+     * L2 노름
+     */
+    public static float norm(float[] a, int offset, int length) {
+        return (float) Math.sqrt(dot(a, offset, a, offset, length));
+    }
+
+    /**
+     * 코사인 거리 (pgvector의 <=> 연산자와 동일하게 1 - 코사인 유사도)
+     * 노름이 0인 벡터는 pgvector와 같이 NaN을 반환
+     */
+    public static double cosineDistance(float[] a, int aOffset, float aNorm,
+                                        float[] b, int bOffset, float bNorm, int length) {
+        if (aNorm == 0f || bNorm == 0f) {
+            return Double.NaN;
+        }
+        return 1.0 - dot(a, aOffset, b, bOffset, length) / ((double) aNorm * bNorm);
+    }
+
+    private static boolean detectSimd() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            float[] probe = {1f, 2f};
+            return SimdVectorKernels.dot(probe, 0, probe, 0, probe.length) == 5f;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.goteego.user.similarity;
+
+/**
+ * pgvector 텍스트 형식("[1,0,0.5,...]")과 float[] 사이의 변환
+ * 정규식/split 없이 한 번의 순회로 파싱
+ */
+public final class VectorText {
+
+    private VectorText() {
+    }
+
+    /**
+     * 벡터 문자열을 원소 수만큼의 float[]로 변환
+     */
+    public static float[] parse(String text) {
+        if (text == null) {
+            return new float[0];
+        }
+        int separators = 0;
+        boolean hasValue = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                separators++;
+            } else if (c != '[' && c != ']' && !Character.isWhitespace(c)) {
+                hasValue = true;
+            }
+        }
+        return parse(text, hasValue ? separators + 1 : 0);
+    }
+
+    /**
+     * 벡터 문자열을 지정한 차원의 float[]로 변환 (짧으면 0으로 패딩, 길면 잘라냄)
+     */
+    public static float[] parse(String text, int dimensions) {
+        float[] result = new float[dimensions];
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+        int length = text.length();
+        int index = 0;
+        int start = -1;
+        for (int i = 0; i <= length && index < dimensions; i++) {
+            char c = i < length ? text.charAt(i) : ',';
+            if (c == ',' || c == ']') {
+                if (start >= 0) {
+                    result[index++] = Float.parseFloat(text.substring(start, i).trim());
+                    start = -1;
+                }
+            } else if (c != '[' && start < 0 && !Character.isWhitespace(c)) {
+                start = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * float[]를 pgvector 텍스트 형식으로 변환 (정수 값은 소수점 없이 출력)
+     */
+    public static String format(float[] vector) {
+        StringBuilder sb = new StringBuilder(vector.length * 4 + 2).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            float value = vector[i];
+            if (value == (int) value) {
+                sb.append((int) value);
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
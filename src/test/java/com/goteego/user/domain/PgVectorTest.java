@@ -0,0 +1,53 @@
+package com.goteego.user.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PgVectorTest {
+
+    @Test
+    void toBytesWritesPgvectorBinaryLayout() {
+        PgVector vector = new PgVector(new float[]{1.0f, -2.5f});
+
+        byte[] bytes = new byte[vector.lengthInBytes()];
+        vector.toBytes(bytes, 0);
+
+        // int16 차원, int16 예약(0), float4 big-endian 원소들 (pgvector vector_send와 같은 배치)
+        assertArrayEquals(new byte[]{
+                0, 2, 0, 0,
+                0x3F, (byte) 0x80, 0, 0,
+                (byte) 0xC0, 0x20, 0, 0
+        }, bytes);
+    }
+
+    @Test
+    void binaryRoundTripPreservesValues() throws SQLException {
+        float[] values = new float[UserEmbedding.DIMENSIONS];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i - 7) * 0.37f;
+        }
+        PgVector sent = new PgVector(values);
+        byte[] bytes = new byte[sent.lengthInBytes() + 3];
+        sent.toBytes(bytes, 3);
+
+        PgVector received = new PgVector();
+        received.setByteValue(bytes, 3);
+
+        assertArrayEquals(values, received.getVector());
+    }
+
+    @Test
+    void textRoundTripPreservesValues() {
+        PgVector sent = new PgVector(new float[]{0.5f, 0f, -1.25f});
+
+        PgVector received = new PgVector();
+        received.setValue(sent.getValue());
+
+        assertArrayEquals(sent.getVector(), received.getVector());
+        assertEquals(sent, received);
+    }
+}
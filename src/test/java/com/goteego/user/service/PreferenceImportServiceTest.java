@@ -0,0 +1,176 @@
+package com.goteego.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goteego.user.dto.UserPreferDto;
+import com.goteego.user.event.UserPreferChangedEvent;
+import com.goteego.user.repository.UserEmbeddingJdbcRepository;
+import com.goteego.user.repository.UserPreferJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import static com.goteego.user.domain.PreferenceAttribute.IS_BEACH;
+import static com.goteego.user.domain.PreferenceAttribute.IS_CAFE;
+import static com.goteego.user.domain.PreferenceAttribute.IS_QUIET;
+import static com.goteego.user.domain.PreferenceAttribute.IS_SMOKER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PreferenceImportServiceTest {
+
+    private static final Set<Long> REGISTERED = Set.of(1L, 2L, 3L);
+
+    /**
+     * user_prefer에 저장된 마스크 (저장소 대역)
+     */
+    private final Map<Long, Integer> storedMasks = new HashMap<>();
+
+    private ApplicationEventPublisher eventPublisher;
+    private PreferenceImportService service;
+
+    @BeforeEach
+    void setUp() {
+        UserPreferJdbcRepository userPreferJdbcRepository = mock(UserPreferJdbcRepository.class);
+        doAnswer(invocation -> {
+            long[] userIds = invocation.getArgument(0);
+            int count = invocation.getArgument(1);
+            LongConsumer handler = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                if (REGISTERED.contains(userIds[i])) {
+                    handler.accept(userIds[i]);
+                }
+            }
+            return null;
+        }).when(userPreferJdbcRepository).findRegisteredUserIds(any(), anyInt(), any());
+        doAnswer(invocation -> {
+            long[] userIds = invocation.getArgument(0);
+            int count = invocation.getArgument(1);
+            UserPreferJdbcRepository.MaskRowHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                Integer mask = storedMasks.get(userIds[i]);
+                if (mask != null) {
+                    handler.handle(userIds[i], mask);
+                }
+            }
+            return null;
+        }).when(userPreferJdbcRepository).lockPreferenceMasksByUserIds(any(), anyInt(), any());
+        doAnswer(invocation -> {
+            long[] userIds = invocation.getArgument(0);
+            int[] masks = invocation.getArgument(2);
+            int count = invocation.getArgument(3);
+            for (int i = 0; i < count; i++) {
+                storedMasks.put(userIds[i], masks[i]);
+            }
+            return null;
+        }).when(userPreferJdbcRepository).batchUpsertPreferences(any(), any(), any(), anyInt());
+
+        PreferenceEmbeddingEncoder encoder = mock(PreferenceEmbeddingEncoder.class);
+        when(encoder.encode(anyInt())).thenAnswer(invocation -> new float[]{invocation.<Integer>getArgument(0)});
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new PreferenceImportService(userPreferJdbcRepository, mock(UserEmbeddingJdbcRepository.class),
+                encoder, eventPublisher, mock(PlatformTransactionManager.class), new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+    }
+
+    @Test
+    void ndjsonOverwritesOnlyAnsweredFlagsAndReportsBadRows() throws IOException {
+        storedMasks.put(1L, IS_SMOKER.getBit() | IS_CAFE.getBit());
+
+        UserPreferDto.ImportResponse response = importText(PreferenceImportService.Format.NDJSON,
+                "{\"userId\":1,\"isSmoker\":false,\"isBeach\":true}",
+                "{\"user_id\":2,\"is_quiet\":\"yes\",\"isCafe\":null}",
+                "",
+                "{oops",
+                "{\"userId\":99,\"isSee\":true}",
+                "{\"userId\":1,\"isCafe\":0}",
+                "{\"userId\":3,\"isSee\":\"maybe\"}",
+                "{\"userId\":\"abc\"}",
+                "{\"userId\":3,\"isUnknown\":true}");
+
+        assertEquals(8, response.getTotalRows());
+        assertEquals(3, response.getImportedRows());
+        assertEquals(5, response.getFailedRows());
+        assertEquals(List.of(4L, 5L, 7L, 8L, 9L), response.getErrors().stream()
+                .map(UserPreferDto.ImportError::getLine).sorted().toList());
+        assertFalse(response.isErrorsTruncated());
+
+        // 1: isSmoker 해제, isBeach 설정, isCafe는 다음 배치에서 해제
+        assertEquals(IS_BEACH.getBit(), storedMasks.get(1L));
+        assertEquals(IS_QUIET.getBit(), storedMasks.get(2L));
+        assertNull(storedMasks.get(3L));
+    }
+
+    @Test
+    void csvMergesRepeatedUserWithinBatchAndPublishesPreviousMask() throws IOException {
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+        storedMasks.put(1L, IS_CAFE.getBit() | IS_QUIET.getBit());
+
+        UserPreferDto.ImportResponse response = importText(PreferenceImportService.Format.CSV,
+                "\uFEFFuser_id, isSmoker ,\"is_beach\",isCafe",
+                "1,1,,0",
+                "1,,y,",
+                "2,no,no,no,extra",
+                "\"3\",true,false,true",
+                "-4,1,1,1");
+
+        assertEquals(5, response.getTotalRows());
+        assertEquals(3, response.getImportedRows());
+        assertEquals(2, response.getFailedRows());
+        assertEquals(IS_SMOKER.getBit() | IS_QUIET.getBit() | IS_BEACH.getBit(), storedMasks.get(1L));
+        assertEquals(IS_SMOKER.getBit() | IS_CAFE.getBit(), storedMasks.get(3L));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        List<UserPreferChangedEvent> preferEvents = events.getAllValues().stream()
+                .filter(UserPreferChangedEvent.class::isInstance)
+                .map(UserPreferChangedEvent.class::cast)
+                .toList();
+        assertEquals(3, preferEvents.size());
+        // 같은 배치의 두 번째 행은 첫 행까지 병합한 마스크가 이전 값
+        assertEquals(IS_CAFE.getBit() | IS_QUIET.getBit(), preferEvents.get(0).getPreviousMask());
+        assertEquals(IS_SMOKER.getBit() | IS_QUIET.getBit(), preferEvents.get(1).getPreviousMask());
+        assertNull(preferEvents.get(2).getPreviousMask());
+    }
+
+    @Test
+    void rejectsInvalidCsvHeaderAndUnknownFormat() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importText(PreferenceImportService.Format.CSV, "isSmoker,isBeach", "true,false"));
+        assertThrows(IllegalArgumentException.class,
+                () -> importText(PreferenceImportService.Format.CSV, "userId,isSmoker,is_smoker", "1,1,1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PreferenceImportService.Format.resolve("xml", null));
+        assertEquals(PreferenceImportService.Format.CSV, PreferenceImportService.Format.resolve(null, "text/csv"));
+        assertEquals(PreferenceImportService.Format.NDJSON,
+                PreferenceImportService.Format.resolve("jsonl", "text/csv"));
+    }
+
+    private UserPreferDto.ImportResponse importText(PreferenceImportService.Format format, String... lines)
+            throws IOException {
+        byte[] input = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return service.importPreferences(new ByteArrayInputStream(input), format);
+    }
+}
@@ -0,0 +1,139 @@
+package com.goteego.user.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.goteego.user.event.UserEmbeddingChangedEvent;
+import com.goteego.user.similarity.DistanceMetric;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimilarityResultCacheTest {
+
+    private static final long TTL_SECONDS = 60;
+    private static final long ANCHOR = 1L;
+    private static final float[] TARGET = {1, 0};
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private SimilarityResultCache cache;
+    private int loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SimilarityResultCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", TTL_SECONDS);
+        ReflectionTestUtils.setField(cache, "changeLogSize", 4);
+        ReflectionTestUtils.setField(cache, "ticker", (Ticker) nanos::get);
+        cache.initialize();
+    }
+
+    @Test
+    void changeRecordedAfterCachingInvalidatesTheEntry() {
+        get();
+        assertEquals(1, loads);
+
+        // 결과에 들어 있는 사용자 변경
+        changed(3L, null);
+        get();
+        assertEquals(2, loads);
+
+        // 결과 반경 안으로 들어오는 새 벡터
+        changed(8L, new float[]{1, 0.01f});
+        get();
+        assertEquals(3, loads);
+
+        // 기준 사용자 변경
+        changed(ANCHOR, new float[]{0, 1});
+        get();
+        assertEquals(4, loads);
+        assertEquals(3, meterRegistry.get("cache.invalidations").counter().count());
+    }
+
+    @Test
+    void changeToAnUnrelatedUserKeepsTheEntry() {
+        get();
+        changed(9L, new float[]{0, 1});
+        changed(10L, null);
+        get();
+        get();
+        assertEquals(1, loads);
+        assertEquals(0, meterRegistry.get("cache.invalidations").counter().count());
+    }
+
+    @Test
+    void entryExpiresAtTheTtl() {
+        get();
+        nanos.addAndGet(Duration.ofSeconds(TTL_SECONDS).toNanos() - 1);
+        get();
+        assertEquals(1, loads);
+
+        nanos.incrementAndGet();
+        get();
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void changeDuringLoadDropsTheResultOnlyWhenItIsAffected() {
+        get(() -> changed(9L, new float[]{0, 1}));
+        get();
+        assertEquals(1, loads);
+
+        SimilarityResultCache.Key other = SimilarityResultCache.Key.mostSimilarUser(ANCHOR, "memory");
+        cache.get(other, () -> {
+            changed(2L, null);
+            return entry();
+        });
+        cache.get(other, this::entry);
+        assertEquals(3, loads);
+    }
+
+    @Test
+    void entryFallingBehindTheChangeLogOrInvalidateAllIsReloaded() {
+        get();
+        for (long userId = 100; userId < 105; userId++) {
+            changed(userId, new float[]{0, 1});
+        }
+        get();
+        assertEquals(2, loads);
+
+        cache.invalidateAll();
+        get();
+        assertEquals(3, loads);
+    }
+
+    private void get() {
+        get(() -> {
+        });
+    }
+
+    private void get(Runnable duringLoad) {
+        cache.get(SimilarityResultCache.Key.similarUsers(ANCHOR, DistanceMetric.COSINE, 2, "memory", null),
+                () -> {
+                    duringLoad.run();
+                    return entry();
+                });
+    }
+
+    /**
+     * 기준 사용자 1의 결과 (사용자 2, 3, 코사인 거리 0.1까지)
+     */
+    private SimilarityResultCache.Entry entry() {
+        loads++;
+        return new SimilarityResultCache.Entry("result", TARGET, DistanceMetric.COSINE, new long[]{2, 3}, 0.1);
+    }
+
+    private void changed(long userId, float[] vector) {
+        cache.onEmbeddingChanged(vector != null
+                ? UserEmbeddingChangedEvent.saved(userId, vector)
+                : UserEmbeddingChangedEvent.deleted(userId));
+    }
+}
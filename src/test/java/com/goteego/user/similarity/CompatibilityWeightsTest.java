@@ -0,0 +1,36 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompatibilityWeightsTest {
+
+    @Test
+    void rawDistanceSumsWeightedMismatchesAndHardPenalties() {
+        CompatibilityWeights weights = new CompatibilityWeights(new int[]{3, 5, 1}, new int[]{0b010}, 10);
+
+        assertEquals(0, weights.rawDistance(0b111, 0b111));
+        assertEquals(3 + 1, weights.rawDistance(0b000, 0b101));
+        assertEquals(5 + 10, weights.rawDistance(0b000, 0b010));
+        assertEquals(1.0, weights.distance(0b000, 0b111), 1e-12);
+    }
+
+    @Test
+    void rejectsPenaltyThatWouldOverflowDistance() {
+        int[] flagWeights = {255, 255, 255};
+        int[] hardMasks = {0b001, 0b010, 0b100};
+        int maxPenalty = (Integer.MAX_VALUE - 3 * 255) / 3;
+
+        CompatibilityWeights largest = new CompatibilityWeights(flagWeights, hardMasks, maxPenalty);
+        assertTrue(largest.rawDistance(0b000, 0b111) > 0);
+        assertEquals(1.0, largest.distance(0b000, 0b111), 1e-12);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompatibilityWeights(flagWeights, hardMasks, maxPenalty + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompatibilityWeights(flagWeights, hardMasks, Integer.MAX_VALUE));
+    }
+}
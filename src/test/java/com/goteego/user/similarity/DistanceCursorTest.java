@@ -0,0 +1,61 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistanceCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsExactBits() {
+        Random random = new Random(1);
+        double[] distances = {0.0, -0.0, 1.0, Math.nextUp(0.25), Double.MIN_VALUE, Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY, 0.1 + 0.2};
+        for (double distance : distances) {
+            assertRoundTrip(new DistanceCursor(distance, random.nextLong()));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertRoundTrip(new DistanceCursor(random.nextDouble() * 2, random.nextLong()));
+        }
+        assertRoundTrip(DistanceCursor.of(new ScoredUser(Long.MAX_VALUE, 0.5)));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new DistanceCursor(Double.longBitsToDouble(0x3FEFFFFFFFFFFFFFL), -1L).encode();
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void precedesOrdersByDistanceThenUserId() {
+        DistanceCursor cursor = new DistanceCursor(0.5, 100L);
+
+        assertTrue(cursor.precedes(0.6, 1L));
+        assertTrue(cursor.precedes(0.5, 101L));
+        assertFalse(cursor.precedes(0.5, 100L));
+        assertFalse(cursor.precedes(0.5, 99L));
+        assertFalse(cursor.precedes(0.4, 1000L));
+        assertTrue(cursor.precedes(Math.nextUp(0.5), 0L));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String valid = new DistanceCursor(0.5, 1L).encode();
+        String[] invalid = {"", "!!!", valid.substring(1), valid + "AA",
+                new DistanceCursor(Double.NaN, 1L).encode()};
+        for (String cursor : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> DistanceCursor.decode(cursor), cursor);
+        }
+    }
+
+    private static void assertRoundTrip(DistanceCursor cursor) {
+        DistanceCursor decoded = DistanceCursor.decode(cursor.encode());
+        assertEquals(Double.doubleToLongBits(cursor.getDistance()), Double.doubleToLongBits(decoded.getDistance()));
+        assertEquals(cursor.getUserId(), decoded.getUserId());
+    }
+}
@@ -0,0 +1,24 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DistanceMetricTest {
+
+    @Test
+    void fromAcceptsKnownNamesAndDefaultsMissingValuesToCosine() {
+        assertEquals(DistanceMetric.COSINE, DistanceMetric.from("cosine"));
+        assertEquals(DistanceMetric.EUCLIDEAN, DistanceMetric.from(" Euclidean "));
+        assertEquals(DistanceMetric.COSINE, DistanceMetric.from(null));
+        assertEquals(DistanceMetric.COSINE, DistanceMetric.from(""));
+    }
+
+    @Test
+    void fromRejectsUnknownValuesInsteadOfFallingBackToCosine() {
+        // weighted는 /similarity에서만 지원하며, 오타와 함께 코사인으로 바뀌면 안 됨
+        assertThrows(IllegalArgumentException.class, () -> DistanceMetric.from("weighted"));
+        assertThrows(IllegalArgumentException.class, () -> DistanceMetric.from("cosin"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.goteego.user.similarity.RankedResults.assertSameResults;
+import static com.goteego.user.similarity.RankedResults.sortAndLimit;
+import static com.goteego.user.similarity.Vectors.randomVector;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddingMatrixTest {
+
+    private static final int DIMENSIONS = 8;
+
+    @Test
+    void topKEqualsBruteForceSortOnSequentialAndParallelScans() {
+        Random random = new Random(1);
+        // 65,536행 이상이면 청크 단위 병렬 스캔
+        for (int rows : new int[]{500, 70_000}) {
+            EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, rows);
+            float[][] vectors = new float[rows][];
+            for (int i = 0; i < rows; i++) {
+                vectors[i] = randomVector(random, DIMENSIONS);
+                matrix.upsert(i + 1, vectors[i]);
+            }
+
+            for (DistanceMetric metric : DistanceMetric.values()) {
+                for (int q = 0; q < 5; q++) {
+                    float[] query = randomVector(random, DIMENSIONS);
+                    long exclude = 1 + random.nextInt(rows);
+                    List<ScoredUser> expected = bruteForce(vectors, query, metric, 25, exclude);
+                    List<ScoredUser> actual = matrix.topK(query, metric, 25, exclude);
+                    assertSameResults(expected, actual, metric + " rows=" + rows);
+                }
+            }
+        }
+    }
+
+    @Test
+    void limitLargerThanRowCountReturnsEveryRow() {
+        Random random = new Random(2);
+        EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, 4);
+        float[][] vectors = new float[5][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            matrix.upsert(i + 1, vectors[i]);
+        }
+        float[] query = randomVector(random, DIMENSIONS);
+
+        List<ScoredUser> actual = matrix.topK(query, DistanceMetric.COSINE, 1000, 3L);
+        assertEquals(4, actual.size());
+        assertSameResults(bruteForce(vectors, query, DistanceMetric.COSINE, 1000, 3L), actual, "k > rows");
+        assertTrue(new EmbeddingMatrix(DIMENSIONS, 0).topK(query, DistanceMetric.COSINE, 10, -1).isEmpty());
+    }
+
+    @Test
+    void upsertAndRemoveAreReflectedInResults() {
+        Random random = new Random(3);
+        EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, 16);
+        float[][] vectors = new float[100][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            matrix.upsert(i + 1, vectors[i]);
+        }
+        float[] query = randomVector(random, DIMENSIONS);
+
+        vectors[41] = query.clone();
+        matrix.upsert(42L, vectors[41]);
+        assertEquals(42L, matrix.topK(query, DistanceMetric.EUCLIDEAN, 1, -1).get(0).getUserId());
+
+        assertTrue(matrix.remove(42L));
+        assertEquals(99, matrix.size());
+        vectors[41] = null;
+        assertSameResults(bruteForce(vectors, query, DistanceMetric.EUCLIDEAN, 10, -1),
+                matrix.topK(query, DistanceMetric.EUCLIDEAN, 10, -1), "after remove");
+    }
+
+    @Test
+    void topKAmongRanksOnlyCandidatesThatHaveEmbeddings() {
+        Random random = new Random(4);
+        EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, 200);
+        float[][] vectors = new float[200][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            matrix.upsert(i + 1, vectors[i]);
+        }
+        // 짝수 ID만 후보로, 임베딩이 없는 ID(1000)와 제외 대상(2)이 섞여 있음
+        long[] candidateIds = new long[101];
+        for (int i = 0; i < 100; i++) {
+            candidateIds[i] = 2L * (i + 1);
+        }
+        candidateIds[100] = 1000L;
+        float[][] candidates = new float[vectors.length][];
+        for (int i = 1; i < vectors.length; i += 2) {
+            candidates[i] = vectors[i];
+        }
+        float[] query = randomVector(random, DIMENSIONS);
+
+        for (DistanceMetric metric : DistanceMetric.values()) {
+            assertSameResults(bruteForce(candidates, query, metric, 15, 2L),
+                    matrix.topKAmong(query, metric, 15, candidateIds, candidateIds.length, 2L), metric + " among");
+            assertEquals(99, matrix.topKAmong(query, metric, Integer.MAX_VALUE, candidateIds,
+                    candidateIds.length, 2L).size());
+        }
+    }
+
+    @Test
+    void rowsAdmittingAnyMatchesNewTopKMembership() {
+        Random random = new Random(5);
+        int rows = 300;
+        int k = 10;
+        EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, rows);
+        for (int i = 0; i < rows; i++) {
+            matrix.upsert(i + 1, randomVector(random, DIMENSIONS));
+        }
+        for (DistanceMetric metric : DistanceMetric.values()) {
+            NeighborRadii radii = new NeighborRadii(rows);
+            for (long owner = 1; owner <= rows; owner++) {
+                List<ScoredUser> top = matrix.topK(matrix.get(owner), metric, k, owner);
+                radii.put(owner, top.get(k - 1).getDistance(), top.get(k - 1).getUserId());
+            }
+            // 새로 추가된 사용자 3명이 어느 목록에든 들어가는 행만 반환되어야 함
+            EmbeddingMatrix changed = new EmbeddingMatrix(DIMENSIONS, rows + 3);
+            for (long owner = 1; owner <= rows; owner++) {
+                changed.upsert(owner, matrix.get(owner));
+            }
+            float[][] queries = new float[3][];
+            long[] queryIds = {rows + 1, rows + 2, rows + 3};
+            for (int q = 0; q < queries.length; q++) {
+                queries[q] = randomVector(random, DIMENSIONS);
+                changed.upsert(queryIds[q], queries[q]);
+            }
+
+            Set<Long> expected = new HashSet<>();
+            for (long owner = 1; owner <= rows; owner++) {
+                for (ScoredUser neighbor : changed.topK(changed.get(owner), metric, k, owner)) {
+                    if (neighbor.getUserId() > rows) {
+                        expected.add(owner);
+                    }
+                }
+            }
+            Set<Long> actual = new HashSet<>();
+            for (long owner : changed.rowsAdmittingAny(queries, queryIds, metric, radii)) {
+                actual.add(owner);
+            }
+            assertTrue(!expected.isEmpty(), metric.name());
+            assertEquals(expected, actual, metric.name());
+        }
+    }
+
+    @Test
+    void rowsAdmittingAnyIgnoresNeighboursTiedBehindTheKth() {
+        // 0/1 벡터는 같은 벡터가 흔해 K번째 거리가 0인 동점이 자주 생김
+        EmbeddingMatrix matrix = new EmbeddingMatrix(DIMENSIONS, 16);
+        float[] ones = {1, 1, 0, 0, 0, 0, 0, 0};
+        for (long id = 1; id <= 6; id++) {
+            matrix.upsert(id, ones);
+        }
+        NeighborRadii radii = new NeighborRadii(16);
+        for (long id = 1; id <= 6; id++) {
+            List<ScoredUser> top = matrix.topK(ones, DistanceMetric.COSINE, 2, id);
+            radii.put(id, top.get(1).getDistance(), top.get(1).getUserId());
+        }
+
+        // 거리가 0이어도 ID 순으로 K번째 뒤에 서는 사용자는 어느 목록도 바꾸지 않음
+        matrix.upsert(3, ones);
+        assertEquals(0, matrix.rowsAdmittingAny(new float[][]{ones}, new long[]{3}, DistanceMetric.COSINE, radii).length);
+        matrix.upsert(10, ones);
+        assertEquals(0, matrix.rowsAdmittingAny(new float[][]{ones}, new long[]{10}, DistanceMetric.COSINE, radii).length);
+
+        // ID가 가장 작은 사용자는 모든 목록에 들어감
+        matrix.upsert(0, ones);
+        assertEquals(6, matrix.rowsAdmittingAny(new float[][]{ones}, new long[]{0}, DistanceMetric.COSINE, radii).length);
+        // 캐시에 없는 행(10, 0)은 검사하지 않음
+        radii.remove(6);
+        assertEquals(5, matrix.rowsAdmittingAny(new float[][]{ones}, new long[]{0}, DistanceMetric.COSINE, radii).length);
+    }
+
+    /**
+     * 행렬과 같은 커널로 모든 행의 거리를 구해 (거리, 사용자 ID) 순으로 정렬 (사용자 ID는 배열 위치 + 1, null은 삭제된 행)
+     */
+    private static List<ScoredUser> bruteForce(float[][] vectors, float[] query, DistanceMetric metric, int k,
+                                               long excludeUserId) {
+        float queryNorm = VectorKernels.norm(query, 0, DIMENSIONS);
+        List<ScoredUser> all = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            if (vectors[i] == null || i + 1 == excludeUserId) {
+                continue;
+            }
+            double distance = metric == DistanceMetric.COSINE
+                    ? VectorKernels.cosineDistance(query, 0, queryNorm, vectors[i], 0,
+                    VectorKernels.norm(vectors[i], 0, DIMENSIONS), DIMENSIONS)
+                    : VectorKernels.squaredEuclidean(query, 0, vectors[i], 0, DIMENSIONS);
+            all.add(new ScoredUser(i + 1, distance));
+        }
+        List<ScoredUser> top = new ArrayList<>();
+        for (ScoredUser user : sortAndLimit(all, k)) {
+            top.add(metric == DistanceMetric.EUCLIDEAN
+                    ? new ScoredUser(user.getUserId(), Math.sqrt(user.getDistance())) : user);
+        }
+        return top;
+    }
+}
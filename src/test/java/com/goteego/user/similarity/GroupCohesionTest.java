@@ -0,0 +1,149 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.goteego.user.similarity.Vectors.randomVector;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCohesionTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final double EPSILON = 1e-5;
+
+    @Test
+    void summaryMatchesBruteForceThroughAddsRemovesAndReplacements() {
+        Random random = new Random(1);
+        GroupCohesion group = new GroupCohesion(DIMENSIONS);
+        Map<Long, float[]> members = new LinkedHashMap<>();
+
+        for (int step = 0; step < 300; step++) {
+            long userId = 1 + random.nextInt(25);
+            if (random.nextInt(3) == 0) {
+                assertEquals(members.remove(userId) != null, group.remove(userId));
+            } else {
+                float[] embedding = randomVector(random, DIMENSIONS);
+                assertTrue(group.put(userId, embedding));
+                members.put(userId, embedding);
+            }
+            assertSummary(members, group.summary());
+        }
+    }
+
+    @Test
+    void candidateEffectMatchesGroupWithCandidateAdded() {
+        Random random = new Random(2);
+        GroupCohesion group = new GroupCohesion(DIMENSIONS);
+        Map<Long, float[]> members = new LinkedHashMap<>();
+        for (long userId = 1; userId <= 10; userId++) {
+            float[] embedding = randomVector(random, DIMENSIONS);
+            group.put(userId, embedding);
+            members.put(userId, embedding);
+        }
+        group.remove(3L);
+        members.remove(3L);
+
+        float[] candidate = randomVector(random, DIMENSIONS);
+        GroupCohesion.CandidateEffect effect = group.withCandidate(99L, candidate);
+        assertEquals(99L, effect.getUserId());
+        assertSummary(members, effect.getBefore());
+
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        for (float[] member : members.values()) {
+            double similarity = cosine(candidate, member);
+            sum += similarity;
+            min = Math.min(min, similarity);
+        }
+        assertEquals(sum / members.size(), effect.getMeanSimilarityToGroup(), EPSILON);
+        assertEquals(min, effect.getMinSimilarityToGroup(), EPSILON);
+
+        members.put(99L, candidate);
+        assertSummary(members, effect.getAfter());
+        assertFalse(group.contains(99L));
+        assertEquals(9, group.size());
+    }
+
+    @Test
+    void zeroVectorsAndExistingMembersAreRejected() {
+        GroupCohesion group = new GroupCohesion(2);
+        assertTrue(group.put(1L, new float[]{1, 0}));
+        assertTrue(group.put(2L, new float[]{0, 1}));
+
+        assertFalse(group.put(2L, new float[]{0, 0}));
+        assertFalse(group.contains(2L));
+        assertNull(group.withCandidate(1L, new float[]{1, 1}));
+        assertNull(group.withCandidate(3L, new float[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> group.put(4L, new float[]{1, 0, 0}));
+
+        GroupCohesion.Summary single = group.summary();
+        assertEquals(1, single.getMemberCount());
+        assertTrue(Double.isNaN(single.getMeanPairwiseSimilarity()));
+        assertTrue(Double.isNaN(single.getWorstPairSimilarity()));
+        assertEquals(0.0, single.getCentroidSpread(), EPSILON);
+    }
+
+    private static void assertSummary(Map<Long, float[]> members, GroupCohesion.Summary summary) {
+        int count = members.size();
+        assertEquals(count, summary.getMemberCount());
+        if (count < 2) {
+            assertTrue(Double.isNaN(summary.getMeanPairwiseSimilarity()));
+            return;
+        }
+
+        Long[] ids = members.keySet().toArray(new Long[0]);
+        double sum = 0;
+        double worst = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                double similarity = cosine(members.get(ids[i]), members.get(ids[j]));
+                sum += similarity;
+                worst = Math.min(worst, similarity);
+            }
+        }
+        assertEquals(sum / (count * (count - 1) / 2.0), summary.getMeanPairwiseSimilarity(), EPSILON);
+        assertEquals(worst, summary.getWorstPairSimilarity(), EPSILON);
+        assertEquals(worst, cosine(members.get(summary.getWorstPairUserId1()), members.get(summary.getWorstPairUserId2())),
+                EPSILON);
+
+        double[] centroid = new double[DIMENSIONS];
+        for (float[] member : members.values()) {
+            double norm = norm(member);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                centroid[d] += member[d] / norm / count;
+            }
+        }
+        double spread = 0;
+        for (float[] member : members.values()) {
+            double norm = norm(member);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                double diff = member[d] / norm - centroid[d];
+                spread += diff * diff / count;
+            }
+        }
+        assertEquals(spread, summary.getCentroidSpread(), EPSILON);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot / (norm(a) * norm(b));
+    }
+
+    private static double norm(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+}
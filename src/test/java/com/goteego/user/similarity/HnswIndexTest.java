@@ -0,0 +1,164 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.goteego.user.similarity.RankedResults.sortAndLimit;
+import static com.goteego.user.similarity.Vectors.randomVector;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+    private static final int USERS = 2000;
+    private static final int K = 10;
+
+    @Test
+    void searchRecallAgainstBruteForce() {
+        for (DistanceMetric metric : DistanceMetric.values()) {
+            Random random = new Random(1);
+            float[][] vectors = randomVectors(random, USERS);
+            HnswIndex index = build(metric, vectors);
+
+            double recall = 0;
+            int queries = 50;
+            for (int q = 0; q < queries; q++) {
+                float[] query = randomVector(random, DIMENSIONS);
+                List<ScoredUser> expected = bruteForce(vectors, query, metric, -1);
+                List<ScoredUser> actual = index.search(query, metric, K, 100, -1);
+                assertEquals(K, actual.size());
+                recall += overlap(expected, actual) / (double) K;
+                for (int i = 1; i < actual.size(); i++) {
+                    assertTrue(actual.get(i - 1).getDistance() <= actual.get(i).getDistance());
+                }
+                assertEquals(distance(metric, vectors[(int) actual.get(0).getUserId() - 1], query),
+                        actual.get(0).getDistance(), 1e-5);
+            }
+            assertTrue(recall / queries >= 0.95, metric + " recall=" + recall / queries);
+        }
+    }
+
+    @Test
+    void removedAndExcludedUsersAreNotReturned() {
+        Random random = new Random(2);
+        float[][] vectors = randomVectors(random, 500);
+        HnswIndex index = build(DistanceMetric.COSINE, vectors);
+
+        float[] query = vectors[0];
+        assertEquals(1L, index.search(query, DistanceMetric.COSINE, 1, 50, -1).get(0).getUserId());
+        assertTrue(index.search(query, DistanceMetric.COSINE, K, 50, 1L).stream().noneMatch(u -> u.getUserId() == 1L));
+
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+        assertFalse(index.contains(1L));
+        assertNull(index.get(1L));
+        assertEquals(499, index.size());
+        assertTrue(index.search(query, DistanceMetric.COSINE, K, 50, -1).stream().noneMatch(u -> u.getUserId() == 1L));
+        assertTrue(index.deletedRatio() > 0);
+    }
+
+    @Test
+    void upsertReplacesVectorAndCompactionKeepsLiveUsers() {
+        Random random = new Random(3);
+        float[][] vectors = randomVectors(random, 300);
+        HnswIndex index = build(DistanceMetric.EUCLIDEAN, vectors);
+
+        float[] moved = randomVector(random, DIMENSIONS);
+        index.upsert(7L, moved);
+        assertArrayEquals(moved, index.get(7L));
+        assertEquals(300, index.size());
+        assertEquals(7L, index.search(moved, DistanceMetric.EUCLIDEAN, 1, 50, -1).get(0).getUserId());
+
+        index.remove(8L);
+        HnswIndex compacted = index.compactedCopy();
+        assertEquals(299, compacted.size());
+        assertEquals(0.0, compacted.deletedRatio(), 0.0);
+        assertFalse(compacted.contains(8L));
+        assertArrayEquals(moved, compacted.get(7L));
+    }
+
+    @Test
+    void fileRoundTripPreservesSearchResults() throws IOException {
+        Random random = new Random(4);
+        float[][] vectors = randomVectors(random, 300);
+        HnswIndex index = build(DistanceMetric.COSINE, vectors);
+        index.remove(5L);
+
+        Path file = Files.createTempFile("hnsw", ".bin");
+        try {
+            index.writeTo(file);
+            HnswIndex restored = HnswIndex.readFrom(file);
+            assertEquals(index.size(), restored.size());
+            assertEquals(index.m(), restored.m());
+            assertFalse(restored.contains(5L));
+            for (int q = 0; q < 10; q++) {
+                float[] query = randomVector(random, DIMENSIONS);
+                List<ScoredUser> before = index.search(query, DistanceMetric.COSINE, K, 50, -1);
+                List<ScoredUser> after = restored.search(query, DistanceMetric.COSINE, K, 50, -1);
+                assertEquals(before.size(), after.size());
+                for (int i = 0; i < before.size(); i++) {
+                    assertEquals(before.get(i).getUserId(), after.get(i).getUserId());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static HnswIndex build(DistanceMetric metric, float[][] vectors) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, metric, vectors.length);
+        for (int i = 0; i < vectors.length; i++) {
+            index.upsert(i + 1, vectors[i]);
+        }
+        return index;
+    }
+
+    /**
+     * 모든 사용자의 거리를 구해 (거리, 사용자 ID) 순으로 K명 (사용자 ID는 배열 위치 + 1)
+     */
+    private static List<ScoredUser> bruteForce(float[][] vectors, float[] query, DistanceMetric metric, long excludeUserId) {
+        List<ScoredUser> all = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            if (i + 1 != excludeUserId) {
+                all.add(new ScoredUser(i + 1, distance(metric, vectors[i], query)));
+            }
+        }
+        return sortAndLimit(all, K);
+    }
+
+    private static double distance(DistanceMetric metric, float[] a, float[] b) {
+        if (metric == DistanceMetric.COSINE) {
+            return VectorKernels.cosineDistance(a, 0, VectorKernels.norm(a, 0, DIMENSIONS),
+                    b, 0, VectorKernels.norm(b, 0, DIMENSIONS), DIMENSIONS);
+        }
+        return Math.sqrt(VectorKernels.squaredEuclidean(a, 0, b, 0, DIMENSIONS));
+    }
+
+    private static int overlap(List<ScoredUser> expected, List<ScoredUser> actual) {
+        int count = 0;
+        for (ScoredUser e : expected) {
+            if (actual.stream().anyMatch(a -> a.getUserId() == e.getUserId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+        }
+        return vectors;
+    }
+}
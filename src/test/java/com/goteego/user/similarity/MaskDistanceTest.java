@@ -0,0 +1,78 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaskDistanceTest {
+
+    private static final int ALL_FLAGS = (1 << PreferenceBits.FLAG_COUNT) - 1;
+
+    @Test
+    void everyDistanceIsSymmetricAndMapsToSimilarityInUnitRange() {
+        Random random = new Random(1);
+        List<MaskDistance> distances = new ArrayList<>(Arrays.asList(PreferenceMetric.values()));
+        distances.add(randomWeights(random));
+
+        for (MaskDistance distance : distances) {
+            for (int i = 0; i < 5_000; i++) {
+                int a = random.nextInt(ALL_FLAGS + 1);
+                int b = random.nextInt(ALL_FLAGS + 1);
+                double ab = distance.distance(a, b);
+                assertEquals(ab, distance.distance(b, a), 0.0, distance + " symmetry");
+                if (Double.isNaN(ab)) {
+                    continue;
+                }
+                assertEquals(0.0, distance.distance(a, a), 1e-12, distance + " identity");
+                assertEquals(1.0, distance.toSimilarity(distance.distance(a, a)), 1e-12, distance + " identity");
+                double similarity = distance.toSimilarity(ab);
+                assertTrue(similarity >= 0.0 && similarity <= 1.0, distance + " similarity=" + similarity);
+            }
+        }
+    }
+
+    @Test
+    void weightedRawDistanceMatchesPerFlagSum() {
+        Random random = new Random(2);
+        for (int w = 0; w < 20; w++) {
+            int[] flagWeights = new int[PreferenceBits.FLAG_COUNT];
+            for (int flag = 0; flag < flagWeights.length; flag++) {
+                flagWeights[flag] = random.nextInt(CompatibilityWeights.MAX_WEIGHT + 1);
+            }
+            int[] hardMasks = {random.nextInt(ALL_FLAGS + 1), random.nextInt(ALL_FLAGS + 1)};
+            int hardPenalty = random.nextInt(1_000);
+            CompatibilityWeights weights = new CompatibilityWeights(flagWeights, hardMasks, hardPenalty);
+
+            for (int i = 0; i < 1_000; i++) {
+                int a = random.nextInt(ALL_FLAGS + 1);
+                int b = random.nextInt(ALL_FLAGS + 1);
+                int expected = 0;
+                for (int flag = 0; flag < flagWeights.length; flag++) {
+                    if (((a ^ b) & (1 << flag)) != 0) {
+                        expected += flagWeights[flag];
+                    }
+                }
+                for (int hardMask : hardMasks) {
+                    if (((a ^ b) & hardMask) != 0) {
+                        expected += hardPenalty;
+                    }
+                }
+                assertEquals(expected, weights.rawDistance(a, b));
+            }
+        }
+    }
+
+    private static CompatibilityWeights randomWeights(Random random) {
+        int[] flagWeights = new int[PreferenceBits.FLAG_COUNT];
+        for (int flag = 0; flag < flagWeights.length; flag++) {
+            flagWeights[flag] = 1 + random.nextInt(CompatibilityWeights.MAX_WEIGHT);
+        }
+        return new CompatibilityWeights(flagWeights, new int[]{0b11}, 100);
+    }
+}
@@ -0,0 +1,77 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreferenceBitsTest {
+
+    private static final int ALL_FLAGS = (1 << PreferenceBits.FLAG_COUNT) - 1;
+
+    @Test
+    void popcountMetricsMatchSetArithmeticOnVectors() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            int a = random.nextInt(ALL_FLAGS + 1) & randomSparsity(random);
+            int b = random.nextInt(ALL_FLAGS + 1) & randomSparsity(random);
+            float[] va = PreferenceBits.toVector(a, 30);
+            float[] vb = PreferenceBits.toVector(b, 30);
+
+            double dot = 0;
+            double countA = 0;
+            double countB = 0;
+            int union = 0;
+            int differing = 0;
+            for (int d = 0; d < va.length; d++) {
+                dot += va[d] * vb[d];
+                countA += va[d];
+                countB += vb[d];
+                union += va[d] > 0 || vb[d] > 0 ? 1 : 0;
+                differing += va[d] != vb[d] ? 1 : 0;
+            }
+
+            assertEquals(union == 0 ? 1.0 : dot / union, PreferenceBits.jaccard(a, b), 1e-12);
+            assertEquals(differing, PreferenceBits.hamming(a, b));
+            double cosine = countA == 0 || countB == 0 ? 0.0 : dot / Math.sqrt(countA * countB);
+            assertEquals(cosine, PreferenceBits.cosine(a, b), 1e-12);
+            if (countA > 0 && countB > 0) {
+                assertEquals(1.0 - cosine, PreferenceMetric.COSINE.distance(a, b), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void edgeCasesAndVectorLayout() {
+        assertEquals(1.0, PreferenceBits.jaccard(0, 0), 0.0);
+        assertEquals(0.0, PreferenceBits.cosine(0, 0b101), 0.0);
+        assertTrue(Double.isNaN(PreferenceMetric.COSINE.distance(0, 0b101)));
+        assertEquals(PreferenceBits.FLAG_COUNT, PreferenceBits.hamming(0, ALL_FLAGS));
+        assertEquals(0.0, PreferenceMetric.HAMMING.toSimilarity(PreferenceBits.FLAG_COUNT), 1e-12);
+
+        float[] vector = PreferenceBits.toVector(0b101 | 1 << (PreferenceBits.FLAG_COUNT - 1), 30);
+        assertEquals(30, vector.length);
+        assertEquals(1f, vector[0], 0f);
+        assertEquals(0f, vector[1], 0f);
+        assertEquals(1f, vector[2], 0f);
+        assertEquals(1f, vector[PreferenceBits.FLAG_COUNT - 1], 0f);
+        assertEquals(0f, vector[PreferenceBits.FLAG_COUNT], 0f);
+        assertEquals(2, PreferenceBits.toVector(0b111, 2).length);
+    }
+
+    /**
+     * 빈 마스크와 조밀한 마스크가 모두 나오도록 무작위 비트를 한 번 더 거름
+     */
+    private static int randomSparsity(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return 0;
+            case 1:
+                return random.nextInt(ALL_FLAGS + 1);
+            default:
+                return ALL_FLAGS;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PreferenceCooccurrenceTest {
+
+    private static final int FLAGS = PreferenceBits.FLAG_COUNT;
+    private static final int ALL_FLAGS = (1 << FLAGS) - 1;
+
+    @Test
+    void incrementalUpdatesMatchRecountFromMasks() {
+        Random random = new Random(1);
+        Map<Long, Integer> masks = new HashMap<>();
+        PreferenceCooccurrence incremental = new PreferenceCooccurrence();
+
+        for (int step = 0; step < 20_000; step++) {
+            long userId = random.nextInt(300);
+            Integer previous = masks.get(userId);
+            // 신규/변경/삭제/같은 값 재저장이 모두 섞이도록
+            Integer next = random.nextInt(5) == 0 ? null
+                    : previous != null && random.nextInt(5) == 0 ? previous
+                    : random.nextInt(ALL_FLAGS + 1) & random.nextInt(ALL_FLAGS + 1);
+            incremental.update(previous, next);
+            if (next == null) {
+                masks.remove(userId);
+            } else {
+                masks.put(userId, next);
+            }
+
+            if (step % 1_000 == 0) {
+                assertMatchesBruteForce(masks, incremental);
+            }
+        }
+        assertMatchesBruteForce(masks, incremental);
+    }
+
+    @Test
+    void addAggregatesMaskDistributionWithMultiplicity() {
+        PreferenceCooccurrence cooccurrence = new PreferenceCooccurrence();
+        cooccurrence.add(0b011, 3);
+        cooccurrence.add(0b110, 2);
+        cooccurrence.add(0, 4);
+        cooccurrence.update(null, null);
+
+        assertEquals(9, cooccurrence.getTotal());
+        long[] counts = cooccurrence.counts();
+        assertEquals(3, counts[0]);
+        assertEquals(5, counts[1]);
+        assertEquals(2, counts[2]);
+        long[][] matrix = cooccurrence.matrix();
+        assertEquals(3, matrix[0][1]);
+        assertEquals(3, matrix[1][0]);
+        assertEquals(2, matrix[1][2]);
+        assertEquals(0, matrix[0][2]);
+
+        PreferenceCooccurrence other = new PreferenceCooccurrence();
+        other.add(0b011, 3);
+        other.add(0b110, 2);
+        assertEquals(1, cooccurrence.differences(other));
+    }
+
+    private static void assertMatchesBruteForce(Map<Long, Integer> masks, PreferenceCooccurrence incremental) {
+        PreferenceCooccurrence recount = new PreferenceCooccurrence();
+        long[][] expected = new long[FLAGS][FLAGS];
+        for (int mask : masks.values()) {
+            recount.add(mask, 1);
+            for (int i = 0; i < FLAGS; i++) {
+                for (int j = 0; j < FLAGS; j++) {
+                    if ((mask & (1 << i)) != 0 && (mask & (1 << j)) != 0) {
+                        expected[i][j]++;
+                    }
+                }
+            }
+        }
+
+        assertEquals(masks.size(), incremental.getTotal());
+        assertEquals(0, incremental.differences(recount));
+        long[][] actual = incremental.matrix();
+        for (int i = 0; i < FLAGS; i++) {
+            assertArrayEquals(expected[i], actual[i], "row " + i);
+            assertEquals(expected[i][i], incremental.counts()[i]);
+        }
+    }
+}
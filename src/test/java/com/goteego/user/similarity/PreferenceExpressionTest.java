@@ -0,0 +1,167 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreferenceExpressionTest {
+
+    /**
+     * a, b, c, ... 를 0, 1, 2, ... 번 비트로 변환 (알 수 없는 이름은 -1)
+     */
+    private static final ToIntFunction<String> FLAGS = name ->
+            name.length() == 1 && name.charAt(0) >= 'a' && name.charAt(0) < 'a' + PreferenceBits.FLAG_COUNT
+                    ? name.charAt(0) - 'a' : -1;
+
+    private static final int A = 1, B = 1 << 1, C = 1 << 2, D = 1 << 3;
+
+    private static PreferenceExpression parse(String text) {
+        return PreferenceExpression.parse(text, FLAGS);
+    }
+
+    @Test
+    void notBindsTighterThanAndWhichBindsTighterThanOr() {
+        PreferenceExpression expression = parse("a OR b AND NOT c");
+        for (int mask = 0; mask < 16; mask++) {
+            boolean expected = (mask & A) != 0 || ((mask & B) != 0 && (mask & C) == 0);
+            assertEquals(expected, expression.matches(mask), "mask=" + mask);
+        }
+        assertEquals("a OR b AND NOT c", expression.toString());
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        PreferenceExpression expression = parse("(a OR b) AND NOT (c AND d)");
+        for (int mask = 0; mask < 16; mask++) {
+            boolean expected = (mask & (A | B)) != 0 && (mask & (C | D)) != (C | D);
+            assertEquals(expected, expression.matches(mask), "mask=" + mask);
+        }
+        assertEquals(A | B | C | D, expression.referencedMask());
+    }
+
+    @Test
+    void symbolsAndKeywordsAreEquivalent() {
+        String[][] pairs = {
+                {"a AND b OR NOT c", "a & b | !c"},
+                {"a and (b or c)", "a && (b || c)"},
+                {"NOT NOT a", "!!a"},
+        };
+        for (String[] pair : pairs) {
+            PreferenceExpression keyword = parse(pair[0]);
+            PreferenceExpression symbol = parse(pair[1]);
+            for (int mask = 0; mask < 16; mask++) {
+                assertEquals(keyword.matches(mask), symbol.matches(mask), pair[0] + " / " + pair[1]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        String[] invalid = {
+                "", "   ", "(a AND b", "a AND b)", "a AND", "a OR", "NOT", "a NOT b", "AND a",
+                "a b", "()", "a AND zz", "a = b", "a AND 1",
+        };
+        for (String text : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> parse(text), text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> parse(null));
+        assertThrows(IllegalArgumentException.class, () -> parse("a OR ".repeat(PreferenceExpression.MAX_LENGTH)));
+    }
+
+    @Test
+    void matchesAndEvaluateAgreeWithBruteForceOnRandomMasks() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            String text = randomExpression(random, 4);
+            PreferenceExpression expression = parse(text);
+
+            int[] masks = new int[64 * 3];
+            for (int i = 0; i < masks.length; i++) {
+                masks[i] = random.nextInt(1 << PreferenceBits.FLAG_COUNT);
+            }
+            long[][] flagBits = new long[PreferenceBits.FLAG_COUNT][masks.length / 64];
+            for (int i = 0; i < masks.length; i++) {
+                for (int bit = 0; bit < PreferenceBits.FLAG_COUNT; bit++) {
+                    if ((masks[i] & (1 << bit)) != 0) {
+                        flagBits[bit][i >>> 6] |= 1L << (i & 63);
+                    }
+                }
+            }
+
+            for (int word = 0; word < masks.length / 64; word++) {
+                long rows = expression.evaluate(flagBits, word);
+                for (int j = 0; j < 64; j++) {
+                    int mask = masks[word * 64 + j];
+                    boolean expected = bruteForce(text, mask);
+                    assertEquals(expected, expression.matches(mask), text + " mask=" + mask);
+                    assertEquals(expected, (rows & (1L << j)) != 0, text + " row=" + (word * 64 + j));
+                }
+            }
+        }
+    }
+
+    @Test
+    void toStringReparsesToEquivalentExpression() {
+        Random random = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            PreferenceExpression expression = parse(randomExpression(random, 4));
+            PreferenceExpression reparsed = parse(expression.toString());
+            for (int mask = 0; mask < 1 << 6; mask++) {
+                assertEquals(expression.matches(mask), reparsed.matches(mask), expression.toString());
+            }
+            assertTrue(expression.referencedMask() == reparsed.referencedMask());
+        }
+        assertFalse(parse("a AND NOT a").matches(A));
+    }
+
+    /**
+     * 괄호로 모든 연산을 감싼 무작위 식 (연산자 우선순위에 의존하지 않는 기준값 계산용)
+     */
+    static String randomExpression(Random random, int depth) {
+        int choice = depth == 0 ? 0 : random.nextInt(4);
+        switch (choice) {
+            case 1:
+                return "(NOT " + randomExpression(random, depth - 1) + ")";
+            case 2:
+                return "(" + randomExpression(random, depth - 1) + " AND " + randomExpression(random, depth - 1) + ")";
+            case 3:
+                return "(" + randomExpression(random, depth - 1) + " OR " + randomExpression(random, depth - 1) + ")";
+            default:
+                return String.valueOf((char) ('a' + random.nextInt(6)));
+        }
+    }
+
+    /**
+     * randomExpression()이 만든 완전 괄호 식을 직접 계산
+     */
+    static boolean bruteForce(String text, int mask) {
+        int[] position = {0};
+        return evaluate(text, mask, position);
+    }
+
+    private static boolean evaluate(String text, int mask, int[] position) {
+        if (text.charAt(position[0]) != '(') {
+            int bit = text.charAt(position[0]++) - 'a';
+            return (mask & (1 << bit)) != 0;
+        }
+        position[0]++;
+        if (text.startsWith("NOT ", position[0])) {
+            position[0] += 4;
+            boolean operand = evaluate(text, mask, position);
+            position[0]++;
+            return !operand;
+        }
+        boolean left = evaluate(text, mask, position);
+        boolean and = text.startsWith(" AND ", position[0]);
+        position[0] += and ? 5 : 4;
+        boolean right = evaluate(text, mask, position);
+        position[0]++;
+        return and ? left && right : left || right;
+    }
+}
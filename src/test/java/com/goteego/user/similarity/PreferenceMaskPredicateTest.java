@@ -0,0 +1,82 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreferenceMaskPredicateTest {
+
+    private static PreferenceExpression parse(String text) {
+        return PreferenceExpression.parse(text, name ->
+                name.length() == 1 && name.charAt(0) >= 'a' && name.charAt(0) < 'a' + PreferenceBits.FLAG_COUNT
+                        ? name.charAt(0) - 'a' : -1);
+    }
+
+    @Test
+    void compiledPredicateMatchesExpressionOnRandomMasks() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            PreferenceExpression expression = parse(PreferenceExpressionTest.randomExpression(random, 3));
+            PreferenceMaskPredicate predicate;
+            try {
+                predicate = PreferenceMaskPredicate.compile(expression);
+            } catch (IllegalArgumentException tooComplex) {
+                continue;
+            }
+            for (int mask = 0; mask < 1 << 6; mask++) {
+                assertEquals(expression.matches(mask), predicate.matches(mask), expression + " mask=" + mask);
+            }
+        }
+    }
+
+    @Test
+    void negationIsPushedDownToFlags() {
+        PreferenceMaskPredicate predicate = PreferenceMaskPredicate.compile(parse("NOT (a OR b) AND c"));
+
+        assertEquals(1, predicate.termCount());
+        assertEquals(0b100, predicate.getMustMask(0));
+        assertEquals(0b011, predicate.getMustNotMask(0));
+        assertEquals("((preference_mask & ?) = ? AND (preference_mask & ?) = 0)", predicate.toSql("preference_mask")
+                .replaceAll("^\\(|\\)$", ""));
+        assertEquals(List.of(0b100, 0b100, 0b011), predicate.parameters());
+    }
+
+    @Test
+    void contradictionsAndTautologiesBecomeConstantSql() {
+        PreferenceMaskPredicate contradiction = PreferenceMaskPredicate.compile(parse("a AND NOT a"));
+        assertEquals(0, contradiction.termCount());
+        assertEquals("FALSE", contradiction.toSql("preference_mask"));
+        assertFalse(contradiction.matches(0b1));
+
+        assertEquals("FALSE", PreferenceMaskPredicate.of(0b1, 0b1).toSql("preference_mask"));
+
+        PreferenceMaskPredicate unconstrained = PreferenceMaskPredicate.of(0, 0);
+        assertEquals("TRUE", unconstrained.toSql("preference_mask"));
+        assertTrue(unconstrained.parameters().isEmpty());
+        assertTrue(unconstrained.matches(0));
+
+        PreferenceMaskPredicate tautology = PreferenceMaskPredicate.compile(parse("NOT (a AND NOT a)"));
+        for (int mask = 0; mask < 4; mask++) {
+            assertTrue(tautology.matches(mask));
+        }
+    }
+
+    @Test
+    void rejectsExpressionsThatExpandPastMaxTerms() {
+        // (a OR b) AND (c OR d) AND ... 는 항이 2^7 = 128개로 펼쳐짐
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            if (i > 0) {
+                text.append(" AND ");
+            }
+            text.append('(').append((char) ('a' + 2 * i)).append(" OR ").append((char) ('a' + 2 * i + 1)).append(')');
+        }
+        assertThrows(IllegalArgumentException.class, () -> PreferenceMaskPredicate.compile(parse(text.toString())));
+    }
+}
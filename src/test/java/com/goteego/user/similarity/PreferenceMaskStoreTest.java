@@ -0,0 +1,209 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static com.goteego.user.similarity.RankedResults.assertSameResults;
+import static com.goteego.user.similarity.RankedResults.sortAndLimit;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreferenceMaskStoreTest {
+
+    @Test
+    void topKEqualsBruteForceSortOnSequentialAndParallelScans() {
+        Random random = new Random(1);
+        // 262,144행 이상이면 65,536행 청크 단위 병렬 스캔 후 병합
+        for (int rows : new int[]{1000, 300_000}) {
+            PreferenceMaskStore store = new PreferenceMaskStore(rows);
+            int[] masks = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                masks[i] = random.nextInt(1 << PreferenceBits.FLAG_COUNT);
+                store.upsert(i + 1, masks[i]);
+            }
+            for (PreferenceMetric metric : PreferenceMetric.values()) {
+                int target = random.nextInt(1 << PreferenceBits.FLAG_COUNT);
+                long exclude = 1 + random.nextInt(rows);
+                assertSameResults(bruteForce(masks, target, metric, 20, exclude),
+                        store.topK(target, metric, 20, exclude), metric + " rows=" + rows);
+            }
+        }
+    }
+
+    @Test
+    void limitLargerThanRowCountAndRemovals() {
+        PreferenceMaskStore store = new PreferenceMaskStore(4);
+        int[] masks = {0b0011, 0b0110, 0b1100, 0b1001, 0b1111};
+        for (int i = 0; i < masks.length; i++) {
+            store.upsert(i + 1, masks[i]);
+        }
+        assertEquals(5, store.topK(0b0011, PreferenceMetric.HAMMING, Integer.MAX_VALUE, -1).size());
+
+        store.remove(1L);
+        assertFalse(store.contains(1L));
+        assertEquals(LongIntHashMap.MISSING, store.get(1L));
+        masks[0] = -1;
+        assertSameResults(bruteForce(masks, 0b0011, PreferenceMetric.JACCARD, 10, -1),
+                store.topK(0b0011, PreferenceMetric.JACCARD, 10, -1), "after remove");
+    }
+
+    @Test
+    void matchingEqualsPerMaskFilterAfterRandomUpsertsAndRemoves() {
+        Random random = new Random(2);
+        int flags = (1 << PreferenceBits.FLAG_COUNT) - 1;
+        // 초기 용량 16에서 시작해 여러 번 늘어나고, 삭제마다 마지막 행이 빈자리로 이동
+        PreferenceMaskStore store = new PreferenceMaskStore(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int op = 1; op <= 200_000; op++) {
+            long userId = 1 + random.nextInt(5_000);
+            if (random.nextInt(10) < 6) {
+                int mask = random.nextInt(flags + 1);
+                store.upsert(userId, mask);
+                reference.put(userId, mask);
+            } else {
+                assertEquals(reference.remove(userId) != null, store.remove(userId));
+            }
+            if (op % 20_000 == 0) {
+                assertEquals(reference.size(), store.size());
+                for (int q = 0; q < 20; q++) {
+                    int required = random.nextInt(flags + 1) & random.nextInt(flags + 1);
+                    int excluded = random.nextInt(flags + 1) & random.nextInt(flags + 1) & ~required;
+                    assertMatching(reference, store, required, excluded, "op=" + op);
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchingFollowsSwapRemoveOfLastAndMiddleRows() {
+        PreferenceMaskStore store = new PreferenceMaskStore(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        // 64행 단위 word 경계를 넘도록 100명 추가 (용량도 여러 번 늘어남)
+        for (long userId = 1; userId <= 100; userId++) {
+            int mask = (int) (userId * 2_654_435_761L) & ((1 << PreferenceBits.FLAG_COUNT) - 1);
+            store.upsert(userId, mask);
+            reference.put(userId, mask);
+        }
+        int required = 1;
+        int excluded = 1 << 1;
+
+        // 마지막 행 삭제 (이동 없음)
+        assertTrue(store.remove(100L));
+        reference.remove(100L);
+        assertMatching(reference, store, required, excluded, "last row");
+        // 중간 행 삭제 (마지막 행 99가 50의 자리로 이동하고 마지막 자리 비트는 지워져야 함)
+        assertTrue(store.remove(50L));
+        reference.remove(50L);
+        assertMatching(reference, store, required, excluded, "middle row");
+        for (int flag = 0; flag < PreferenceBits.FLAG_COUNT; flag++) {
+            assertMatching(reference, store, 1 << flag, 0, "middle row");
+            assertMatching(reference, store, 0, 1 << flag, "middle row");
+        }
+        // 이동한 행의 마스크를 바꾸면 새 자리의 비트가 갱신되어야 함
+        store.upsert(99L, required);
+        reference.put(99L, required);
+        assertMatching(reference, store, required, excluded, "moved row updated");
+        // 삭제된 자리에 다시 추가
+        store.upsert(50L, required | excluded);
+        reference.put(50L, required | excluded);
+        assertMatching(reference, store, required, excluded, "re-added");
+        assertMatching(reference, store, excluded, 0, "re-added");
+        assertFalse(store.remove(100L));
+    }
+
+    @Test
+    void expressionPagesCoverEveryMatchInAscendingIdsAndCountMatches() {
+        Random random = new Random(3);
+        ToIntFunction<String> flags = name -> name.charAt(0) - 'a';
+        PreferenceMaskStore store = new PreferenceMaskStore(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        // 행 순서가 사용자 ID 순서와 다르도록 흩어진 ID로 추가
+        for (int i = 0; i < 3_000; i++) {
+            long userId = 1 + random.nextInt(1_000_000);
+            int mask = random.nextInt(1 << PreferenceBits.FLAG_COUNT);
+            store.upsert(userId, mask);
+            reference.put(userId, mask);
+        }
+        String[] expressions = {"a", "NOT a", "a AND NOT b", "c OR (d AND NOT e)", "NOT (a OR b OR c)"};
+
+        for (int round = 0; round < 2; round++) {
+            for (String text : expressions) {
+                PreferenceExpression expression = PreferenceExpression.parse(text, flags);
+                long[] expected = reference.entrySet().stream()
+                        .filter(entry -> expression.matches(entry.getValue()))
+                        .mapToLong(Map.Entry::getKey)
+                        .sorted()
+                        .toArray();
+                assertEquals(expected.length, store.count(expression), text + " round=" + round);
+                for (int limit : new int[]{1, 7, 250}) {
+                    assertArrayEquals(expected, pageThrough(store, expression, limit),
+                            text + " round=" + round + " limit=" + limit);
+                }
+            }
+            // 두 번째 라운드는 절반을 삭제한 뒤 (마지막 행 이동과 빈 word 경계 포함) 다시 확인
+            for (Long userId : new ArrayList<>(reference.keySet())) {
+                if (random.nextBoolean()) {
+                    assertTrue(store.remove(userId));
+                    reference.remove(userId);
+                }
+            }
+        }
+        assertEquals(0, store.matching(PreferenceExpression.parse("a", flags), Long.MIN_VALUE, 0).length);
+    }
+
+    /**
+     * afterUserId 커서로 끝까지 페이지를 넘기며 모은 ID (페이지 안과 페이지 사이 모두 오름차순이어야 함)
+     */
+    private static long[] pageThrough(PreferenceMaskStore store, PreferenceExpression expression, int limit) {
+        List<Long> collected = new ArrayList<>();
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long[] page = store.matching(expression, after, limit);
+            assertTrue(page.length <= limit);
+            for (long userId : page) {
+                assertTrue(userId > after, "ids must ascend without duplicates: " + userId + " after " + after);
+                collected.add(userId);
+                after = userId;
+            }
+            if (page.length < limit) {
+                return collected.stream().mapToLong(Long::longValue).toArray();
+            }
+        }
+    }
+
+    private static void assertMatching(Map<Long, Integer> reference, PreferenceMaskStore store,
+                                       int required, int excluded, String message) {
+        long[] expected = reference.entrySet().stream()
+                .filter(entry -> (entry.getValue() & required) == required && (entry.getValue() & excluded) == 0)
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+        long[] actual = store.matching(required, excluded);
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual, message + " required=" + required + " excluded=" + excluded);
+    }
+
+    /**
+     * 사용자 ID는 배열 위치 + 1, 마스크가 -1이면 삭제된 사용자
+     */
+    private static List<ScoredUser> bruteForce(int[] masks, int target, PreferenceMetric metric, int k,
+                                               long excludeUserId) {
+        List<ScoredUser> all = new ArrayList<>();
+        for (int i = 0; i < masks.length; i++) {
+            double distance = masks[i] == -1 ? Double.NaN : metric.distance(target, masks[i]);
+            if (i + 1 != excludeUserId && !Double.isNaN(distance)) {
+                all.add(new ScoredUser(i + 1, distance));
+            }
+        }
+        return sortAndLimit(all, k);
+    }
+}
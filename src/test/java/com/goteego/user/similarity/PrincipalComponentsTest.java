@@ -0,0 +1,156 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalComponentsTest {
+
+    private static final int FLAGS = 8;
+
+    @Test
+    void componentsAreOrthonormalEigenvectorsOfCovariance() {
+        int[] masks = randomMasks(new Random(1), 5000);
+        PrincipalComponents pca = PrincipalComponents.fit(masks, masks.length, FLAGS, FLAGS);
+        double[][] covariance = covariance(masks);
+        double[] components = pca.components();
+        double[] variances = pca.variances();
+
+        double totalVariance = 0;
+        for (int i = 0; i < FLAGS; i++) {
+            totalVariance += covariance[i][i];
+        }
+        assertEquals(totalVariance, pca.totalVariance(), 1e-9);
+        assertEquals(1.0, pca.explainedVarianceRatio(), 1e-9);
+
+        for (int c = 0; c < FLAGS; c++) {
+            if (c > 0) {
+                assertTrue(variances[c - 1] >= variances[c]);
+            }
+            for (int other = 0; other < FLAGS; other++) {
+                double dot = 0;
+                for (int i = 0; i < FLAGS; i++) {
+                    dot += components[c * FLAGS + i] * components[other * FLAGS + i];
+                }
+                assertEquals(c == other ? 1.0 : 0.0, dot, 1e-9);
+            }
+            // C v = λ v
+            for (int i = 0; i < FLAGS; i++) {
+                double cv = 0;
+                for (int j = 0; j < FLAGS; j++) {
+                    cv += covariance[i][j] * components[c * FLAGS + j];
+                }
+                assertEquals(variances[c] * components[c * FLAGS + i], cv, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void projectedCoordinatesHaveComponentVariance() {
+        int[] masks = randomMasks(new Random(2), 5000);
+        PrincipalComponents pca = PrincipalComponents.fit(masks, masks.length, FLAGS, 3);
+
+        double[] sumSquares = new double[3];
+        for (int mask : masks) {
+            float[] vector = pca.project(mask, 5);
+            assertEquals(5, vector.length);
+            assertEquals(0.0f, vector[3], 0.0f);
+            assertEquals(0.0f, vector[4], 0.0f);
+            for (int c = 0; c < 3; c++) {
+                sumSquares[c] += vector[c] * vector[c];
+            }
+        }
+        for (int c = 0; c < 3; c++) {
+            assertEquals(pca.variances()[c], sumSquares[c] / masks.length, 1e-4);
+        }
+        assertTrue(pca.explainedVarianceRatio() < 1.0);
+        assertEquals(masks.length, pca.sampleCount());
+    }
+
+    @Test
+    void perfectlyCorrelatedFlagsCollapseIntoOneComponent() {
+        // 0~2번 플래그는 항상 같은 값, 3번 플래그는 표본에서도 정확히 독립, 나머지는 항상 꺼짐
+        int[] masks = new int[4000];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = (i % 2 == 0 ? 0b0111 : 0) | ((i / 2) % 4 == 0 ? 0b1000 : 0);
+        }
+        PrincipalComponents pca = PrincipalComponents.fit(masks, masks.length, FLAGS, 2);
+
+        double[] first = new double[FLAGS];
+        System.arraycopy(pca.components(), 0, first, 0, FLAGS);
+        double inverseSqrt3 = 1.0 / Math.sqrt(3);
+        assertArrayEquals(new float[]{(float) inverseSqrt3, (float) inverseSqrt3, (float) inverseSqrt3, 0, 0, 0, 0, 0},
+                toFloats(first), 1e-6f);
+        assertEquals(1.0, pca.explainedVarianceRatio(), 1e-9);
+    }
+
+    @Test
+    void fitIsDeterministicAndValidatesArguments() {
+        int[] masks = randomMasks(new Random(4), 1000);
+        assertArrayEquals(toFloats(PrincipalComponents.fit(masks, masks.length, FLAGS, 4).components()),
+                toFloats(PrincipalComponents.fit(masks, masks.length, FLAGS, 4).components()));
+
+        assertThrows(IllegalArgumentException.class, () -> PrincipalComponents.fit(masks, masks.length, FLAGS, 0));
+        assertThrows(IllegalArgumentException.class, () -> PrincipalComponents.fit(masks, masks.length, FLAGS, FLAGS + 1));
+        assertThrows(IllegalArgumentException.class, () -> PrincipalComponents.fit(masks, 0, FLAGS, 2));
+    }
+
+    /**
+     * 플래그마다 켜질 확률이 다르고 0/1번 플래그가 상관된 마스크
+     */
+    private static int[] randomMasks(Random random, int count) {
+        int[] masks = new int[count];
+        for (int i = 0; i < count; i++) {
+            int mask = 0;
+            for (int bit = 0; bit < FLAGS; bit++) {
+                if (random.nextDouble() < 0.1 + 0.1 * bit) {
+                    mask |= 1 << bit;
+                }
+            }
+            if ((mask & 1) != 0 && random.nextDouble() < 0.8) {
+                mask |= 0b10;
+            }
+            masks[i] = mask;
+        }
+        return masks;
+    }
+
+    private static double[][] covariance(int[] masks) {
+        double[] mean = new double[FLAGS];
+        for (int mask : masks) {
+            for (int i = 0; i < FLAGS; i++) {
+                mean[i] += (mask >> i) & 1;
+            }
+        }
+        for (int i = 0; i < FLAGS; i++) {
+            mean[i] /= masks.length;
+        }
+        double[][] covariance = new double[FLAGS][FLAGS];
+        for (int mask : masks) {
+            for (int i = 0; i < FLAGS; i++) {
+                for (int j = 0; j < FLAGS; j++) {
+                    covariance[i][j] += (((mask >> i) & 1) - mean[i]) * (((mask >> j) & 1) - mean[j]);
+                }
+            }
+        }
+        for (int i = 0; i < FLAGS; i++) {
+            for (int j = 0; j < FLAGS; j++) {
+                covariance[i][j] /= masks.length;
+            }
+        }
+        return covariance;
+    }
+
+    private static float[] toFloats(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+}
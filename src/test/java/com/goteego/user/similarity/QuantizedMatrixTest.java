@@ -0,0 +1,148 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.goteego.user.similarity.RankedResults.sortAndLimit;
+import static com.goteego.user.similarity.Vectors.randomVector;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantizedMatrixTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void binaryCandidatesEqualBruteForceHammingSort() {
+        Random random = new Random(11);
+        // 131,072행 이상이면 청크 단위 병렬 스캔
+        for (int rows : new int[]{1_000, 140_000}) {
+            QuantizedMatrix matrix = new QuantizedMatrix(Quantization.BINARY, DIMENSIONS, rows);
+            float[][] vectors = new float[rows][];
+            for (int i = 0; i < rows; i++) {
+                vectors[i] = randomVector(random, DIMENSIONS);
+                matrix.upsert(i + 1, vectors[i]);
+            }
+
+            for (int q = 0; q < 3; q++) {
+                float[] query = randomVector(random, DIMENSIONS);
+                long exclude = 1 + random.nextInt(rows);
+                List<ScoredUser> expected = bruteForceHamming(vectors, query, 30, exclude);
+                List<ScoredUser> actual = matrix.candidates(query, DistanceMetric.COSINE, 30, exclude);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getUserId(), actual.get(i).getUserId(), "rows=" + rows + " rank=" + i);
+                    assertEquals(expected.get(i).getDistance(), actual.get(i).getDistance(), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void int8DistancesStayCloseToExactAndCandidatesCoverExactTopK() {
+        Random random = new Random(12);
+        int rows = 2_000;
+        QuantizedMatrix matrix = new QuantizedMatrix(Quantization.INT8, DIMENSIONS, rows);
+        float[][] vectors = new float[rows][];
+        for (int i = 0; i < rows; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            matrix.upsert(i + 1, vectors[i]);
+        }
+
+        for (DistanceMetric metric : DistanceMetric.values()) {
+            for (int q = 0; q < 5; q++) {
+                float[] query = randomVector(random, DIMENSIONS);
+
+                // 행 전체를 후보로 받아 근사 거리와 정확한 거리의 오차를 확인
+                List<ScoredUser> all = matrix.candidates(query, metric, rows, -1);
+                assertEquals(rows, all.size());
+                for (ScoredUser candidate : all) {
+                    double exact = exactDistance(query, vectors[(int) candidate.getUserId() - 1], metric);
+                    double tolerance = metric == DistanceMetric.COSINE ? 0.02 : 0.02 * Math.max(1.0, exact);
+                    assertEquals(exact, candidate.getDistance(), tolerance, metric + " user=" + candidate.getUserId());
+                }
+
+                // 정확한 상위 10명은 근사 상위 40명 안에 모두 들어가야 재정렬로 복원됨
+                Set<Long> candidateIds = new HashSet<>();
+                for (ScoredUser candidate : matrix.candidates(query, metric, 40, -1)) {
+                    candidateIds.add(candidate.getUserId());
+                }
+                for (ScoredUser user : bruteForceExact(vectors, query, metric, 10)) {
+                    assertTrue(candidateIds.contains(user.getUserId()), metric + " missing " + user.getUserId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void countLargerThanRowCountAndRemoveAreHandled() {
+        Random random = new Random(13);
+        for (Quantization quantization : Quantization.values()) {
+            QuantizedMatrix matrix = new QuantizedMatrix(quantization, DIMENSIONS, 0);
+            float[] query = randomVector(random, DIMENSIONS);
+            assertTrue(matrix.candidates(query, DistanceMetric.COSINE, 10, -1).isEmpty());
+
+            for (int i = 1; i <= 5; i++) {
+                matrix.upsert(i, randomVector(random, DIMENSIONS));
+            }
+            matrix.upsert(3L, query.clone());
+            assertEquals(4, matrix.candidates(query, DistanceMetric.EUCLIDEAN, Integer.MAX_VALUE, 1L).size());
+            assertEquals(3L, matrix.candidates(query, DistanceMetric.COSINE, 1, -1).get(0).getUserId());
+
+            assertTrue(matrix.remove(3L));
+            assertFalse(matrix.remove(3L));
+            assertEquals(4, matrix.size());
+            for (ScoredUser candidate : matrix.candidates(query, DistanceMetric.COSINE, 10, -1)) {
+                assertTrue(candidate.getUserId() != 3L, quantization.name());
+            }
+        }
+    }
+
+    /**
+     * 부호 비트의 해밍 거리로 정렬한 기준 결과 (사용자 ID는 배열 위치 + 1)
+     */
+    private static List<ScoredUser> bruteForceHamming(float[][] vectors, float[] query, int k, long excludeUserId) {
+        List<ScoredUser> all = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            if (i + 1 == excludeUserId) {
+                continue;
+            }
+            int distance = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                if ((query[d] > 0f) != (vectors[i][d] > 0f)) {
+                    distance++;
+                }
+            }
+            all.add(new ScoredUser(i + 1, distance));
+        }
+        return sortAndLimit(all, k);
+    }
+
+    /**
+     * 원본 float 벡터로 계산한 정확한 상위 K명
+     */
+    private static List<ScoredUser> bruteForceExact(float[][] vectors, float[] query, DistanceMetric metric, int k) {
+        List<ScoredUser> all = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            all.add(new ScoredUser(i + 1, exactDistance(query, vectors[i], metric)));
+        }
+        return sortAndLimit(all, k);
+    }
+
+    /**
+     * 코사인 거리 또는 유클리드 거리의 제곱 (양자화 행렬이 돌려주는 근사 거리와 같은 척도)
+     */
+    private static double exactDistance(float[] query, float[] vector, DistanceMetric metric) {
+        if (metric == DistanceMetric.COSINE) {
+            return VectorKernels.cosineDistance(query, 0, VectorKernels.norm(query, 0, DIMENSIONS),
+                    vector, 0, VectorKernels.norm(vector, 0, DIMENSIONS), DIMENSIONS);
+        }
+        return VectorKernels.squaredEuclidean(query, 0, vector, 0, DIMENSIONS);
+    }
+}
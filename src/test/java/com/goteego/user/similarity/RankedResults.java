@@ -0,0 +1,36 @@
+package com.goteego.user.similarity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 검색 결과를 전수 정렬한 기준 결과와 비교하는 테스트 도우미
+ * 기준 결과는 검색 구현과 같이 (거리, 사용자 ID) 순으로 정렬
+ */
+final class RankedResults {
+
+    private RankedResults() {
+    }
+
+    /**
+     * (거리, 사용자 ID) 순으로 정렬해 앞에서 K개 (all은 정렬된 상태로 바뀜)
+     */
+    static List<ScoredUser> sortAndLimit(List<ScoredUser> all, int k) {
+        all.sort(Comparator.comparingDouble(ScoredUser::getDistance).thenComparingLong(ScoredUser::getUserId));
+        return new ArrayList<>(all.subList(0, Math.min(k, all.size())));
+    }
+
+    /**
+     * 순위별 사용자 ID와 거리가 정확히 같은지 확인
+     */
+    static void assertSameResults(List<ScoredUser> expected, List<ScoredUser> actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUserId(), actual.get(i).getUserId(), message + " rank=" + i);
+            assertEquals(expected.get(i).getDistance(), actual.get(i).getDistance(), 0.0, message + " rank=" + i);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKHeapTest {
+
+    private static final Comparator<ScoredUser> ORDER = Comparator.comparingDouble(ScoredUser::getDistance)
+            .thenComparingLong(ScoredUser::getUserId);
+
+    @Test
+    void keepsNearestKMatchingSortedBruteForce() {
+        Random random = new Random(5);
+        for (int round = 0; round < 50; round++) {
+            int k = 1 + random.nextInt(20);
+            TopKHeap heap = new TopKHeap(k);
+            List<ScoredUser> all = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                long id = random.nextInt(10_000);
+                // 같은 거리가 자주 나오도록 정밀도를 낮춤
+                double distance = random.nextInt(50) / 10.0;
+                all.add(new ScoredUser(id, distance));
+                heap.offer(id, distance);
+            }
+            all.sort(ORDER);
+
+            List<ScoredUser> result = heap.drainAscending();
+            assertEquals(k, result.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(all.get(i).getUserId(), result.get(i).getUserId(), "round=" + round + " i=" + i);
+                assertEquals(all.get(i).getDistance(), result.get(i).getDistance(), 0.0);
+            }
+            assertEquals(0, heap.size());
+        }
+    }
+
+    @Test
+    void mergeEqualsOfferingEverythingToOneHeap() {
+        Random random = new Random(9);
+        TopKHeap single = new TopKHeap(8);
+        TopKHeap merged = new TopKHeap(8);
+        for (int part = 0; part < 4; part++) {
+            TopKHeap partial = new TopKHeap(8);
+            for (int i = 0; i < 100; i++) {
+                long id = part * 100L + i;
+                double distance = random.nextDouble();
+                single.offer(id, distance);
+                partial.offer(id, distance);
+            }
+            merged.merge(partial);
+        }
+        List<ScoredUser> expected = single.drainAscending();
+        List<ScoredUser> actual = merged.drainAscending();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUserId(), actual.get(i).getUserId());
+        }
+    }
+
+    @Test
+    void worstDistanceAndEdgeCases() {
+        TopKHeap heap = new TopKHeap(2);
+        assertEquals(Double.POSITIVE_INFINITY, heap.worstDistance(), 0.0);
+        assertTrue(heap.offer(1, 0.5));
+        assertTrue(heap.offer(2, 0.2));
+        assertTrue(heap.isFull());
+        assertEquals(0.5, heap.worstDistance(), 0.0);
+        assertFalse(heap.offer(3, 0.9));
+        assertFalse(heap.offer(4, 0.5));
+        assertTrue(heap.offer(0, 0.5));
+        assertFalse(heap.offer(5, Double.NaN));
+
+        TopKHeap empty = new TopKHeap(0);
+        assertFalse(empty.offer(1, 0.1));
+        assertTrue(empty.drainAscending().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TopKHeap(-1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.goteego.user.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorKernelsTest {
+
+    @Test
+    void simdKernelsMatchScalarReferenceForAllTailLengthsAndOffsets() {
+        Random random = new Random(1);
+        for (int length = 0; length <= 70; length++) {
+            for (int offset = 0; offset < 3; offset++) {
+                float[] a = randomVector(random, length + offset);
+                float[] b = randomVector(random, length + 2 * offset);
+                double dot = 0;
+                double squared = 0;
+                for (int i = 0; i < length; i++) {
+                    dot += (double) a[offset + i] * b[2 * offset + i];
+                    double diff = (double) a[offset + i] - b[2 * offset + i];
+                    squared += diff * diff;
+                }
+                double tolerance = 1e-4 * Math.max(1, length);
+                String at = "length=" + length + " offset=" + offset;
+
+                assertEquals(dot, SimdVectorKernels.dot(a, offset, b, 2 * offset, length), tolerance, at);
+                assertEquals(squared, SimdVectorKernels.squaredEuclidean(a, offset, b, 2 * offset, length), tolerance, at);
+                assertEquals(dot, VectorKernels.dot(a, offset, b, 2 * offset, length), tolerance, at);
+                assertEquals(squared, VectorKernels.squaredEuclidean(a, offset, b, 2 * offset, length), tolerance, at);
+            }
+        }
+    }
+
+    @Test
+    void cosineDistanceFollowsPgvectorConventions() {
+        float[] a = {1, 0, 0};
+        float[] b = {0, 2, 0};
+        float[] zero = {0, 0, 0};
+        float aNorm = VectorKernels.norm(a, 0, 3);
+        float bNorm = VectorKernels.norm(b, 0, 3);
+
+        assertEquals(0.0, VectorKernels.cosineDistance(a, 0, aNorm, a, 0, aNorm, 3), 1e-7);
+        assertEquals(1.0, VectorKernels.cosineDistance(a, 0, aNorm, b, 0, bNorm, 3), 1e-7);
+        assertEquals(2.0, VectorKernels.cosineDistance(a, 0, aNorm, new float[]{-3, 0, 0}, 0, 3f, 3), 1e-7);
+        assertTrue(Double.isNaN(VectorKernels.cosineDistance(a, 0, aNorm, zero, 0, 0f, 3)));
+    }
+
+    private static float[] randomVector(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
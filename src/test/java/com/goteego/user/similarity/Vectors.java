@@ -0,0 +1,23 @@
+package com.goteego.user.similarity;
+
+import java.util.Random;
+
+/**
+ * 테스트용 벡터 생성 도우미
+ */
+final class Vectors {
+
+    private Vectors() {
+    }
+
+    /**
+     * 각 차원이 표준 정규분포를 따르는 벡터
+     */
+    static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}